@@ -9,7 +9,7 @@ import java.util.Optional;
 
 /**
  * Inbound port for transaction-related use cases.
- * Defines contracts for deposit, withdrawal, and transaction history operations.
+ * Defines contracts for deposit, withdrawal, transfer, and transaction history operations.
  */
 public interface TransactionUseCase {
     
@@ -36,6 +36,18 @@ public interface TransactionUseCase {
      */
     Optional<Transaction> withdraw(String username, String password, Money amount);
     
+    /**
+     * Transfers money from a user's account to another user's account.
+     * 
+     * @param username The sending username
+     * @param password The password for authentication
+     * @param recipient The receiving username
+     * @param amount The amount to transfer
+     * @return Optional containing the outgoing transaction if successful, empty otherwise
+     * @throws IllegalArgumentException if amount is invalid or recipient is the sender
+     */
+    Optional<Transaction> transfer(String username, String password, String recipient, Money amount);
+    
     /**
      * Gets the current account balance for a user.
      * 
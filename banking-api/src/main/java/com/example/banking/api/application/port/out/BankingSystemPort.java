@@ -51,6 +51,18 @@ public interface BankingSystemPort {
      */
     boolean withdraw(String username, String password, Money amount);
     
+    /**
+     * Transfers money to another user's account in the external banking system.
+     * Both legs are applied atomically by the banking system.
+     * 
+     * @param username The sending username
+     * @param password The password for authentication
+     * @param recipient The receiving username
+     * @param amount The amount to transfer
+     * @return true if transfer was successful, false otherwise
+     */
+    boolean transfer(String username, String password, String recipient, Money amount);
+    
     /**
      * Gets the current balance from the external banking system.
      * 
@@ -52,6 +52,26 @@ public class TransactionService implements TransactionUseCase {
         return Optional.empty();
     }
     
+    @Override
+    public Optional<Transaction> transfer(String username, String password, String recipient, Money amount) {
+        if (amount == null || amount.isZero()) {
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
+        if (recipient == null || recipient.isBlank()) {
+            throw new IllegalArgumentException("Transfer recipient is required");
+        }
+        if (recipient.equals(username)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
+        
+        boolean success = bankingSystemPort.transfer(username, password, recipient, amount);
+        if (success) {
+            return Optional.of(Transaction.transferOut(amount, LocalDateTime.now(), recipient));
+        }
+        
+        return Optional.empty();
+    }
+    
     @Override
     public Optional<Account> getAccount(String username, String password) {
         return bankingSystemPort.authenticateUser(username, password);
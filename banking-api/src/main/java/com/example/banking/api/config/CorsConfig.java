@@ -33,6 +33,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 )
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("X-Head-Sequence", "X-Next-Cursor", "Link")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
@@ -62,6 +63,9 @@ public class CorsConfig implements WebMvcConfigurer {
             "GET", "POST", "PUT", "DELETE", "OPTIONS", "HEAD"
         ));
         
+        // Let the web client read the transaction paging headers
+        configuration.setExposedHeaders(Arrays.asList("X-Head-Sequence", "X-Next-Cursor", "Link"));
+        
         // Allow credentials
         configuration.setAllowCredentials(true);
         
@@ -0,0 +1,116 @@
+package com.example.banking.api.config;
+
+import java.util.Arrays;
+
+/**
+ * Maps request paths to per-route policies through a character trie built once up front.
+ *
+ * Routes are either exact paths or path prefixes. A lookup walks the path one character at
+ * a time and returns the policy of the exact route for the whole path if there is one,
+ * otherwise that of the longest prefix route the path starts with. Lookups allocate nothing
+ * and cost one step per character of the path, however many routes are registered.
+ * The table is immutable once built and safe to share between request threads.
+ *
+ * @param <P> the policy type attached to each route
+ */
+public final class RouteTable<P> {
+
+    private static final class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private Object exact;
+        private Object prefix;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node addChild(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            char[] grownLabels = new char[labels.length + 1];
+            Node[] grownChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, grownLabels, 0, at);
+            System.arraycopy(children, 0, grownChildren, 0, at);
+            grownLabels[at] = c;
+            grownChildren[at] = new Node();
+            System.arraycopy(labels, at, grownLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, grownChildren, at + 1, children.length - at);
+            labels = grownLabels;
+            children = grownChildren;
+            return grownChildren[at];
+        }
+    }
+
+    private final Node root;
+
+    private RouteTable(Node root) {
+        this.root = root;
+    }
+
+    public static <P> Builder<P> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Finds the policy for a request path.
+     *
+     * @param path the path within the application, without query string
+     * @return the matching route's policy, or null when no route matches
+     */
+    @SuppressWarnings("unchecked")
+    public P match(String path) {
+        Node node = root;
+        Object best = node.prefix;
+        for (int i = 0, length = path.length(); i < length; i++) {
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return (P) best;
+            }
+            if (node.prefix != null) {
+                best = node.prefix;
+            }
+        }
+        return (P) (node.exact != null ? node.exact : best);
+    }
+
+    public static final class Builder<P> {
+
+        private final Node root = new Node();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a route for exactly this path.
+         */
+        public Builder<P> exact(String path, P policy) {
+            insert(path).exact = policy;
+            return this;
+        }
+
+        /**
+         * Adds a route for every path starting with this prefix, including the prefix itself.
+         */
+        public Builder<P> prefix(String prefix, P policy) {
+            insert(prefix).prefix = policy;
+            return this;
+        }
+
+        public RouteTable<P> build() {
+            return new RouteTable<>(root);
+        }
+
+        private Node insert(String path) {
+            Node node = root;
+            for (int i = 0; i < path.length(); i++) {
+                node = node.addChild(path.charAt(i));
+            }
+            return node;
+        }
+    }
+}
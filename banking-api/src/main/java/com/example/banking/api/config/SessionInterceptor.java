@@ -1,6 +1,9 @@
 package com.example.banking.api.config;
 
+import com.example.banking.api.service.routing.ClusterRouter;
 import com.example.banking.api.service.session.SessionManager;
+import com.example.banking.api.service.session.SessionToken;
+import com.example.banking.api.service.session.SessionTokenService;
 import com.example.banking.api.domain.model.UserSession;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -11,6 +14,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.Optional;
 
 @Component
@@ -18,9 +23,39 @@ public class SessionInterceptor implements HandlerInterceptor {
     
     private static final Logger logger = LoggerFactory.getLogger(SessionInterceptor.class);
     
+    enum Access { PUBLIC }
+    
+    /**
+     * Endpoints reachable without a session: login, registration and health, plus the
+     * actuator, API docs, Swagger UI and error pages.
+     */
+    static final RouteTable<Access> PUBLIC_ROUTES = RouteTable.<Access>builder()
+        .exact("/api/v1/banking/login", Access.PUBLIC)
+        .exact("/api/v1/banking/register", Access.PUBLIC)
+        .exact("/api/v1/banking/health", Access.PUBLIC)
+        .exact("/health", Access.PUBLIC)
+        .exact("/error", Access.PUBLIC)
+        .exact("/favicon.ico", Access.PUBLIC)
+        .prefix("/actuator/", Access.PUBLIC)
+        .prefix("/swagger-ui", Access.PUBLIC)
+        .prefix("/api-docs", Access.PUBLIC)
+        .prefix("/v3/api-docs", Access.PUBLIC)
+        .prefix("/webjars/", Access.PUBLIC)
+        .build();
+    
+    static final String NODE_HEADER = "X-Banking-Node";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final int SC_MISDIRECTED_REQUEST = 421;
+    
     @Autowired
     private SessionManager sessionManager;
     
+    @Autowired
+    private SessionTokenService sessionTokenService;
+    
+    @Autowired
+    private ClusterRouter clusterRouter;
+    
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         String requestURI = request.getRequestURI();
@@ -33,18 +68,30 @@ public class SessionInterceptor implements HandlerInterceptor {
         // 2. Registration endpoint
         // 3. Public endpoints (health, swagger, etc.)
         // 4. OPTIONS requests (CORS preflight)
-        if (shouldSkipSessionValidation(requestURI, method)) {
+        if (shouldSkipSessionValidation(request, requestURI, method)) {
             logger.debug("Skipping session validation for: {} {}", method, requestURI);
             return true;
         }
         
+        // Signed tokens do not use the HTTP session, but are still checked against the session map
+        String authorization = request.getHeader("Authorization");
+        if (sessionTokenService.isEnabled() && authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            return authenticateToken(authorization.substring(BEARER_PREFIX.length()), request, response);
+        }
+        
         // Get HTTP session
         HttpSession httpSession = request.getSession(false);
         if (httpSession == null) {
+            // A session reloaded from the session store after a restart has no HTTP session;
+            // the client still presents its old session id, which is what it was stored under
+            Optional<UserSession> restoredOpt = Optional.ofNullable(request.getRequestedSessionId())
+                .flatMap(sessionManager::getSession);
+            if (restoredOpt.isPresent()) {
+                request.setAttribute("userSession", restoredOpt.get());
+                return true;
+            }
             logger.warn("No HTTP session found for request: {} {}", method, requestURI);
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.getWriter().write("{\"error\":\"No active session found\"}");
-            response.setContentType("application/json");
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, "No active session found");
             return false;
         }
         
@@ -52,9 +99,7 @@ public class SessionInterceptor implements HandlerInterceptor {
         Optional<UserSession> userSessionOpt = sessionManager.getSession(httpSession);
         if (userSessionOpt.isEmpty()) {
             logger.warn("No valid user session found for sessionId: {}", httpSession.getId());
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.getWriter().write("{\"error\":\"Invalid or expired session\"}");
-            response.setContentType("application/json");
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired session");
             return false;
         }
         
@@ -69,30 +114,70 @@ public class SessionInterceptor implements HandlerInterceptor {
         return true;
     }
     
-    private boolean shouldSkipSessionValidation(String requestURI, String method) {
-        // Skip OPTIONS requests (CORS preflight)
-        if ("OPTIONS".equals(method)) {
-            return true;
+    /**
+     * Authenticates a request by its session token. The signature and expiry are checked from
+     * the token alone, which is enough to redirect a request for another node. On the owning
+     * node the session is still looked up in {@link SessionManager}: it holds the banking
+     * process every operation runs on, and its absence is how a token is revoked, since a
+     * token stays correctly signed until it expires even after logout or an idle timeout.
+     */
+    private boolean authenticateToken(String value, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        Optional<SessionToken> tokenOpt = sessionTokenService.verify(value);
+        if (tokenOpt.isEmpty()) {
+            logger.warn("Rejected invalid or expired session token");
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired session token");
+            return false;
         }
         
-        // Skip login and registration endpoints
-        if (requestURI.matches(".*/api/v1/banking/(login|register)")) {
-            return true;
+        SessionToken token = tokenOpt.get();
+        if (!sessionTokenService.isLocal(token)) {
+            // In router mode send the caller to the owning instance, otherwise tell the load balancer
+            Optional<URI> owner = clusterRouter.redirectToNode(token.getNodeId(), request);
+            response.setHeader(NODE_HEADER, token.getNodeId());
+            if (owner.isPresent()) {
+                response.setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+                response.setHeader("Location", owner.get().toString());
+                return false;
+            }
+            reject(response, SC_MISDIRECTED_REQUEST, "Session belongs to another node");
+            return false;
         }
         
-        // Skip public endpoints
-        if (requestURI.matches(".*/api/v1/banking/health") ||
-            requestURI.matches(".*/health") ||
-            requestURI.matches(".*/actuator/.*") ||
-            requestURI.matches(".*/swagger-ui.*") ||
-            requestURI.matches(".*/api-docs.*") ||
-            requestURI.matches(".*/v3/api-docs.*") ||
-            requestURI.matches(".*/webjars/.*") ||
-            requestURI.matches(".*/favicon.ico") ||
-            requestURI.matches(".*/error")) {
+        Optional<UserSession> userSessionOpt = sessionManager.getSession(token.getSessionId())
+            .filter(session -> session.getUsername().equals(token.getUsername()));
+        if (userSessionOpt.isEmpty()) {
+            logger.warn("No valid user session found for token sessionId: {}", token.getSessionId());
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired session");
+            return false;
+        }
+        
+        request.setAttribute("userSession", userSessionOpt.get());
+        return true;
+    }
+    
+    private static void reject(HttpServletResponse response, int status, String error) throws IOException {
+        response.setStatus(status);
+        response.getWriter().write("{\"error\":\"" + error + "\"}");
+        response.setContentType("application/json");
+    }
+    
+    private boolean shouldSkipSessionValidation(HttpServletRequest request, String requestURI, String method) {
+        // Skip OPTIONS requests (CORS preflight)
+        if ("OPTIONS".equals(method)) {
             return true;
         }
         
-        return false;
+        return PUBLIC_ROUTES.match(applicationPath(request, requestURI)) == Access.PUBLIC;
+    }
+    
+    /**
+     * Strips the servlet context path, so the route table only needs the paths the application maps.
+     */
+    private static String applicationPath(HttpServletRequest request, String requestURI) {
+        String contextPath = request.getContextPath();
+        if (contextPath != null && !contextPath.isEmpty() && requestURI.startsWith(contextPath)) {
+            return requestURI.substring(contextPath.length());
+        }
+        return requestURI;
     }
-}
\ No newline at end of file
+}
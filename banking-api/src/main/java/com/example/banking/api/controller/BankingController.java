@@ -2,10 +2,22 @@ package com.example.banking.api.controller;
 
 import com.example.banking.api.dto.*;
 import com.example.banking.api.model.BankingTransaction;
+import com.example.banking.api.model.BatchItemResult;
 import com.example.banking.api.model.BankingUser;
+import com.example.banking.api.model.TransactionPage;
+import com.example.banking.api.model.TransactionQuery;
 import com.example.banking.api.service.BankingService;
 import com.example.banking.api.service.SessionBankingService;
+import com.example.banking.api.service.concurrent.ServiceOverloadedException;
+import com.example.banking.api.service.events.AccountEvent;
+import com.example.banking.api.service.events.AccountEventBus;
+import com.example.banking.api.service.events.AccountEventStreams;
+import com.example.banking.api.service.events.AccountVersionTracker;
+import com.example.banking.api.service.idempotency.IdempotencyCache;
+import com.example.banking.api.service.routing.ClusterRouter;
 import com.example.banking.api.service.session.SessionManager;
+import com.example.banking.api.service.session.SessionToken;
+import com.example.banking.api.service.session.SessionTokenService;
 import com.example.banking.api.service.process.ProcessSessionManager;
 import com.example.banking.api.domain.model.UserSession;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,14 +28,26 @@ import jakarta.validation.Valid;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 /**
  * REST Controller for Banking operations.
@@ -39,13 +63,60 @@ public class BankingController {
     private final SessionBankingService sessionBankingService;
     private final SessionManager sessionManager;
     private final ProcessSessionManager processSessionManager;
+    private final IdempotencyCache idempotencyCache;
+    private final ObjectMapper objectMapper;
+    private final AccountEventBus accountEventBus;
+    private final AccountEventStreams accountEventStreams;
+    private final AccountVersionTracker accountVersions;
+    private final SessionTokenService sessionTokenService;
+    private final ClusterRouter clusterRouter;
+
+    // Flush the first streamed line immediately, then in batches to limit small writes
+    private static final int STREAM_FLUSH_INTERVAL = 50;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    // Clients may keep account reads but must revalidate them with If-None-Match every time
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    private static final List<String> TRANSACTION_TYPES = List.of("deposit", "withdrawal", "transfer_in", "transfer_out");
 
     @Autowired
-    public BankingController(BankingService bankingService, SessionBankingService sessionBankingService, SessionManager sessionManager, ProcessSessionManager processSessionManager) {
+    public BankingController(BankingService bankingService, SessionBankingService sessionBankingService, SessionManager sessionManager, ProcessSessionManager processSessionManager, IdempotencyCache idempotencyCache, ObjectMapper objectMapper, AccountEventBus accountEventBus, AccountEventStreams accountEventStreams, AccountVersionTracker accountVersions, SessionTokenService sessionTokenService, ClusterRouter clusterRouter) {
         this.bankingService = bankingService;
         this.sessionBankingService = sessionBankingService;
         this.sessionManager = sessionManager;
         this.processSessionManager = processSessionManager;
+        this.idempotencyCache = idempotencyCache;
+        this.objectMapper = objectMapper;
+        this.accountEventBus = accountEventBus;
+        this.accountEventStreams = accountEventStreams;
+        this.accountVersions = accountVersions;
+        this.sessionTokenService = sessionTokenService;
+        this.clusterRouter = clusterRouter;
+    }
+
+    /**
+     * Sends a request for a user owned by another API instance to that instance, if router mode is on.
+     */
+    private <T> Optional<ResponseEntity<T>> redirectToOwner(String username, HttpServletRequest httpRequest) {
+        return clusterRouter.redirectFor(username, httpRequest)
+                .map(location -> ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT).location(location).<T>build());
+    }
+
+    private static <T> CompletableFuture<ResponseEntity<T>> completedStatus(HttpStatus status) {
+        return CompletableFuture.completedFuture(ResponseEntity.status(status).build());
+    }
+
+    /**
+     * Bumps the account versions of the given users if a mutation fails, e.g. times out: the
+     * process may still have applied it, so tags handed out before it must stop matching.
+     */
+    private <T> CompletableFuture<T> bumpOnFailure(CompletableFuture<T> mutation, String... usernames) {
+        return mutation.whenComplete((result, failure) -> {
+            if (failure != null) {
+                for (String username : usernames) {
+                    accountVersions.bump(username);
+                }
+            }
+        });
     }
 
     @RequestMapping(method = RequestMethod.OPTIONS)
@@ -63,10 +134,16 @@ public class BankingController {
     @Operation(summary = "Register new user", description = "Creates a new user account with the provided credentials")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "User registered successfully"),
+        @ApiResponse(responseCode = "307", description = "User belongs to another API instance; repeat the request at Location"),
         @ApiResponse(responseCode = "400", description = "Invalid input data"),
         @ApiResponse(responseCode = "409", description = "Username already exists")
     })
-    public ResponseEntity<com.example.banking.api.dto.ApiResponse> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<com.example.banking.api.dto.ApiResponse> register(@Valid @RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
+        Optional<ResponseEntity<com.example.banking.api.dto.ApiResponse>> redirect = redirectToOwner(request.getUsername(), httpRequest);
+        if (redirect.isPresent()) {
+            return redirect.get();
+        }
+
         boolean success = bankingService.registerUser(request.getUsername(), request.getPassword());
 
         if (success) {
@@ -82,9 +159,17 @@ public class BankingController {
     @Operation(summary = "Authenticate user and create session", description = "Validates user credentials, creates a session, and returns user information with session details")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Authentication successful, session created"),
-        @ApiResponse(responseCode = "401", description = "Invalid credentials")
+        @ApiResponse(responseCode = "307", description = "User belongs to another API instance; repeat the request at Location"),
+        @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+        @ApiResponse(responseCode = "503", description = "Too many sessions or logins in progress; retry after Retry-After seconds")
     })
     public ResponseEntity<SessionResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // The user's process and account state belong to the instance that owns the user
+        Optional<ResponseEntity<SessionResponse>> redirect = redirectToOwner(request.getUsername(), httpRequest);
+        if (redirect.isPresent()) {
+            return redirect.get();
+        }
+
         // Create HTTP session first
         HttpSession httpSession = httpRequest.getSession(true);
 
@@ -92,7 +177,14 @@ public class BankingController {
         UserSession userSession = sessionManager.createSession(request.getUsername(), httpSession);
 
         // Authenticate user and create session process
-        BankingUser user = sessionBankingService.authenticateAndStartSession(userSession, request.getPassword());
+        BankingUser user;
+        try {
+            user = sessionBankingService.authenticateAndStartSession(userSession, request.getPassword());
+        } catch (ServiceOverloadedException e) {
+            // Shed before a process was started; free the session slot for the retry
+            sessionManager.invalidateSession(httpSession);
+            throw e;
+        }
 
         if (user != null) {
             // Calculate session expiration
@@ -105,6 +197,11 @@ public class BankingController {
                 userSession.getCreatedAt(),
                 expiresAt
             );
+            if (sessionTokenService.isEnabled()) {
+                SessionToken token = sessionTokenService.issue(userSession);
+                response.setSessionToken(token.getValue());
+                response.setSessionExpiresAt(LocalDateTime.ofInstant(token.getExpiresAt(), ZoneId.systemDefault()));
+            }
 
             return ResponseEntity.ok(response);
         } else {
@@ -122,24 +219,31 @@ public class BankingController {
     })
     public ResponseEntity<com.example.banking.api.dto.ApiResponse> logout(HttpServletRequest httpRequest) {
         HttpSession httpSession = httpRequest.getSession(false);
-        if (httpSession == null) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(com.example.banking.api.dto.ApiResponse.error("No active session found"));
-        }
         
-        Optional<UserSession> userSessionOpt = sessionManager.getSession(httpSession);
-        if (userSessionOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(com.example.banking.api.dto.ApiResponse.error("No valid session found"));
+        // Token clients have no HTTP session; the interceptor has already resolved theirs
+        UserSession userSession = (UserSession) httpRequest.getAttribute("userSession");
+        if (userSession == null) {
+            if (httpSession == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(com.example.banking.api.dto.ApiResponse.error("No active session found"));
+            }
+            
+            Optional<UserSession> userSessionOpt = sessionManager.getSession(httpSession);
+            if (userSessionOpt.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(com.example.banking.api.dto.ApiResponse.error("No valid session found"));
+            }
+            userSession = userSessionOpt.get();
         }
         
-        UserSession userSession = userSessionOpt.get();
-        
         // Terminate the session process
         processSessionManager.terminateSessionProcess(userSession);
 
-        // Remove session from session manager (this also invalidates the HTTP session)
-        sessionManager.invalidateSession(httpSession);
+        // Remove session from session manager, and the HTTP session if there is one
+        sessionManager.invalidateSession(userSession.getSessionId());
+        if (httpSession != null) {
+            sessionManager.invalidateSession(httpSession);
+        }
         
         return ResponseEntity.ok(com.example.banking.api.dto.ApiResponse.success("Session ended successfully"));
     }
@@ -149,29 +253,30 @@ public class BankingController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Deposit successful"),
         @ApiResponse(responseCode = "401", description = "No valid session found"),
-        @ApiResponse(responseCode = "400", description = "Invalid amount")
+        @ApiResponse(responseCode = "400", description = "Invalid amount"),
+        @ApiResponse(responseCode = "409", description = "Idempotency-Key retried after a failure that may have been applied"),
+        @ApiResponse(responseCode = "422", description = "Idempotency-Key reused for a different request")
     })
-    public ResponseEntity<TransactionResponse> deposit(@Valid @RequestBody SessionTransactionRequest request, HttpServletRequest httpRequest) {
+    public CompletableFuture<ResponseEntity<TransactionResponse>> deposit(@Valid @RequestBody SessionTransactionRequest request,
+                                                                          @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                                          HttpServletRequest httpRequest) {
         // Get user session from request attributes (set by SessionInterceptor)
         UserSession userSession = (UserSession) httpRequest.getAttribute("userSession");
         if (userSession == null) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            return completedStatus(HttpStatus.UNAUTHORIZED);
         }
         
-        boolean success = sessionBankingService.deposit(userSession, request.getAmount());
-
-        if (success) {
-            Double balance = sessionBankingService.getBalance(userSession);
-            TransactionResponse response = new TransactionResponse(
-                    "Deposit",
-                    request.getAmount(),
-                    java.time.LocalDateTime.now(),
-                    balance != null ? balance : 0.0
-            );
-            return ResponseEntity.ok(response);
-        } else {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        if (idempotencyKey == null) {
+            return performDeposit(userSession, request);
         }
+        return idempotencyCache.executeAsync(userSession.getUsername(), idempotencyKey,
+                "deposit:" + request.getAmount(), () -> performDeposit(userSession, request));
+    }
+
+    private CompletableFuture<ResponseEntity<TransactionResponse>> performDeposit(UserSession userSession, SessionTransactionRequest request) {
+        return bumpOnFailure(sessionBankingService.depositAsync(userSession, request.getAmount())
+                .thenCompose(success -> respondToTransaction(userSession, success, "Deposit", request.getAmount())),
+                userSession.getUsername());
     }
 
     @PostMapping("/withdraw")
@@ -179,29 +284,76 @@ public class BankingController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Withdrawal successful"),
         @ApiResponse(responseCode = "401", description = "No valid session found"),
-        @ApiResponse(responseCode = "400", description = "Insufficient funds or invalid amount")
+        @ApiResponse(responseCode = "400", description = "Insufficient funds or invalid amount"),
+        @ApiResponse(responseCode = "409", description = "Idempotency-Key retried after a failure that may have been applied"),
+        @ApiResponse(responseCode = "422", description = "Idempotency-Key reused for a different request")
     })
-    public ResponseEntity<TransactionResponse> withdraw(@Valid @RequestBody SessionTransactionRequest request, HttpServletRequest httpRequest) {
+    public CompletableFuture<ResponseEntity<TransactionResponse>> withdraw(@Valid @RequestBody SessionTransactionRequest request,
+                                                                           @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                                           HttpServletRequest httpRequest) {
         // Get user session from request attributes (set by SessionInterceptor)
         UserSession userSession = (UserSession) httpRequest.getAttribute("userSession");
         if (userSession == null) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            return completedStatus(HttpStatus.UNAUTHORIZED);
         }
         
-        boolean success = sessionBankingService.withdraw(userSession, request.getAmount());
+        if (idempotencyKey == null) {
+            return performWithdrawal(userSession, request);
+        }
+        return idempotencyCache.executeAsync(userSession.getUsername(), idempotencyKey,
+                "withdraw:" + request.getAmount(), () -> performWithdrawal(userSession, request));
+    }
 
-        if (success) {
-            Double balance = sessionBankingService.getBalance(userSession);
+    private CompletableFuture<ResponseEntity<TransactionResponse>> performWithdrawal(UserSession userSession, SessionTransactionRequest request) {
+        return bumpOnFailure(sessionBankingService.withdrawAsync(userSession, request.getAmount())
+                .thenCompose(success -> respondToTransaction(userSession, success, "Withdrawal", request.getAmount())),
+                userSession.getUsername());
+    }
+
+    @PostMapping("/transfer")
+    @Operation(summary = "Transfer money", description = "Transfers the specified amount to another user's account using session-based authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Transfer successful"),
+        @ApiResponse(responseCode = "401", description = "No valid session found"),
+        @ApiResponse(responseCode = "400", description = "Insufficient funds, unknown recipient or invalid amount")
+    })
+    public CompletableFuture<ResponseEntity<TransactionResponse>> transfer(@Valid @RequestBody TransferRequest request, HttpServletRequest httpRequest) {
+        // Get user session from request attributes (set by SessionInterceptor)
+        UserSession userSession = (UserSession) httpRequest.getAttribute("userSession");
+        if (userSession == null) {
+            return completedStatus(HttpStatus.UNAUTHORIZED);
+        }
+        
+        return bumpOnFailure(sessionBankingService.transferAsync(userSession, request.getRecipient(), request.getAmount())
+                .thenCompose(success -> {
+                    if (success) {
+                        // The recipient's account changed too; tags it was handed must stop matching. Only
+                        // this instance's tags: in router mode a recipient owned elsewhere keeps its own
+                        accountVersions.bump(request.getRecipient());
+                    }
+                    return respondToTransaction(userSession, success, "Transfer Out", request.getAmount());
+                }), userSession.getUsername(), request.getRecipient());
+    }
+
+    /**
+     * Builds the response for a deposit, withdrawal or transfer: 400 if the process rejected
+     * it, otherwise the transaction with the balance after it, published to listeners.
+     */
+    private CompletableFuture<ResponseEntity<TransactionResponse>> respondToTransaction(UserSession userSession, boolean success,
+                                                                                       String type, double amount) {
+        if (!success) {
+            return completedStatus(HttpStatus.BAD_REQUEST);
+        }
+        return sessionBankingService.getBalanceAsync(userSession).thenApply(balance -> {
             TransactionResponse response = new TransactionResponse(
-                    "Withdrawal",
-                    request.getAmount(),
+                    type,
+                    amount,
                     java.time.LocalDateTime.now(),
                     balance != null ? balance : 0.0
             );
+            recordTransaction(userSession.getUsername(), response);
             return ResponseEntity.ok(response);
-        } else {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-        }
+        });
     }
 
     @GetMapping("/balance")
@@ -210,46 +362,232 @@ public class BankingController {
         @ApiResponse(responseCode = "200", description = "Balance retrieved successfully"),
         @ApiResponse(responseCode = "401", description = "No valid session found")
     })
-    public ResponseEntity<UserResponse> getBalance(HttpServletRequest httpRequest) {
+    public CompletableFuture<ResponseEntity<UserResponse>> getBalance(HttpServletRequest httpRequest) {
         // Get user session from request attributes (set by SessionInterceptor)
         UserSession userSession = (UserSession) httpRequest.getAttribute("userSession");
         if (userSession == null) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            return completedStatus(HttpStatus.UNAUTHORIZED);
         }
         
-        Double balance = sessionBankingService.getBalance(userSession);
-        
-        if (balance != null) {
-            UserResponse response = new UserResponse(userSession.getUsername(), balance);
-            return ResponseEntity.ok(response);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        // Take the tag before reading, so a concurrent change can only make it older than the body
+        String etag = accountVersions.etag(userSession.getUsername());
+        if (accountVersions.isNotModified(httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build());
         }
+        
+        return sessionBankingService.getBalanceAsync(userSession).thenApply(balance -> {
+            if (balance != null) {
+                UserResponse response = new UserResponse(userSession.getUsername(), balance);
+                return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(response);
+            } else {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+        });
     }
 
     @GetMapping("/transactions")
-    @Operation(summary = "Get transaction history", description = "Retrieves the transaction history for the authenticated user")
+    @Operation(summary = "Get transaction history", description = "Retrieves one page of the authenticated user's transaction history, optionally filtered by type, time range and amount. "
+            + "When more results remain, the X-Next-Cursor header and a Link rel=\"next\" header give the cursor for the following page. "
+            + "X-Head-Sequence is the newest sequence number in the account; pass it back as since to fetch only newer transactions")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Transactions retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid filter, cursor or limit"),
         @ApiResponse(responseCode = "401", description = "No valid session found")
     })
-    public ResponseEntity<List<TransactionResponse>> getTransactions(HttpServletRequest httpRequest) {
+    public CompletableFuture<ResponseEntity<List<TransactionResponse>>> getTransactions(
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "minAmount", required = false) Double minAmount,
+            @RequestParam(value = "maxAmount", required = false) Double maxAmount,
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestParam(value = "since", required = false) Long since,
+            @RequestParam(value = "limit", defaultValue = "" + TransactionQuery.DEFAULT_LIMIT) int limit,
+            HttpServletRequest httpRequest) {
         // Get user session from request attributes (set by SessionInterceptor)
         UserSession userSession = (UserSession) httpRequest.getAttribute("userSession");
         if (userSession == null) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            return completedStatus(HttpStatus.UNAUTHORIZED);
         }
         
-        List<BankingTransaction> transactions = sessionBankingService.getTransactions(userSession);
+        TransactionQuery query = buildTransactionQuery(type, from, to, minAmount, maxAmount, cursor, since, limit);
+        // The ETag is per account; caches key it by URL, so it also covers the query parameters
+        String etag = accountVersions.etag(userSession.getUsername());
+        if (accountVersions.isNotModified(httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build());
+        }
+        // The request may be recycled before the page arrives, so build the next link now
+        ServletUriComponentsBuilder nextLink = ServletUriComponentsBuilder.fromRequest(httpRequest);
 
-        if (transactions != null) {
-            List<TransactionResponse> response = transactions.stream()
-                    .map(t -> new TransactionResponse(t.getType(), t.getAmount(), t.getTimestamp(), 0.0))
+        return sessionBankingService.queryTransactionsAsync(userSession, query).thenApply(page -> {
+            if (page == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            List<TransactionResponse> response = page.getTransactions().stream()
+                    .map(t -> new TransactionResponse(t.getType(), t.getAmount(), t.getTimestamp(),
+                            t.getBalanceAfter() != null ? t.getBalanceAfter() : 0.0, t.getSequence()))
                     .collect(Collectors.toList());
-            return ResponseEntity.ok(response);
-        } else {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE);
+            if (page.getHeadSequence() != null) {
+                builder.header("X-Head-Sequence", String.valueOf(page.getHeadSequence()));
+            }
+            if (page.getNextCursor() != null) {
+                String next = nextLink.replaceQueryParam("cursor", page.getNextCursor()).toUriString();
+                builder.header("X-Next-Cursor", String.valueOf(page.getNextCursor()))
+                        .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            }
+            return builder.body(response);
+        });
+    }
+
+    private static TransactionQuery buildTransactionQuery(String type, LocalDateTime from, LocalDateTime to,
+                                                          Double minAmount, Double maxAmount, Long cursor, Long since, int limit) {
+        if (type != null && !TRANSACTION_TYPES.contains(type.toLowerCase())) {
+            throw new IllegalArgumentException("Invalid type: must be one of " + String.join(", ", TRANSACTION_TYPES));
+        }
+        if (cursor != null && cursor < 0) {
+            throw new IllegalArgumentException("Invalid cursor: must not be negative");
+        }
+        if (since != null && since < 0) {
+            throw new IllegalArgumentException("Invalid since: must not be negative");
+        }
+        if (since != null && cursor != null) {
+            throw new IllegalArgumentException("Invalid query: since and cursor cannot be combined");
+        }
+        if (limit < 1 || limit > TransactionQuery.MAX_LIMIT) {
+            throw new IllegalArgumentException("Invalid limit: must be between 1 and " + TransactionQuery.MAX_LIMIT);
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Invalid range: from must be before to");
+        }
+        TransactionQuery query = new TransactionQuery();
+        query.setType(type != null ? type.toLowerCase() : null);
+        query.setFrom(from);
+        query.setTo(to);
+        query.setMinAmount(minAmount);
+        query.setMaxAmount(maxAmount);
+        query.setCursor(cursor);
+        query.setSince(since);
+        query.setLimit(limit);
+        return query;
+    }
+
+    @GetMapping(value = "/transactions/stream", produces = "application/x-ndjson")
+    @Operation(summary = "Stream transaction history", description = "Streams the transaction history as newline-delimited JSON, one transaction per line, as it is read from the banking process")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Transactions streamed"),
+        @ApiResponse(responseCode = "401", description = "No valid session found")
+    })
+    public ResponseEntity<StreamingResponseBody> streamTransactions(HttpServletRequest httpRequest) {
+        // Get user session from request attributes (set by SessionInterceptor)
+        UserSession userSession = (UserSession) httpRequest.getAttribute("userSession");
+        if (userSession == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        StreamingResponseBody body = outputStream -> {
+            int[] written = {0};
+            sessionBankingService.streamTransactions(userSession, t -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(
+                            new TransactionResponse(t.getType(), t.getAmount(), t.getTimestamp(), 0.0)));
+                    outputStream.write('\n');
+                    if (written[0]++ % STREAM_FLUSH_INTERVAL == 0) {
+                        outputStream.flush();
+                    }
+                } catch (IOException e) {
+                    // Client went away; the operation still drains the listing before rethrowing
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    @PostMapping("/transactions/batch")
+    @Operation(summary = "Execute transaction batch", description = "Executes a list of deposits and withdrawals in order against the session's account in a single round trip")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch executed; see per-item results. Items the process never answered are counted as unknown, and the final balance is then null"),
+        @ApiResponse(responseCode = "401", description = "No valid session found"),
+        @ApiResponse(responseCode = "400", description = "Invalid operation type or amount")
+    })
+    public CompletableFuture<ResponseEntity<BatchTransactionResponse>> executeBatch(@Valid @RequestBody BatchTransactionRequest request, HttpServletRequest httpRequest) {
+        // Get user session from request attributes (set by SessionInterceptor)
+        UserSession userSession = (UserSession) httpRequest.getAttribute("userSession");
+        if (userSession == null) {
+            return completedStatus(HttpStatus.UNAUTHORIZED);
+        }
+        
+        List<BankingTransaction> items = request.getOperations().stream()
+                .map(op -> new BankingTransaction(
+                        op.getType().toLowerCase().startsWith("deposit") ? "Deposit" : "Withdrawal",
+                        op.getAmount(),
+                        null))
+                .collect(Collectors.toList());
+        
+        return bumpOnFailure(sessionBankingService.executeBatchAsync(userSession, items).thenCompose(results -> {
+            if (results.stream().anyMatch(BatchItemResult::isOutcomeUnknown)) {
+                // Unanswered items may still be applied, so there is no final balance to report
+                return CompletableFuture.completedFuture(respondToBatch(userSession, results, null));
+            }
+            // The last reported balance is the final one; fall back to a query if no item reported one
+            Double reported = null;
+            for (BatchItemResult result : results) {
+                if (result.getBalance() != null) {
+                    reported = result.getBalance();
+                }
+            }
+            CompletableFuture<Double> finalBalance = reported != null
+                    ? CompletableFuture.completedFuture(reported)
+                    : sessionBankingService.getBalanceAsync(userSession);
+            return finalBalance.thenApply(balance -> respondToBatch(userSession, results, balance));
+        }), userSession.getUsername());
+    }
+
+    private ResponseEntity<BatchTransactionResponse> respondToBatch(UserSession userSession, List<BatchItemResult> results,
+                                                                    Double finalBalance) {
+        // Items whose outcome is unknown may still be applied
+        if (results.stream().anyMatch(result -> result.isSuccess() || result.isOutcomeUnknown())) {
+            accountVersions.bump(userSession.getUsername());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (BatchItemResult result : results) {
+            if (result.isSuccess() && result.getBalance() != null) {
+                accountEventBus.publish(AccountEvent.transaction(userSession.getUsername(),
+                        result.getType(), result.getAmount(), now, result.getBalance()));
+            }
+        }
+        if (finalBalance != null) {
+            accountEventBus.publish(AccountEvent.balance(userSession.getUsername(), finalBalance));
+        }
+        
+        return ResponseEntity.ok(new BatchTransactionResponse(results, finalBalance));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream account updates", description = "Server-sent events for the session's account: a 'transaction' event for each deposit, withdrawal or transfer and a 'balance' event with the balance after it")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream opened"),
+        @ApiResponse(responseCode = "401", description = "No valid session found")
+    })
+    public ResponseEntity<SseEmitter> streamAccountEvents(HttpServletRequest httpRequest) {
+        // Get user session from request attributes (set by SessionInterceptor)
+        UserSession userSession = (UserSession) httpRequest.getAttribute("userSession");
+        if (userSession == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+        
+        return ResponseEntity.ok(accountEventStreams.open(userSession.getUsername()));
+    }
+
+    private void recordTransaction(String username, TransactionResponse response) {
+        accountVersions.bump(username);
+        accountEventBus.publish(AccountEvent.transaction(username, response.getType(), response.getAmount(),
+                response.getTimestamp(), response.getNewBalance()));
+        accountEventBus.publish(AccountEvent.balance(username, response.getNewBalance()));
     }
 
     @DeleteMapping("/user")
@@ -273,6 +611,7 @@ public class BankingController {
             processSessionManager.terminateSessionProcess(userSession);
             
             // Remove session from session manager
+            sessionManager.invalidateSession(userSession.getSessionId());
             HttpSession httpSession = httpRequest.getSession(false);
             if (httpSession != null) {
                 sessionManager.invalidateSession(httpSession);
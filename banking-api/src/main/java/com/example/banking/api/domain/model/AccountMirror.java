@@ -0,0 +1,48 @@
+package com.example.banking.api.domain.model;
+
+/**
+ * In-memory copy of a session's account balance, kept in step with the session's banking process.
+ *
+ * The API sees every mutation the process performs for the session, so it can answer balance
+ * reads without a round trip: the balance is the last value the process reported. A change
+ * the process confirmed without reporting a balance, an error talking to the process, or a
+ * change made by another user's process (an incoming transfer) makes it unknown, and the next
+ * read goes back to the process.
+ *
+ * Transaction history is not mirrored: pages carry sequence numbers and running balances that
+ * only the process has, so every history read goes to the process.
+ */
+public class AccountMirror {
+
+    private Double balance;
+
+    /**
+     * @return the mirrored balance, or null if it is not known
+     */
+    public synchronized Double getBalance() {
+        return balance;
+    }
+
+    /**
+     * Records a balance reported by the banking process.
+     */
+    public synchronized void recordBalance(double balance) {
+        this.balance = balance;
+    }
+
+    /**
+     * Records the balance after a change the process confirmed.
+     *
+     * @param newBalance the balance the process reported afterwards, or null if it reported none
+     */
+    public synchronized void recordChange(Double newBalance) {
+        this.balance = newBalance;
+    }
+
+    /**
+     * Forgets the balance; the next read goes to the process.
+     */
+    public synchronized void invalidate() {
+        this.balance = null;
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.banking.api.domain.model;
+
+import com.example.banking.api.service.concurrent.CoarseClock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Holds the frequently updated state of many sessions in primitive arrays, one slot per session.
+ *
+ * A session is addressed by an int handle, its slot, plus the slot's generation when it was
+ * allocated. Each slot keeps the session's last access time, state flags, an id for its
+ * username and the pid of its banking process, so a session costs a few array cells instead
+ * of several timestamp objects, and an access stores one long. The idle deadline is the last
+ * access time plus the idle timeout.
+ *
+ * Releasing a slot moves it to a new generation. A {@link UserSession} that outlives its slot,
+ * e.g. in a request that was in flight when the session ended, then reads as inactive and its
+ * updates are dropped, even after the slot has been handed to another session.
+ *
+ * Capacity is fixed. Allocation and release are synchronized; per-slot reads and writes are
+ * lock-free.
+ */
+public final class SessionRegistry {
+
+    static final int ACTIVE = 1;
+    static final int RESTORED = 1 << 1;
+    static final int AUTHENTICATED = 1 << 2;
+    /** Worker id of a session without a banking process */
+    public static final int NO_WORKER = -1;
+
+    private final AtomicLongArray lastAccessedMillis;
+    private final AtomicIntegerArray generations;
+    private final AtomicIntegerArray flags;
+    private final AtomicIntegerArray workerIds;
+    private final int[] userIds;
+    private final int[] freeSlots;
+    private int freeCount;
+
+    private final Map<String, Integer> userIdsByName = new HashMap<>();
+    private final List<String> usernames = new ArrayList<>();
+    private final List<Integer> userSessionCounts = new ArrayList<>();
+    private final List<Integer> freeUserIds = new ArrayList<>();
+
+    public SessionRegistry(int capacity) {
+        lastAccessedMillis = new AtomicLongArray(capacity);
+        generations = new AtomicIntegerArray(capacity);
+        flags = new AtomicIntegerArray(capacity);
+        workerIds = new AtomicIntegerArray(capacity);
+        userIds = new int[capacity];
+        freeSlots = new int[capacity];
+        // Hand out low slots first
+        for (int i = 0; i < capacity; i++) {
+            freeSlots[i] = capacity - 1 - i;
+        }
+        freeCount = capacity;
+    }
+
+    /**
+     * Claims a slot for a new, active session.
+     *
+     * @param lastAccessedMillis the session's last access, on the {@link CoarseClock} timescale
+     * @return the slot, or -1 if the registry is full
+     */
+    public synchronized int allocate(String username, long lastAccessedMillis) {
+        if (freeCount == 0) {
+            return -1;
+        }
+        int slot = freeSlots[--freeCount];
+        userIds[slot] = acquireUserId(username);
+        workerIds.set(slot, NO_WORKER);
+        this.lastAccessedMillis.set(slot, lastAccessedMillis);
+        flags.set(slot, ACTIVE);
+        return slot;
+    }
+
+    /**
+     * Frees a session's slot. Does nothing if the slot was already released.
+     */
+    public synchronized void release(int slot, int generation) {
+        if (!generations.compareAndSet(slot, generation, generation + 1)) {
+            return;
+        }
+        flags.set(slot, 0);
+        releaseUserId(userIds[slot]);
+        freeSlots[freeCount++] = slot;
+    }
+
+    public int generation(int slot) {
+        return generations.get(slot);
+    }
+
+    public void touch(int slot, int generation) {
+        if (generations.get(slot) == generation) {
+            lastAccessedMillis.set(slot, CoarseClock.currentTimeMillis());
+        }
+    }
+
+    /**
+     * @return the last access time, or 0 if the slot has been released
+     */
+    public long lastAccessedMillis(int slot, int generation) {
+        long value = lastAccessedMillis.get(slot);
+        return generations.get(slot) == generation ? value : 0L;
+    }
+
+    boolean hasFlag(int slot, int generation, int flag) {
+        int value = flags.get(slot);
+        return generations.get(slot) == generation && (value & flag) != 0;
+    }
+
+    void setFlag(int slot, int generation, int flag, boolean on) {
+        if (generations.get(slot) != generation) {
+            return;
+        }
+        int current;
+        do {
+            current = flags.get(slot);
+        } while (!flags.compareAndSet(slot, current, on ? current | flag : current & ~flag));
+    }
+
+    public void setWorker(int slot, int generation, int workerId) {
+        if (generations.get(slot) == generation) {
+            workerIds.set(slot, workerId);
+        }
+    }
+
+    /**
+     * @return the pid of the session's banking process, or {@link #NO_WORKER}
+     */
+    public int workerOf(int slot, int generation) {
+        int value = workerIds.get(slot);
+        return generations.get(slot) == generation ? value : NO_WORKER;
+    }
+
+    /**
+     * Gets the number of sessions a user has in the registry.
+     */
+    public synchronized int sessionCount(String username) {
+        Integer userId = userIdsByName.get(username);
+        return userId == null ? 0 : userSessionCounts.get(userId);
+    }
+
+    /**
+     * Gets the number of slots in use.
+     */
+    public synchronized int size() {
+        return freeSlots.length - freeCount;
+    }
+
+    public int capacity() {
+        return freeSlots.length;
+    }
+
+    private int acquireUserId(String username) {
+        Integer userId = userIdsByName.get(username);
+        if (userId == null) {
+            if (freeUserIds.isEmpty()) {
+                userId = usernames.size();
+                usernames.add(username);
+                userSessionCounts.add(0);
+            } else {
+                userId = freeUserIds.remove(freeUserIds.size() - 1);
+                usernames.set(userId, username);
+            }
+            userIdsByName.put(username, userId);
+        }
+        userSessionCounts.set(userId, userSessionCounts.get(userId) + 1);
+        return userId;
+    }
+
+    private void releaseUserId(int userId) {
+        int remaining = userSessionCounts.get(userId) - 1;
+        userSessionCounts.set(userId, remaining);
+        if (remaining == 0) {
+            userIdsByName.remove(usernames.get(userId));
+            usernames.set(userId, null);
+            freeUserIds.add(userId);
+        }
+    }
+}
@@ -10,7 +10,7 @@ import java.util.Objects;
 public class Transaction {
     
     public enum Type {
-        DEPOSIT, WITHDRAWAL
+        DEPOSIT, WITHDRAWAL, TRANSFER_IN, TRANSFER_OUT
     }
     
     private final Type type;
@@ -47,6 +47,10 @@ public class Transaction {
         return new Transaction(Type.WITHDRAWAL, amount, timestamp, "Withdrawal");
     }
     
+    public static Transaction transferOut(Money amount, LocalDateTime timestamp, String recipient) {
+        return new Transaction(Type.TRANSFER_OUT, amount, timestamp, "Transfer Out to " + recipient);
+    }
+    
     public Type getType() {
         return type;
     }
@@ -71,6 +75,10 @@ public class Transaction {
         return type == Type.WITHDRAWAL;
     }
     
+    public boolean isTransfer() {
+        return type == Type.TRANSFER_IN || type == Type.TRANSFER_OUT;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
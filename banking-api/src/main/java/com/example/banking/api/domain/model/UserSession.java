@@ -1,24 +1,67 @@
 package com.example.banking.api.domain.model;
 
+import com.example.banking.api.service.concurrent.CoarseClock;
+
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+/**
+ * A logged-in user's session. Identity, the banking process and the account mirror live here;
+ * the state touched on every request (last access, active and restored flags, the process pid)
+ * lives in a slot of a {@link SessionRegistry}.
+ */
 public class UserSession {
     
     private final String sessionId;
     private final String username;
-    private final LocalDateTime createdAt;
-    private LocalDateTime lastAccessedAt;
-    private boolean active;
+    private final long createdAtMillis;
+    private final SessionRegistry registry;
+    private final int handle;
+    private final int generation;
     private Process bankingProcess;
     private String processId;
+    private volatile AccountMirror accountMirror = new AccountMirror();
     
+    /**
+     * Creates a session outside a session manager, with a registry of its own.
+     */
     public UserSession(String sessionId, String username) {
+        this(sessionId, username, new SessionRegistry(1));
+    }
+    
+    /**
+     * Creates a new session tracked in a slot of {@code registry}.
+     *
+     * @throws IllegalStateException if the registry is full
+     */
+    public UserSession(String sessionId, String username, SessionRegistry registry) {
+        this(sessionId, username, registry, CoarseClock.currentTimeMillis(), 0L, false);
+    }
+    
+    /**
+     * Recreates a session reloaded from the session store after a restart. It has no banking
+     * process until one is resumed for it on first use.
+     *
+     * @throws IllegalStateException if the registry is full
+     */
+    public UserSession(String sessionId, String username, SessionRegistry registry, long createdAtMillis, long idleMillis) {
+        this(sessionId, username, registry, createdAtMillis, idleMillis, true);
+    }
+    
+    private UserSession(String sessionId, String username, SessionRegistry registry,
+                        long createdAtMillis, long idleMillis, boolean restored) {
         this.sessionId = sessionId;
         this.username = username;
-        this.createdAt = LocalDateTime.now();
-        this.lastAccessedAt = LocalDateTime.now();
-        this.active = true;
+        this.createdAtMillis = createdAtMillis;
+        this.registry = registry;
+        this.handle = registry.allocate(username, CoarseClock.currentTimeMillis() - idleMillis);
+        if (handle < 0) {
+            throw new IllegalStateException("Session registry is full");
+        }
+        this.generation = registry.generation(handle);
+        if (restored) {
+            registry.setFlag(handle, generation, SessionRegistry.RESTORED | SessionRegistry.AUTHENTICATED, true);
+        }
     }
     
     public String getSessionId() {
@@ -30,23 +73,69 @@ public class UserSession {
     }
     
     public LocalDateTime getCreatedAt() {
-        return createdAt;
+        return CoarseClock.toLocalDateTime(createdAtMillis);
+    }
+    
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
     }
     
     public LocalDateTime getLastAccessedAt() {
-        return lastAccessedAt;
+        return CoarseClock.toLocalDateTime(registry.lastAccessedMillis(handle, generation));
     }
     
     public void updateLastAccessed() {
-        this.lastAccessedAt = LocalDateTime.now();
+        registry.touch(handle, generation);
+    }
+    
+    /**
+     * Milliseconds since the session was last used, to within the coarse clock's resolution.
+     * A released session reports that it has been idle forever.
+     */
+    public long getIdleMillis() {
+        long lastAccessed = registry.lastAccessedMillis(handle, generation);
+        return lastAccessed == 0L ? Long.MAX_VALUE : Math.max(0L, CoarseClock.currentTimeMillis() - lastAccessed);
     }
     
     public boolean isActive() {
-        return active;
+        return registry.hasFlag(handle, generation, SessionRegistry.ACTIVE);
     }
     
     public void setActive(boolean active) {
-        this.active = active;
+        registry.setFlag(handle, generation, SessionRegistry.ACTIVE, active);
+    }
+    
+    /**
+     * Whether the user has logged in on this session. A process started for such a session,
+     * e.g. to replace one that crashed, is logged in by username, as the API never keeps the password.
+     */
+    public boolean isAuthenticated() {
+        return registry.hasFlag(handle, generation, SessionRegistry.AUTHENTICATED);
+    }
+    
+    public void setAuthenticated(boolean authenticated) {
+        registry.setFlag(handle, generation, SessionRegistry.AUTHENTICATED, authenticated);
+    }
+    
+    /**
+     * Whether the session was reloaded after a restart and still needs its process resumed.
+     * Such a session was authenticated before the restart, so its process is logged in by
+     * username instead of with the password.
+     */
+    public boolean isRestored() {
+        return registry.hasFlag(handle, generation, SessionRegistry.RESTORED);
+    }
+    
+    public void setRestored(boolean restored) {
+        registry.setFlag(handle, generation, SessionRegistry.RESTORED, restored);
+    }
+    
+    /**
+     * Gives up the session's registry slot once it has ended. The session reads as inactive
+     * from then on.
+     */
+    public void release() {
+        registry.release(handle, generation);
     }
     
     public Process getBankingProcess() {
@@ -55,6 +144,14 @@ public class UserSession {
     
     public void setBankingProcess(Process bankingProcess) {
         this.bankingProcess = bankingProcess;
+        registry.setWorker(handle, generation, bankingProcess != null ? (int) bankingProcess.pid() : SessionRegistry.NO_WORKER);
+    }
+    
+    /**
+     * The pid of the session's banking process, or {@link SessionRegistry#NO_WORKER}.
+     */
+    public int getWorkerId() {
+        return registry.workerOf(handle, generation);
     }
     
     public String getProcessId() {
@@ -65,16 +162,31 @@ public class UserSession {
         this.processId = processId;
     }
     
+    /**
+     * The in-memory copy of this session's account used to answer reads without the process.
+     * Once the session uses its user's process, this is the copy every session of the user shares.
+     */
+    public AccountMirror getAccountMirror() {
+        return accountMirror;
+    }
+    
+    /**
+     * Switches the session to the account mirror kept with its user's process.
+     */
+    public void shareAccountMirror(AccountMirror accountMirror) {
+        this.accountMirror = accountMirror;
+    }
+    
     public boolean hasActiveProcess() {
         return bankingProcess != null && bankingProcess.isAlive();
     }
     
     public boolean isExpired(long timeoutInSeconds) {
-        return lastAccessedAt.plusSeconds(timeoutInSeconds).isBefore(LocalDateTime.now());
+        return getIdleMillis() > timeoutInSeconds * 1000L;
     }
     
     public long getSessionDurationInSeconds() {
-        return java.time.Duration.between(createdAt, LocalDateTime.now()).getSeconds();
+        return (CoarseClock.currentTimeMillis() - createdAtMillis) / 1000L;
     }
     
     @Override
@@ -95,10 +207,10 @@ public class UserSession {
         return "UserSession{" +
                 "sessionId='" + sessionId + '\'' +
                 ", username='" + username + '\'' +
-                ", createdAt=" + createdAt +
-                ", lastAccessedAt=" + lastAccessedAt +
-                ", active=" + active +
+                ", createdAt=" + getCreatedAt() +
+                ", lastAccessedAt=" + getLastAccessedAt() +
+                ", active=" + isActive() +
                 ", hasActiveProcess=" + hasActiveProcess() +
                 '}';
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+package com.example.banking.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request DTO for executing several deposits and withdrawals in one call.
+ * Operations are applied in order against the session's account.
+ */
+public class BatchTransactionRequest {
+    
+    public static final int MAX_OPERATIONS = 500;
+    
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = MAX_OPERATIONS, message = "A batch may contain at most " + MAX_OPERATIONS + " operations")
+    private List<@Valid @NotNull Operation> operations;
+
+    public BatchTransactionRequest() {}
+
+    public BatchTransactionRequest(List<Operation> operations) {
+        this.operations = operations;
+    }
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<Operation> operations) {
+        this.operations = operations;
+    }
+
+    /**
+     * A single deposit or withdrawal within a batch.
+     */
+    public static class Operation {
+        
+        @NotNull(message = "Operation type is required")
+        @Pattern(regexp = "(?i)deposit|withdraw|withdrawal", message = "Operation type must be deposit or withdraw")
+        private String type;
+        
+        @Positive(message = "Amount must be positive")
+        private double amount;
+
+        public Operation() {}
+
+        public Operation(String type, double amount) {
+            this.type = type;
+            this.amount = amount;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public void setAmount(double amount) {
+            this.amount = amount;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.banking.api.dto;
+
+import com.example.banking.api.model.BatchItemResult;
+
+import java.util.List;
+
+/**
+ * Response DTO for a transaction batch: one result per operation plus the final balance.
+ * If any item's outcome is unknown, so is the final balance, which is then null.
+ */
+public class BatchTransactionResponse {
+    
+    private List<BatchItemResult> results;
+    private int succeeded;
+    private int failed;
+    private int unknown;
+    private Double finalBalance;
+
+    public BatchTransactionResponse() {}
+
+    public BatchTransactionResponse(List<BatchItemResult> results, Double finalBalance) {
+        this.results = results;
+        this.succeeded = (int) results.stream().filter(BatchItemResult::isSuccess).count();
+        this.unknown = (int) results.stream().filter(BatchItemResult::isOutcomeUnknown).count();
+        this.failed = results.size() - succeeded - unknown;
+        this.finalBalance = finalBalance;
+    }
+
+    public List<BatchItemResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchItemResult> results) {
+        this.results = results;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public int getUnknown() {
+        return unknown;
+    }
+
+    public void setUnknown(int unknown) {
+        this.unknown = unknown;
+    }
+
+    public Double getFinalBalance() {
+        return finalBalance;
+    }
+
+    public void setFinalBalance(Double finalBalance) {
+        this.finalBalance = finalBalance;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.banking.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
 
 /**
@@ -13,6 +15,8 @@ public class SessionResponse {
     private String sessionId;
     private LocalDateTime sessionCreatedAt;
     private LocalDateTime sessionExpiresAt;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String sessionToken;
 
     public SessionResponse() {}
 
@@ -64,4 +68,15 @@ public class SessionResponse {
     public void setSessionExpiresAt(LocalDateTime sessionExpiresAt) {
         this.sessionExpiresAt = sessionExpiresAt;
     }
-}
\ No newline at end of file
+
+    /**
+     * The signed session token to send as {@code Authorization: Bearer}, when token mode is enabled.
+     */
+    public String getSessionToken() {
+        return sessionToken;
+    }
+
+    public void setSessionToken(String sessionToken) {
+        this.sessionToken = sessionToken;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.banking.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
 
 /**
@@ -11,6 +13,8 @@ public class TransactionResponse {
     private double amount;
     private LocalDateTime timestamp;
     private double newBalance;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long sequence;
 
     public TransactionResponse() {}
 
@@ -21,6 +25,11 @@ public class TransactionResponse {
         this.newBalance = newBalance;
     }
 
+    public TransactionResponse(String type, double amount, LocalDateTime timestamp, double newBalance, Long sequence) {
+        this(type, amount, timestamp, newBalance);
+        this.sequence = sequence;
+    }
+
     public String getType() {
         return type;
     }
@@ -52,4 +61,15 @@ public class TransactionResponse {
     public void setNewBalance(double newBalance) {
         this.newBalance = newBalance;
     }
+
+    /**
+     * Position of the transaction in the account history, usable as a query cursor.
+     */
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
 }
@@ -0,0 +1,39 @@
+package com.example.banking.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Request DTO for transferring money to another user using session-based authentication.
+ */
+public class TransferRequest {
+    
+    @NotBlank(message = "Recipient is required")
+    private String recipient;
+    
+    @Positive(message = "Amount must be positive")
+    private double amount;
+
+    public TransferRequest() {}
+
+    public TransferRequest(String recipient, double amount) {
+        this.recipient = recipient;
+        this.amount = amount;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+}
@@ -64,6 +64,12 @@ public class BankingProcessAdapter implements BankingSystemPort {
         return processService.withdraw(username, password, amount.toDouble());
     }
     
+    @Override
+    public boolean transfer(String username, String password, String recipient, Money amount) {
+        logger.debug("Transferring {} from user: {} to user: {}", amount, username, recipient);
+        return processService.transfer(username, password, recipient, amount.toDouble());
+    }
+    
     @Override
     public Optional<Money> getBalance(String username, String password) {
         logger.debug("Getting balance for user: {}", username);
@@ -125,10 +131,16 @@ public class BankingProcessAdapter implements BankingSystemPort {
         LocalDateTime timestamp = bankingTransaction.getTimestamp();
         
         // Determine transaction type based on the type string
+        // Transfers are checked first; their labels never contain deposit/withdraw
         Transaction.Type type;
-        if (bankingTransaction.getType().toLowerCase().contains("deposit")) {
+        String typeLabel = bankingTransaction.getType().toLowerCase();
+        if (typeLabel.contains("transfer in")) {
+            type = Transaction.Type.TRANSFER_IN;
+        } else if (typeLabel.contains("transfer out")) {
+            type = Transaction.Type.TRANSFER_OUT;
+        } else if (typeLabel.contains("deposit")) {
             type = Transaction.Type.DEPOSIT;
-        } else if (bankingTransaction.getType().toLowerCase().contains("withdraw")) {
+        } else if (typeLabel.contains("withdraw")) {
             type = Transaction.Type.WITHDRAWAL;
         } else {
             // Default to deposit if we can't determine the type
@@ -11,6 +11,8 @@ public class BankingTransaction {
     private String type;
     private double amount;
     private LocalDateTime timestamp;
+    private Long sequence;
+    private Double balanceAfter;
     
     public BankingTransaction() {}
     
@@ -43,4 +45,26 @@ public class BankingTransaction {
     public void setTimestamp(LocalDateTime timestamp) {
         this.timestamp = timestamp;
     }
+
+    /**
+     * Position in the account history; only set on transactions returned by a query.
+     */
+    public Long getSequence() {
+        return sequence;
+    }
+    
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+    
+    /**
+     * Running balance after this transaction; only set on transactions returned by a query.
+     */
+    public Double getBalanceAfter() {
+        return balanceAfter;
+    }
+    
+    public void setBalanceAfter(Double balanceAfter) {
+        this.balanceAfter = balanceAfter;
+    }
 }
@@ -0,0 +1,94 @@
+package com.example.banking.api.model;
+
+/**
+ * Internal model representing the outcome of one operation in a transaction batch.
+ * An item whose outcome is unknown was sent to the banking process but never answered; it
+ * may or may not have been applied, so it is neither a success nor a failure.
+ */
+public class BatchItemResult {
+    
+    private int index;
+    private String type;
+    private double amount;
+    private boolean success;
+    private String message;
+    private Double balance;
+    private boolean outcomeUnknown;
+    
+    public BatchItemResult() {}
+    
+    public BatchItemResult(int index, String type, double amount, boolean success, String message, Double balance) {
+        this.index = index;
+        this.type = type;
+        this.amount = amount;
+        this.success = success;
+        this.message = message;
+        this.balance = balance;
+    }
+    
+    /**
+     * Creates the result of an item the banking process never answered.
+     */
+    public static BatchItemResult outcomeUnknown(int index, String type, double amount) {
+        BatchItemResult result = new BatchItemResult(index, type, amount, false,
+                "No response from banking process; the operation may still have been applied", null);
+        result.outcomeUnknown = true;
+        return result;
+    }
+    
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public double getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+    
+    public boolean isSuccess() {
+        return success;
+    }
+    
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public Double getBalance() {
+        return balance;
+    }
+    
+    public void setBalance(Double balance) {
+        this.balance = balance;
+    }
+    
+    public boolean isOutcomeUnknown() {
+        return outcomeUnknown;
+    }
+    
+    public void setOutcomeUnknown(boolean outcomeUnknown) {
+        this.outcomeUnknown = outcomeUnknown;
+    }
+}
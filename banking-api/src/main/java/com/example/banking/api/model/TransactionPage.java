@@ -0,0 +1,38 @@
+package com.example.banking.api.model;
+
+import java.util.List;
+
+/**
+ * Internal model representing one page of a {@link TransactionQuery} result.
+ */
+public class TransactionPage {
+    
+    private final List<BankingTransaction> transactions;
+    private final Long nextCursor;
+    private final Long headSequence;
+    
+    public TransactionPage(List<BankingTransaction> transactions, Long nextCursor, Long headSequence) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+        this.headSequence = headSequence;
+    }
+    
+    public List<BankingTransaction> getTransactions() {
+        return transactions;
+    }
+    
+    /**
+     * Cursor for the next page, or null if there are no more matching transactions.
+     */
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+    
+    /**
+     * Sequence number of the newest transaction in the account, regardless of filters,
+     * or null if the account has no transactions.
+     */
+    public Long getHeadSequence() {
+        return headSequence;
+    }
+}
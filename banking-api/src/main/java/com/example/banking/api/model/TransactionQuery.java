@@ -0,0 +1,134 @@
+package com.example.banking.api.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Internal model representing a filtered, paginated transaction history query.
+ * Null fields are not filtered on. Sent to the banking process as one line of
+ * key=value pairs by {@link #toCommand()}.
+ */
+public class TransactionQuery {
+    
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+    
+    private String type;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Double minAmount;
+    private Double maxAmount;
+    private Long cursor;
+    private Long since;
+    private int limit = DEFAULT_LIMIT;
+    
+    public TransactionQuery() {}
+    
+    /**
+     * Renders the query in the banking process's "key=value ..." query syntax.
+     */
+    public String toCommand() {
+        StringBuilder command = new StringBuilder("limit=").append(limit);
+        if (type != null) {
+            command.append(" type=").append(type);
+        }
+        if (from != null) {
+            command.append(" from=").append(from);
+        }
+        if (to != null) {
+            command.append(" to=").append(to);
+        }
+        if (minAmount != null) {
+            command.append(" min=").append(minAmount);
+        }
+        if (maxAmount != null) {
+            command.append(" max=").append(maxAmount);
+        }
+        if (cursor != null) {
+            command.append(" cursor=").append(cursor);
+        }
+        if (since != null) {
+            command.append(" since=").append(since);
+        }
+        return command.toString();
+    }
+    
+    /**
+     * Transaction type filter: deposit, withdrawal, transfer_in or transfer_out.
+     */
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    /**
+     * Inclusive lower bound on the transaction timestamp.
+     */
+    public LocalDateTime getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+    
+    /**
+     * Exclusive upper bound on the transaction timestamp.
+     */
+    public LocalDateTime getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+    
+    public Double getMinAmount() {
+        return minAmount;
+    }
+    
+    public void setMinAmount(Double minAmount) {
+        this.minAmount = minAmount;
+    }
+    
+    public Double getMaxAmount() {
+        return maxAmount;
+    }
+    
+    public void setMaxAmount(Double maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+    
+    /**
+     * Sequence number to resume from, as returned in a previous page's next cursor.
+     */
+    public Long getCursor() {
+        return cursor;
+    }
+    
+    public void setCursor(Long cursor) {
+        this.cursor = cursor;
+    }
+    
+    /**
+     * Only return transactions with a greater sequence number, typically the head sequence
+     * the client saw last. Takes the place of the cursor for delta syncs.
+     */
+    public Long getSince() {
+        return since;
+    }
+    
+    public void setSince(Long since) {
+        this.since = since;
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
@@ -100,6 +100,24 @@ public class BankingProcessService {
         }
     }
 
+    /**
+     * Perform a transfer to another user's account.
+     * 
+     * @param username the username of the sending account holder
+     * @param password the password for authentication
+     * @param recipient the username of the receiving account holder
+     * @param amount the amount to transfer
+     * @return true if transfer was successful, false otherwise
+     */
+    public boolean transfer(String username, String password, String recipient, double amount) {
+        try {
+            return processExecutor.execute(new TransferOperation(username, password, recipient, amount));
+        } catch (Exception e) {
+            logger.error("Error during transfer operation for user: {} to: {}, amount: {}", username, recipient, amount, e);
+            return false;
+        }
+    }
+
     /**
      * Get account balance for a user by checking transaction history.
      * 
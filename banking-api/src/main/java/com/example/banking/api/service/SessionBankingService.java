@@ -1,24 +1,55 @@
 package com.example.banking.api.service;
 
+import com.example.banking.api.domain.model.AccountMirror;
 import com.example.banking.api.domain.model.UserSession;
 import com.example.banking.api.model.BankingTransaction;
+import com.example.banking.api.model.BatchItemResult;
 import com.example.banking.api.model.BankingUser;
+import com.example.banking.api.model.TransactionPage;
+import com.example.banking.api.model.TransactionQuery;
+import com.example.banking.api.service.concurrent.ServiceOverloadedException;
+import com.example.banking.api.service.concurrent.SingleFlight;
+import com.example.banking.api.service.process.ProcessOperation;
 import com.example.banking.api.service.process.ProcessSessionManager;
 import com.example.banking.api.service.process.operations.*;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 /**
  * Session-based banking service that uses persistent processes for operations.
  * This service uses the ProcessSessionManager to execute operations on
  * session-specific persistent processes.
+ *
+ * Balance reads are answered from the session's {@link AccountMirror} when it is current,
+ * and every operation keeps the mirror in step with what the process reported. A failure talking to the process invalidates the mirror; an operation shed by
+ * admission control never reached the process, so it leaves the mirror alone and surfaces
+ * as {@link ServiceOverloadedException}.
+ *
+ * Reads that go to the process are coalesced per session: concurrent balance reads that miss
+ * the mirror, or identical queries, for the same session share one process round trip and
+ * its result.
+ *
+ * Every process-bound operation has an {@code Async} variant that returns as soon as the
+ * operation is queued on the session's process mailbox; the blocking methods wait on it.
  */
 @Service
-public class SessionBankingService {
+public class SessionBankingService implements MeterBinder {
 
     private final ProcessSessionManager processSessionManager;
+    private final LongAdder mirrorHits = new LongAdder();
+    private final LongAdder mirrorMisses = new LongAdder();
+    private final SingleFlight<String, Double> balanceReads = new SingleFlight<>();
+    private final SingleFlight<String, TransactionPage> queryReads = new SingleFlight<>();
 
     @Autowired
     public SessionBankingService(ProcessSessionManager processSessionManager) {
@@ -29,53 +60,215 @@ public class SessionBankingService {
      * Get account balance for a session-authenticated user.
      */
     public Double getBalance(UserSession userSession) {
-        try {
-            SessionBalanceOperation operation = new SessionBalanceOperation(userSession.getUsername());
-            return processSessionManager.executeForSession(userSession, operation);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to get balance for session", e);
+        return await(getBalanceAsync(userSession));
+    }
+
+    /**
+     * Get account balance without blocking the caller while the process is read.
+     */
+    public CompletableFuture<Double> getBalanceAsync(UserSession userSession) {
+        AccountMirror mirror = userSession.getAccountMirror();
+        Double mirrored = mirror.getBalance();
+        if (mirrored != null) {
+            mirrorHits.increment();
+            return CompletableFuture.completedFuture(mirrored);
         }
+        mirrorMisses.increment();
+        CompletableFuture<Double> read = balanceReads.executeAsync(userSession.getSessionId(), () -> {
+            SessionBalanceOperation operation = new SessionBalanceOperation(userSession.getUsername());
+            return submit(userSession, communication -> {
+                Double balance = operation.execute(communication);
+                if (operation.getReportedBalance() != null) {
+                    userSession.getAccountMirror().recordBalance(operation.getReportedBalance());
+                }
+                return balance;
+            });
+        });
+        return failWith(read, userSession, "Failed to get balance for session");
     }
 
     /**
      * Perform a deposit operation for a session-authenticated user.
      */
     public boolean deposit(UserSession userSession, double amount) {
+        return await(depositAsync(userSession, amount));
+    }
+
+    /**
+     * Perform a deposit without blocking the caller while the process runs it.
+     */
+    public CompletableFuture<Boolean> depositAsync(UserSession userSession, double amount) {
         if (amount <= 0) {
-            return false;
-        }
-        try {
-            SessionDepositOperation operation = new SessionDepositOperation(userSession.getUsername(), amount);
-            return processSessionManager.executeForSession(userSession, operation);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to perform deposit for session", e);
+            return CompletableFuture.completedFuture(false);
         }
+        SessionDepositOperation operation = new SessionDepositOperation(userSession.getUsername(), amount);
+        // Update the mirror inside the process's mailbox so updates land in the order the process applied
+        // them, and in the mirror of the process that ran them if the session has just moved to a replacement
+        CompletableFuture<Boolean> deposit = submit(userSession, communication -> {
+            boolean success = operation.execute(communication);
+            AccountMirror mirror = userSession.getAccountMirror();
+            if (success) {
+                mirror.recordChange(operation.getReportedBalance());
+            } else if (operation.getReportedBalance() != null) {
+                mirror.recordBalance(operation.getReportedBalance());
+            }
+            return success;
+        });
+        return failWith(deposit, userSession, "Failed to perform deposit for session");
     }
 
     /**
      * Perform a withdrawal operation for a session-authenticated user.
      */
     public boolean withdraw(UserSession userSession, double amount) {
+        return await(withdrawAsync(userSession, amount));
+    }
+
+    /**
+     * Perform a withdrawal without blocking the caller while the process runs it.
+     */
+    public CompletableFuture<Boolean> withdrawAsync(UserSession userSession, double amount) {
         if (amount <= 0) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
-        try {
-            SessionWithdrawalOperation operation = new SessionWithdrawalOperation(userSession.getUsername(), amount);
-            return processSessionManager.executeForSession(userSession, operation);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to perform withdrawal for session", e);
+        SessionWithdrawalOperation operation = new SessionWithdrawalOperation(userSession.getUsername(), amount);
+        // Update the mirror inside the process's mailbox so updates land in the order the process applied
+        // them, and in the mirror of the process that ran them if the session has just moved to a replacement
+        CompletableFuture<Boolean> withdrawal = submit(userSession, communication -> {
+            boolean success = operation.execute(communication);
+            AccountMirror mirror = userSession.getAccountMirror();
+            if (success) {
+                mirror.recordChange(operation.getReportedBalance());
+            } else if (operation.getReportedBalance() != null) {
+                mirror.recordBalance(operation.getReportedBalance());
+            }
+            return success;
+        });
+        return failWith(withdrawal, userSession, "Failed to perform withdrawal for session");
+    }
+
+    /**
+     * Perform a transfer to another user's account for a session-authenticated user.
+     */
+    public boolean transfer(UserSession userSession, String recipient, double amount) {
+        return await(transferAsync(userSession, recipient, amount));
+    }
+
+    /**
+     * Perform a transfer without blocking the caller while the process runs it.
+     */
+    public CompletableFuture<Boolean> transferAsync(UserSession userSession, String recipient, double amount) {
+        if (amount <= 0 || recipient == null || recipient.isBlank()
+                || recipient.equals(userSession.getUsername())) {
+            return CompletableFuture.completedFuture(false);
         }
+        SessionTransferOperation operation = new SessionTransferOperation(userSession.getUsername(), recipient, amount);
+        CompletableFuture<Boolean> transfer = submit(userSession, communication -> {
+            boolean success = operation.execute(communication);
+            AccountMirror mirror = userSession.getAccountMirror();
+            if (success) {
+                mirror.recordChange(operation.getReportedBalance());
+                // The recipient's sessions mirror an account this process has just credited
+                processSessionManager.invalidateAccountMirror(recipient);
+            }
+            return success;
+        });
+        return failWith(transfer, userSession, "Failed to perform transfer for session");
+    }
+
+    /**
+     * Execute a batch of deposits and withdrawals, in order, in a single process round trip.
+     * Each item's type is "Deposit" or "Withdrawal"; amounts must already be validated as positive.
+     */
+    public List<BatchItemResult> executeBatch(UserSession userSession, List<BankingTransaction> items) {
+        return await(executeBatchAsync(userSession, items));
+    }
+
+    /**
+     * Execute a batch without blocking the caller while the process runs it.
+     */
+    public CompletableFuture<List<BatchItemResult>> executeBatchAsync(UserSession userSession, List<BankingTransaction> items) {
+        SessionBatchTransactionOperation operation = new SessionBatchTransactionOperation(userSession.getUsername(), items);
+        CompletableFuture<List<BatchItemResult>> batch = submit(userSession, communication -> {
+            List<BatchItemResult> results = operation.execute(communication);
+            AccountMirror mirror = userSession.getAccountMirror();
+            if (results.stream().anyMatch(BatchItemResult::isOutcomeUnknown)) {
+                // Items the process never answered may still be applied, so no balance it reported is final
+                mirror.invalidate();
+                return results;
+            }
+            Double lastBalance = null;
+            for (BatchItemResult result : results) {
+                if (result.getBalance() != null) {
+                    lastBalance = result.getBalance();
+                }
+            }
+            mirror.recordChange(lastBalance);
+            return results;
+        });
+        return failWith(batch, userSession, "Failed to execute transaction batch for session");
     }
 
     /**
      * Get transaction history for a session-authenticated user.
      */
     public List<BankingTransaction> getTransactions(UserSession userSession) {
+        return await(getTransactionsAsync(userSession));
+    }
+
+    /**
+     * Get transaction history without blocking the caller while the process is read.
+     */
+    public CompletableFuture<List<BankingTransaction>> getTransactionsAsync(UserSession userSession) {
+        CompletableFuture<List<BankingTransaction>> read = submit(userSession,
+                new SessionTransactionHistoryOperation(userSession.getUsername()));
+        return failWith(read, userSession, "Failed to get transactions for session");
+    }
+
+    /**
+     * Run a filtered, paginated transaction query for a session-authenticated user.
+     *
+     * @throws IllegalArgumentException if the banking process rejects the query
+     */
+    public TransactionPage queryTransactions(UserSession userSession, TransactionQuery query) {
+        return await(queryTransactionsAsync(userSession, query));
+    }
+
+    /**
+     * Run a transaction query without blocking the caller while the process is read.
+     * The future fails with {@link IllegalArgumentException} if the process rejects the query.
+     */
+    public CompletableFuture<TransactionPage> queryTransactionsAsync(UserSession userSession, TransactionQuery query) {
+        String key = userSession.getSessionId() + '\n' + query.toCommand();
+        return queryReads.executeAsync(key, () -> submit(userSession,
+                        new SessionTransactionQueryOperation(userSession.getUsername(), query)))
+                .handle((page, failure) -> {
+                    if (failure == null) {
+                        return page;
+                    }
+                    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+                        if (cause instanceof IllegalArgumentException || cause instanceof ServiceOverloadedException) {
+                            throw (RuntimeException) cause;
+                        }
+                    }
+                    userSession.getAccountMirror().invalidate();
+                    throw new RuntimeException("Failed to query transactions for session", unwrap(failure));
+                });
+    }
+
+    /**
+     * Stream transaction history for a session-authenticated user, handing each transaction
+     * to {@code sink} as it is read from the process.
+     *
+     * @return the number of transactions delivered
+     */
+    public int streamTransactions(UserSession userSession, Consumer<BankingTransaction> sink) {
         try {
-            SessionTransactionHistoryOperation operation = new SessionTransactionHistoryOperation(userSession.getUsername());
+            SessionTransactionStreamOperation operation = new SessionTransactionStreamOperation(userSession.getUsername(), sink);
             return processSessionManager.executeForSession(userSession, operation);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to get transactions for session", e);
+            userSession.getAccountMirror().invalidate();
+            throw new RuntimeException("Failed to stream transactions for session", e);
         }
     }
 
@@ -95,9 +288,96 @@ public class SessionBankingService {
     public BankingUser authenticateAndStartSession(UserSession userSession, String password) {
         try {
             SessionAuthenticationOperation operation = new SessionAuthenticationOperation(userSession.getUsername(), password);
-            return processSessionManager.authenticateForSession(userSession, operation);
+            BankingUser user = processSessionManager.authenticateForSession(userSession, operation);
+            // A fresh process has just loaded the account, so start the mirror from what it reported
+            userSession.getAccountMirror().invalidate();
+            if (user != null && operation.getReportedBalance() != null) {
+                userSession.getAccountMirror().recordBalance(operation.getReportedBalance());
+            }
+            return user;
+        } catch (ServiceOverloadedException e) {
+            throw e;
         } catch (Exception e) {
+            userSession.getAccountMirror().invalidate();
             throw new RuntimeException("Failed to authenticate and start session", e);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("banking.mirror.hits", mirrorHits, LongAdder::sum)
+                .description("Balance reads answered from the session's account mirror")
+                .register(registry);
+        FunctionCounter.builder("banking.mirror.misses", mirrorMisses, LongAdder::sum)
+                .description("Balance reads that went to the banking process")
+                .register(registry);
+        Gauge.builder("banking.mirror.hit.ratio", this, SessionBankingService::getMirrorHitRatio)
+                .description("Fraction of balance reads answered from the account mirror")
+                .register(registry);
+        FunctionCounter.builder("banking.reads.coalesced", this, SessionBankingService::getCoalescedReads)
+                .description("Balance and query reads that joined an identical process read already in flight")
+                .register(registry);
+        Gauge.builder("banking.reads.coalesce.ratio", this, SessionBankingService::getReadCoalesceRatio)
+                .description("Fraction of process-bound reads served by another caller's round trip")
+                .register(registry);
+    }
+
+    long getCoalescedReads() {
+        return balanceReads.getCoalesced() + queryReads.getCoalesced();
+    }
+
+    double getReadCoalesceRatio() {
+        long coalesced = getCoalescedReads();
+        long total = coalesced + balanceReads.getExecutions() + queryReads.getExecutions();
+        return total == 0 ? 0.0 : (double) coalesced / total;
+    }
+
+    private <T> CompletableFuture<T> submit(UserSession userSession, ProcessOperation<T> operation) {
+        try {
+            return processSessionManager.executeForSessionAsync(userSession, operation);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Drops the session's mirror and wraps the cause if the operation failed.
+     */
+    private static <T> CompletableFuture<T> failWith(CompletableFuture<T> operation, UserSession userSession, String message) {
+        return operation.handle((value, failure) -> {
+            if (failure == null) {
+                return value;
+            }
+            Throwable cause = unwrap(failure);
+            if (cause instanceof ServiceOverloadedException) {
+                throw (ServiceOverloadedException) cause;
+            }
+            userSession.getAccountMirror().invalidate();
+            throw new RuntimeException(message, cause);
+        });
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    /**
+     * Waits for an asynchronous operation, rethrowing its failure as the async variant reported it.
+     */
+    private static <T> T await(CompletableFuture<T> operation) {
+        try {
+            return operation.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    double getMirrorHitRatio() {
+        long hits = mirrorHits.sum();
+        long total = hits + mirrorMisses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
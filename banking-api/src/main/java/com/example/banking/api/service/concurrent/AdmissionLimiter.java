@@ -0,0 +1,196 @@
+package com.example.banking.api.service.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Limits how many units of work run at once, with a short FIFO wait queue in front.
+ *
+ * A caller that finds every permit taken waits in the queue for at most the configured
+ * time. If the queue is already full, or the wait runs out, the caller is shed with
+ * {@link ServiceOverloadedException} instead of piling more work onto a saturated
+ * resource. Waiting never holds a thread: {@link #admitAsync()} returns a future that
+ * completes when a permit is handed over.
+ */
+public class AdmissionLimiter {
+
+    private final String name;
+    private final int limit;
+    private final int maxQueued;
+    private final long maxWaitMs;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    private int inUse;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+
+    /**
+     * @param name identifies the limiter in error messages and metric tags
+     * @param limit maximum number of permits held at once
+     * @param maxQueued maximum number of callers waiting for a permit
+     * @param maxWaitMs how long a queued caller waits before it is shed
+     */
+    public AdmissionLimiter(String name, int limit, int maxQueued, long maxWaitMs) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        this.name = name;
+        this.limit = limit;
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    /**
+     * Takes a permit, waiting in the queue if none is free.
+     *
+     * @return a future completed once the caller holds a permit, which it must then
+     *         {@link #release()}, or failed with {@link ServiceOverloadedException} if the
+     *         queue is full or the wait ran out
+     */
+    public CompletableFuture<Void> admitAsync() {
+        Waiter waiter;
+        synchronized (lock) {
+            // Queued callers go first, so a steady stream of arrivals cannot starve them
+            if (inUse < limit && waiters.isEmpty()) {
+                inUse++;
+                admitted.increment();
+                return CompletableFuture.completedFuture(null);
+            }
+            if (waiters.size() >= maxQueued) {
+                rejected.increment();
+                return CompletableFuture.failedFuture(overloaded("queue is full"));
+            }
+            waiter = new Waiter();
+            waiters.add(waiter);
+        }
+        CompletableFuture.delayedExecutor(maxWaitMs, TimeUnit.MILLISECONDS).execute(() -> {
+            // Leave the queue before failing, so the shed caller never sees itself still queued;
+            // if release() already took the waiter, the permit is on its way instead
+            boolean shed;
+            synchronized (lock) {
+                shed = waiters.remove(waiter);
+            }
+            if (shed && waiter.granted.completeExceptionally(overloaded("no capacity within " + maxWaitMs + " ms"))) {
+                rejected.increment();
+            }
+        });
+        return waiter.granted;
+    }
+
+    /**
+     * Takes a permit, blocking the calling thread for at most the configured wait.
+     *
+     * @throws ServiceOverloadedException if the queue is full or the wait ran out
+     */
+    public void admit() {
+        try {
+            admitAsync().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ServiceOverloadedException) {
+                throw (ServiceOverloadedException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a permit, handing it straight to the longest-waiting caller if there is one.
+     */
+    public void release() {
+        while (true) {
+            Waiter next;
+            synchronized (lock) {
+                next = waiters.poll();
+                if (next == null) {
+                    inUse--;
+                    return;
+                }
+            }
+            // The caller may have cancelled its wait; if so, offer the permit to the next one
+            if (next.granted.complete(null)) {
+                admitted.increment();
+                queueNanos.add(System.nanoTime() - next.enqueuedAt);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs asynchronous work under a permit, released when the work completes.
+     *
+     * @return the work's future, or a future failed with {@link ServiceOverloadedException}
+     *         if no permit could be had
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> work) {
+        return admitAsync().thenCompose(admittedToRun -> {
+            CompletableFuture<T> running;
+            try {
+                running = work.get();
+            } catch (RuntimeException | Error e) {
+                release();
+                throw e;
+            }
+            return running.whenComplete((value, failure) -> release());
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of permits currently held.
+     */
+    public int getInUse() {
+        synchronized (lock) {
+            return inUse;
+        }
+    }
+
+    /**
+     * Gets the number of callers waiting for a permit.
+     */
+    public int getQueued() {
+        synchronized (lock) {
+            return waiters.size();
+        }
+    }
+
+    /**
+     * Gets the number of callers that were given a permit, immediately or after queueing.
+     */
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    /**
+     * Gets the number of callers shed because the queue was full or their wait ran out.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the total time admitted callers spent queued, in nanoseconds.
+     */
+    public double getQueueNanos() {
+        return queueNanos.sum();
+    }
+
+    private ServiceOverloadedException overloaded(String reason) {
+        long retryAfterSeconds = TimeUnit.MILLISECONDS.toSeconds(maxWaitMs + 999);
+        return new ServiceOverloadedException(name + " capacity exhausted: " + reason, retryAfterSeconds);
+    }
+
+    private static final class Waiter {
+        final long enqueuedAt = System.nanoTime();
+        final CompletableFuture<Void> granted = new CompletableFuture<>();
+    }
+}
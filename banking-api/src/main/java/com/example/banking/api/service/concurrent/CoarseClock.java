@@ -0,0 +1,59 @@
+package com.example.banking.api.service.concurrent;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A millisecond clock that is read from a cached field instead of the system.
+ *
+ * Session and process bookkeeping stamps every access. Reading this clock is a volatile
+ * load with no allocation, where {@code LocalDateTime.now()} built three objects per access.
+ * A daemon thread refreshes the value every {@link #RESOLUTION_MS} ms, which is far finer
+ * than the second-granularity timeouts it feeds.
+ *
+ * The value is epoch milliseconds anchored once at startup and then advanced by the
+ * monotonic clock, so idle times are not thrown off when the wall clock is adjusted.
+ */
+public final class CoarseClock {
+
+    /** How stale a reading can be */
+    public static final long RESOLUTION_MS = 10;
+
+    private static final long START_MILLIS = System.currentTimeMillis();
+    private static final long START_NANOS = System.nanoTime();
+    private static volatile long now = START_MILLIS;
+
+    static {
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(CoarseClock::tick, RESOLUTION_MS, RESOLUTION_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private CoarseClock() {
+    }
+
+    /**
+     * Gets the current time in epoch milliseconds, at most {@link #RESOLUTION_MS} ms old.
+     */
+    public static long currentTimeMillis() {
+        return now;
+    }
+
+    /**
+     * Converts a reading of this clock to a local date-time, for display.
+     */
+    public static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static void tick() {
+        now = START_MILLIS + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - START_NANOS);
+    }
+}
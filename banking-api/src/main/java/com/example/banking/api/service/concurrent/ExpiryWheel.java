@@ -0,0 +1,122 @@
+package com.example.banking.api.service.concurrent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * A hashed timer wheel that tracks one deadline per key.
+ *
+ * Deadlines are rounded up to whole ticks and hashed into a fixed ring of slots; a deadline
+ * more than one revolution away simply waits in its slot until its tick comes round. Each
+ * {@link #advance()} only visits the slots for the ticks that passed since the last call, so
+ * the cost of finding what is due depends on how many keys share those slots rather than on
+ * how many keys are tracked overall.
+ *
+ * Scheduling a key that is already tracked moves it to the new deadline. All methods are
+ * thread-safe; the wheel is meant to be advanced by a single periodic task.
+ *
+ * @param <K> the key type
+ */
+public class ExpiryWheel<K> {
+
+    private final long tickNanos;
+    private final LongSupplier clock;
+    private final long origin;
+    private final Map<K, Long>[] slots;
+    private final Map<K, Long> deadlines = new HashMap<>();
+    private long currentTick;
+
+    /**
+     * @param tickMillis the resolution of the wheel; deadlines fire at most one tick late
+     * @param wheelSize number of slots, rounded up to a power of two
+     */
+    public ExpiryWheel(long tickMillis, int wheelSize) {
+        this(tickMillis, wheelSize, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    ExpiryWheel(long tickMillis, int wheelSize, LongSupplier clock) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tick and wheel size must be positive");
+        }
+        this.tickNanos = tickMillis * 1_000_000L;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.slots = new Map[size];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new HashMap<>();
+        }
+    }
+
+    /**
+     * Tracks the key until the given delay from now has passed, replacing any earlier deadline.
+     */
+    public synchronized void schedule(K key, long delayMillis) {
+        long elapsed = clock.getAsLong() - origin + Math.max(0, delayMillis) * 1_000_000L;
+        // Round up so a key never fires before its deadline, and never into a tick already passed
+        long tick = Math.max(currentTick + 1, (elapsed + tickNanos - 1) / tickNanos);
+        Long previous = deadlines.put(key, tick);
+        if (previous != null) {
+            slotFor(previous).remove(key);
+        }
+        slotFor(tick).put(key, tick);
+    }
+
+    /**
+     * Stops tracking the key.
+     *
+     * @return true if the key had a pending deadline
+     */
+    public synchronized boolean cancel(K key) {
+        Long tick = deadlines.remove(key);
+        if (tick == null) {
+            return false;
+        }
+        slotFor(tick).remove(key);
+        return true;
+    }
+
+    /**
+     * Moves the wheel up to the current time and removes every key whose deadline has passed.
+     *
+     * @return the keys that became due, in no particular order
+     */
+    public synchronized List<K> advance() {
+        long targetTick = (clock.getAsLong() - origin) / tickNanos;
+        List<K> due = new ArrayList<>();
+        // After a full revolution every slot has been visited once, so a long stall costs no more
+        long steps = Math.min(targetTick - currentTick, slots.length);
+        for (long step = 1; step <= steps; step++) {
+            Iterator<Map.Entry<K, Long>> it = slotFor(currentTick + step).entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<K, Long> entry = it.next();
+                if (entry.getValue() <= targetTick) {
+                    it.remove();
+                    deadlines.remove(entry.getKey());
+                    due.add(entry.getKey());
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return due;
+    }
+
+    /**
+     * Gets the number of keys with a pending deadline.
+     */
+    public synchronized int size() {
+        return deadlines.size();
+    }
+
+    private Map<K, Long> slotFor(long tick) {
+        return slots[(int) (tick & (slots.length - 1))];
+    }
+}
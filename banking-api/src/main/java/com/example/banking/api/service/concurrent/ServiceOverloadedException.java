@@ -0,0 +1,25 @@
+package com.example.banking.api.service.concurrent;
+
+/**
+ * Thrown when a request is shed because the service is at capacity. The caller should
+ * retry after {@link #getRetryAfterSeconds()}; nothing was attempted on its behalf.
+ *
+ * Extends {@link IllegalStateException} so callers that already treated a full session
+ * table as an illegal state keep working.
+ */
+public class ServiceOverloadedException extends IllegalStateException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    /**
+     * Gets how long the client should wait before retrying, in whole seconds; at least 1.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
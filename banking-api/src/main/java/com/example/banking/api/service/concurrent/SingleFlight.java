@@ -0,0 +1,133 @@
+package com.example.banking.api.service.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into a single execution.
+ *
+ * The first caller for a key runs the loader; callers arriving while it is still running
+ * wait for the same result instead of running it again. Once the call finishes the key is
+ * released, so the next call starts a fresh execution. Failures are propagated to every
+ * waiting caller and are not remembered.
+ *
+ * @param <K> the key type
+ * @param <V> the result type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Runs the loader for the key, or waits for the execution already in progress.
+     *
+     * @param key the key to collapse calls on
+     * @param loader produces the value; only invoked by the leading caller
+     * @return the loader's result
+     * @throws Exception whatever the loader threw, for the leader and all waiters
+     */
+    public V execute(K key, Callable<V> loader) throws Exception {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            V value = loader.call();
+            call.complete(value);
+            return value;
+        } catch (Exception e) {
+            call.completeExceptionally(e);
+            throw e;
+        } catch (Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Starts the loader for the key, or joins the execution already in progress, without
+     * blocking the caller.
+     *
+     * Each caller gets its own dependent future, so cancelling or timing out one of them
+     * does not affect the others.
+     *
+     * @param key the key to collapse calls on
+     * @param loader starts the asynchronous work; only invoked by the leading caller
+     * @return a future completed with the loader's result, or exceptionally with its failure
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy();
+        }
+
+        executions.increment();
+        CompletableFuture<V> loading;
+        try {
+            loading = loader.get();
+        } catch (RuntimeException | Error e) {
+            loading = CompletableFuture.failedFuture(e);
+        }
+        loading.whenComplete((value, failure) -> {
+            // Release the key first, so a caller woken by the result starts a fresh execution
+            inFlight.remove(key, call);
+            if (failure != null) {
+                call.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause() : failure);
+            } else {
+                call.complete(value);
+            }
+        });
+        return call.copy();
+    }
+
+    /**
+     * Gets the number of times a loader was actually run.
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * Gets the number of calls that joined an execution already in progress.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Gets the number of keys with an execution currently in progress.
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
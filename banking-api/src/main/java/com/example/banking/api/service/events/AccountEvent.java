@@ -0,0 +1,79 @@
+package com.example.banking.api.service.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to one user's account, published on the {@link AccountEventBus} after the
+ * banking process has confirmed it.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class AccountEvent {
+
+    public enum Kind {
+        /** A deposit, withdrawal or transfer was applied; carries the transaction and the balance after it. */
+        TRANSACTION,
+        /** The account balance is now {@link #getBalance()}. */
+        BALANCE
+    }
+
+    private final Kind kind;
+    private final String username;
+    private final String type;
+    private final Double amount;
+    private final LocalDateTime timestamp;
+    private final double balance;
+
+    private AccountEvent(Kind kind, String username, String type, Double amount, LocalDateTime timestamp, double balance) {
+        this.kind = kind;
+        this.username = username;
+        this.type = type;
+        this.amount = amount;
+        this.timestamp = timestamp;
+        this.balance = balance;
+    }
+
+    public static AccountEvent transaction(String username, String type, double amount, LocalDateTime timestamp, double balance) {
+        return new AccountEvent(Kind.TRANSACTION, username, type, amount, timestamp, balance);
+    }
+
+    public static AccountEvent balance(String username, double balance) {
+        return new AccountEvent(Kind.BALANCE, username, null, null, null, balance);
+    }
+
+    @JsonIgnore
+    public Kind getKind() {
+        return kind;
+    }
+
+    @JsonIgnore
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * The transaction type label, e.g. "Deposit"; null for BALANCE events.
+     */
+    public String getType() {
+        return type;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public double getBalance() {
+        return balance;
+    }
+
+    @Override
+    public String toString() {
+        return kind + " for " + username + (type != null ? " [" + type + " $" + amount + "]" : "") + " balance $" + balance;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.banking.api.service.events;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * In-process publish/subscribe channel for {@link AccountEvent}s, keyed by username.
+ *
+ * Publishing never blocks the request that made the change: events for users with no
+ * subscribers are dropped on the spot, and the rest are handed to a single dispatcher thread
+ * that calls listeners in publish order. If the dispatcher falls more than
+ * {@code banking.events.queue-capacity} events behind, new events are dropped and counted
+ * rather than queued without bound; subscribers can re-sync by reading the account.
+ */
+@Component
+public class AccountEventBus implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountEventBus.class);
+
+    /**
+     * Handle returned by {@link #subscribe}; closing it stops delivery to the listener.
+     */
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final Map<String, List<Consumer<AccountEvent>>> listeners = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final ThreadPoolExecutor dispatcher;
+
+    public AccountEventBus(@Value("${banking.events.queue-capacity:10000}") int queueCapacity) {
+        this.dispatcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "account-event-dispatcher");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Registers a listener for one user's events. Listeners run on the dispatcher thread and
+     * should not block for long; an exception from a listener is logged and does not
+     * unsubscribe it.
+     */
+    public Subscription subscribe(String username, Consumer<AccountEvent> listener) {
+        // Add inside compute so a concurrent close cannot drop the list between lookup and add
+        listeners.compute(username, (key, current) -> {
+            List<Consumer<AccountEvent>> list = current != null ? current : new CopyOnWriteArrayList<>();
+            list.add(listener);
+            return list;
+        });
+        subscriberCount.incrementAndGet();
+        AtomicBoolean closed = new AtomicBoolean();
+        return () -> {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscriberCount.decrementAndGet();
+            listeners.computeIfPresent(username, (key, current) -> {
+                current.remove(listener);
+                return current.isEmpty() ? null : current;
+            });
+        };
+    }
+
+    /**
+     * Delivers an event to the user's current subscribers asynchronously.
+     */
+    public void publish(AccountEvent event) {
+        published.increment();
+        if (!listeners.containsKey(event.getUsername())) {
+            return;
+        }
+        try {
+            dispatcher.execute(() -> deliver(event));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            logger.warn("Dropped account event {}: dispatcher queue full or shut down", event);
+        }
+    }
+
+    private void deliver(AccountEvent event) {
+        List<Consumer<AccountEvent>> current = listeners.get(event.getUsername());
+        if (current == null) {
+            return;
+        }
+        for (Consumer<AccountEvent> listener : current) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                logger.warn("Account event listener for {} failed", event.getUsername(), e);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("banking.events.published", published, LongAdder::sum)
+                .description("Account events published by deposit, withdrawal, transfer and batch requests")
+                .register(registry);
+        FunctionCounter.builder("banking.events.dropped", dropped, LongAdder::sum)
+                .description("Account events dropped because the dispatcher queue was full")
+                .register(registry);
+        Gauge.builder("banking.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Listeners currently subscribed to account events, one per open stream")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+        try {
+            if (!dispatcher.awaitTermination(5, TimeUnit.SECONDS)) {
+                dispatcher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            dispatcher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
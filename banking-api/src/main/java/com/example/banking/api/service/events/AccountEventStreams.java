@@ -0,0 +1,115 @@
+package com.example.banking.api.service.events;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-sent event streams of {@link AccountEvent}s, one per open connection.
+ *
+ * Streams are async servlet responses: an idle connection holds an {@link SseEmitter} and a
+ * bus subscription but no request thread, so thousands can be open at once. Events are
+ * written from the bus dispatcher thread, and one scheduler thread sends a comment line
+ * to every stream each heartbeat interval so proxies keep idle connections open and
+ * dead clients are noticed.
+ */
+@Component
+public class AccountEventStreams {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountEventStreams.class);
+
+    private final AccountEventBus eventBus;
+    private final long timeoutMillis;
+    private final Map<SseEmitter, AccountEventBus.Subscription> streams = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-event-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AccountEventStreams(AccountEventBus eventBus,
+                               @Value("${banking.events.stream-timeout:1800000}") long timeoutMillis,
+                               @Value("${banking.events.heartbeat-interval:15000}") long heartbeatMillis) {
+        this.eventBus = eventBus;
+        this.timeoutMillis = timeoutMillis;
+        heartbeatExecutor.scheduleAtFixedRate(this::sendHeartbeats, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream of the user's account events. The stream ends when the client
+     * disconnects or after {@code banking.events.stream-timeout}; EventSource clients
+     * reconnect on their own.
+     */
+    public SseEmitter open(String username) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        AccountEventBus.Subscription subscription = eventBus.subscribe(username, event -> send(emitter, event));
+        streams.put(emitter, subscription);
+
+        emitter.onCompletion(() -> close(emitter));
+        emitter.onTimeout(() -> close(emitter));
+        emitter.onError(e -> close(emitter));
+
+        try {
+            // Commit the response headers now so the client sees the stream open before the first event
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        logger.debug("Opened account event stream for {}", username);
+        return emitter;
+    }
+
+    public int getOpenStreams() {
+        return streams.size();
+    }
+
+    private void send(SseEmitter emitter, AccountEvent event) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(event.getKind().name().toLowerCase())
+                    .data(event, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already completed
+            close(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (SseEmitter emitter : streams.keySet()) {
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                close(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void close(SseEmitter emitter) {
+        AccountEventBus.Subscription subscription = streams.remove(emitter);
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatExecutor.shutdownNow();
+        for (SseEmitter emitter : streams.keySet()) {
+            close(emitter);
+            emitter.complete();
+        }
+    }
+}
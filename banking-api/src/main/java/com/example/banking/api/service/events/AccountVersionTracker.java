@@ -0,0 +1,86 @@
+package com.example.banking.api.service.events;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-account version counters backing conditional GETs on balance and transaction reads.
+ *
+ * Every confirmed mutation bumps the user's version, and so does every mutation that failed
+ * or whose outcome is unknown, since the process may still have applied it. An unchanged
+ * version therefore means every read of that account would return what it returned before.
+ *
+ * Versions are kept per instance. In router mode a transfer bumps the recipient's version
+ * only on the instance that ran it; if another instance owns the recipient, tags that one
+ * handed out keep matching until the recipient's own account next changes there. The ETag combines the version
+ * with an id chosen at startup, so tags handed out before a restart never match again.
+ * Reads look up the tag before touching the banking process; a request whose If-None-Match
+ * still matches is answered 304 straight from here.
+ */
+@Component
+public class AccountVersionTracker implements MeterBinder {
+
+    private final String instanceId = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final LongAdder notModified = new LongAdder();
+
+    /**
+     * Records that the user's account changed, or may have. Call after the mutation is
+     * confirmed or has failed, and before its response is sent.
+     */
+    public void bump(String username) {
+        versions.computeIfAbsent(username, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    public long getVersion(String username) {
+        AtomicLong version = versions.get(username);
+        return version != null ? version.get() : 0;
+    }
+
+    /**
+     * The strong ETag for the user's current version, quoted as it goes in the header.
+     */
+    public String etag(String username) {
+        return "\"" + instanceId + "-" + getVersion(username) + "\"";
+    }
+
+    /**
+     * Checks an If-None-Match header against a current ETag, counting the hits.
+     *
+     * @param ifNoneMatch the header value, possibly null, "*" or a comma-separated list
+     * @param etag the tag from {@link #etag(String)}
+     * @return true if the client's copy is current and a 304 should be sent
+     */
+    public boolean isNotModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match uses weak comparison, so W/"x" matches "x"
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                notModified.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("banking.reads.not-modified", notModified, LongAdder::sum)
+                .description("Balance and transaction reads answered 304 without a process round trip")
+                .register(registry);
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.banking.api.service.idempotency;
+
+import com.example.banking.api.service.concurrent.ServiceOverloadedException;
+import com.example.banking.api.service.process.ProcessCreationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-evicting store of responses keyed by user and Idempotency-Key.
+ *
+ * The first request for a key runs the action; retries with the same key get the stored
+ * response back without touching the banking process. Concurrent duplicates wait for the
+ * in-flight request instead of running it again.
+ *
+ * A request shed by admission control or a full process mailbox, or one no process could be
+ * started for, never reached the process, so its key is released and a retry runs for real. Any other failure, e.g. a timeout, may have come after the process
+ * applied the request, so the key stays pinned to it: retries fail with
+ * {@link IdempotencyOutcomeUnknownException} until the entry expires, rather than risk
+ * applying the request twice. Only completed entries are ever evicted to make room.
+ */
+@Component
+public class IdempotencyCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyCache.class);
+
+    public static final String REPLAY_HEADER = "Idempotent-Replayed";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    // Every entry gets the same TTL, so insertion order is also expiry order
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotencyCache(@Value("${banking.idempotency.ttl:600000}") long ttlMillis,
+                            @Value("${banking.idempotency.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Runs the action once per (username, key) and replays its response for later duplicates.
+     *
+     * @param username the user the key is scoped to
+     * @param key the client-supplied Idempotency-Key
+     * @param fingerprint identifies the request contents; a retry must send the same one
+     * @param action produces the response for the first request
+     * @return the fresh or replayed response
+     * @throws IdempotencyKeyMismatchException if the key was used for a different request
+     * @throws IllegalArgumentException if the key is blank or too long
+     */
+    public <T> ResponseEntity<T> execute(String username, String key, String fingerprint,
+                                         Supplier<ResponseEntity<T>> action) {
+        try {
+            return executeAsync(username, key, fingerprint,
+                    () -> CompletableFuture.completedFuture(action.get())).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Like {@link #execute}, for an action that completes asynchronously. Duplicates of an
+     * in-flight request wait on its future rather than on a thread.
+     *
+     * @param username the user the key is scoped to
+     * @param key the client-supplied Idempotency-Key
+     * @param fingerprint identifies the request contents; a retry must send the same one
+     * @param action starts the request and returns its eventual response
+     * @return a future completed with the fresh or replayed response
+     * @throws IdempotencyKeyMismatchException if the key was used for a different request
+     * @throws IllegalArgumentException if the key is blank or too long
+     */
+    public <T> CompletableFuture<ResponseEntity<T>> executeAsync(String username, String key, String fingerprint,
+                                                                 Supplier<CompletableFuture<ResponseEntity<T>>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = username + '\u0000' + key;
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            long now = System.currentTimeMillis();
+            evictExpired(now);
+            entry = entries.get(cacheKey);
+            if (entry == null) {
+                entry = new Entry(fingerprint, now + ttlMillis);
+                entries.put(cacheKey, entry);
+                owner = true;
+                evictOverflow();
+            }
+        }
+
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyMismatchException("Idempotency-Key was already used for a different request");
+        }
+
+        if (!owner) {
+            return awaitAndReplay(username, key, fingerprint, action, entry);
+        }
+
+        CompletableFuture<ResponseEntity<T>> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        Entry owned = entry;
+        return response.whenComplete((value, failure) -> {
+            if (failure == null) {
+                owned.result.complete(value);
+                return;
+            }
+            if (isShed(failure)) {
+                synchronized (entries) {
+                    entries.remove(cacheKey, owned);
+                }
+            }
+            owned.result.completeExceptionally(failure);
+        });
+    }
+
+    /**
+     * Gets the number of stored keys, including in-flight ones.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private <T> CompletableFuture<ResponseEntity<T>> awaitAndReplay(String username, String key, String fingerprint,
+                                                                    Supplier<CompletableFuture<ResponseEntity<T>>> action,
+                                                                    Entry entry) {
+        return entry.result.handle((original, failure) -> {
+            if (failure != null) {
+                if (!isShed(failure)) {
+                    throw new IdempotencyOutcomeUnknownException("The request with this Idempotency-Key failed and may "
+                            + "have been applied; check the account before retrying with a new key", failure);
+                }
+                // The original attempt never reached the process and was not stored; run this one for real
+                logger.debug("In-flight request for idempotency key was shed, retrying");
+                return executeAsync(username, key, fingerprint, action);
+            }
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(original.getHeaders());
+            headers.set(REPLAY_HEADER, "true");
+            @SuppressWarnings("unchecked")
+            T body = (T) original.getBody();
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(original.getStatusCode()).headers(headers).body(body));
+        }).thenCompose(replayed -> replayed);
+    }
+
+    /**
+     * Whether a request failed before it reached the banking process: shed by admission
+     * control, rejected by a full or closed process mailbox, or left without a process
+     * because none could be started.
+     */
+    private static boolean isShed(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ServiceOverloadedException
+                    || cause instanceof RejectedExecutionException
+                    || cause instanceof ProcessCreationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (entry.expiresAt > now) {
+                break;
+            }
+            if (entry.result.isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Evicts the oldest completed entries while there are too many. In-flight entries are
+     * kept, so the cache may briefly hold more than its limit.
+     */
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            if (iterator.next().getValue().result.isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        final String fingerprint;
+        final long expiresAt;
+        final CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+
+        Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.banking.api.service.idempotency;
+
+/**
+ * Thrown when an Idempotency-Key is reused for a request that differs from the original.
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
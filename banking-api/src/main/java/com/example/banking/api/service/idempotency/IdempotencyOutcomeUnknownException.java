@@ -0,0 +1,12 @@
+package com.example.banking.api.service.idempotency;
+
+/**
+ * Thrown when an Idempotency-Key is retried after the original request failed in a way that
+ * leaves unknown whether the banking process applied it.
+ */
+public class IdempotencyOutcomeUnknownException extends RuntimeException {
+
+    public IdempotencyOutcomeUnknownException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.banking.api.service.process;
 
+import com.example.banking.api.service.concurrent.CoarseClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -7,6 +8,12 @@ import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents a managed banking process with its I/O streams and metadata.
@@ -16,28 +23,50 @@ public class ManagedProcess {
     
     private static final Logger logger = LoggerFactory.getLogger(ManagedProcess.class);
     
+    /** How long a process gets to exit on its own before it is killed */
+    public static final long TERMINATION_GRACE_MS = 5000;
+    
+    /** How long a killed process gets to be reaped before callers stop waiting for it */
+    public static final long FORCED_EXIT_WAIT_MS = 1000;
+    
     private final String processId;
     private final Process process;
     private final BufferedWriter writer;
     private final BufferedReader reader;
     private final String username;
     private final String sessionId;
-    private final LocalDateTime createdAt;
-    private volatile LocalDateTime lastAccessedAt;
-    private volatile long lastAccessedTimeMs;
+    private final ProcessMailbox mailbox;
+    private final long createdAtMillis;
+    private volatile long lastAccessedMillis;
     private volatile boolean terminated = false;
+    private volatile boolean resuming;
+    private volatile boolean loggedIn;
+    private final AtomicLong operationCount = new AtomicLong();
+    private final AtomicBoolean recycling = new AtomicBoolean();
+    private volatile long recycleNotBeforeMillis;
+    private volatile long rssCheckedMillis;
+    private volatile ManagedProcess successor;
+    private final CompletableFuture<Void> termination = new CompletableFuture<>();
     
     public ManagedProcess(String processId, Process process, BufferedWriter writer, 
                          BufferedReader reader, String username, String sessionId) {
+        // Without a dedicated executor the mailbox drains on the submitting thread
+        this(processId, process, writer, reader, username, sessionId,
+             new ProcessMailbox(processId, Runnable::run, ProcessMailbox.DEFAULT_CAPACITY));
+    }
+    
+    public ManagedProcess(String processId, Process process, BufferedWriter writer, 
+                         BufferedReader reader, String username, String sessionId,
+                         ProcessMailbox mailbox) {
         this.processId = processId;
         this.process = process;
         this.writer = writer;
         this.reader = reader;
         this.username = username;
         this.sessionId = sessionId;
-        this.createdAt = LocalDateTime.now();
-        this.lastAccessedAt = LocalDateTime.now();
-        this.lastAccessedTimeMs = System.currentTimeMillis();
+        this.mailbox = mailbox;
+        this.createdAtMillis = CoarseClock.currentTimeMillis();
+        this.lastAccessedMillis = createdAtMillis;
     }
     
     /**
@@ -82,33 +111,142 @@ public class ManagedProcess {
         return sessionId;
     }
     
+    /**
+     * Gets the mailbox that serializes operations on this process
+     */
+    public ProcessMailbox getMailbox() {
+        return mailbox;
+    }
+    
     /**
      * Gets the creation timestamp
      */
     public LocalDateTime getCreatedAt() {
-        return createdAt;
+        return CoarseClock.toLocalDateTime(createdAtMillis);
     }
     
     /**
      * Gets the last accessed timestamp
      */
     public LocalDateTime getLastAccessedAt() {
-        return lastAccessedAt;
+        return CoarseClock.toLocalDateTime(lastAccessedMillis);
     }
     
     /**
      * Gets the last accessed time in milliseconds (for timeout calculations)
      */
     public long getLastAccessedTime() {
-        return lastAccessedTimeMs;
+        return lastAccessedMillis;
     }
     
     /**
      * Updates the last accessed timestamp
      */
     public void updateLastAccessed() {
-        this.lastAccessedAt = LocalDateTime.now();
-        this.lastAccessedTimeMs = System.currentTimeMillis();
+        this.lastAccessedMillis = CoarseClock.currentTimeMillis();
+    }
+    
+    /**
+     * Milliseconds since the process was last used, to within the coarse clock's resolution.
+     */
+    public long getIdleMillis() {
+        return Math.max(0L, CoarseClock.currentTimeMillis() - lastAccessedMillis);
+    }
+    
+    /**
+     * Checks whether the banking application in the process is logged in as its user.
+     * Operations on a logged-in process must not send it another login.
+     */
+    public boolean isLoggedIn() {
+        return loggedIn;
+    }
+    
+    /**
+     * Records that a login or resume on the process succeeded.
+     */
+    public void markLoggedIn() {
+        loggedIn = true;
+        resuming = false;
+    }
+    
+    /**
+     * Checks whether the process was started logged in and its startup output has not been
+     * read yet. A resume operation has to read it before anything else is sent.
+     */
+    public boolean isResuming() {
+        return resuming;
+    }
+    
+    void markResuming() {
+        resuming = true;
+    }
+    
+    /**
+     * Gets the number of operations run on the process, counted as each one starts.
+     */
+    public long getOperationCount() {
+        return operationCount.get();
+    }
+    
+    /**
+     * Milliseconds since the process was started, to within the coarse clock's resolution.
+     */
+    public long getAgeMillis() {
+        return Math.max(0L, CoarseClock.currentTimeMillis() - createdAtMillis);
+    }
+    
+    /**
+     * Claims the process for recycling, unless it is already being recycled or a failed
+     * attempt asked for the next one to wait.
+     *
+     * @return true if the caller should recycle the process
+     */
+    boolean tryStartRecycling() {
+        return CoarseClock.currentTimeMillis() >= recycleNotBeforeMillis && recycling.compareAndSet(false, true);
+    }
+    
+    /**
+     * Gives up a recycling attempt; the process keeps serving, and may be recycled again
+     * after {@code retryDelayMs}.
+     */
+    void recyclingFailed(long retryDelayMs) {
+        recycleNotBeforeMillis = CoarseClock.currentTimeMillis() + retryDelayMs;
+        recycling.set(false);
+    }
+    
+    long getRssCheckedMillis() {
+        return rssCheckedMillis;
+    }
+    
+    void setRssCheckedMillis(long rssCheckedMillis) {
+        this.rssCheckedMillis = rssCheckedMillis;
+    }
+    
+    /**
+     * Records that the process has been recycled and {@code successor} serves its user from
+     * now on. Nothing more is run on a retired process.
+     */
+    void retire(ManagedProcess successor) {
+        this.successor = successor;
+    }
+    
+    /**
+     * Gets the process that replaced this one when it was recycled, or null if it was not.
+     */
+    public ManagedProcess getSuccessor() {
+        return successor;
+    }
+    
+    /**
+     * Gets the process currently serving this process's user: this one, or the last of its
+     * successors if it has been recycled.
+     */
+    public ManagedProcess getCurrent() {
+        ManagedProcess current = this;
+        while (current.successor != null) {
+            current = current.successor;
+        }
+        return current;
     }
     
     /**
@@ -123,22 +261,21 @@ public class ManagedProcess {
      */
     public boolean isIdle() {
         // Process is considered idle if not accessed for more than 1 minute
-        return lastAccessedAt.plusMinutes(1).isBefore(LocalDateTime.now());
+        return getIdleMillis() > TimeUnit.MINUTES.toMillis(1);
     }
     
     /**
      * Checks if the process has been idle for longer than the specified timeout
      */
     public boolean isIdleTimeout(long timeoutMs) {
-        long idleTime = System.currentTimeMillis() - getLastAccessedTime();
-        return idleTime > timeoutMs;
+        return getIdleMillis() > timeoutMs;
     }
     
     /**
      * Gets the duration this process has been running in seconds
      */
     public long getUptimeSeconds() {
-        return java.time.Duration.between(createdAt, LocalDateTime.now()).getSeconds();
+        return (CoarseClock.currentTimeMillis() - createdAtMillis) / 1000L;
     }
     
     /**
@@ -149,18 +286,53 @@ public class ManagedProcess {
             throw new IllegalStateException("Cannot create communication for unhealthy process");
         }
         updateLastAccessed();
+        operationCount.incrementAndGet();
         return new ProcessCommunication(writer, reader, processExecutor);
     }
     
     /**
-     * Terminates the managed process and closes all resources
+     * Terminates the managed process and waits until it has exited
      */
     public void terminate() {
-        if (terminated) {
-            return;
+        try {
+            terminateAsync().get(TERMINATION_GRACE_MS + FORCED_EXIT_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("Process {} did not exit after termination", processId);
         }
-        
-        terminated = true;
+    }
+    
+    /**
+     * Starts terminating the managed process and closes all resources without waiting.
+     * The process is asked to exit and is forcibly killed if it is still alive after the
+     * grace period. Calling this again returns the same outcome.
+     *
+     * @return completes once the process has exited
+     */
+    public CompletableFuture<Void> terminateAsync() {
+        return terminateAsync(TERMINATION_GRACE_MS);
+    }
+    
+    /**
+     * Kills the process at once, without letting it run its shutdown hook. The banking
+     * application saves every user on exit, so a process whose in-memory copy may be older
+     * than the data file is killed rather than asked to exit.
+     *
+     * @return completes once the process has exited
+     */
+    public CompletableFuture<Void> killAsync() {
+        return terminateAsync(0);
+    }
+    
+    CompletableFuture<Void> terminateAsync(long graceMs) {
+        synchronized (termination) {
+            if (terminated) {
+                return termination.copy();
+            }
+            terminated = true;
+        }
+        mailbox.close();
         
         try {
             // Close I/O streams
@@ -180,32 +352,36 @@ public class ManagedProcess {
                 }
             }
             
-            // Terminate the process
-            if (process != null && process.isAlive()) {
-                try {
-                    // Try graceful termination first
-                    process.destroy();
-                    
-                    // Wait up to 5 seconds for graceful termination
-                    if (!process.waitFor(5, java.util.concurrent.TimeUnit.SECONDS)) {
-                        logger.warn("Process {} did not terminate gracefully, forcing termination", processId);
-                        process.destroyForcibly();
-                    }
-                } catch (InterruptedException e) {
-                    logger.warn("Interrupted while waiting for process {} to terminate", processId);
-                    process.destroyForcibly();
-                    Thread.currentThread().interrupt();
-                } catch (Exception e) {
-                    logger.error("Error terminating process {}", processId, e);
-                    process.destroyForcibly();
-                }
+            if (process == null || !process.isAlive()) {
+                termination.complete(null);
+                return termination.copy();
             }
             
-            logger.debug("Successfully terminated managed process {}", processId);
+            // Try graceful termination first, and force it if the grace period runs out
+            if (graceMs > 0) {
+                process.destroy();
+            } else {
+                process.destroyForcibly();
+            }
+            process.onExit().thenRun(() -> {
+                logger.debug("Successfully terminated managed process {}", processId);
+                termination.complete(null);
+            });
+            CompletableFuture.delayedExecutor(graceMs, TimeUnit.MILLISECONDS).execute(() -> {
+                if (!termination.isDone() && process.isAlive()) {
+                    logger.warn("Process {} did not terminate gracefully, forcing termination", processId);
+                    process.destroyForcibly();
+                }
+            });
             
         } catch (Exception e) {
             logger.error("Error during process termination for {}", processId, e);
+            if (process != null) {
+                process.destroyForcibly();
+            }
+            termination.complete(null);
         }
+        return termination.copy();
     }
     
     @Override
@@ -214,11 +390,12 @@ public class ManagedProcess {
                 "processId='" + processId + '\'' +
                 ", username='" + username + '\'' +
                 ", sessionId='" + sessionId + '\'' +
-                ", createdAt=" + createdAt +
-                ", lastAccessedAt=" + lastAccessedAt +
+                ", createdAt=" + getCreatedAt() +
+                ", lastAccessedAt=" + getLastAccessedAt() +
                 ", healthy=" + isHealthy() +
                 ", idle=" + isIdle() +
                 ", uptimeSeconds=" + getUptimeSeconds() +
+                ", operations=" + getOperationCount() +
                 '}';
     }
 }
\ No newline at end of file
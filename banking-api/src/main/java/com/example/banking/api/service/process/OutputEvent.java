@@ -0,0 +1,146 @@
+package com.example.banking.api.service.process;
+
+import java.time.LocalDateTime;
+
+/**
+ * A typed piece of banking process output produced by {@link ProcessOutputTokenizer}.
+ * Only the fields relevant to the event type are populated; the rest are null or NaN.
+ */
+public final class OutputEvent {
+
+    public enum Type {
+        /** The process is waiting for input; {@link #getText()} is one of the known prompts. */
+        PROMPT,
+        /** A "Current Balance: $X" report, or the balance embedded in an error line. */
+        BALANCE,
+        /** One line of the transaction history listing or of a query page. */
+        TRANSACTION,
+        /** The "Next cursor: n" trailer of a query page; {@link #getSequence()} is the cursor. */
+        CURSOR,
+        /** The "Head sequence: n" trailer of a query page; {@link #getSequence()} is the newest sequence number. */
+        HEAD,
+        /** A line reporting that the requested action succeeded. */
+        SUCCESS,
+        /** A line reporting that the requested action was rejected. */
+        ERROR,
+        /** Any other non-empty line, such as menu entries and headers. */
+        TEXT
+    }
+
+    private final Type type;
+    private final String text;
+    private final double amount;
+    private final LocalDateTime timestamp;
+    private final String detail;
+    private final long sequence;
+    private final double balanceAfter;
+
+    OutputEvent(Type type, String text, double amount, LocalDateTime timestamp, String detail,
+                long sequence, double balanceAfter) {
+        this.type = type;
+        this.text = text;
+        this.amount = amount;
+        this.timestamp = timestamp;
+        this.detail = detail;
+        this.sequence = sequence;
+        this.balanceAfter = balanceAfter;
+    }
+
+    static OutputEvent prompt(String prompt) {
+        return new OutputEvent(Type.PROMPT, prompt, Double.NaN, null, null, -1, Double.NaN);
+    }
+
+    static OutputEvent balance(double amount) {
+        return new OutputEvent(Type.BALANCE, null, amount, null, null, -1, Double.NaN);
+    }
+
+    static OutputEvent transaction(String label, double amount, LocalDateTime timestamp, String detail,
+                                   long sequence, double balanceAfter) {
+        return new OutputEvent(Type.TRANSACTION, label, amount, timestamp, detail, sequence, balanceAfter);
+    }
+
+    static OutputEvent sequence(Type type, long sequence) {
+        return new OutputEvent(type, null, Double.NaN, null, null, sequence, Double.NaN);
+    }
+
+    static OutputEvent line(Type type, String text, double amount) {
+        return new OutputEvent(type, text, amount, null, null, -1, Double.NaN);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public boolean is(Type type) {
+        return this.type == type;
+    }
+
+    /**
+     * The prompt for PROMPT events, the transaction type label for TRANSACTION events
+     * and the full trimmed line for SUCCESS, ERROR and TEXT events.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * The dollar amount on the line, or NaN when it carried none.
+     */
+    public double getAmount() {
+        return amount;
+    }
+
+    public boolean hasAmount() {
+        return !Double.isNaN(amount);
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * The parenthesised suffix of a transfer history line, e.g. "to bob, ref 1a2b", or null.
+     */
+    public String getDetail() {
+        return detail;
+    }
+
+    /**
+     * The position of a query row in the account history, the cursor of a CURSOR event or
+     * the head of a HEAD event; -1 when not applicable.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * The running balance after a query row's transaction, or NaN if the line carried none.
+     */
+    public double getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(type.name());
+        if (text != null) {
+            sb.append(" [").append(text).append(']');
+        }
+        if (hasAmount()) {
+            sb.append(" $").append(amount);
+        }
+        if (timestamp != null) {
+            sb.append(" @").append(timestamp);
+        }
+        if (detail != null) {
+            sb.append(" (").append(detail).append(')');
+        }
+        if (sequence >= 0) {
+            sb.append(" #").append(sequence);
+        }
+        if (!Double.isNaN(balanceAfter)) {
+            sb.append(" -> $").append(balanceAfter);
+        }
+        return sb.toString();
+    }
+}
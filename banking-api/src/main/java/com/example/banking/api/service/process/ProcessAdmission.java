@@ -0,0 +1,75 @@
+package com.example.banking.api.service.process;
+
+import com.example.banking.api.service.concurrent.AdmissionLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the process bridge.
+ *
+ * Logins are limited by the spawn limiter, since each one boots a JVM and a burst of them
+ * saturates the host long before any of them is ready. Session operations are limited by
+ * the operation limiter, held from mailbox submission until the operation completes. Both
+ * have a short wait queue; callers beyond it are shed with a 503 rather than left to time out.
+ */
+@Component
+public class ProcessAdmission implements MeterBinder {
+
+    private final AdmissionLimiter spawns;
+    private final AdmissionLimiter operations;
+
+    public ProcessAdmission(@Value("${banking.admission.max-concurrent-spawns:4}") int maxConcurrentSpawns,
+                            @Value("${banking.admission.spawn-queue:16}") int spawnQueue,
+                            @Value("${banking.admission.spawn-wait:10000}") long spawnWaitMs,
+                            @Value("${banking.admission.max-concurrent-operations:64}") int maxConcurrentOperations,
+                            @Value("${banking.admission.operation-queue:128}") int operationQueue,
+                            @Value("${banking.admission.operation-wait:1000}") long operationWaitMs) {
+        this.spawns = new AdmissionLimiter("spawn", maxConcurrentSpawns, spawnQueue, spawnWaitMs);
+        this.operations = new AdmissionLimiter("operation", maxConcurrentOperations, operationQueue, operationWaitMs);
+    }
+
+    /**
+     * Gets the limiter for logins, which spawn and boot a banking process.
+     */
+    public AdmissionLimiter getSpawns() {
+        return spawns;
+    }
+
+    /**
+     * Gets the limiter for operations on an existing session process.
+     */
+    public AdmissionLimiter getOperations() {
+        return operations;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (AdmissionLimiter limiter : List.of(spawns, operations)) {
+            FunctionTimer.builder("banking.admission.queue.time", limiter,
+                            AdmissionLimiter::getAdmitted, AdmissionLimiter::getQueueNanos, TimeUnit.NANOSECONDS)
+                    .tag("limiter", limiter.getName())
+                    .description("Time admitted requests spent waiting for capacity")
+                    .register(registry);
+            FunctionCounter.builder("banking.admission.rejected", limiter, AdmissionLimiter::getRejected)
+                    .tag("limiter", limiter.getName())
+                    .description("Requests shed with 503 because the wait queue was full or the wait ran out")
+                    .register(registry);
+            Gauge.builder("banking.admission.active", limiter, AdmissionLimiter::getInUse)
+                    .tag("limiter", limiter.getName())
+                    .description("Requests currently holding capacity")
+                    .register(registry);
+            Gauge.builder("banking.admission.queued", limiter, AdmissionLimiter::getQueued)
+                    .tag("limiter", limiter.getName())
+                    .description("Requests waiting for capacity")
+                    .register(registry);
+        }
+    }
+}
@@ -6,6 +6,8 @@ import org.slf4j.LoggerFactory;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Provides communication interface with the banking application process.
@@ -18,6 +20,7 @@ public class ProcessCommunication {
     private final BufferedWriter writer;
     private final BufferedReader reader;
     private final ProcessExecutor executor;
+    private boolean outOfStep;
     
     public ProcessCommunication(BufferedWriter writer, BufferedReader reader, ProcessExecutor executor) {
         this.writer = writer;
@@ -60,6 +63,52 @@ public class ProcessCommunication {
         return executor.readAllAvailableOutput(reader, timeoutMs);
     }
 
+    /**
+     * Reads output until the accumulated text satisfies a condition or the timeout elapses.
+     *
+     * @param condition evaluated against everything read so far
+     * @param timeoutMs timeout in milliseconds
+     * @return the output read
+     * @throws IOException if reading fails
+     */
+    public String readOutputUntil(Predicate<String> condition, long timeoutMs) throws IOException {
+        return executor.readOutputUntil(reader, condition, timeoutMs);
+    }
+
+    /**
+     * Tokenizes output as it arrives and hands each event to {@code sink}, stopping once an
+     * event satisfies {@code until} or the process goes quiet for {@code idleTimeoutMs}.
+     *
+     * @param sink receives every event in output order, including the one that ends the read
+     * @param until identifies the event that completes the response
+     * @param idleTimeoutMs how long to wait for more output before giving up
+     * @return true if the terminating event was seen
+     * @throws IOException if reading fails
+     */
+    public boolean streamOutput(Consumer<OutputEvent> sink, Predicate<OutputEvent> until, long idleTimeoutMs) throws IOException {
+        boolean[] finished = {false};
+        ProcessOutputTokenizer tokenizer = new ProcessOutputTokenizer(event -> {
+            sink.accept(event);
+            if (until.test(event)) {
+                finished[0] = true;
+            }
+        });
+        return executor.streamOutput(reader, tokenizer, () -> finished[0], idleTimeoutMs);
+    }
+
+    /**
+     * Records that the process may still answer commands this operation stopped waiting for,
+     * so its output can no longer be told apart from the next operation's. A managed process
+     * marked this way is discarded once the operation returns.
+     */
+    public void markOutOfStep() {
+        outOfStep = true;
+    }
+
+    public boolean isOutOfStep() {
+        return outOfStep;
+    }
+
     /**
      * Reads and cleans process output.
      *
@@ -133,36 +182,18 @@ public class ProcessCommunication {
             return false;
         }
 
-        String lowerOutput = output.toLowerCase();
+        ProcessOutput parsed = ProcessOutput.parse(output);
+        String error = parsed.getFirstError();
+        boolean hasWelcome = parsed.hasSuccess("Welcome, " + username);
+        boolean hasBankingMenu = parsed.hasPrompt(ProcessOutputTokenizer.BANKING_MENU_PROMPT);
 
-        // Look for various success indicators
-        boolean hasWelcome = lowerOutput.contains("welcome");
-        boolean hasUsername = lowerOutput.contains(username.toLowerCase());
-        boolean hasSuccessfulLogin = lowerOutput.contains("successful");
-        boolean hasLoggedIn = lowerOutput.contains("logged in");
-        boolean hasBankingMenu = lowerOutput.contains("deposit") || lowerOutput.contains("withdraw") || lowerOutput.contains("balance");
-        boolean hasAccountMenu = lowerOutput.contains("please choose an option") && (lowerOutput.contains("deposit") || lowerOutput.contains("withdraw"));
+        logger.debug("Authentication analysis - Welcome: {}, BankingMenu: {}, Error: {}", hasWelcome, hasBankingMenu, error);
 
-        // Look for failure indicators
-        boolean hasInvalidCredentials = lowerOutput.contains("invalid") || lowerOutput.contains("incorrect") || lowerOutput.contains("wrong");
-        boolean hasLoginFailed = lowerOutput.contains("failed") || lowerOutput.contains("error");
-        boolean hasAccessDenied = lowerOutput.contains("access denied") || lowerOutput.contains("authentication failed");
-
-        logger.debug("Authentication analysis - Welcome: {}, Username: {}, Successful: {}, LoggedIn: {}, BankingMenu: {}, AccountMenu: {}, Invalid: {}, Failed: {}, AccessDenied: {}",
-                    hasWelcome, hasUsername, hasSuccessfulLogin, hasLoggedIn, hasBankingMenu, hasAccountMenu, hasInvalidCredentials, hasLoginFailed, hasAccessDenied);
-
-        // If we have clear failure indicators, it's a failure
-        if (hasInvalidCredentials || hasLoginFailed || hasAccessDenied) {
+        // An explicit rejection wins over anything else in the output
+        if (error != null) {
             return false;
         }
-
-        // If we have success indicators, it's a success
-        if ((hasWelcome && hasUsername) || hasSuccessfulLogin || hasLoggedIn || hasBankingMenu || hasAccountMenu) {
-            return true;
-        }
-
-        // Default to failure if we can't determine
-        return false;
+        return hasWelcome || hasBankingMenu;
     }
 
     /**
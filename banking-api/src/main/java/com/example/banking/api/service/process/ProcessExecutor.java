@@ -8,8 +8,11 @@ import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PreDestroy;
 import java.io.*;
+import java.nio.CharBuffer;
 import java.util.concurrent.*;
-import java.util.regex.Pattern;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
 
 /**
  * Service responsible for executing and communicating with the banking application process.
@@ -24,14 +27,7 @@ public class ProcessExecutor {
     private final JarLocatorService jarLocatorService;
     private final ExecutorService executorService = Executors.newCachedThreadPool();
 
-    // Pattern to remove ANSI escape codes
-    private static final Pattern ANSI_ESCAPE_PATTERN = Pattern.compile(
-            "\\x1B\\[[;\\d]*[A-Za-z]|\\x1B\\][^\\x07]*\\x07|\\x1B\\[[?]?[0-9;]*[hlH]|" +
-            "\\x1B\\[\\d*[ABCD]|\\x1B\\[\\d*[JK]|\\x1B\\[\\d*;\\d*[Hf]|\\x1B\\[\\d*[mG]|" +
-            "\\x1B\\[\\d*[tT]|\\x1B\\[\\?\\d*[lh]|\\x1B\\[\\d*[PQRS]|\\x1B\\[\\d*[@]|" +
-            "\\x1B\\[\\d*[X]|\\x1B\\[\\d*[`]|\\x1B\\[\\d*[a-z]|\\x1B\\[\\d*[A-Z]|" +
-            "\\x1B\\[[0-9;]*[a-zA-Z]|\\x1B\\]0;[^\\x07]*\\x07"
-    );
+    private static final int STREAM_CHUNK_SIZE = 4096;
 
     public ProcessExecutor(BankingApplicationProperties properties, JarLocatorService jarLocatorService) {
         this.properties = properties;
@@ -77,6 +73,9 @@ public class ProcessExecutor {
 
     /**
      * Executes a process operation with a managed process (for session-based operations).
+     * If the operation marks its communication out of step, the process is killed so that
+     * nothing it still prints reaches a later operation; the user's next operation gets a
+     * new process, as after a crash.
      *
      * @param operation The operation to execute
      * @param managedProcess The managed process to use
@@ -88,13 +87,19 @@ public class ProcessExecutor {
             throw new ProcessExecutionException("Managed process is not healthy");
         }
         
+        ProcessCommunication communication = null;
         try {
-            ProcessCommunication communication = managedProcess.createCommunication(this);
+            communication = managedProcess.createCommunication(this);
             return operation.execute(communication);
             
         } catch (Exception e) {
             logger.error("Error executing operation with managed process {}", managedProcess.getProcessId(), e);
             throw new ProcessExecutionException("Failed to execute operation with managed process", e);
+        } finally {
+            if (communication != null && communication.isOutOfStep()) {
+                logger.warn("Discarding process {}: it may still answer commands nobody waits for", managedProcess.getProcessId());
+                managedProcess.killAsync();
+            }
         }
     }
 
@@ -192,6 +197,79 @@ public class ProcessExecutor {
         }
     }
 
+    /**
+     * Reads output until the accumulated text satisfies a condition or the timeout elapses.
+     * Unlike {@link #readAllAvailableOutput}, a pause in the output does not end the read,
+     * which lets callers wait for the complete response to a pipelined command sequence.
+     *
+     * @param reader the reader to read from
+     * @param condition evaluated against everything read so far after each chunk arrives
+     * @param timeoutMs timeout in milliseconds
+     * @return the output read, complete or not
+     */
+    public String readOutputUntil(BufferedReader reader, Predicate<String> condition, long timeoutMs) throws IOException {
+        StringBuilder output = new StringBuilder();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        while (System.nanoTime() < deadline) {
+            if (reader.ready()) {
+                while (reader.ready()) {
+                    int ch = reader.read();
+                    if (ch == -1) {
+                        return output.toString();
+                    }
+                    output.append((char) ch);
+                }
+                if (condition.test(output.toString())) {
+                    return output.toString();
+                }
+            } else {
+                // Back off briefly instead of spinning; the child may take a while per command
+                LockSupport.parkNanos(100_000);
+            }
+        }
+
+        logger.debug("Timeout after {}ms waiting for expected output, read {} chars", timeoutMs, output.length());
+        return output.toString();
+    }
+
+    /**
+     * Feeds output to a tokenizer chunk by chunk until {@code done} reports true or no output
+     * arrives for {@code idleTimeoutMs}. Nothing is accumulated, so memory stays bounded by the
+     * chunk size however long the output is, and the idle timeout restarts with every chunk so
+     * a long but steady response is never cut off.
+     *
+     * @param reader the reader to read from
+     * @param tokenizer receives every chunk as it is read
+     * @param done checked after each chunk, typically set by the tokenizer's sink
+     * @param idleTimeoutMs how long to wait for the next chunk
+     * @return true if {@code done} was reached, false on idle timeout or end of stream
+     */
+    public boolean streamOutput(BufferedReader reader, ProcessOutputTokenizer tokenizer, BooleanSupplier done,
+                                long idleTimeoutMs) throws IOException {
+        char[] chunk = new char[STREAM_CHUNK_SIZE];
+        CharBuffer view = CharBuffer.wrap(chunk);
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        long idleDeadline = System.nanoTime() + idleNanos;
+
+        while (!done.getAsBoolean()) {
+            if (reader.ready()) {
+                int read = reader.read(chunk, 0, chunk.length);
+                if (read < 0) {
+                    return false;
+                }
+                tokenizer.feed(view, 0, read);
+                idleDeadline = System.nanoTime() + idleNanos;
+            } else if (System.nanoTime() >= idleDeadline) {
+                logger.debug("No output for {}ms while streaming", idleTimeoutMs);
+                return false;
+            } else {
+                LockSupport.parkNanos(100_000);
+            }
+        }
+        return true;
+    }
+
     /**
      * Cleans output by removing ANSI escape codes and control characters.
      *
@@ -203,17 +281,9 @@ public class ProcessExecutor {
             return "";
         }
 
-        // Remove ANSI escape codes
-        String cleaned = ANSI_ESCAPE_PATTERN.matcher(rawOutput).replaceAll("");
-
-        // Remove other control characters except newlines and tabs
-        cleaned = cleaned.replaceAll("[\\x00-\\x08\\x0B\\x0C\\x0E-\\x1F\\x7F]", "");
-
-        // Normalize line endings
-        cleaned = cleaned.replaceAll("\\r\\n", "\n").replaceAll("\\r", "\n");
-
-        // Remove excessive whitespace but preserve structure
-        cleaned = cleaned.replaceAll("[ \\t]+", " ");
+        // Strips escape sequences and control characters, folds line endings and collapses
+        // blanks in one pass
+        String cleaned = ProcessOutputTokenizer.clean(rawOutput);
 
         logger.debug("Cleaned output: [{}]", cleaned);
         return cleaned;
@@ -0,0 +1,173 @@
+package com.example.banking.api.service.process;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serializes access to a single managed process.
+ *
+ * Operations are queued and drained one at a time on the supplied executor, so two
+ * requests for the same session can never interleave writes to the process stdin or read
+ * each other's output. The queue is bounded; submissions beyond the capacity are rejected
+ * immediately. Each operation has a deadline: if it expires while the operation is still
+ * queued, the operation is skipped. If it expires while running, the caller is released
+ * with a timeout and the running operation is left to finish on the pipe.
+ */
+public class ProcessMailbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessMailbox.class);
+
+    public static final int DEFAULT_CAPACITY = 32;
+
+    private final String name;
+    private final Executor executor;
+    private final int capacity;
+    private final ConcurrentLinkedQueue<Task<?>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    /**
+     * @param name identifies the mailbox in logs and error messages
+     * @param executor runs the drain loop; a direct executor drains on the submitting thread
+     * @param capacity maximum number of queued operations, including the running one
+     */
+    public ProcessMailbox(String name, Executor executor, int capacity) {
+        this.name = name;
+        this.executor = executor;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Queues an operation behind any already submitted for this process.
+     *
+     * @param operation the work to run with exclusive access to the process
+     * @param timeoutMs deadline for the operation, measured from submission; 0 for none
+     * @return a future completed with the operation's result, or exceptionally with
+     *         {@link RejectedExecutionException} if the queue is full or closed, or
+     *         {@link java.util.concurrent.TimeoutException} if the deadline passes
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> operation, long timeoutMs) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Process mailbox " + name + " is closed"));
+        }
+        if (depth.incrementAndGet() > capacity) {
+            depth.decrementAndGet();
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                    "Process mailbox " + name + " is full (" + capacity + " operations queued)"));
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (timeoutMs > 0) {
+            future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+        queue.add(new Task<>(operation, future));
+        scheduleDrain();
+        return future;
+    }
+
+    /**
+     * Gets the number of operations queued or running.
+     */
+    public int getDepth() {
+        return depth.get();
+    }
+
+    /**
+     * Gets the maximum number of queued operations.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Rejects further submissions and fails every operation that has not started yet.
+     */
+    public void close() {
+        closed = true;
+        Task<?> task;
+        while ((task = queue.poll()) != null) {
+            depth.decrementAndGet();
+            task.future.completeExceptionally(new RejectedExecutionException("Process mailbox " + name + " was closed"));
+        }
+    }
+
+    private void scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+            logger.warn("Executor rejected drain for process mailbox {}", name);
+            close();
+        }
+    }
+
+    private void drain() {
+        try {
+            Task<?> task;
+            while ((task = queue.poll()) != null) {
+                // close() may be draining the queue concurrently; nothing new starts once it has begun
+                if (closed) {
+                    depth.decrementAndGet();
+                    task.future.completeExceptionally(
+                            new RejectedExecutionException("Process mailbox " + name + " was closed"));
+                } else {
+                    task.run(depth);
+                }
+            }
+        } finally {
+            draining.set(false);
+        }
+        // A submission may have slipped in after the last poll but before draining was cleared
+        if (!queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private static final class Task<T> {
+        private final Callable<T> operation;
+        private final CompletableFuture<T> future;
+
+        Task(Callable<T> operation, CompletableFuture<T> future) {
+            this.operation = operation;
+            this.future = future;
+        }
+
+        /**
+         * Runs the operation and releases its slot before completing the future, so a caller
+         * woken by the result never observes its own operation still counted in the depth.
+         */
+        void run(AtomicInteger depth) {
+            // Skip operations whose caller already timed out or gave up while queued
+            if (future.isDone()) {
+                depth.decrementAndGet();
+                return;
+            }
+            T result = null;
+            Throwable failure = null;
+            try {
+                result = operation.call();
+            } catch (Throwable t) {
+                failure = t;
+            }
+            depth.decrementAndGet();
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
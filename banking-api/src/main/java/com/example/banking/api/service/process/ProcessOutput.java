@@ -0,0 +1,109 @@
+package com.example.banking.api.service.process;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tokenized process output with the lookups operations need to interpret a response.
+ */
+public final class ProcessOutput {
+
+    private final List<OutputEvent> events;
+
+    public ProcessOutput(List<OutputEvent> events) {
+        this.events = Collections.unmodifiableList(events);
+    }
+
+    /**
+     * Tokenizes raw process output.
+     *
+     * @param raw raw output, may be null
+     * @return the parsed output
+     */
+    public static ProcessOutput parse(CharSequence raw) {
+        return new ProcessOutput(ProcessOutputTokenizer.tokenize(raw));
+    }
+
+    public List<OutputEvent> getEvents() {
+        return events;
+    }
+
+    public boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    public boolean hasPrompt(String prompt) {
+        for (OutputEvent event : events) {
+            if (event.is(OutputEvent.Type.PROMPT) && event.getText().equals(prompt)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True if the login/register menu is showing, even if its prompt has not arrived yet.
+     */
+    public boolean showsAuthMenu() {
+        for (OutputEvent event : events) {
+            if (event.is(OutputEvent.Type.PROMPT) && event.getText().equals(ProcessOutputTokenizer.AUTH_MENU_PROMPT)) {
+                return true;
+            }
+            if (event.is(OutputEvent.Type.TEXT) && event.getText().equals("1. Login")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The most recently reported balance, or null if none was reported.
+     */
+    public Double getLastBalance() {
+        for (int i = events.size() - 1; i >= 0; i--) {
+            if (events.get(i).is(OutputEvent.Type.BALANCE)) {
+                return events.get(i).getAmount();
+            }
+        }
+        return null;
+    }
+
+    public List<OutputEvent> getTransactions() {
+        List<OutputEvent> transactions = new ArrayList<>();
+        for (OutputEvent event : events) {
+            if (event.is(OutputEvent.Type.TRANSACTION)) {
+                transactions.add(event);
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * True if a success line starting with {@code prefix} was printed.
+     */
+    public boolean hasSuccess(String prefix) {
+        for (OutputEvent event : events) {
+            if (event.is(OutputEvent.Type.SUCCESS) && event.getText().startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasError() {
+        return getFirstError() != null;
+    }
+
+    /**
+     * The first error line, or null if there was none.
+     */
+    public String getFirstError() {
+        for (OutputEvent event : events) {
+            if (event.is(OutputEvent.Type.ERROR)) {
+                return event.getText();
+            }
+        }
+        return null;
+    }
+}
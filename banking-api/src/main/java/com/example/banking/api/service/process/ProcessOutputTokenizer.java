@@ -0,0 +1,511 @@
+package com.example.banking.api.service.process;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Single-pass, regex-free tokenizer for banking process output.
+ *
+ * Characters are fed in as they are read. Terminal control sequences are stripped, line
+ * endings and blanks are normalized, and every completed line or prompt is turned into an
+ * {@link OutputEvent} for the sink. History lines are decoded in place from the line buffer,
+ * so a transaction costs one event plus its timestamp rather than a handful of substrings,
+ * a Matcher and a DateTimeFormatter parse.
+ *
+ * Instances are stateful and not thread-safe; use one per read.
+ */
+public final class ProcessOutputTokenizer {
+
+    public static final String AUTH_MENU_PROMPT = "Choose an option: ";
+    public static final String BANKING_MENU_PROMPT = "Please choose an option: ";
+    public static final String USERNAME_PROMPT = "Username: ";
+    public static final String PASSWORD_PROMPT = "Password: ";
+    public static final String NEW_USERNAME_PROMPT = "New username: ";
+    public static final String NEW_PASSWORD_PROMPT = "New password: ";
+    public static final String DEPOSIT_AMOUNT_PROMPT = "Enter amount to deposit: ";
+    public static final String WITHDRAW_AMOUNT_PROMPT = "Enter amount to withdraw: ";
+    public static final String TRANSFER_AMOUNT_PROMPT = "Enter amount to transfer: ";
+    public static final String RECIPIENT_PROMPT = "Recipient username: ";
+    public static final String QUERY_PROMPT = "Query: ";
+
+    // Longer prompts first where one is a suffix of another
+    private static final String[] PROMPTS = {
+        BANKING_MENU_PROMPT, AUTH_MENU_PROMPT, NEW_USERNAME_PROMPT, NEW_PASSWORD_PROMPT,
+        USERNAME_PROMPT, PASSWORD_PROMPT, DEPOSIT_AMOUNT_PROMPT, WITHDRAW_AMOUNT_PROMPT,
+        TRANSFER_AMOUNT_PROMPT, RECIPIENT_PROMPT, QUERY_PROMPT
+    };
+    private static final OutputEvent[] PROMPT_EVENTS = new OutputEvent[PROMPTS.length];
+    static {
+        for (int i = 0; i < PROMPTS.length; i++) {
+            PROMPT_EVENTS[i] = OutputEvent.prompt(PROMPTS[i]);
+        }
+    }
+
+    private static final String[] TRANSACTION_LABELS = {"Deposit", "Withdrawal", "Transfer In", "Transfer Out"};
+    private static final String[] SUCCESS_PREFIXES = {
+        "Successfully ", "Welcome, ", "Registration successful", "Logged out successfully"
+    };
+    private static final String[] ERROR_PREFIXES = {
+        "Insufficient funds", "Authentication failed", "Invalid ", "Cannot ", "Recipient not found",
+        "Username already exists", "Error "
+    };
+    private static final String ERROR_SUFFIX = "must be positive.";
+    private static final String BALANCE_PREFIX = "Current Balance: $";
+    private static final String EMBEDDED_BALANCE = "balance: $";
+    private static final String BALANCE_ARROW = " -> $";
+    private static final String CURSOR_PREFIX = "Next cursor: ";
+    private static final String HEAD_PREFIX = "Head sequence: ";
+
+    // "[yyyy-MM-dd HH:mm:ss]"
+    private static final int TIMESTAMP_END = 20;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+    // Mantissas up to 15 digits are exact doubles, so one division gives a correctly rounded result
+    private static final int MAX_FAST_DIGITS = 15;
+
+    private final ControlFilter filter = new ControlFilter();
+    private final Consumer<OutputEvent> sink;
+    private char[] line = new char[128];
+    private int length;
+    // Index just past the last number read by parseAmount
+    private int amountEnd;
+
+    public ProcessOutputTokenizer(Consumer<OutputEvent> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Tokenizes a complete piece of output, including any trailing partial line.
+     *
+     * @param output raw process output
+     * @return the events in output order
+     */
+    public static List<OutputEvent> tokenize(CharSequence output) {
+        List<OutputEvent> events = new ArrayList<>();
+        if (output != null) {
+            ProcessOutputTokenizer tokenizer = new ProcessOutputTokenizer(events::add);
+            tokenizer.feed(output);
+            tokenizer.finish();
+        }
+        return events;
+    }
+
+    /**
+     * Strips control sequences and normalizes line endings and blanks without tokenizing.
+     *
+     * @param output raw process output
+     * @return cleaned text
+     */
+    public static String clean(CharSequence output) {
+        ControlFilter filter = new ControlFilter();
+        StringBuilder cleaned = new StringBuilder(output.length());
+        for (int i = 0, n = output.length(); i < n; i++) {
+            int c = filter.accept(output.charAt(i));
+            if (c < 0) {
+                continue;
+            }
+            if (c == '\t') {
+                c = ' ';
+            }
+            if (c == ' ' && cleaned.length() > 0 && cleaned.charAt(cleaned.length() - 1) == ' ') {
+                continue;
+            }
+            cleaned.append((char) c);
+        }
+        return cleaned.toString();
+    }
+
+    public void feed(CharSequence chunk) {
+        feed(chunk, 0, chunk.length());
+    }
+
+    /**
+     * Feeds the characters of {@code chunk} in {@code [start, end)}.
+     */
+    public void feed(CharSequence chunk, int start, int end) {
+        for (int i = start; i < end; i++) {
+            int c = filter.accept(chunk.charAt(i));
+            if (c == '\n') {
+                endLine();
+            } else if (c >= 0) {
+                append((char) c);
+            }
+        }
+    }
+
+    /**
+     * Flushes a trailing line that was not terminated by a newline.
+     */
+    public void finish() {
+        endLine();
+    }
+
+    private void append(char c) {
+        if (c == '\t') {
+            c = ' ';
+        }
+        if (c == ' ' && (length == 0 || line[length - 1] == ' ')) {
+            return;
+        }
+        if (length == line.length) {
+            char[] grown = new char[length * 2];
+            System.arraycopy(line, 0, grown, 0, length);
+            line = grown;
+        }
+        line[length++] = c;
+        // Prompts end in ": " and are never followed by a newline, so check for one here
+        if (c == ' ' && length >= 2 && line[length - 2] == ':') {
+            matchPrompt();
+        }
+    }
+
+    private void matchPrompt() {
+        for (int p = 0; p < PROMPTS.length; p++) {
+            int start = length - PROMPTS[p].length();
+            if (start >= 0 && regionMatches(start, PROMPTS[p], false)) {
+                length = start;
+                endLine();
+                sink.accept(PROMPT_EVENTS[p]);
+                return;
+            }
+        }
+    }
+
+    private void endLine() {
+        if (length > 0 && line[length - 1] == ' ') {
+            length--;
+        }
+        if (length > 0) {
+            classifyLine();
+        }
+        length = 0;
+    }
+
+    private void classifyLine() {
+        if (line[0] == '[' && decodeTransaction(0, -1)) {
+            return;
+        }
+        if (line[0] == '#' && decodeQueryRow()) {
+            return;
+        }
+        if (decodeSequenceLine(CURSOR_PREFIX, OutputEvent.Type.CURSOR)
+                || decodeSequenceLine(HEAD_PREFIX, OutputEvent.Type.HEAD)) {
+            return;
+        }
+        if (regionMatches(0, BALANCE_PREFIX, true)) {
+            double balance = parseAmount(BALANCE_PREFIX.length());
+            if (!Double.isNaN(balance)) {
+                sink.accept(OutputEvent.balance(balance));
+                return;
+            }
+        }
+        for (String prefix : SUCCESS_PREFIXES) {
+            if (regionMatches(0, prefix, false)) {
+                int dollar = indexOf('$', 0);
+                double amount = dollar >= 0 ? parseAmount(dollar + 1) : Double.NaN;
+                sink.accept(OutputEvent.line(OutputEvent.Type.SUCCESS, lineText(), amount));
+                return;
+            }
+        }
+        if (isErrorLine()) {
+            sink.accept(OutputEvent.line(OutputEvent.Type.ERROR, lineText(), Double.NaN));
+            int embedded = indexOfIgnoreCase(EMBEDDED_BALANCE);
+            if (embedded >= 0) {
+                double balance = parseAmount(embedded + EMBEDDED_BALANCE.length());
+                if (!Double.isNaN(balance)) {
+                    sink.accept(OutputEvent.balance(balance));
+                }
+            }
+            return;
+        }
+        sink.accept(OutputEvent.line(OutputEvent.Type.TEXT, lineText(), Double.NaN));
+    }
+
+    private boolean isErrorLine() {
+        for (String prefix : ERROR_PREFIXES) {
+            if (regionMatches(0, prefix, false)) {
+                return true;
+            }
+        }
+        int start = length - ERROR_SUFFIX.length();
+        return start >= 0 && regionMatches(start, ERROR_SUFFIX, false);
+    }
+
+    /**
+     * Decodes "[yyyy-MM-dd HH:mm:ss] Label: $amount" starting at {@code base}, with optional
+     * " (detail)" and " -> $balance" suffixes.
+     *
+     * @param sequence the "#n" prefix of a query row, or -1 for a plain history line
+     * @return false if the line does not have that shape
+     */
+    private boolean decodeTransaction(int base, long sequence) {
+        int end = base + TIMESTAMP_END;
+        if (length < end + 5 || line[base] != '[' || line[end] != ']' || line[end + 1] != ' '
+                || line[base + 5] != '-' || line[base + 8] != '-' || line[base + 11] != ' '
+                || line[base + 14] != ':' || line[base + 17] != ':') {
+            return false;
+        }
+        int year = digits(base + 1, 4);
+        int month = digits(base + 6, 2);
+        int day = digits(base + 9, 2);
+        int hour = digits(base + 12, 2);
+        int minute = digits(base + 15, 2);
+        int second = digits(base + 18, 2);
+        if ((year | month | day | hour | minute | second) < 0) {
+            return false;
+        }
+
+        int labelStart = end + 2;
+        int colon = indexOf(':', labelStart);
+        if (colon < 0 || colon + 2 >= length || line[colon + 1] != ' ' || line[colon + 2] != '$') {
+            return false;
+        }
+        double amount = parseAmount(colon + 3);
+        if (Double.isNaN(amount)) {
+            return false;
+        }
+
+        LocalDateTime timestamp;
+        try {
+            timestamp = LocalDateTime.of(year, month, day, hour, minute, second);
+        } catch (DateTimeException e) {
+            return false;
+        }
+
+        int position = amountEnd;
+        String detail = null;
+        if (position + 2 < length && line[position] == ' ' && line[position + 1] == '(') {
+            int close = indexOf(')', position + 2);
+            if (close > 0) {
+                detail = new String(line, position + 2, close - position - 2);
+                position = close + 1;
+            }
+        }
+        double balanceAfter = Double.NaN;
+        if (regionMatches(position, BALANCE_ARROW, false)) {
+            balanceAfter = parseAmount(position + BALANCE_ARROW.length());
+        }
+        sink.accept(OutputEvent.transaction(label(labelStart, colon), amount, timestamp, detail, sequence, balanceAfter));
+        return true;
+    }
+
+    /**
+     * Decodes a query page trailer, {@code prefix} followed by a sequence number.
+     */
+    private boolean decodeSequenceLine(String prefix, OutputEvent.Type type) {
+        if (!regionMatches(0, prefix, false)) {
+            return false;
+        }
+        int sequence = digits(prefix.length(), length - prefix.length());
+        if (sequence < 0) {
+            return false;
+        }
+        sink.accept(OutputEvent.sequence(type, sequence));
+        return true;
+    }
+
+    /**
+     * Decodes a query row, "#n " followed by a history line.
+     */
+    private boolean decodeQueryRow() {
+        int space = indexOf(' ', 1);
+        if (space < 2) {
+            return false;
+        }
+        long sequence = digits(1, space - 1);
+        return sequence >= 0 && decodeTransaction(space + 1, sequence);
+    }
+
+    private String label(int start, int end) {
+        for (String label : TRANSACTION_LABELS) {
+            if (label.length() == end - start && regionMatches(start, label, false)) {
+                return label;
+            }
+        }
+        return new String(line, start, end - start);
+    }
+
+    /**
+     * Parses an unsigned decimal with either '.' or ',' as separator, falling back to
+     * Double.parseDouble for long mantissas and exponent notation.
+     *
+     * @return the amount, or NaN if no number starts at {@code start}
+     */
+    private double parseAmount(int start) {
+        int i = start;
+        boolean negative = i < length && line[i] == '-';
+        if (negative) {
+            i++;
+        }
+        long mantissa = 0;
+        int digitCount = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; i < length; i++) {
+            char c = line[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digitCount++;
+                if (fraction) {
+                    scale++;
+                }
+            } else if ((c == '.' || c == ',') && !fraction && i + 1 < length && isDigit(line[i + 1])) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (digitCount == 0) {
+            amountEnd = start;
+            return Double.NaN;
+        }
+        if (digitCount > MAX_FAST_DIGITS || (i < length && (line[i] == 'E' || line[i] == 'e'))) {
+            return parseAmountSlow(start);
+        }
+        amountEnd = i;
+        double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    private double parseAmountSlow(int start) {
+        StringBuilder number = new StringBuilder();
+        int i = start;
+        for (; i < length; i++) {
+            char c = line[i];
+            if (isDigit(c) || c == '.' || c == 'E' || c == 'e' || c == '-' || c == '+') {
+                number.append(c);
+            } else if (c == ',') {
+                number.append('.');
+            } else {
+                break;
+            }
+        }
+        amountEnd = i;
+        try {
+            return Double.parseDouble(number.toString());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private int digits(int start, int count) {
+        if (count <= 0 || count > 9) {
+            return -1; // empty, or too long to fit an int
+        }
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            if (!isDigit(line[i])) {
+                return -1;
+            }
+            value = value * 10 + (line[i] - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private boolean regionMatches(int start, String text, boolean ignoreCase) {
+        if (start + text.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char a = line[start + i];
+            char b = text.charAt(i);
+            if (a != b && !(ignoreCase && Character.toLowerCase(a) == Character.toLowerCase(b))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(char c, int from) {
+        for (int i = from; i < length; i++) {
+            if (line[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOfIgnoreCase(String text) {
+        for (int i = 0; i + text.length() <= length; i++) {
+            if (regionMatches(i, text, true)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String lineText() {
+        return new String(line, 0, length);
+    }
+
+    /**
+     * Removes ANSI/VT escape sequences (CSI, OSC and two-character escapes) and other control
+     * characters, and folds CR and CRLF into LF. One character in, at most one character out.
+     */
+    static final class ControlFilter {
+
+        private static final int NORMAL = 0;
+        private static final int ESCAPE = 1;
+        private static final int CSI = 2;
+        private static final int OSC = 3;
+        private static final int OSC_ESCAPE = 4;
+
+        private int state = NORMAL;
+        private boolean afterCarriageReturn;
+
+        /**
+         * @return the character to keep, or -1 if it is dropped
+         */
+        int accept(char c) {
+            boolean crlf = afterCarriageReturn && c == '\n';
+            afterCarriageReturn = false;
+            switch (state) {
+                case ESCAPE:
+                    state = c == '[' ? CSI : c == ']' ? OSC : NORMAL;
+                    return -1;
+                case CSI:
+                    // Parameter and intermediate bytes until a final byte in '@'..'~'
+                    if (c >= 0x40 && c <= 0x7E) {
+                        state = NORMAL;
+                    }
+                    return -1;
+                case OSC:
+                    if (c == 0x07) {
+                        state = NORMAL;
+                    } else if (c == 0x1B) {
+                        state = OSC_ESCAPE;
+                    }
+                    return -1;
+                case OSC_ESCAPE:
+                    state = NORMAL;
+                    return -1;
+                default:
+                    break;
+            }
+            if (c == 0x1B) {
+                state = ESCAPE;
+                return -1;
+            }
+            if (c == '\r') {
+                afterCarriageReturn = true;
+                return '\n';
+            }
+            if (c == '\n') {
+                return crlf ? -1 : '\n';
+            }
+            if ((c < 0x20 && c != '\t') || c == 0x7F) {
+                return -1;
+            }
+            return c;
+        }
+    }
+}
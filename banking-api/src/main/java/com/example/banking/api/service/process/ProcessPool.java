@@ -1,8 +1,15 @@
 package com.example.banking.api.service.process;
 
 import com.example.banking.api.config.BankingApplicationProperties;
+import com.example.banking.api.domain.model.AccountMirror;
 import com.example.banking.api.domain.model.UserSession;
 import com.example.banking.api.service.JarLocatorService;
+import com.example.banking.api.service.concurrent.ExpiryWheel;
+import com.example.banking.api.service.concurrent.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,21 +20,45 @@ import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.io.*;
 import java.util.concurrent.*;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * Manages a pool of persistent banking processes for session-based operations.
- * Each user session gets its own dedicated process that stays alive for the duration of the session.
+ * Each user has one process, shared by all of the user's sessions, so a user logged in from
+ * two browsers sees one account instead of two diverging in-memory copies. Every operation
+ * goes through the process's mailbox, which serializes the requests of all those sessions.
+ * The sessions using a process are counted, and it is terminated when the last one releases it.
+ * A process can also be handed over to a successor while its sessions keep using the entry,
+ * when it is recycled.
+ * Processes that exit on their own are evicted as soon as they do; idle ones are found by an
+ * expiry wheel rather than by scanning the whole pool.
  */
 @Service
-public class ProcessPool {
+public class ProcessPool implements MeterBinder {
     
     private static final Logger logger = LoggerFactory.getLogger(ProcessPool.class);
+    static final long EXPIRY_TICK_MS = 1000;
+    private static final int EXPIRY_WHEEL_SIZE = 512;
+    /**
+     * Tells the banking application to start logged in as the named user, once its first input
+     * line is a proof from {@link ResumeKey}
+     */
+    static final String RESUME_USER_ENV = "BANKING_RESUME_USER";
+    /**
+     * Tells the banking application to boot and wait for an empty line before loading any data,
+     * and before reading a resume proof
+     */
+    static final String STANDBY_ENV = "BANKING_STANDBY";
     
-    private final Map<String, ManagedProcess> sessionProcesses = new ConcurrentHashMap<>();
+    private final Map<String, SharedProcess> userProcesses = new ConcurrentHashMap<>();
+    private final ExpiryWheel<String> idleExpiry = new ExpiryWheel<>(EXPIRY_TICK_MS, EXPIRY_WHEEL_SIZE);
     private final ScheduledExecutorService healthCheckExecutor = Executors.newSingleThreadScheduledExecutor();
     private final ExecutorService processExecutor = Executors.newCachedThreadPool();
+    private final SingleFlight<String, ManagedProcess> processCreation = new SingleFlight<>();
     
     @Autowired
     private BankingApplicationProperties properties;
@@ -35,11 +66,14 @@ public class ProcessPool {
     @Autowired
     private JarLocatorService jarLocatorService;
     
+    @Autowired
+    private ResumeKey resumeKey;
+    
     @Value("${banking.session.process-idle-timeout:300000}")
     private long processIdleTimeoutMs;
     
-    @Value("${banking.session.cleanup-interval:60000}")
-    private long healthCheckIntervalMs;
+    @Value("${banking.session.mailbox-capacity:32}")
+    private int mailboxCapacity = ProcessMailbox.DEFAULT_CAPACITY;
     
     public ProcessPool() {
         // Health check task will be scheduled after Spring injects values
@@ -47,50 +81,185 @@ public class ProcessPool {
     
     @PostConstruct
     public void initializeHealthCheck() {
-        // Schedule health check task after all values are injected
+        // Each tick only looks at the processes whose idle deadline falls in the ticks just passed
         healthCheckExecutor.scheduleAtFixedRate(
             this::performHealthCheck, 
-            healthCheckIntervalMs, 
-            healthCheckIntervalMs, 
+            EXPIRY_TICK_MS, 
+            EXPIRY_TICK_MS, 
             TimeUnit.MILLISECONDS
         );
     }
     
     /**
-     * Gets or creates a persistent process for the given user session
+     * Gets or creates the persistent process of the session's user and counts the session
+     * as one of its users. The session also takes on the account mirror kept with the process,
+     * so every session of the user reads the same copy of the account.
+     * Creation is single-flight per user: concurrent callers for a user without a healthy
+     * process wait for the same spawn, so exactly one process is started.
      */
     public ManagedProcess getOrCreateProcess(UserSession userSession) throws ProcessCreationException {
-        String sessionId = userSession.getSessionId();
-        
-        ManagedProcess managedProcess = sessionProcesses.get(sessionId);
+        SharedProcess shared = attach(userSession);
+        if (shared == null) {
+            try {
+                processCreation.execute(userSession.getUsername(), () -> spawnForUser(userSession));
+            } catch (ProcessCreationException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ProcessCreationException("Failed to create banking process", e);
+            }
+            shared = attach(userSession);
+            if (shared == null) {
+                throw new ProcessCreationException("Banking process exited as soon as it started");
+            }
+        }
         
-        if (managedProcess == null || !managedProcess.isHealthy()) {
-            if (managedProcess != null) {
-                logger.info("Existing process for session {} is unhealthy, creating new one", sessionId);
-                terminateProcess(sessionId);
+        return bind(shared, userSession);
+    }
+    
+    /**
+     * Like {@link #getOrCreateProcess}, but never starts a process, so it never blocks.
+     *
+     * @return the user's healthy pooled process, now also used by the session, or null if
+     *         the user has none
+     */
+    public ManagedProcess getExistingProcess(UserSession userSession) {
+        SharedProcess shared = attach(userSession);
+        return shared != null ? bind(shared, userSession) : null;
+    }
+    
+    private ManagedProcess bind(SharedProcess shared, UserSession userSession) {
+        ManagedProcess managedProcess = shared.process;
+        managedProcess.updateLastAccessed();
+        userSession.updateLastAccessed();
+        userSession.shareAccountMirror(shared.mirror);
+        userSession.setBankingProcess(managedProcess.getProcess());
+        userSession.setProcessId(managedProcess.getProcessId());
+        return managedProcess;
+    }
+    
+    /**
+     * Counts the session as a user of its user's process.
+     *
+     * @return the process, or null if the user has no healthy one
+     */
+    private SharedProcess attach(UserSession userSession) {
+        String username = userSession.getUsername();
+        SharedProcess shared = userProcesses.get(username);
+        if (shared == null || !shared.process.isHealthy()) {
+            return null;
+        }
+        synchronized (shared) {
+            // The last session may have released it since it was looked up
+            if (userProcesses.get(username) != shared) {
+                return null;
             }
-            
-            managedProcess = createNewProcess(userSession);
-            sessionProcesses.put(sessionId, managedProcess);
-            
-            // Update user session with process information
-            userSession.setBankingProcess(managedProcess.getProcess());
-            userSession.setProcessId(managedProcess.getProcessId());
-            
-            logger.info("Created new process {} for session {}", managedProcess.getProcessId(), sessionId);
-        } else {
-            // Update last accessed time
-            managedProcess.updateLastAccessed();
-            userSession.updateLastAccessed();
+            shared.sessionIds.add(userSession.getSessionId());
+        }
+        return shared;
+    }
+    
+    /**
+     * Replaces a missing or unhealthy process for a user. Only ever runs as the leader of
+     * a single-flight call, so it re-checks the map in case a previous leader just finished.
+     */
+    private ManagedProcess spawnForUser(UserSession userSession) throws ProcessCreationException {
+        String username = userSession.getUsername();
+        
+        SharedProcess existing = userProcesses.get(username);
+        if (existing != null && existing.process.isHealthy()) {
+            return existing.process;
+        }
+        if (existing != null && userProcesses.remove(username, existing)) {
+            logger.info("Existing process for user {} is unhealthy, creating new one", username);
+            idleExpiry.cancel(username);
+            existing.process.terminateAsync();
         }
         
+        ManagedProcess managedProcess = createNewProcess(userSession);
+        userProcesses.put(username, new SharedProcess(managedProcess));
+        track(username, managedProcess);
+        
+        logger.info("Created new process {} for user {}", managedProcess.getProcessId(), username);
         return managedProcess;
     }
     
+    /**
+     * Arms the idle deadline of a newly pooled process and evicts it as soon as it exits,
+     * so neither check needs a pass over the pool.
+     */
+    private void track(String username, ManagedProcess managedProcess) {
+        idleExpiry.schedule(username, processIdleTimeoutMs);
+        evictOnExit(username, managedProcess);
+    }
+    
+    private void evictOnExit(String username, ManagedProcess managedProcess) {
+        Process process = managedProcess.getProcess();
+        if (process != null) {
+            process.onExit().thenRunAsync(() -> {
+                SharedProcess shared = userProcesses.get(username);
+                if (shared != null && shared.process == managedProcess && userProcesses.remove(username, shared)) {
+                    idleExpiry.cancel(username);
+                    logger.info("Removing dead process {} for user {}", managedProcess.getProcessId(), username);
+                    managedProcess.terminateAsync();
+                }
+            }, processExecutor);
+        }
+    }
+    
+    /**
+     * Hands a user's pooled process over to a successor, which takes on the sessions using
+     * it and their account mirror. The successor must already be logged in as the user.
+     *
+     * @return false if {@code current} is no longer the user's healthy pooled process, e.g.
+     *         because the user's last session has released it
+     */
+    boolean replaceProcess(String username, ManagedProcess current, ManagedProcess successor) {
+        SharedProcess shared = userProcesses.get(username);
+        if (shared == null) {
+            return false;
+        }
+        synchronized (shared) {
+            if (userProcesses.get(username) != shared || shared.process != current || !current.isHealthy()) {
+                return false;
+            }
+            shared.process = successor;
+        }
+        evictOnExit(username, successor);
+        logger.info("Process {} for user {} handed over to {}", current.getProcessId(), username, successor.getProcessId());
+        return true;
+    }
+    
+    /**
+     * Forgets the account mirror kept with a user's process, if the user has one, e.g. after
+     * another user's process credited the account.
+     */
+    public void invalidateMirror(String username) {
+        SharedProcess shared = userProcesses.get(username);
+        if (shared != null) {
+            shared.mirror.invalidate();
+        }
+    }
+    
     /**
      * Creates a new managed process for a user session
      */
-    private ManagedProcess createNewProcess(UserSession userSession) throws ProcessCreationException {
+    ManagedProcess createNewProcess(UserSession userSession) throws ProcessCreationException {
+        // The session already logged in, before a restart or before its last process died
+        Map<String, String> environment = userSession.isAuthenticated()
+                ? Map.of(RESUME_USER_ENV, userSession.getUsername())
+                : Map.of();
+        return createNewProcess(userSession.getUsername(), userSession.getSessionId(), environment);
+    }
+    
+    /**
+     * Creates a new managed process for a user, outside the pool.
+     *
+     * @param environment variables for the banking application, e.g. {@link #RESUME_USER_ENV}
+     *        to start it logged in as the user. Its resume proof is sent at once, unless it
+     *        also has {@link #STANDBY_ENV}, in which case it has to be sent with
+     *        {@link #sendResumeProof} after the process is released from standby.
+     */
+    ManagedProcess createNewProcess(String username, String sessionId, Map<String, String> environment) throws ProcessCreationException {
         try {
             String jarPath = jarLocatorService.getJarPath();
             
@@ -114,6 +283,8 @@ public class ProcessPool {
             processBuilder.environment().put("NO_COLOR", "1");
             processBuilder.environment().put("ANSI_COLORS_DISABLED", "1");
             
+            processBuilder.environment().putAll(environment);
+            
             Process process = processBuilder.start();
             
             // Create I/O wrappers
@@ -126,30 +297,86 @@ public class ProcessPool {
                 process, 
                 writer, 
                 reader, 
-                userSession.getUsername(),
-                userSession.getSessionId()
+                username,
+                sessionId,
+                new ProcessMailbox(processId, processExecutor, mailboxCapacity)
             );
+            if (environment.containsKey(RESUME_USER_ENV)) {
+                managedProcess.markResuming();
+                if (!environment.containsKey(STANDBY_ENV)) {
+                    try {
+                        sendResumeProof(managedProcess);
+                    } catch (IOException e) {
+                        process.destroyForcibly();
+                        throw e;
+                    }
+                }
+            }
             
             return managedProcess;
             
         } catch (IOException e) {
-            logger.error("Failed to create process for session {}", userSession.getSessionId(), e);
+            logger.error("Failed to create process for session {}", sessionId, e);
             throw new ProcessCreationException("Failed to create banking process", e);
         }
     }
     
     /**
-     * Terminates a process for the given session
+     * Writes the proof that lets a process started with {@link #RESUME_USER_ENV} log its user
+     * in. The process reads it as its first line, or its first after standby.
      */
-    public void terminateProcess(String sessionId) {
-        ManagedProcess managedProcess = sessionProcesses.remove(sessionId);
-        if (managedProcess != null) {
-            try {
-                managedProcess.terminate();
-                logger.info("Terminated process {} for session {}", managedProcess.getProcessId(), sessionId);
-            } catch (Exception e) {
-                logger.error("Error terminating process {} for session {}", managedProcess.getProcessId(), sessionId, e);
+    void sendResumeProof(ManagedProcess managedProcess) throws IOException {
+        BufferedWriter writer = managedProcess.getWriter();
+        writer.write(resumeKey.proofFor(managedProcess.getUsername()));
+        writer.newLine();
+        writer.flush();
+    }
+    
+    /**
+     * Stops counting the session as a user of its user's process, and terminates the process
+     * without waiting for it to exit if no other session of the user still uses it.
+     * Releasing a session more than once has no further effect.
+     *
+     * @return completes once the process has exited, or at once if it is still in use or
+     *         the session held none
+     */
+    public CompletableFuture<Void> releaseProcess(UserSession userSession) {
+        String username = userSession.getUsername();
+        SharedProcess shared = userProcesses.get(username);
+        if (shared == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        synchronized (shared) {
+            if (!shared.sessionIds.remove(userSession.getSessionId()) || !shared.sessionIds.isEmpty()
+                    || !userProcesses.remove(username, shared)) {
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+        return terminate(username, shared);
+    }
+    
+    private CompletableFuture<Void> terminate(String username, SharedProcess shared) {
+        idleExpiry.cancel(username);
+        ManagedProcess managedProcess = shared.process;
+        return managedProcess.terminateAsync().whenComplete((ignored, e) -> {
+            if (e == null) {
+                logger.info("Terminated process {} for user {}", managedProcess.getProcessId(), username);
+            } else {
+                logger.error("Error terminating process {} for user {}", managedProcess.getProcessId(), username, e);
             }
+        });
+    }
+    
+    /**
+     * Gets the number of sessions counted as using the user's process.
+     */
+    public int getSessionCount(String username) {
+        SharedProcess shared = userProcesses.get(username);
+        if (shared == null) {
+            return 0;
+        }
+        synchronized (shared) {
+            return shared.sessionIds.size();
         }
     }
     
@@ -158,55 +385,88 @@ public class ProcessPool {
      */
     public ProcessPoolInfo getProcessPoolInfo() {
         return new ProcessPoolInfo(
-            sessionProcesses.size(),
-            sessionProcesses.values().stream()
-                .mapToInt(p -> p.isHealthy() ? 1 : 0)
+            userProcesses.size(),
+            userProcesses.values().stream()
+                .mapToInt(p -> p.process.isHealthy() ? 1 : 0)
                 .sum(),
-            sessionProcesses.values().stream()
-                .filter(ManagedProcess::isIdle)
+            userProcesses.values().stream()
+                .filter(p -> p.process.isIdle())
                 .mapToInt(p -> 1)
                 .sum()
         );
     }
     
     /**
-     * Performs health check on all managed processes
+     * Registers process pool metrics: spawns actually performed, spawn requests that were
+     * coalesced onto one already in progress, the current pool size and the number of
+     * sessions sharing the pooled processes.
      */
-    private void performHealthCheck() {
-        logger.debug("Performing health check on {} processes", sessionProcesses.size());
-        
-        sessionProcesses.entrySet().removeIf(entry -> {
-            String sessionId = entry.getKey();
-            ManagedProcess managedProcess = entry.getValue();
-            
-            // Check if process is dead
-            if (!managedProcess.isHealthy()) {
-                logger.info("Removing dead process {} for session {}", managedProcess.getProcessId(), sessionId);
-                try {
-                    managedProcess.terminate();
-                } catch (Exception e) {
-                    logger.error("Error terminating dead process", e);
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("banking.process.spawns", processCreation, SingleFlight::getExecutions)
+                .description("Banking processes spawned for sessions")
+                .register(registry);
+        FunctionCounter.builder("banking.process.spawns.coalesced", processCreation, SingleFlight::getCoalesced)
+                .description("Process requests that joined a spawn already in progress")
+                .register(registry);
+        Gauge.builder("banking.process.active", userProcesses, Map::size)
+                .description("User processes currently in the pool")
+                .register(registry);
+        Gauge.builder("banking.process.sessions", this, ProcessPool::getAttachedSessionCount)
+                .description("Sessions using the pooled processes")
+                .register(registry);
+    }
+    
+    /**
+     * Gets the number of process spawns that were actually performed.
+     */
+    public long getSpawnCount() {
+        return processCreation.getExecutions();
+    }
+    
+    /**
+     * Gets the number of process requests that joined a spawn already in progress.
+     */
+    public long getCoalescedSpawnCount() {
+        return processCreation.getCoalesced();
+    }
+    
+    private int getAttachedSessionCount() {
+        int sessions = 0;
+        for (String username : userProcesses.keySet()) {
+            sessions += getSessionCount(username);
+        }
+        return sessions;
+    }
+    
+    /**
+     * Terminates the processes whose idle deadline has come due. A process used since its
+     * deadline was set is re-armed for the rest of its timeout instead. Terminations are not
+     * waited for, so one child that is slow to exit holds up nothing else.
+     */
+    void performHealthCheck() {
+        try {
+            for (String username : idleExpiry.advance()) {
+                SharedProcess shared = userProcesses.get(username);
+                if (shared == null) {
+                    continue;
                 }
-                return true;
-            }
-            
-            // Check if process is idle for too long
-            if (managedProcess.isIdleTimeout(processIdleTimeoutMs)) {
-                logger.info("Removing idle process {} for session {} (idle for {}ms)", 
-                           managedProcess.getProcessId(), sessionId, 
-                           System.currentTimeMillis() - managedProcess.getLastAccessedTime());
-                try {
-                    managedProcess.terminate();
-                } catch (Exception e) {
-                    logger.error("Error terminating idle process", e);
+                ManagedProcess managedProcess = shared.process;
+                long remainingMs = processIdleTimeoutMs - managedProcess.getIdleMillis();
+                if (remainingMs > 0) {
+                    idleExpiry.schedule(username, remainingMs);
+                } else if (userProcesses.remove(username, shared)) {
+                    logger.info("Removing idle process {} for user {} (idle for {}ms)", 
+                               managedProcess.getProcessId(), username, managedProcess.getIdleMillis());
+                    managedProcess.terminateAsync();
                 }
-                return true;
             }
-            
-            return false;
-        });
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task and stop expiry altogether
+            logger.error("Error expiring idle processes", e);
+        }
         
-        logger.debug("Health check completed. Active processes: {}", sessionProcesses.size());
+        logger.debug("Health check completed. Active processes: {}", userProcesses.size());
     }
     
     /**
@@ -219,17 +479,23 @@ public class ProcessPool {
         // Stop health check
         healthCheckExecutor.shutdown();
         
-        // Terminate all processes
-        sessionProcesses.forEach((sessionId, process) -> {
-            try {
-                process.terminate();
-                logger.info("Terminated process {} for session {}", process.getProcessId(), sessionId);
-            } catch (Exception e) {
-                logger.error("Error terminating process during shutdown", e);
-            }
-        });
+        // Terminate all processes at once, so shutdown takes one grace period however many there are
+        CompletableFuture<?>[] terminations = new ArrayList<>(userProcesses.keySet()).stream()
+            .map(username -> {
+                SharedProcess shared = userProcesses.remove(username);
+                return shared != null ? terminate(username, shared) : CompletableFuture.completedFuture(null);
+            })
+            .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(terminations).get(
+                ManagedProcess.TERMINATION_GRACE_MS + ManagedProcess.FORCED_EXIT_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("Not every process exited during shutdown");
+        }
         
-        sessionProcesses.clear();
+        userProcesses.clear();
         
         // Shutdown executors
         try {
@@ -252,6 +518,21 @@ public class ProcessPool {
         }
     }
     
+    /**
+     * A user's pooled process, the sessions using it, and the copy of the user's account
+     * those sessions share. The session set is guarded by the entry's monitor, and so is
+     * handing the entry over to a successor process.
+     */
+    private static final class SharedProcess {
+        private volatile ManagedProcess process;
+        private final AccountMirror mirror = new AccountMirror();
+        private final Set<String> sessionIds = new HashSet<>();
+        
+        SharedProcess(ManagedProcess process) {
+            this.process = process;
+        }
+    }
+    
     /**
      * Information about the process pool state
      */
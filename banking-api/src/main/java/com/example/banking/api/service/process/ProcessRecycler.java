@@ -0,0 +1,278 @@
+package com.example.banking.api.service.process;
+
+import com.example.banking.api.model.BankingUser;
+import com.example.banking.api.service.concurrent.CoarseClock;
+import com.example.banking.api.service.concurrent.ServiceOverloadedException;
+import com.example.banking.api.service.process.operations.SessionResumeOperation;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replaces long-lived banking processes before they grow without bound. A child keeps every
+ * transaction it has loaded or made in its heap and never exits on its own, so a process is
+ * recycled once it has run {@code max-operations} operations, is older than {@code max-age},
+ * or its resident set, read from {@code /proc/<pid>/status}, exceeds {@code max-rss-mb}.
+ * A limit of 0 turns that check off.
+ *
+ * Limits are checked after each operation, so an idle process is left to the idle timeout.
+ * The successor's JVM is booted in standby while the old process keeps serving: it loads no
+ * data until it is told to. The hand-over then runs between two operations, from inside the
+ * old process's mailbox. The child saves after every operation, so the successor, released
+ * from standby there, loads the account as the old process left it and logs in as the user
+ * like a resumed session, with a resume proof sent only at that point. Only that load and login hold up the user's queued operations.
+ * Operations still queued on the old process, or racing the hand-over, are passed on to the
+ * successor by {@link ProcessSessionManager}, so no request fails because of a recycle.
+ */
+@Service
+public class ProcessRecycler implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessRecycler.class);
+    /** Least time between two reads of a process's resident set */
+    static final long RSS_CHECK_INTERVAL_MS = 5000;
+    /** How long a process that could not be recycled serves before the next attempt */
+    static final long RETRY_DELAY_MS = 30000;
+    /** How long a successor's JVM gets to boot into standby */
+    private static final long STANDBY_TIMEOUT_MS = 10000;
+    /** Printed by the banking application once it has booted in standby */
+    static final String STANDBY_MARKER = "Standing by";
+
+    /**
+     * The limit that made a process due for recycling.
+     */
+    public enum Reason {
+        OPERATIONS, AGE, MEMORY
+    }
+
+    @Autowired
+    private ProcessPool processPool;
+
+    @Autowired
+    private ProcessExecutor processExecutor;
+
+    @Autowired
+    private ProcessAdmission admission;
+
+    @Value("${banking.session.recycle.max-operations:10000}")
+    private long maxOperations;
+
+    @Value("${banking.session.recycle.max-age:3600000}")
+    private long maxAgeMs;
+
+    @Value("${banking.session.recycle.max-rss-mb:256}")
+    private long maxRssMb;
+
+    @Value("${banking.session.operation-timeout:30000}")
+    private long operationTimeoutMs;
+
+    private final ExecutorService recycleExecutor = Executors.newCachedThreadPool();
+    private final Map<Reason, LongAdder> recycles = new EnumMap<>(Reason.class);
+    private final LongAdder handovers = new LongAdder();
+    private final LongAdder handoverNanos = new LongAdder();
+
+    public ProcessRecycler() {
+        for (Reason reason : Reason.values()) {
+            recycles.put(reason, new LongAdder());
+        }
+    }
+
+    /**
+     * Starts recycling the process in the background if it has reached a limit. Called after
+     * each operation; returns at once.
+     */
+    public void recycleIfDue(ManagedProcess managedProcess) {
+        if (!managedProcess.isLoggedIn() || managedProcess.getSuccessor() != null || !managedProcess.isHealthy()) {
+            return;
+        }
+        Reason reason = dueReason(managedProcess);
+        if (reason == null || !managedProcess.tryStartRecycling()) {
+            return;
+        }
+        recycleExecutor.execute(() -> recycle(managedProcess, reason));
+    }
+
+    /**
+     * Gets the limit the process has reached, or null if it has reached none.
+     */
+    Reason dueReason(ManagedProcess managedProcess) {
+        if (maxOperations > 0 && managedProcess.getOperationCount() >= maxOperations) {
+            return Reason.OPERATIONS;
+        }
+        if (maxAgeMs > 0 && managedProcess.getAgeMillis() >= maxAgeMs) {
+            return Reason.AGE;
+        }
+        Process process = managedProcess.getProcess();
+        long now = CoarseClock.currentTimeMillis();
+        if (maxRssMb > 0 && process != null && now - managedProcess.getRssCheckedMillis() >= RSS_CHECK_INTERVAL_MS) {
+            managedProcess.setRssCheckedMillis(now);
+            if (readRssKb(process.pid()) >= maxRssMb * 1024) {
+                return Reason.MEMORY;
+            }
+        }
+        return null;
+    }
+
+    private void recycle(ManagedProcess current, Reason reason) {
+        String username = current.getUsername();
+        try {
+            // Recycling boots a JVM like a login does, so it queues for the same slots
+            admission.getSpawns().admit();
+        } catch (ServiceOverloadedException e) {
+            logger.debug("No spawn slot to recycle process {} for user {}", current.getProcessId(), username);
+            current.recyclingFailed(RETRY_DELAY_MS);
+            return;
+        }
+        ManagedProcess successor = null;
+        long pauseNanos = -1;
+        try {
+            successor = startStandby(current);
+            ManagedProcess standby = successor;
+            pauseNanos = current.getMailbox().submit(() -> handOver(current, standby), operationTimeoutMs).join();
+        } catch (CompletionException | ProcessCreationException | ProcessExecutionException e) {
+            logger.warn("Failed to recycle process {} for user {}", current.getProcessId(), username,
+                    e instanceof CompletionException ? e.getCause() : e);
+        } finally {
+            admission.getSpawns().release();
+            if (successor != null && pauseNanos < 0) {
+                successor.killAsync();
+            }
+        }
+
+        if (pauseNanos < 0) {
+            current.recyclingFailed(RETRY_DELAY_MS);
+            return;
+        }
+        recycles.get(reason).increment();
+        logger.info("Recycled process {} for user {} ({} limit, {} operations, {} s old), operations held for {} ms",
+                current.getProcessId(), username, reason.name().toLowerCase(), current.getOperationCount(),
+                current.getUptimeSeconds(), TimeUnit.NANOSECONDS.toMillis(pauseNanos));
+        // Its account is saved, so its copy need not be written again on exit; queued work moves to the successor
+        current.killAsync();
+    }
+
+    /**
+     * Starts a process for the old process's user and waits until its JVM has booted into standby.
+     */
+    private ManagedProcess startStandby(ManagedProcess current) throws ProcessCreationException {
+        String username = current.getUsername();
+        ManagedProcess successor = processPool.createNewProcess(username, current.getSessionId(),
+                Map.of(ProcessPool.RESUME_USER_ENV, username, ProcessPool.STANDBY_ENV, "1"));
+        try {
+            String output = processExecutor.executeWithManagedProcess(communication -> communication.readOutputUntil(
+                    text -> text.contains(STANDBY_MARKER), STANDBY_TIMEOUT_MS), successor);
+            if (!output.contains(STANDBY_MARKER)) {
+                throw new ProcessExecutionException("Successor process for user " + username + " did not boot");
+            }
+        } catch (RuntimeException e) {
+            successor.killAsync();
+            throw e;
+        }
+        return successor;
+    }
+
+    /**
+     * Releases the successor from standby and swaps it in for the user's pooled process. Runs
+     * in the old process's mailbox, so the successor loads the account after the old process's
+     * last operation and before the next one.
+     *
+     * @return how long the hand-over took in nanoseconds, or -1 if the old process had left the
+     *         pool meanwhile
+     */
+    private long handOver(ManagedProcess current, ManagedProcess successor) throws Exception {
+        long started = System.nanoTime();
+        String username = current.getUsername();
+        BankingUser user = processExecutor.executeWithManagedProcess(communication -> {
+            communication.sendCommand("");
+            processPool.sendResumeProof(successor);
+            return new SessionResumeOperation(username).execute(communication);
+        }, successor);
+        if (user == null) {
+            throw new ProcessExecutionException("Successor process for user " + username + " did not log in");
+        }
+        successor.markLoggedIn();
+        if (!processPool.replaceProcess(username, current, successor)) {
+            return -1;
+        }
+        current.retire(successor);
+        long elapsedNanos = System.nanoTime() - started;
+        handovers.increment();
+        handoverNanos.add(elapsedNanos);
+        return elapsedNanos;
+    }
+
+    /**
+     * Reads a process's resident set size from {@code /proc/<pid>/status}.
+     *
+     * @return the size in kB, or -1 if it could not be read, e.g. on a system without /proc
+     */
+    static long readRssKb(long pid) {
+        try (BufferedReader reader = Files.newBufferedReader(Path.of("/proc", Long.toString(pid), "status"))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("VmRSS:")) {
+                    // e.g. "VmRSS:     51234 kB"
+                    return Long.parseLong(line.substring("VmRSS:".length()).trim().split("\\s+")[0]);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Could not read resident set size of process {}", pid, e);
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the number of processes recycled for reaching the given limit.
+     */
+    public long getRecycleCount(Reason reason) {
+        return recycles.get(reason).sum();
+    }
+
+    /**
+     * Registers the recycle metrics: processes replaced, tagged by the limit they reached, and
+     * how long each hand-over held up the user's operations.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Reason reason : Reason.values()) {
+            FunctionCounter.builder("banking.process.recycles", recycles.get(reason), LongAdder::sum)
+                    .tag("reason", reason.name().toLowerCase())
+                    .description("Banking processes replaced by a successor for reaching a recycling limit")
+                    .register(registry);
+        }
+        FunctionTimer.builder("banking.process.recycle.handovers", this,
+                        recycler -> recycler.handovers.sum(),
+                        recycler -> recycler.handoverNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .description("Hand-overs to a recycled process's successor, during which the user's operations wait")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        recycleExecutor.shutdownNow();
+        try {
+            recycleExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
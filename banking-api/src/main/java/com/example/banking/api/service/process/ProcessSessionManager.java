@@ -1,19 +1,41 @@
 package com.example.banking.api.service.process;
 
 import com.example.banking.api.domain.model.UserSession;
+import com.example.banking.api.model.BankingUser;
+import com.example.banking.api.service.concurrent.ServiceOverloadedException;
+import com.example.banking.api.service.concurrent.SingleFlight;
+import com.example.banking.api.service.process.operations.SessionResumeOperation;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Manages the mapping between user sessions and their corresponding banking processes.
- * This service orchestrates the creation, reuse, and cleanup of session-specific processes.
+ * This service orchestrates the creation, reuse, and cleanup of the processes, each of which
+ * is shared by all sessions of its user. An operation is only ever sent to a logged-in
+ * process: when a logged-in session's process has been replaced, after a restart or because
+ * it crashed, the new one is resumed as the session's user before the operation runs.
+ * When a process is recycled, work that reaches it after the hand-over is run on its
+ * successor instead.
  */
 @Service
-public class ProcessSessionManager {
+public class ProcessSessionManager implements MeterBinder {
     
     private static final Logger logger = LoggerFactory.getLogger(ProcessSessionManager.class);
     
@@ -23,9 +45,189 @@ public class ProcessSessionManager {
     @Autowired
     private ProcessExecutor processExecutor;
     
+    @Autowired
+    private ProcessAdmission admission;
+    
+    @Autowired
+    private ProcessRecycler recycler;
+    
+    @Value("${banking.session.operation-timeout:30000}")
+    private long operationTimeoutMs;
+    
+    /** Runs process starts and resumes, which block for a spawn slot and a JVM boot */
+    private Executor acquisitionExecutor = Executors.newCachedThreadPool();
+    
+    private final SingleFlight<String, ManagedProcess> resumes = new SingleFlight<>();
+    private final LongAdder resumeCount = new LongAdder();
+    private final LongAdder resumeNanos = new LongAdder();
+    
+    /**
+     * Queues an operation on the mailbox of the session's user's process.
+     * Operations for all sessions of the same user run one at a time, in submission order.
+     *
+     * @param userSession The user session
+     * @param operation The operation to execute
+     * @return A future completed with the result of the operation, or exceptionally with
+     *         {@link ProcessExecutionException} if no logged-in process could be had, or with
+     *         {@link ServiceOverloadedException}
+     *         if the operation limit and its wait queue are full
+     */
+    public <T> CompletableFuture<T> executeForSessionAsync(UserSession userSession, ProcessOperation<T> operation) {
+        return acquireProcess(userSession).thenCompose(managedProcess -> {
+            logger.debug("Queueing operation for session {} on process {}", 
+                        userSession.getSessionId(), managedProcess.getProcessId());
+            
+            return admission.getOperations().submit(() -> submitToCurrent(managedProcess,
+                process -> {
+                    T result = processExecutor.executeWithManagedProcess(operation, process);
+                    recycler.recycleIfDue(process);
+                    return result;
+                }));
+        });
+    }
+    
+    /**
+     * Gets the session's logged-in process. The user's pooled process is returned at once if it
+     * is already logged in; starting or resuming one waits for a spawn slot and a JVM boot, so
+     * that runs on {@link #acquisitionExecutor} rather than on the caller's thread.
+     */
+    private CompletableFuture<ManagedProcess> acquireProcess(UserSession userSession) {
+        ManagedProcess pooled = userSession.isRestored() ? null : processPool.getExistingProcess(userSession);
+        if (pooled != null && pooled.isLoggedIn()) {
+            return CompletableFuture.completedFuture(pooled);
+        }
+        long started = System.nanoTime();
+        CompletableFuture<ManagedProcess> acquired = new CompletableFuture<>();
+        try {
+            acquisitionExecutor.execute(() -> {
+                try {
+                    // Get or create a managed process for this session
+                    ManagedProcess current = userSession.isRestored() ? null : processPool.getOrCreateProcess(userSession);
+                    // Restored after a restart, or the process died and this one replaces it
+                    acquired.complete(current != null && current.isLoggedIn() ? current : resumeProcess(userSession, started));
+                } catch (ProcessCreationException e) {
+                    logger.error("Failed to create process for session {}", userSession.getSessionId(), e);
+                    acquired.completeExceptionally(new ProcessExecutionException("Failed to create process for session", e));
+                } catch (RuntimeException e) {
+                    acquired.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            acquired.completeExceptionally(e);
+        }
+        return acquired;
+    }
+    
+    /**
+     * Queues a task on the mailbox of the process now serving the user of {@code managedProcess}:
+     * the process itself, or its successor once it has been recycled. A task that still reaches
+     * a recycled process, queued before the hand-over or rejected by its closed mailbox, is queued
+     * again on the successor, so recycling never fails an operation.
+     */
+    private <T> CompletableFuture<T> submitToCurrent(ManagedProcess managedProcess, MailboxTask<T> task) {
+        ManagedProcess target = managedProcess.getCurrent();
+        return target.getMailbox().<T>submit(() -> {
+            if (target.getSuccessor() != null) {
+                throw new RejectedExecutionException("Process " + target.getProcessId() + " was recycled");
+            }
+            return task.run(target);
+        }, operationTimeoutMs).exceptionallyCompose(failure -> {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            if (cause instanceof RejectedExecutionException && target.getSuccessor() != null) {
+                return submitToCurrent(target.getSuccessor(), task);
+            }
+            return CompletableFuture.failedFuture(failure);
+        });
+    }
+    
+    /**
+     * Work run with exclusive use of a process, given the process it runs on.
+     */
+    @FunctionalInterface
+    private interface MailboxTask<T> {
+        T run(ManagedProcess process) throws Exception;
+    }
+    
+    /**
+     * Gets a logged-in process for a session that logged in earlier, when its user's process
+     * is new: the session was restored after a restart, or the process it used died. A process
+     * started for a logged-in session is told the username at startup instead of being sent
+     * the password, which the API never keeps. Like a login, this takes a spawn slot, so a
+     * burst of sessions coming back at once is paced the same way. Concurrent operations on
+     * the session share one resume. If another session of the user already has the process
+     * logged in, the session simply joins it.
+     *
+     * @param started when the operation that needs the process was submitted, for the resume timer
+     * @throws ProcessExecutionException if the process did not come up logged in; if the user
+     *         no longer exists, the session is also deactivated
+     */
+    private ManagedProcess resumeProcess(UserSession userSession, long started) throws ProcessCreationException {
+        try {
+            return resumes.execute(userSession.getSessionId(), () -> {
+                admission.getSpawns().admit();
+                try {
+                    return resumeAdmitted(userSession, started);
+                } finally {
+                    admission.getSpawns().release();
+                }
+            });
+        } catch (ProcessCreationException | ProcessExecutionException | ServiceOverloadedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ProcessExecutionException("Failed to resume session", e);
+        }
+    }
+    
+    private ManagedProcess resumeAdmitted(UserSession userSession, long started) throws Exception {
+        ManagedProcess managedProcess = processPool.getOrCreateProcess(userSession);
+        SessionResumeOperation operation = new SessionResumeOperation(userSession.getUsername());
+        AtomicBoolean ranResume = new AtomicBoolean();
+        boolean resumed;
+        try {
+            // Checked in the mailbox, so only the first of several sessions resuming at once reads the startup output
+            resumed = submitToCurrent(managedProcess, process -> {
+                if (process.isLoggedIn()) {
+                    return true;
+                }
+                if (!process.isResuming()) {
+                    // Started for a login that has not succeeded; it cannot be logged in by username
+                    throw new ProcessExecutionException("Process for user " + userSession.getUsername() + " is not logged in");
+                }
+                ranResume.set(true);
+                BankingUser user = processExecutor.executeWithManagedProcess(operation, process);
+                if (user != null) {
+                    process.markLoggedIn();
+                }
+                return user != null;
+            }).join();
+        } catch (CompletionException e) {
+            terminateSessionProcess(userSession);
+            throw new ProcessExecutionException("Failed to resume session", e.getCause());
+        }
+        if (!resumed) {
+            // The user is gone, e.g. deleted while the API was down
+            terminateSessionProcess(userSession);
+            userSession.setActive(false);
+            throw new ProcessExecutionException("Session could not be resumed");
+        }
+        if (ranResume.get()) {
+            long elapsedNanos = System.nanoTime() - started;
+            resumeCount.increment();
+            resumeNanos.add(elapsedNanos);
+            if (operation.getReportedBalance() != null) {
+                userSession.getAccountMirror().recordBalance(operation.getReportedBalance());
+            }
+            logger.info("Resumed session {} on process {} in {} ms", userSession.getSessionId(),
+                    managedProcess.getProcessId(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+        userSession.setRestored(false);
+        return managedProcess;
+    }
+    
     /**
      * Executes an operation for a given user session.
-     * This method handles getting or creating a process for the session and executing the operation.
+     * This method handles getting or creating a process for the session and executing the operation,
+     * waiting for its turn on the session's process mailbox.
      *
      * @param userSession The user session
      * @param operation The operation to execute
@@ -34,24 +236,21 @@ public class ProcessSessionManager {
      */
     public <T> T executeForSession(UserSession userSession, ProcessOperation<T> operation) {
         try {
-            // Get or create a managed process for this session
-            ManagedProcess managedProcess = processPool.getOrCreateProcess(userSession);
-            
-            logger.debug("Executing operation for session {} using process {}", 
-                        userSession.getSessionId(), managedProcess.getProcessId());
-            
-            // Execute the operation with the managed process
-            T result = processExecutor.executeWithManagedProcess(operation, managedProcess);
-            
+            T result = executeForSessionAsync(userSession, operation).join();
             logger.debug("Successfully executed operation for session {}", userSession.getSessionId());
             return result;
             
-        } catch (ProcessCreationException e) {
-            logger.error("Failed to create process for session {}", userSession.getSessionId(), e);
-            throw new ProcessExecutionException("Failed to create process for session", e);
-        } catch (Exception e) {
-            logger.error("Error executing operation for session {}", userSession.getSessionId(), e);
-            throw new ProcessExecutionException("Failed to execute operation for session", e);
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof ProcessExecutionException
+                    && cause.getCause() instanceof ProcessCreationException) {
+                throw (ProcessExecutionException) cause;
+            }
+            if (cause instanceof ServiceOverloadedException) {
+                throw (ServiceOverloadedException) cause;
+            }
+            logger.error("Error executing operation for session {}", userSession.getSessionId(), cause);
+            throw new ProcessExecutionException("Failed to execute operation for session", cause);
         }
     }
     
@@ -61,19 +260,54 @@ public class ProcessSessionManager {
      *
      * @param userSession The user session
      * @param operation The authentication operation
-     * @return The result of the authentication
+     * @return The result of the authentication; a non-null result means the user logged in
      * @throws ProcessExecutionException if authentication fails
+     * @throws ServiceOverloadedException if too many
+     *         logins are already booting a process and the wait queue is full
      */
     public <T> T authenticateForSession(UserSession userSession, ProcessOperation<T> operation) {
+        // Hold a spawn slot until the process has booted and logged in
+        admission.getSpawns().admit();
+        try {
+            return authenticateAdmitted(userSession, operation);
+        } finally {
+            admission.getSpawns().release();
+        }
+    }
+    
+    private <T> T authenticateAdmitted(UserSession userSession, ProcessOperation<T> operation) {
         try {
-            // For authentication, we always create a new process
+            // The user's process, new or already serving the user's other sessions
             ManagedProcess managedProcess = processPool.getOrCreateProcess(userSession);
             
             logger.debug("Authenticating session {} using process {}", 
                         userSession.getSessionId(), managedProcess.getProcessId());
             
-            // Execute the authentication operation
-            T result = processExecutor.executeWithManagedProcess(operation, managedProcess);
+            // Execute the authentication operation through the mailbox like any other operation
+            AtomicBoolean alreadyLoggedIn = new AtomicBoolean();
+            T result;
+            try {
+                result = submitToCurrent(managedProcess, process -> {
+                    if (process.isLoggedIn() || process.isResuming()) {
+                        // Decided in the mailbox, so a login queued just ahead is seen, but checked outside it
+                        alreadyLoggedIn.set(true);
+                        return null;
+                    }
+                    T login = processExecutor.executeWithManagedProcess(operation, process);
+                    if (login != null) {
+                        process.markLoggedIn();
+                    }
+                    return login;
+                }).join();
+                if (alreadyLoggedIn.get()) {
+                    result = verifyOnOwnProcess(userSession, operation);
+                }
+                if (result != null) {
+                    userSession.setAuthenticated(true);
+                }
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
             
             logger.info("Successfully authenticated session {}", userSession.getSessionId());
             return result;
@@ -92,25 +326,45 @@ public class ProcessSessionManager {
     }
     
     /**
-     * Terminates the process associated with a user session.
+     * Checks a login for a user whose process is already logged in, on a short-lived process
+     * of its own: the shared process cannot be sent a second login. It runs outside the shared
+     * process's mailbox, so the user's queued operations do not wait for its JVM to boot. The
+     * data file is only ever replaced whole, so the check loads a consistent copy even while
+     * the shared process saves, and the short-lived process is killed so that its copy is
+     * never written back.
+     */
+    private <T> T verifyOnOwnProcess(UserSession userSession, ProcessOperation<T> operation) throws Exception {
+        ManagedProcess verifier = processPool.createNewProcess(userSession);
+        try {
+            return processExecutor.executeWithManagedProcess(operation, verifier);
+        } finally {
+            verifier.killAsync();
+        }
+    }
+    
+    /**
+     * Releases the session's use of its user's process. The process is terminated, without
+     * waiting for it to exit, once no other session of the user is using it.
      *
      * @param userSession The user session
+     * @return completes once the process has exited, or at once if it is still in use
      */
-    public void terminateSessionProcess(UserSession userSession) {
+    public CompletableFuture<Void> terminateSessionProcess(UserSession userSession) {
         String sessionId = userSession.getSessionId();
-        logger.info("Terminating process for session {}", sessionId);
+        logger.info("Releasing process for session {}", sessionId);
         
         try {
-            processPool.terminateProcess(sessionId);
+            CompletableFuture<Void> termination = processPool.releaseProcess(userSession);
             
             // Clear process information from user session
             userSession.setBankingProcess(null);
             userSession.setProcessId(null);
             
-            logger.info("Successfully terminated process for session {}", sessionId);
+            return termination;
             
         } catch (Exception e) {
-            logger.error("Error terminating process for session {}", sessionId, e);
+            logger.error("Error releasing process for session {}", sessionId, e);
+            return CompletableFuture.completedFuture(null);
         }
     }
     
@@ -124,6 +378,15 @@ public class ProcessSessionManager {
         return userSession.hasActiveProcess();
     }
     
+    /**
+     * Forgets the mirrored account of every session of a user, whose account was changed by
+     * another user's process. Only sessions on this instance are reached: in router mode a
+     * user owned by another instance keeps its mirror there until its next own change.
+     */
+    public void invalidateAccountMirror(String username) {
+        processPool.invalidateMirror(username);
+    }
+    
     /**
      * Gets process pool information for monitoring
      *
@@ -133,6 +396,28 @@ public class ProcessSessionManager {
         return processPool.getProcessPoolInfo();
     }
     
+    /**
+     * Gets the number of times a session's process was resumed after a restart or a crash.
+     */
+    public long getResumeCount() {
+        return resumeCount.sum();
+    }
+    
+    /**
+     * Registers the resume timer: how many times a session's process was replaced by one
+     * logged in by username, after a restart or a crash, and how long the operation that
+     * needed it waited for it.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionTimer.builder("banking.session.resumes", this,
+                        manager -> manager.resumeCount.sum(),
+                        manager -> manager.resumeNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .description("Session processes resumed after a restart or a crash")
+                .register(registry);
+    }
+    
     /**
      * Performs health check on session processes
      * This method can be called by monitoring or management endpoints
@@ -149,6 +434,9 @@ public class ProcessSessionManager {
     @PreDestroy
     public void cleanup() {
         logger.info("ProcessSessionManager cleanup initiated");
+        if (acquisitionExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
         // ProcessPool will handle its own cleanup via @PreDestroy
     }
 }
\ No newline at end of file
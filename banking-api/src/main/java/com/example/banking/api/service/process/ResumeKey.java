@@ -0,0 +1,119 @@
+package com.example.banking.api.service.process;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Signs the proof a banking process needs before it starts logged in as a user without a
+ * password. Anyone can start the banking application with {@link ProcessPool#RESUME_USER_ENV}
+ * set, so the child only honours it if the first line it reads carries an HMAC-SHA256 of the
+ * username and an expiry, made with the key in {@value #KEY_FILE}.
+ *
+ * The key file sits in the working directory the processes are started in, next to the data
+ * file, and is created readable and writable by its owner only. Instances sharing that
+ * directory share the key: the first to start creates it and the others read it.
+ */
+@Component
+public class ResumeKey {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeKey.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    /** Where the banking application looks for the key, relative to its working directory */
+    static final String KEY_FILE = "banking_resume.key";
+    private static final int KEY_BYTES = 32;
+    /** How long a proof stays valid; it only has to outlive the child's JVM startup */
+    static final long PROOF_TTL_MS = 60000;
+
+    private final Path keyFile;
+    private SecretKeySpec key;
+
+    public ResumeKey() {
+        this(Path.of(KEY_FILE));
+    }
+
+    ResumeKey(Path keyFile) {
+        this.keyFile = keyFile;
+    }
+
+    @PostConstruct
+    public void initializeKey() {
+        try {
+            key = new SecretKeySpec(readOrCreate(), ALGORITHM);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to set up resume key " + keyFile, e);
+        }
+    }
+
+    /**
+     * Creates the key file if it does not exist yet. It is written under a temporary name and
+     * linked into place, so another instance never reads a half-written key.
+     */
+    private byte[] readOrCreate() throws IOException {
+        if (!Files.exists(keyFile)) {
+            byte[] bytes = new byte[KEY_BYTES];
+            new SecureRandom().nextBytes(bytes);
+            Path directory = keyFile.toAbsolutePath().getParent();
+            Path temp = Files.createTempFile(directory, KEY_FILE, ".tmp");
+            try {
+                setOwnerOnly(temp);
+                Files.write(temp, bytes);
+                Files.createLink(keyFile, temp);
+                logger.info("Created resume key {}", keyFile);
+                return bytes;
+            } catch (FileAlreadyExistsException e) {
+                // Another instance created it first
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        byte[] bytes = Files.readAllBytes(keyFile);
+        if (bytes.length < KEY_BYTES) {
+            throw new IOException("Resume key " + keyFile + " is too short");
+        }
+        return bytes;
+    }
+
+    private static void setOwnerOnly(Path path) throws IOException {
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            logger.warn("Cannot restrict permissions of {}; keep it readable by the API only", path);
+        }
+    }
+
+    /**
+     * Makes the line a process started with {@link ProcessPool#RESUME_USER_ENV} expects before
+     * it logs the user in: the expiry in epoch milliseconds and the URL-safe base64 HMAC of
+     * the username and expiry, separated by a dot.
+     */
+    public String proofFor(String username) {
+        long expiresAtMillis = System.currentTimeMillis() + PROOF_TTL_MS;
+        String claims = username + '\n' + expiresAtMillis;
+        return expiresAtMillis + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(claims));
+    }
+
+    private byte[] sign(String claims) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(claims.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -2,11 +2,10 @@ package com.example.banking.api.service.process.operations;
 
 import com.example.banking.api.service.process.ProcessCommunication;
 import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.ProcessOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Process operation for getting account balance.
@@ -18,9 +17,6 @@ public class BalanceOperation implements ProcessOperation<Double> {
     private final String username;
     private final String password;
     
-    // Pattern for parsing balance
-    private static final Pattern BALANCE_PATTERN = Pattern.compile("Current Balance: \\$([0-9]+\\.?[0-9]*)");
-    
     public BalanceOperation(String username, String password) {
         this.username = username;
         this.password = password;
@@ -32,7 +28,7 @@ public class BalanceOperation implements ProcessOperation<Double> {
         
         // Wait for initial menu
         String initialOutput = communication.waitForInitialMenu();
-        if (!initialOutput.toLowerCase().contains("login") && !initialOutput.toLowerCase().contains("choose")) {
+        if (!ProcessOutput.parse(initialOutput).showsAuthMenu()) {
             logger.error("No menu found in initial output");
             return null;
         }
@@ -76,14 +72,11 @@ public class BalanceOperation implements ProcessOperation<Double> {
      * Parse balance from process output.
      */
     private double parseBalance(String output) {
-        Matcher matcher = BALANCE_PATTERN.matcher(output);
-        if (matcher.find()) {
-            try {
-                return Double.parseDouble(matcher.group(1));
-            } catch (NumberFormatException e) {
-                logger.warn("Failed to parse balance from output: {}", matcher.group(1));
-            }
+        Double balance = ProcessOutput.parse(output).getLastBalance();
+        if (balance == null) {
+            logger.warn("No balance found in output");
+            return 0.0;
         }
-        return 0.0;
+        return balance;
     }
 }
\ No newline at end of file
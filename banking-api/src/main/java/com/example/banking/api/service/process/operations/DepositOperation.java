@@ -2,6 +2,7 @@ package com.example.banking.api.service.process.operations;
 
 import com.example.banking.api.service.process.ProcessCommunication;
 import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.ProcessOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,7 +29,7 @@ public class DepositOperation implements ProcessOperation<Boolean> {
         
         // Wait for initial menu
         String initialOutput = communication.waitForInitialMenu();
-        if (!initialOutput.toLowerCase().contains("login") && !initialOutput.toLowerCase().contains("choose")) {
+        if (!ProcessOutput.parse(initialOutput).showsAuthMenu()) {
             logger.error("No menu found in initial output");
             return false;
         }
@@ -67,9 +68,7 @@ public class DepositOperation implements ProcessOperation<Boolean> {
         logger.info("Deposit result: [{}]", depositResult);
         
         // Check if deposit was successful
-        boolean depositSuccess = depositResult.toLowerCase().contains("successfully deposited") ||
-                               depositResult.toLowerCase().contains("deposit successful") ||
-                               depositResult.contains("Successfully deposited $" + amount);
+        boolean depositSuccess = ProcessOutput.parse(depositResult).hasSuccess("Successfully deposited");
         logger.info("Deposit successful: {}", depositSuccess);
         
         // Logout gracefully
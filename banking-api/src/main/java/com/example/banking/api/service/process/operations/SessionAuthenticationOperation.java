@@ -3,6 +3,7 @@ package com.example.banking.api.service.process.operations;
 import com.example.banking.api.model.BankingUser;
 import com.example.banking.api.service.process.ProcessCommunication;
 import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.ProcessOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,6 +18,7 @@ public class SessionAuthenticationOperation implements ProcessOperation<BankingU
     
     private final String username;
     private final String password;
+    private Double reportedBalance;
     
     public SessionAuthenticationOperation(String username, String password) {
         this.username = username;
@@ -29,7 +31,7 @@ public class SessionAuthenticationOperation implements ProcessOperation<BankingU
         
         // Wait for initial menu
         String initialOutput = communication.waitForInitialMenu();
-        if (!initialOutput.toLowerCase().contains("login") && !initialOutput.toLowerCase().contains("choose")) {
+        if (!ProcessOutput.parse(initialOutput).showsAuthMenu()) {
             logger.error("No menu found in initial output");
             return null;
         }
@@ -44,8 +46,10 @@ public class SessionAuthenticationOperation implements ProcessOperation<BankingU
         if (isSuccessful) {
             // DO NOT perform logout - leave the process in the banking menu state
             // This allows subsequent session operations to work with the authenticated process
+            // The process reports the balance right after the welcome line
+            reportedBalance = ProcessOutput.parse(authResult).getLastBalance();
             logger.info("=== SESSION AUTHENTICATION OPERATION END - SUCCESS (STAYING LOGGED IN) ===");
-            return new BankingUser(username, 0.0);
+            return new BankingUser(username, reportedBalance != null ? reportedBalance : 0.0);
         } else {
             // Handle failed login
             communication.performGracefulExit();
@@ -54,4 +58,12 @@ public class SessionAuthenticationOperation implements ProcessOperation<BankingU
             return null;
         }
     }
+
+    /**
+     * The balance the process reported alongside the result, or null if it reported none.
+     * Set by {@link #execute}.
+     */
+    public Double getReportedBalance() {
+        return reportedBalance;
+    }
 }
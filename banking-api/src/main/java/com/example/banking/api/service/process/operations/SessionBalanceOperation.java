@@ -1,13 +1,12 @@
 package com.example.banking.api.service.process.operations;
 
+import com.example.banking.api.service.process.OutputEvent;
 import com.example.banking.api.service.process.ProcessCommunication;
 import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.ProcessOutputTokenizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Session-aware balance operation that works with pre-authenticated processes.
  * This operation assumes the process is already authenticated and skips authentication.
@@ -16,10 +15,10 @@ public class SessionBalanceOperation implements ProcessOperation<Double> {
     
     private static final Logger logger = LoggerFactory.getLogger(SessionBalanceOperation.class);
     
-    private final String username;
+    private static final long IDLE_TIMEOUT_MS = 500;
     
-    // Pattern for parsing balance - specifically looks for "Current Balance: $amount"
-    private static final Pattern BALANCE_PATTERN = Pattern.compile("Current Balance:\\s*\\$([0-9]+\\.?[0-9]*)", Pattern.CASE_INSENSITIVE);
+    private final String username;
+    private Double reportedBalance;
     
     public SessionBalanceOperation(String username) {
         this.username = username;
@@ -34,41 +33,32 @@ public class SessionBalanceOperation implements ProcessOperation<Double> {
         logger.info("Sending transaction list command (3)...");
         communication.sendCommand("3"); // Choose transaction list option from banking menu
         
-        // Wait for transaction list output (which includes current balance)
+        // Stream the listing up to the menu prompt, keeping only the balance reported at its end,
+        // so the read neither holds nor truncates a long history
         logger.info("Waiting for transaction list output...");
-        String transactionOutput = communication.readOutput(500);
-        logger.info("Transaction list output: [{}]", transactionOutput);
+        Double[] balance = {null};
+        boolean complete = communication.streamOutput(event -> {
+            if (event.is(OutputEvent.Type.BALANCE)) {
+                balance[0] = event.getAmount();
+            }
+        }, event -> event.is(OutputEvent.Type.PROMPT)
+                && ProcessOutputTokenizer.BANKING_MENU_PROMPT.equals(event.getText()), IDLE_TIMEOUT_MS);
         
-        // Parse balance from transaction list output
-        Double balance = parseBalance(transactionOutput);
-        logger.info("Parsed balance: {}", balance);
+        reportedBalance = balance[0];
+        if (balance[0] == null) {
+            logger.warn("Could not parse balance from transaction list output (complete: {})", complete);
+            balance[0] = 0.0; // Default to 0 if we can't parse
+        }
         
-        logger.info("=== SESSION BALANCE OPERATION END - BALANCE: {} ===", balance);
-        return balance;
+        logger.info("=== SESSION BALANCE OPERATION END - BALANCE: {} ===", balance[0]);
+        return balance[0];
     }
     
     /**
-     * Parse balance from process output.
-     * Looks for patterns like "Current Balance: $100.00" or "Current balance: $50.25"
+     * The balance the process actually reported, or null if none could be parsed and
+     * {@link #execute} fell back to 0.
      */
-    private Double parseBalance(String output) {
-        if (output == null || output.trim().isEmpty()) {
-            logger.warn("Empty output provided for balance parsing");
-            return 0.0;
-        }
-
-        // Look for patterns like "Current Balance: $100.00" or "Current balance: $50.25"
-        Matcher matcher = BALANCE_PATTERN.matcher(output);
-        if (matcher.find()) {
-            try {
-                return Double.parseDouble(matcher.group(1));
-            } catch (NumberFormatException e) {
-                logger.warn("Failed to parse balance from: {}", matcher.group(1), e);
-            }
-        }
-
-        // Fallback: look for any number that might be a balance
-        logger.warn("Could not parse balance from output: {}", output);
-        return 0.0; // Default to 0 if we can't parse
+    public Double getReportedBalance() {
+        return reportedBalance;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,146 @@
+package com.example.banking.api.service.process.operations;
+
+import com.example.banking.api.model.BankingTransaction;
+import com.example.banking.api.model.BatchItemResult;
+import com.example.banking.api.service.process.OutputEvent;
+import com.example.banking.api.service.process.ProcessCommunication;
+import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.ProcessOutputTokenizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Session-aware operation that runs a batch of deposits and withdrawals in one round trip.
+ * All commands are written to the process in a single flush, then the output is tokenized as
+ * it arrives. Each item's output starts at its amount prompt and ends at the banking menu
+ * prompt that follows, so anything left over from a previous operation, however late it
+ * arrives, falls outside every item and is ignored.
+ * Items still unanswered when the process goes quiet are already queued on its input and may
+ * yet be applied, so they are reported as outcome unknown and the process is marked out of
+ * step, to be replaced before its late output can reach another operation.
+ * This operation assumes the process is already authenticated and in the banking menu state.
+ */
+public class SessionBatchTransactionOperation implements ProcessOperation<List<BatchItemResult>> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SessionBatchTransactionOperation.class);
+    
+    /**
+     * How long the process may stay quiet before the remaining items are given up on. Each
+     * item rewrites the whole data file under a lock other processes also take, so this
+     * allows for waiting behind them.
+     */
+    private static final long IDLE_TIMEOUT_MS = 10000;
+    
+    private final String username;
+    private final List<BankingTransaction> items;
+    
+    public SessionBatchTransactionOperation(String username, List<BankingTransaction> items) {
+        this.username = username;
+        this.items = items;
+    }
+    
+    @Override
+    public List<BatchItemResult> execute(ProcessCommunication communication) throws Exception {
+        logger.info("=== SESSION BATCH OPERATION START - Items: {} ===", items.size());
+        
+        StringBuilder script = new StringBuilder();
+        for (BankingTransaction item : items) {
+            script.append(isDeposit(item) ? "1" : "2").append('\n').append(item.getAmount()).append('\n');
+        }
+        // Trailing newline is added by sendCommand; strip ours to avoid an empty menu entry
+        script.setLength(script.length() - 1);
+        communication.sendCommand(script.toString());
+        
+        ItemCollector collector = new ItemCollector(items.size());
+        communication.streamOutput(collector, event -> collector.isComplete(), IDLE_TIMEOUT_MS);
+        
+        List<BatchItemResult> results = parseResults(collector.answered);
+        if (!collector.isComplete()) {
+            communication.markOutOfStep();
+        }
+        logger.info("=== SESSION BATCH OPERATION END - {} of {} items answered ===", collector.answered.size(), items.size());
+        return results;
+    }
+    
+    /**
+     * Builds one result per item from the events of the items that were answered, in order.
+     * The first line after the amount prompt is the item's message; items whose output
+     * never arrived are reported as outcome unknown.
+     */
+    List<BatchItemResult> parseResults(List<List<OutputEvent>> answered) {
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            BankingTransaction item = items.get(i);
+            String type = isDeposit(item) ? "Deposit" : "Withdrawal";
+            if (i >= answered.size()) {
+                results.add(BatchItemResult.outcomeUnknown(i, type, item.getAmount()));
+                continue;
+            }
+            
+            OutputEvent message = null;
+            Double balance = null;
+            for (OutputEvent event : answered.get(i)) {
+                if (event.is(OutputEvent.Type.BALANCE)) {
+                    balance = event.getAmount();
+                } else if (message == null && !event.is(OutputEvent.Type.PROMPT)) {
+                    message = event;
+                }
+            }
+            boolean success = message != null && message.is(OutputEvent.Type.SUCCESS);
+            String text = message != null ? message.getText() : "";
+            results.add(new BatchItemResult(i, type, item.getAmount(), success, text, balance));
+        }
+        return results;
+    }
+    
+    private static boolean isDeposit(BankingTransaction item) {
+        return item.getType().toLowerCase().startsWith("deposit");
+    }
+    
+    /**
+     * Splits the event stream into items: an amount prompt opens an item and the next banking
+     * menu prompt closes it. Events outside an item are dropped.
+     */
+    private static final class ItemCollector implements Consumer<OutputEvent> {
+        
+        private final int expectedItems;
+        private final List<List<OutputEvent>> answered = new ArrayList<>();
+        private List<OutputEvent> current;
+        
+        ItemCollector(int expectedItems) {
+            this.expectedItems = expectedItems;
+        }
+        
+        @Override
+        public void accept(OutputEvent event) {
+            if (isAmountPrompt(event)) {
+                current = new ArrayList<>();
+            } else if (current != null) {
+                if (isMenuPrompt(event)) {
+                    answered.add(current);
+                    current = null;
+                } else {
+                    current.add(event);
+                }
+            }
+        }
+        
+        boolean isComplete() {
+            return answered.size() >= expectedItems;
+        }
+        
+        private static boolean isAmountPrompt(OutputEvent event) {
+            return event.is(OutputEvent.Type.PROMPT)
+                    && (ProcessOutputTokenizer.DEPOSIT_AMOUNT_PROMPT.equals(event.getText())
+                        || ProcessOutputTokenizer.WITHDRAW_AMOUNT_PROMPT.equals(event.getText()));
+        }
+        
+        private static boolean isMenuPrompt(OutputEvent event) {
+            return event.is(OutputEvent.Type.PROMPT) && ProcessOutputTokenizer.BANKING_MENU_PROMPT.equals(event.getText());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.banking.api.service.process.operations;
 
 import com.example.banking.api.service.process.ProcessCommunication;
 import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.ProcessOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,6 +16,7 @@ public class SessionDepositOperation implements ProcessOperation<Boolean> {
     
     private final String username;
     private final double amount;
+    private Double reportedBalance;
     
     public SessionDepositOperation(String username, double amount) {
         this.username = username;
@@ -45,10 +47,19 @@ public class SessionDepositOperation implements ProcessOperation<Boolean> {
         logger.info("Deposit result: [{}]", depositResult);
         
         // Check if deposit was successful
-        boolean success = depositResult.toLowerCase().contains("successful") || 
-                         depositResult.toLowerCase().contains("deposited");
+        ProcessOutput parsed = ProcessOutput.parse(depositResult);
+        boolean success = parsed.hasSuccess("Successfully deposited");
+        reportedBalance = parsed.getLastBalance();
         
         logger.info("=== SESSION DEPOSIT OPERATION END - Success: {} ===", success);
         return success;
     }
-}
\ No newline at end of file
+
+    /**
+     * The balance the process reported alongside the result, or null if it reported none.
+     * Set by {@link #execute}.
+     */
+    public Double getReportedBalance() {
+        return reportedBalance;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.banking.api.service.process.operations;
+
+import com.example.banking.api.model.BankingUser;
+import com.example.banking.api.service.process.ProcessCommunication;
+import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.ProcessOutput;
+import com.example.banking.api.service.process.ProcessOutputTokenizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Confirms that a process started to resume a session came up logged in as the session's user.
+ * The process logs in by itself at startup, so this only reads the welcome and the banking
+ * menu that follow, leaving the process ready for the session's next operation.
+ */
+public class SessionResumeOperation implements ProcessOperation<BankingUser> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SessionResumeOperation.class);
+    private static final long STARTUP_TIMEOUT_MS = 5000;
+    
+    private final String username;
+    private Double reportedBalance;
+    
+    public SessionResumeOperation(String username) {
+        this.username = username;
+    }
+    
+    @Override
+    public BankingUser execute(ProcessCommunication communication) throws Exception {
+        // Unlike a login the output depends on JVM startup, so wait for the menu rather than a fixed time
+        String output = communication.readOutputUntil(
+            text -> text.contains(ProcessOutputTokenizer.BANKING_MENU_PROMPT)
+                || text.contains(ProcessOutputTokenizer.AUTH_MENU_PROMPT),
+            STARTUP_TIMEOUT_MS);
+        
+        if (!communication.isAuthenticationSuccessful(output, username)
+                || ProcessOutput.parse(output).showsAuthMenu()) {
+            logger.warn("Process did not resume the session of user {}", username);
+            communication.performGracefulExit();
+            return null;
+        }
+        
+        reportedBalance = ProcessOutput.parse(output).getLastBalance();
+        logger.info("Resumed session of user {}", username);
+        return new BankingUser(username, reportedBalance != null ? reportedBalance : 0.0);
+    }
+    
+    /**
+     * The balance the process reported when it resumed, or null if it reported none.
+     * Set by {@link #execute}.
+     */
+    public Double getReportedBalance() {
+        return reportedBalance;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.banking.api.service.process.operations;
+
+import com.example.banking.api.model.BankingTransaction;
+import com.example.banking.api.model.TransactionPage;
+import com.example.banking.api.model.TransactionQuery;
+import com.example.banking.api.service.process.OutputEvent;
+import com.example.banking.api.service.process.ProcessCommunication;
+import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.ProcessOutputTokenizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Session-aware operation that runs a filtered, paginated transaction query.
+ * The banking process answers from its per-account time index, so only the requested
+ * page crosses the pipe, each row carrying its sequence number and running balance.
+ * This operation assumes the process is already authenticated and in the banking menu state.
+ */
+public class SessionTransactionQueryOperation implements ProcessOperation<TransactionPage> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionTransactionQueryOperation.class);
+
+    static final long IDLE_TIMEOUT_MS = 1000;
+
+    private final String username;
+    private final TransactionQuery query;
+
+    public SessionTransactionQueryOperation(String username, TransactionQuery query) {
+        this.username = username;
+        this.query = query;
+    }
+
+    @Override
+    public TransactionPage execute(ProcessCommunication communication) throws Exception {
+        logger.info("=== SESSION TRANSACTION QUERY OPERATION START ===");
+
+        String command = query.toCommand();
+        logger.info("Sending transaction query command (7): {}", command);
+        communication.sendCommands("7", command);
+
+        List<BankingTransaction> transactions = new ArrayList<>();
+        Long[] nextCursor = {null};
+        Long[] headSequence = {null};
+        String[] error = {null};
+        boolean complete = communication.streamOutput(event -> {
+            switch (event.getType()) {
+                case TRANSACTION:
+                    BankingTransaction transaction = new BankingTransaction(
+                            event.getText(), event.getAmount(), event.getTimestamp());
+                    if (event.getSequence() >= 0) {
+                        transaction.setSequence(event.getSequence());
+                    }
+                    if (!Double.isNaN(event.getBalanceAfter())) {
+                        transaction.setBalanceAfter(event.getBalanceAfter());
+                    }
+                    transactions.add(transaction);
+                    break;
+                case CURSOR:
+                    nextCursor[0] = event.getSequence();
+                    break;
+                case HEAD:
+                    headSequence[0] = event.getSequence();
+                    break;
+                case ERROR:
+                    error[0] = event.getText();
+                    break;
+                default:
+                    break;
+            }
+        }, event -> event.is(OutputEvent.Type.PROMPT)
+                && ProcessOutputTokenizer.BANKING_MENU_PROMPT.equals(event.getText()), IDLE_TIMEOUT_MS);
+
+        if (error[0] != null) {
+            throw new IllegalArgumentException(error[0]);
+        }
+        if (!complete) {
+            logger.warn("Transaction query for {} ended without a menu prompt after {} rows", username, transactions.size());
+        }
+
+        logger.info("=== SESSION TRANSACTION QUERY OPERATION END - Count: {}, Next cursor: {} ===",
+                transactions.size(), nextCursor[0]);
+        return new TransactionPage(transactions, nextCursor[0], headSequence[0]);
+    }
+}
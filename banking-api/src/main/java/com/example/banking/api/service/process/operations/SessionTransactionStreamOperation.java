@@ -0,0 +1,77 @@
+package com.example.banking.api.service.process.operations;
+
+import com.example.banking.api.model.BankingTransaction;
+import com.example.banking.api.service.process.OutputEvent;
+import com.example.banking.api.service.process.ProcessCommunication;
+import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.ProcessOutputTokenizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Consumer;
+
+/**
+ * Session-aware operation that streams the transaction history to a sink line by line.
+ * Transactions are handed over as soon as their line is read, so nothing proportional to
+ * the history length is held, and the read only ends when the banking menu prompt returns
+ * (or the process stalls), so long histories are never cut off by a fixed read window.
+ * This operation assumes the process is already authenticated and in the banking menu state.
+ * Returns the number of transactions delivered.
+ */
+public class SessionTransactionStreamOperation implements ProcessOperation<Integer> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionTransactionStreamOperation.class);
+
+    static final long IDLE_TIMEOUT_MS = 1000;
+
+    private final String username;
+    private final Consumer<BankingTransaction> sink;
+    private boolean complete;
+
+    public SessionTransactionStreamOperation(String username, Consumer<BankingTransaction> sink) {
+        this.username = username;
+        this.sink = sink;
+    }
+
+    @Override
+    public Integer execute(ProcessCommunication communication) throws Exception {
+        logger.info("=== SESSION TRANSACTION STREAM OPERATION START ===");
+
+        logger.info("Sending transaction history command (3)...");
+        communication.sendCommand("3"); // Choose transaction list option from banking menu
+
+        int[] delivered = {0};
+        RuntimeException[] sinkFailure = {null};
+        complete = communication.streamOutput(event -> {
+            if (!event.is(OutputEvent.Type.TRANSACTION) || sinkFailure[0] != null) {
+                return;
+            }
+            try {
+                sink.accept(new BankingTransaction(event.getText(), event.getAmount(), event.getTimestamp()));
+                delivered[0]++;
+            } catch (RuntimeException e) {
+                // Keep reading to the menu prompt so the process is left ready for the next operation
+                sinkFailure[0] = e;
+            }
+        }, event -> event.is(OutputEvent.Type.PROMPT)
+                && ProcessOutputTokenizer.BANKING_MENU_PROMPT.equals(event.getText()), IDLE_TIMEOUT_MS);
+
+        if (!complete) {
+            logger.warn("Transaction history for {} ended without a menu prompt after {} transactions", username, delivered[0]);
+        }
+        if (sinkFailure[0] != null) {
+            throw sinkFailure[0];
+        }
+
+        logger.info("=== SESSION TRANSACTION STREAM OPERATION END - Count: {} ===", delivered[0]);
+        return delivered[0];
+    }
+
+    /**
+     * Whether the last execution read the listing through to the menu prompt, rather than
+     * stopping on the idle timeout.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.banking.api.service.process.operations;
+
+import com.example.banking.api.service.process.ProcessCommunication;
+import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.ProcessOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Session-aware transfer operation that works with pre-authenticated processes.
+ * This operation assumes the process is already authenticated and skips authentication.
+ */
+public class SessionTransferOperation implements ProcessOperation<Boolean> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SessionTransferOperation.class);
+    
+    private final String username;
+    private final String recipient;
+    private final double amount;
+    private Double reportedBalance;
+    
+    public SessionTransferOperation(String username, String recipient, double amount) {
+        this.username = username;
+        this.recipient = recipient;
+        this.amount = amount;
+    }
+    
+    @Override
+    public Boolean execute(ProcessCommunication communication) throws Exception {
+        logger.info("=== SESSION TRANSFER OPERATION START - Recipient: {}, Amount: {} ===", recipient, amount);
+        
+        // For session-based operations, we assume the process is already authenticated
+        // and in the banking menu state. Send the transfer command directly
+        logger.info("Sending transfer command (6)...");
+        communication.sendCommand("6"); // Choose transfer option from banking menu
+        
+        // Wait for recipient prompt
+        String recipientPrompt = communication.readOutput(500);
+        logger.info("Recipient prompt: [{}]", recipientPrompt);
+        communication.sendCommand(recipient);
+        
+        // Wait for amount prompt
+        String amountPrompt = communication.readOutput(500);
+        logger.info("Amount prompt: [{}]", amountPrompt);
+        communication.sendCommand(String.valueOf(amount));
+        
+        // Wait for transfer result
+        logger.info("Waiting for transfer result...");
+        String transferResult = communication.readOutput(1000);
+        logger.info("Transfer result: [{}]", transferResult);
+        
+        ProcessOutput parsed = ProcessOutput.parse(transferResult);
+        boolean success = parsed.hasSuccess("Successfully transferred");
+        reportedBalance = parsed.getLastBalance();
+        
+        logger.info("=== SESSION TRANSFER OPERATION END - Success: {} ===", success);
+        return success;
+    }
+
+    /**
+     * The balance the process reported alongside the result, or null if it reported none.
+     * Set by {@link #execute}.
+     */
+    public Double getReportedBalance() {
+        return reportedBalance;
+    }
+}
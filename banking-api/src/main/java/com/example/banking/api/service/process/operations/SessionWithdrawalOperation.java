@@ -2,6 +2,7 @@ package com.example.banking.api.service.process.operations;
 
 import com.example.banking.api.service.process.ProcessCommunication;
 import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.ProcessOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,6 +16,7 @@ public class SessionWithdrawalOperation implements ProcessOperation<Boolean> {
     
     private final String username;
     private final double amount;
+    private Double reportedBalance;
     
     public SessionWithdrawalOperation(String username, double amount) {
         this.username = username;
@@ -44,17 +46,23 @@ public class SessionWithdrawalOperation implements ProcessOperation<Boolean> {
         String withdrawalResult = communication.readOutput(1000);
         logger.info("Withdrawal result: [{}]", withdrawalResult);
         
-        // Check if withdrawal was successful
-        boolean success = withdrawalResult.toLowerCase().contains("successful") || 
-                         withdrawalResult.toLowerCase().contains("withdrawn");
-        
-        // Check for insufficient funds
-        if (withdrawalResult.toLowerCase().contains("insufficient")) {
-            logger.info("Withdrawal failed due to insufficient funds");
-            success = false;
+        // Insufficient funds is reported as an error line, not a success line
+        ProcessOutput parsed = ProcessOutput.parse(withdrawalResult);
+        boolean success = parsed.hasSuccess("Successfully withdrew");
+        reportedBalance = parsed.getLastBalance();
+        if (!success && parsed.hasError()) {
+            logger.info("Withdrawal rejected: {}", parsed.getFirstError());
         }
         
         logger.info("=== SESSION WITHDRAWAL OPERATION END - Success: {} ===", success);
         return success;
     }
-}
\ No newline at end of file
+
+    /**
+     * The balance the process reported alongside the result, or null if it reported none.
+     * Set by {@link #execute}.
+     */
+    public Double getReportedBalance() {
+        return reportedBalance;
+    }
+}
@@ -3,15 +3,13 @@ package com.example.banking.api.service.process.operations;
 import com.example.banking.api.model.BankingTransaction;
 import com.example.banking.api.service.process.ProcessCommunication;
 import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.OutputEvent;
+import com.example.banking.api.service.process.ProcessOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Process operation for getting transaction history.
@@ -23,10 +21,6 @@ public class TransactionHistoryOperation implements ProcessOperation<List<Bankin
     private final String username;
     private final String password;
     
-    // Pattern for parsing transactions
-    private static final Pattern TRANSACTION_PATTERN = Pattern.compile("\\[([0-9-: ]+)\\] ([^:]+): \\$([0-9]+\\.?[0-9]*)");
-    private static final DateTimeFormatter TRANSACTION_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    
     public TransactionHistoryOperation(String username, String password) {
         this.username = username;
         this.password = password;
@@ -38,7 +32,7 @@ public class TransactionHistoryOperation implements ProcessOperation<List<Bankin
         
         // Wait for initial menu
         String initialOutput = communication.waitForInitialMenu();
-        if (!initialOutput.toLowerCase().contains("login") && !initialOutput.toLowerCase().contains("choose")) {
+        if (!ProcessOutput.parse(initialOutput).showsAuthMenu()) {
             logger.error("No menu found in initial output");
             return null;
         }
@@ -83,22 +77,9 @@ public class TransactionHistoryOperation implements ProcessOperation<List<Bankin
      */
     private List<BankingTransaction> parseTransactions(String output) {
         List<BankingTransaction> transactions = new ArrayList<>();
-        Matcher matcher = TRANSACTION_PATTERN.matcher(output);
-        
-        while (matcher.find()) {
-            try {
-                String dateStr = matcher.group(1);
-                String type = matcher.group(2);
-                double amount = Double.parseDouble(matcher.group(3));
-                
-                LocalDateTime timestamp = LocalDateTime.parse(dateStr, TRANSACTION_DATE_FORMAT);
-                transactions.add(new BankingTransaction(type, amount, timestamp));
-                
-            } catch (Exception e) {
-                logger.warn("Failed to parse transaction: {}", matcher.group(0), e);
-            }
+        for (OutputEvent event : ProcessOutput.parse(output).getTransactions()) {
+            transactions.add(new BankingTransaction(event.getText(), event.getAmount(), event.getTimestamp()));
         }
-        
         return transactions;
     }
 }
\ No newline at end of file
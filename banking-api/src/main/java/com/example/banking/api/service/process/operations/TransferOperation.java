@@ -0,0 +1,77 @@
+package com.example.banking.api.service.process.operations;
+
+import com.example.banking.api.service.process.ProcessCommunication;
+import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.ProcessOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process operation for transferring money to another user.
+ */
+public class TransferOperation implements ProcessOperation<Boolean> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TransferOperation.class);
+    
+    private final String username;
+    private final String password;
+    private final String recipient;
+    private final double amount;
+    
+    public TransferOperation(String username, String password, String recipient, double amount) {
+        this.username = username;
+        this.password = password;
+        this.recipient = recipient;
+        this.amount = amount;
+    }
+    
+    @Override
+    public Boolean execute(ProcessCommunication communication) throws Exception {
+        logger.info("=== TRANSFER OPERATION START ===");
+        
+        // Wait for initial menu
+        String initialOutput = communication.waitForInitialMenu();
+        if (!ProcessOutput.parse(initialOutput).showsAuthMenu()) {
+            logger.error("No menu found in initial output");
+            return false;
+        }
+        
+        // Perform authentication
+        String authResult = communication.authenticateUser(username, password);
+        boolean isAuthenticated = communication.isAuthenticationSuccessful(authResult, username);
+        
+        if (!isAuthenticated) {
+            logger.info("Authentication failed, exiting...");
+            communication.performGracefulExit();
+            return false;
+        }
+        
+        // Wait for banking menu and perform transfer
+        String bankingMenuOutput = communication.readOutput(300);
+        logger.info("Banking menu output: [{}]", bankingMenuOutput);
+        
+        logger.info("Sending transfer option (6)...");
+        communication.sendCommand("6"); // Choose transfer option
+        
+        String recipientPromptOutput = communication.readOutput(300);
+        logger.info("Recipient prompt output: [{}]", recipientPromptOutput);
+        communication.sendCommand(recipient);
+        
+        String amountPromptOutput = communication.readOutput(300);
+        logger.info("Amount prompt output: [{}]", amountPromptOutput);
+        communication.sendCommand(String.valueOf(amount));
+        
+        // Wait for transfer result
+        String transferResult = communication.readOutput(500);
+        logger.info("Transfer result: [{}]", transferResult);
+        
+        boolean transferSuccess = ProcessOutput.parse(transferResult).hasSuccess("Successfully transferred");
+        logger.info("Transfer successful: {}", transferSuccess);
+        
+        // Logout gracefully
+        communication.performGracefulLogout();
+        
+        logger.info("=== TRANSFER OPERATION END - SUCCESS: {} ===", transferSuccess);
+        return transferSuccess;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.banking.api.service.process.operations;
 import com.example.banking.api.model.BankingUser;
 import com.example.banking.api.service.process.ProcessCommunication;
 import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.ProcessOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,7 +28,7 @@ public class UserAuthenticationOperation implements ProcessOperation<BankingUser
         
         // Wait for initial menu
         String initialOutput = communication.waitForInitialMenu();
-        if (!initialOutput.toLowerCase().contains("login") && !initialOutput.toLowerCase().contains("choose")) {
+        if (!ProcessOutput.parse(initialOutput).showsAuthMenu()) {
             logger.error("No menu found in initial output");
             return null;
         }
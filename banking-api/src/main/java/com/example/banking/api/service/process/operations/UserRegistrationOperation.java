@@ -2,6 +2,7 @@ package com.example.banking.api.service.process.operations;
 
 import com.example.banking.api.service.process.ProcessCommunication;
 import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.ProcessOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,7 +27,7 @@ public class UserRegistrationOperation implements ProcessOperation<Boolean> {
         
         // Wait for initial menu
         String initialOutput = communication.waitForInitialMenu();
-        if (!initialOutput.toLowerCase().contains("register") && !initialOutput.toLowerCase().contains("choose")) {
+        if (!ProcessOutput.parse(initialOutput).showsAuthMenu()) {
             logger.error("No menu found in initial output");
             return false;
         }
@@ -47,7 +48,7 @@ public class UserRegistrationOperation implements ProcessOperation<Boolean> {
         String output = communication.readCleanOutput();
         logger.debug("Registration output: {}", output);
         
-        boolean success = output.contains("Registration successful!");
+        boolean success = ProcessOutput.parse(output).hasSuccess("Registration successful");
         
         logger.info("=== USER REGISTRATION OPERATION END - SUCCESS: {} ===", success);
         return success;
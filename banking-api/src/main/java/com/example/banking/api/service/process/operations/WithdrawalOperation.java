@@ -2,6 +2,7 @@ package com.example.banking.api.service.process.operations;
 
 import com.example.banking.api.service.process.ProcessCommunication;
 import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.ProcessOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,7 +29,7 @@ public class WithdrawalOperation implements ProcessOperation<Boolean> {
         
         // Wait for initial menu
         String initialOutput = communication.waitForInitialMenu();
-        if (!initialOutput.toLowerCase().contains("login") && !initialOutput.toLowerCase().contains("choose")) {
+        if (!ProcessOutput.parse(initialOutput).showsAuthMenu()) {
             logger.error("No menu found in initial output");
             return false;
         }
@@ -67,9 +68,7 @@ public class WithdrawalOperation implements ProcessOperation<Boolean> {
         logger.info("Withdrawal result: [{}]", withdrawResult);
         
         // Check if withdrawal was successful
-        boolean withdrawSuccess = withdrawResult.toLowerCase().contains("successfully withdrew") ||
-                                withdrawResult.toLowerCase().contains("withdrawal successful") ||
-                                withdrawResult.contains("Successfully withdrew $" + amount);
+        boolean withdrawSuccess = ProcessOutput.parse(withdrawResult).hasSuccess("Successfully withdrew");
         logger.info("Withdrawal successful: {}", withdrawSuccess);
         
         // Logout gracefully
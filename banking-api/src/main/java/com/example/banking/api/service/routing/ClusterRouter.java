@@ -0,0 +1,238 @@
+package com.example.banking.api.service.routing;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Assigns users to API instances by consistent hashing when several instances run side by side.
+ *
+ * Every instance is configured with the same peer list, its own base URL among them, and
+ * builds the same ring, so all of them agree on which instance owns a user's banking process.
+ * A request for a user owned elsewhere is redirected there with 307, which keeps the method
+ * and body. Peers are probed on their health endpoint: one that stops answering leaves the
+ * ring and its users move to the remaining instances; when it answers again it rejoins and
+ * takes them back. Sessions already running on an instance stay there until they end.
+ *
+ * Router mode is off unless {@code banking.cluster.enabled} is set.
+ */
+@Component
+public class ClusterRouter implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterRouter.class);
+    private static final String HEALTH_PATH = "/api/v1/banking/health";
+
+    @Value("${banking.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${banking.cluster.self:}")
+    private String self;
+
+    @Value("${banking.cluster.peers:}")
+    private String[] peers = new String[0];
+
+    @Value("${banking.cluster.probe-interval:2000}")
+    private long probeIntervalMs;
+
+    @Value("${banking.cluster.failure-threshold:2}")
+    private int failureThreshold;
+
+    private final Set<String> members = ConcurrentHashMap.newKeySet();
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+    private final LongAdder redirects = new LongAdder();
+    private volatile ConsistentHashRing ring = new ConsistentHashRing(Set.of());
+    private ScheduledExecutorService probeExecutor;
+    private HttpClient httpClient;
+
+    @PostConstruct
+    public void initializeRing() {
+        if (!enabled) {
+            return;
+        }
+        if (self == null || self.isBlank()) {
+            throw new IllegalStateException("banking.cluster.self must be set when banking.cluster.enabled is true");
+        }
+        self = normalize(self);
+        members.add(self);
+        for (String peer : peers) {
+            if (!peer.isBlank()) {
+                members.add(normalize(peer));
+            }
+        }
+        rebuildRing();
+        logger.info("Cluster routing enabled for {} as one of {}", self, members);
+
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(probeIntervalMs))
+                .build();
+        probeExecutor = Executors.newSingleThreadScheduledExecutor();
+        probeExecutor.scheduleWithFixedDelay(this::probePeers, probeIntervalMs, probeIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets this instance's base URL, which is also its node id in session tokens.
+     */
+    public String getSelf() {
+        return self;
+    }
+
+    /**
+     * Gets the instances currently in the ring.
+     */
+    public Set<String> getMembers() {
+        return ring.getNodes();
+    }
+
+    /**
+     * Finds the instance that owns a user.
+     */
+    public String ownerOf(String username) {
+        return ring.owner(username);
+    }
+
+    /**
+     * Finds where to send a request for a user owned by another instance.
+     *
+     * @return the same path and query on the owning instance, or empty if this instance owns
+     *         the user or router mode is off
+     */
+    public Optional<URI> redirectFor(String username, HttpServletRequest request) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return locationOn(ownerOf(username), request);
+    }
+
+    /**
+     * Finds where to send a request for a session owned by another instance, as named in its token.
+     *
+     * @return the same path and query on that instance, or empty if it is not a current member
+     */
+    public Optional<URI> redirectToNode(String node, HttpServletRequest request) {
+        if (!enabled || !ring.getNodes().contains(node)) {
+            return Optional.empty();
+        }
+        return locationOn(node, request);
+    }
+
+    private Optional<URI> locationOn(String node, HttpServletRequest request) {
+        if (node == null || node.equals(self)) {
+            return Optional.empty();
+        }
+        redirects.increment();
+        String query = request.getQueryString();
+        return Optional.of(URI.create(node + request.getRequestURI() + (query == null ? "" : "?" + query)));
+    }
+
+    /**
+     * Adds an instance to the ring; the users it owns move to it.
+     */
+    public void join(String node) {
+        if (members.add(normalize(node))) {
+            logger.info("Instance {} joined; members are now {}", node, members);
+            rebuildRing();
+        }
+    }
+
+    /**
+     * Removes an instance from the ring; its users move to the remaining instances.
+     */
+    public void leave(String node) {
+        String normalized = normalize(node);
+        if (!normalized.equals(self) && members.remove(normalized)) {
+            logger.warn("Instance {} left; members are now {}", node, members);
+            rebuildRing();
+        }
+    }
+
+    /**
+     * Probes every configured peer once. A peer leaves after failureThreshold failed probes
+     * in a row and rejoins on its first successful one.
+     */
+    void probePeers() {
+        for (String peer : peers) {
+            if (peer.isBlank() || normalize(peer).equals(self)) {
+                continue;
+            }
+            String node = normalize(peer);
+            if (isHealthy(node)) {
+                failures.remove(node);
+                join(node);
+            } else if (failures.merge(node, 1, Integer::sum) >= failureThreshold) {
+                leave(node);
+            }
+        }
+    }
+
+    private boolean isHealthy(String node) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(node + HEALTH_PATH))
+                    .timeout(Duration.ofMillis(probeIntervalMs))
+                    .GET()
+                    .build();
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            logger.debug("Health probe of {} failed: {}", node, e.getMessage());
+            return false;
+        }
+    }
+
+    private synchronized void rebuildRing() {
+        ring = new ConsistentHashRing(members);
+    }
+
+    private static String normalize(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    /**
+     * Registers cluster metrics: the number of instances in the ring and the requests
+     * redirected to another instance.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("banking.cluster.members", this, router -> router.getMembers().size())
+                .description("API instances currently in the routing ring")
+                .register(registry);
+        FunctionCounter.builder("banking.cluster.redirects", redirects, LongAdder::sum)
+                .description("Requests redirected to the instance that owns the user")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (probeExecutor != null) {
+            probeExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.banking.api.service.routing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * An immutable consistent-hash ring that assigns keys to nodes.
+ *
+ * Each node is placed on the ring at several pseudo-random points (virtual nodes) and a key
+ * belongs to the first node point at or after the key's own hash. Adding or removing a node
+ * therefore only moves the keys between that node and its ring neighbours; every other key
+ * keeps its owner. Every instance that builds a ring from the same nodes agrees on all owners.
+ */
+public final class ConsistentHashRing {
+
+    /** Virtual nodes per member; enough to keep the share of keys per node within a few percent */
+    public static final int DEFAULT_REPLICAS = 160;
+
+    private final Set<String> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(Collection<String> nodes) {
+        this(nodes, DEFAULT_REPLICAS);
+    }
+
+    public ConsistentHashRing(Collection<String> nodes, int replicas) {
+        this.nodes = Collections.unmodifiableSet(new TreeSet<>(nodes));
+        int size = this.nodes.size() * replicas;
+        long[] unsortedPoints = new long[size];
+        String[] unsortedOwners = new String[size];
+        int i = 0;
+        for (String node : this.nodes) {
+            for (int replica = 0; replica < replicas; replica++) {
+                unsortedPoints[i] = hash(node + '#' + replica);
+                unsortedOwners[i] = node;
+                i++;
+            }
+        }
+        // Sort the points and carry their owners along
+        Integer[] order = new Integer[size];
+        for (int j = 0; j < size; j++) {
+            order[j] = j;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(unsortedPoints[a], unsortedPoints[b]));
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int j = 0; j < size; j++) {
+            points[j] = unsortedPoints[order[j]];
+            owners[j] = unsortedOwners[order[j]];
+        }
+    }
+
+    /**
+     * Finds the node that owns a key.
+     *
+     * @return the owning node, or null if the ring has no nodes
+     */
+    public String owner(String key) {
+        if (points.length == 0) {
+            return null;
+        }
+        int i = Arrays.binarySearch(points, hash(key));
+        if (i < 0) {
+            i = -i - 1;
+        }
+        // Past the last point the ring wraps round to the first
+        return owners[i == points.length ? 0 : i];
+    }
+
+    public Set<String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so that
+     * similar keys such as "node#1" and "node#2" land far apart.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
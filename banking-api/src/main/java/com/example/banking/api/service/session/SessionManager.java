@@ -1,7 +1,12 @@
 package com.example.banking.api.service.session;
 
+import com.example.banking.api.domain.model.SessionRegistry;
 import com.example.banking.api.domain.model.UserSession;
 import com.example.banking.api.config.BankingApplicationProperties;
+import com.example.banking.api.service.concurrent.CoarseClock;
+import com.example.banking.api.service.concurrent.ExpiryWheel;
+import com.example.banking.api.service.concurrent.ServiceOverloadedException;
+import com.example.banking.api.service.process.ProcessPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,8 +28,13 @@ public class SessionManager {
     
     private static final Logger logger = LoggerFactory.getLogger(SessionManager.class);
     private static final String USER_SESSION_ATTRIBUTE = "USER_SESSION";
+    static final long EXPIRY_TICK_MS = 1000;
+    private static final int EXPIRY_WHEEL_SIZE = 512;
     
     private final ConcurrentHashMap<String, UserSession> activeSessions = new ConcurrentHashMap<>();
+    /** Sessions reloaded from the store that no request has presented yet, by id digest */
+    private final ConcurrentHashMap<String, SessionStore.StoredSession> unclaimedSessions = new ConcurrentHashMap<>();
+    private final ExpiryWheel<String> expiryWheel = new ExpiryWheel<>(EXPIRY_TICK_MS, EXPIRY_WHEEL_SIZE);
     private final ScheduledExecutorService cleanupExecutor = Executors.newSingleThreadScheduledExecutor();
     
     @Value("${banking.session.max-concurrent-sessions:100}")
@@ -33,23 +43,31 @@ public class SessionManager {
     @Value("${banking.session.process-idle-timeout:300000}")
     private long processIdleTimeoutMs;
     
-    @Value("${banking.session.cleanup-interval:60000}")
-    private long cleanupIntervalMs;
-    
     @Autowired
     private BankingApplicationProperties bankingProperties;
     
+    @Autowired
+    private SessionStore sessionStore;
+    
+    @Autowired
+    private ProcessPool processPool;
+    
+    private SessionRegistry registry;
+    
     public SessionManager() {
         // Schedule cleanup task - will be initialized after Spring sets the values
     }
     
     @PostConstruct
     public void initializeCleanupTask() {
-        // Schedule cleanup task after all values are injected
+        registry = new SessionRegistry(maxConcurrentSessions);
+        restoreSessions();
+        
+        // Each tick only looks at the sessions whose deadline falls in the ticks just passed
         cleanupExecutor.scheduleAtFixedRate(
             this::cleanupExpiredSessions, 
-            cleanupIntervalMs, 
-            cleanupIntervalMs, 
+            EXPIRY_TICK_MS, 
+            EXPIRY_TICK_MS, 
             TimeUnit.MILLISECONDS
         );
     }
@@ -59,13 +77,24 @@ public class SessionManager {
      */
     public UserSession createSession(String username, HttpSession httpSession) {
         if (activeSessions.size() >= maxConcurrentSessions) {
-            throw new IllegalStateException("Maximum concurrent sessions exceeded");
+            // Sessions are freed by logout or within a tick of their idle deadline
+            throw new ServiceOverloadedException("Maximum concurrent sessions exceeded",
+                    TimeUnit.MILLISECONDS.toSeconds(EXPIRY_TICK_MS));
         }
         
         String sessionId = httpSession.getId();
-        UserSession userSession = new UserSession(sessionId, username);
+        UserSession userSession;
+        try {
+            userSession = new UserSession(sessionId, username, registry);
+        } catch (IllegalStateException e) {
+            // Ended sessions hand their slot back when they are invalidated or expire
+            throw new ServiceOverloadedException("Maximum concurrent sessions exceeded",
+                    TimeUnit.MILLISECONDS.toSeconds(EXPIRY_TICK_MS));
+        }
         
         activeSessions.put(sessionId, userSession);
+        expiryWheel.schedule(sessionId, processIdleTimeoutMs);
+        sessionStore.save(sessionId, username, userSession.getCreatedAtMillis(), CoarseClock.currentTimeMillis());
         httpSession.setAttribute(USER_SESSION_ATTRIBUTE, userSession);
         
         logger.info("Created session for user: {} with sessionId: {}", username, sessionId);
@@ -77,6 +106,9 @@ public class SessionManager {
      */
     public Optional<UserSession> getSession(String sessionId) {
         UserSession session = activeSessions.get(sessionId);
+        if (session == null && !unclaimedSessions.isEmpty()) {
+            session = claimRestored(sessionId);
+        }
         if (session != null && session.isActive()) {
             session.updateLastAccessed();
             return Optional.of(session);
@@ -102,8 +134,11 @@ public class SessionManager {
     public void invalidateSession(String sessionId) {
         UserSession session = activeSessions.remove(sessionId);
         if (session != null) {
+            expiryWheel.cancel(sessionId);
+            sessionStore.remove(sessionId);
             session.setActive(false);
             cleanupSessionProcess(session);
+            session.release();
             logger.info("Invalidated session for user: {} with sessionId: {}", 
                        session.getUsername(), sessionId);
         }
@@ -156,38 +191,125 @@ public class SessionManager {
     }
     
     /**
-     * Cleanup expired sessions
+     * Expires the sessions whose idle deadline has come due. Access does not touch the wheel:
+     * a session that was used since its deadline was set is re-armed for the rest of its
+     * timeout here instead, so each session is looked at about once per idle timeout.
      */
-    private void cleanupExpiredSessions() {
-        long timeoutInSeconds = processIdleTimeoutMs / 1000;
-        
-        activeSessions.entrySet().removeIf(entry -> {
-            UserSession session = entry.getValue();
-            if (session.isExpired(timeoutInSeconds)) {
-                logger.info("Cleaning up expired session for user: {} with sessionId: {}", 
-                           session.getUsername(), session.getSessionId());
-                session.setActive(false);
-                cleanupSessionProcess(session);
-                return true;
+    void cleanupExpiredSessions() {
+        try {
+            for (String sessionId : expiryWheel.advance()) {
+                UserSession session = activeSessions.get(sessionId);
+                if (session == null) {
+                    // A restored session nobody came back for, keyed by its digest
+                    if (unclaimedSessions.remove(sessionId) != null) {
+                        sessionStore.removeDigest(sessionId);
+                    }
+                    continue;
+                }
+                long remainingMs = processIdleTimeoutMs - session.getIdleMillis();
+                if (remainingMs > 0) {
+                    expiryWheel.schedule(sessionId, remainingMs);
+                    sessionStore.touch(sessionId, CoarseClock.currentTimeMillis() - session.getIdleMillis());
+                } else if (activeSessions.remove(sessionId, session)) {
+                    sessionStore.remove(sessionId);
+                    logger.info("Cleaning up expired session for user: {} with sessionId: {}", 
+                               session.getUsername(), session.getSessionId());
+                    session.setActive(false);
+                    cleanupSessionProcess(session);
+                    session.release();
+                }
             }
-            return false;
-        });
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task and stop expiry altogether
+            logger.error("Error expiring sessions", e);
+        }
     }
     
     /**
-     * Cleanup process associated with a session
+     * Reloads the sessions recorded in the session store by a previous run; sessions that have
+     * run out of time since are dropped. The store only has the digest of each session id, so
+     * a session stays unclaimed until a request presents an id with that digest, and expires
+     * as usual if none does.
      */
-    private void cleanupSessionProcess(UserSession session) {
-        if (session.hasActiveProcess()) {
+    void restoreSessions() {
+        if (!sessionStore.isEnabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        long now = CoarseClock.currentTimeMillis();
+        int expired = 0;
+        for (SessionStore.StoredSession stored : sessionStore.load()) {
+            long idleMs = Math.max(0, now - stored.getLastAccessedAtMillis());
+            if (idleMs >= processIdleTimeoutMs) {
+                sessionStore.removeDigest(stored.getSessionDigest());
+                expired++;
+                continue;
+            }
+            unclaimedSessions.put(stored.getSessionDigest(), stored);
+            expiryWheel.schedule(stored.getSessionDigest(), processIdleTimeoutMs - idleMs);
+        }
+        logger.info("Restored {} sessions ({} expired) from the session store in {} ms",
+                unclaimedSessions.size(), expired, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+    
+    /**
+     * Turns the restored session stored under the digest of {@code sessionId}, if any, into an
+     * active session. It comes back with the idle time it had when last recorded and gets a
+     * process on first use.
+     *
+     * @return the session, or null if none was stored for the id or it can no longer be had
+     */
+    private UserSession claimRestored(String sessionId) {
+        String sessionDigest = SessionStore.digest(sessionId);
+        synchronized (unclaimedSessions) {
+            // A concurrent request with the same id may just have claimed it
+            UserSession claimed = activeSessions.get(sessionId);
+            if (claimed != null) {
+                return claimed;
+            }
+            SessionStore.StoredSession stored = unclaimedSessions.remove(sessionDigest);
+            if (stored == null) {
+                return null;
+            }
+            expiryWheel.cancel(sessionDigest);
+            long idleMs = Math.max(0, CoarseClock.currentTimeMillis() - stored.getLastAccessedAtMillis());
+            if (idleMs >= processIdleTimeoutMs) {
+                // Its deadline passed within the current expiry tick
+                sessionStore.removeDigest(sessionDigest);
+                return null;
+            }
+            UserSession session;
             try {
-                Process process = session.getBankingProcess();
-                if (process.isAlive()) {
-                    process.destroyForcibly();
-                    logger.info("Terminated process for session: {}", session.getSessionId());
-                }
-            } catch (Exception e) {
-                logger.error("Error terminating process for session: {}", session.getSessionId(), e);
+                session = new UserSession(sessionId, stored.getUsername(), registry, stored.getCreatedAtMillis(), idleMs);
+            } catch (IllegalStateException e) {
+                // The limit was lowered since the session was stored, or new sessions have filled it
+                logger.warn("Session limit reached; dropping restored session of user {}", stored.getUsername());
+                sessionStore.removeDigest(sessionDigest);
+                return null;
             }
+            activeSessions.put(sessionId, session);
+            expiryWheel.schedule(sessionId, processIdleTimeoutMs - idleMs);
+            logger.info("Restored session of user {} claimed", stored.getUsername());
+            return session;
+        }
+    }
+    
+    /**
+     * Gets the number of sessions with a pending idle deadline
+     */
+    int getPendingExpiryCount() {
+        return expiryWheel.size();
+    }
+    
+    /**
+     * Releases the session's use of its user's process, which other sessions of the user may
+     * still be using
+     */
+    private void cleanupSessionProcess(UserSession session) {
+        try {
+            processPool.releaseProcess(session);
+        } catch (Exception e) {
+            logger.error("Error releasing process for session: {}", session.getSessionId(), e);
         }
     }
     
@@ -199,6 +321,11 @@ public class SessionManager {
         logger.info("Shutting down SessionManager");
         cleanupExecutor.shutdown();
         
+        // Record how long each session has been idle, so the next run picks up where this one stopped
+        long now = CoarseClock.currentTimeMillis();
+        activeSessions.values().forEach(session -> sessionStore.touch(session.getSessionId(), now - session.getIdleMillis()));
+        sessionStore.flush();
+        
         // Cleanup all active sessions
         activeSessions.values().forEach(this::cleanupSessionProcess);
         activeSessions.clear();
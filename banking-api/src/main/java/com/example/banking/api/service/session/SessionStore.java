@@ -0,0 +1,301 @@
+package com.example.banking.api.service.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a record of every active session in a memory-mapped file, so sessions survive an
+ * API restart.
+ *
+ * The file is a header followed by one fixed-size slot per session the API may hold. A slot
+ * holds the SHA-256 digest of the session id, the username, creation time and last access
+ * time, and is marked live only after its fields are written, so a slot caught half-written
+ * by a crash reads as free. Writes go to the page cache, which the operating system flushes
+ * even if the JVM dies, and reloading is a single scan of the mapped slots.
+ *
+ * The session id is the bearer credential a client presents, so only its digest is stored: a
+ * reloaded session is claimed by the first request whose session id hashes to it. Anyone who
+ * can write the file can still plant a digest of an id of their choosing and act as any user,
+ * so the file is created readable and writable by its owner only.
+ *
+ * The store is off unless {@code banking.session.store.enabled} is set; every method is then a no-op.
+ */
+@Component
+public class SessionStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionStore.class);
+    private static final int MAGIC = 0x42534553; // "BSES"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    static final int SLOT_SIZE = 256;
+    /** Longest username, in UTF-8 bytes, that fits a slot */
+    static final int MAX_FIELD_BYTES = 112;
+
+    private static final byte FREE = 0;
+    private static final byte LIVE = 1;
+    private static final int CREATED_AT = 1;
+    private static final int LAST_ACCESSED_AT = 9;
+    private static final int SESSION_DIGEST = 17;
+    private static final int USERNAME = SESSION_DIGEST + 1 + MAX_FIELD_BYTES;
+
+    @Value("${banking.session.store.enabled:false}")
+    private boolean enabled;
+
+    @Value("${banking.session.store.path:sessions.db}")
+    private String path;
+
+    @Value("${banking.session.max-concurrent-sessions:100}")
+    private int capacity;
+
+    private MappedByteBuffer buffer;
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    /**
+     * A session as it was recorded in the store.
+     */
+    public static final class StoredSession {
+
+        private final String sessionDigest;
+        private final String username;
+        private final long createdAtMillis;
+        private final long lastAccessedAtMillis;
+
+        StoredSession(String sessionDigest, String username, long createdAtMillis, long lastAccessedAtMillis) {
+            this.sessionDigest = sessionDigest;
+            this.username = username;
+            this.createdAtMillis = createdAtMillis;
+            this.lastAccessedAtMillis = lastAccessedAtMillis;
+        }
+
+        /**
+         * The {@link #digest} of the session's id; the id itself is not stored.
+         */
+        public String getSessionDigest() {
+            return sessionDigest;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public long getCreatedAtMillis() {
+            return createdAtMillis;
+        }
+
+        public long getLastAccessedAtMillis() {
+            return lastAccessedAtMillis;
+        }
+    }
+
+    /**
+     * Maps the store file, creating it if needed, and indexes the sessions already in it.
+     */
+    @PostConstruct
+    public synchronized void open() {
+        if (!enabled) {
+            return;
+        }
+        Path file = Path.of(path);
+        long size = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            boolean compatible = header.remaining() == HEADER_SIZE && header.getInt() == MAGIC
+                    && header.getInt() == VERSION && header.getInt() == SLOT_SIZE;
+            int storedCapacity = compatible ? header.getInt() : 0;
+            if (!compatible && channel.size() > 0) {
+                logger.warn("Session store {} has an unknown format; starting with no stored sessions", file);
+            }
+            if (storedCapacity > capacity) {
+                // Keep every stored session readable; new ones still respect the configured limit
+                size = HEADER_SIZE + (long) storedCapacity * SLOT_SIZE;
+            }
+            if (!compatible) {
+                channel.truncate(0);
+            }
+            setOwnerOnly(file);
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open session store " + file, e);
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, SLOT_SIZE);
+        buffer.putInt(12, slotCount());
+
+        for (int slot = 0; slot < slotCount(); slot++) {
+            if (buffer.get(offset(slot)) == LIVE) {
+                slots.put(readField(offset(slot) + SESSION_DIGEST), slot);
+            } else if (slot < capacity) {
+                freeSlots.add(slot);
+            }
+        }
+        logger.info("Session store {} opened with {} stored sessions", file, slots.size());
+    }
+
+    private static void setOwnerOnly(Path file) throws IOException {
+        try {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            logger.warn("Cannot restrict permissions of {}; keep it readable by the API only", file);
+        }
+    }
+
+    /**
+     * The digest a session is stored under: the hex SHA-256 of its id.
+     */
+    public static String digest(String sessionId) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(sessionId.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reads every session in the store. Called once at startup, to restore them.
+     */
+    public synchronized List<StoredSession> load() {
+        List<StoredSession> sessions = new ArrayList<>(slots.size());
+        slots.forEach((sessionDigest, slot) -> {
+            int offset = offset(slot);
+            sessions.add(new StoredSession(sessionDigest, readField(offset + USERNAME),
+                    buffer.getLong(offset + CREATED_AT), buffer.getLong(offset + LAST_ACCESSED_AT)));
+        });
+        return sessions;
+    }
+
+    /**
+     * Records a new session.
+     *
+     * @return false if the store is off, full, or the username is too long to store
+     */
+    public synchronized boolean save(String sessionId, String username, long createdAtMillis, long lastAccessedAtMillis) {
+        if (buffer == null) {
+            return false;
+        }
+        byte[] user = username.getBytes(StandardCharsets.UTF_8);
+        if (user.length > MAX_FIELD_BYTES) {
+            logger.warn("Username of session {} is too long to store; it will not survive a restart", sessionId);
+            return false;
+        }
+        String sessionDigest = digest(sessionId);
+        Integer slot = slots.containsKey(sessionDigest) ? slots.get(sessionDigest) : freeSlots.poll();
+        if (slot == null) {
+            logger.warn("Session store is full; session {} will not survive a restart", sessionId);
+            return false;
+        }
+        int offset = offset(slot);
+        buffer.put(offset, FREE);
+        buffer.putLong(offset + CREATED_AT, createdAtMillis);
+        buffer.putLong(offset + LAST_ACCESSED_AT, lastAccessedAtMillis);
+        writeField(offset + SESSION_DIGEST, sessionDigest.getBytes(StandardCharsets.US_ASCII));
+        writeField(offset + USERNAME, user);
+        buffer.put(offset, LIVE);
+        slots.put(sessionDigest, slot);
+        return true;
+    }
+
+    /**
+     * Records a session's last access time.
+     */
+    public synchronized void touch(String sessionId, long lastAccessedAtMillis) {
+        if (buffer == null) {
+            return;
+        }
+        Integer slot = slots.get(digest(sessionId));
+        if (slot != null) {
+            buffer.putLong(offset(slot) + LAST_ACCESSED_AT, lastAccessedAtMillis);
+        }
+    }
+
+    /**
+     * Forgets a session that ended.
+     */
+    public synchronized void remove(String sessionId) {
+        if (buffer != null) {
+            removeDigest(digest(sessionId));
+        }
+    }
+
+    /**
+     * Forgets a stored session by its digest, for one that ended before any request claimed it.
+     */
+    synchronized void removeDigest(String sessionDigest) {
+        Integer slot = slots.remove(sessionDigest);
+        if (slot != null) {
+            buffer.put(offset(slot), FREE);
+            if (slot < capacity) {
+                freeSlots.add(slot);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of sessions in the store.
+     */
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    /**
+     * Writes the mapped file out to disk, for a clean shutdown.
+     */
+    public synchronized void flush() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    private int slotCount() {
+        return (buffer.capacity() - HEADER_SIZE) / SLOT_SIZE;
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private void writeField(int offset, byte[] value) {
+        buffer.put(offset, (byte) value.length);
+        buffer.put(offset + 1, value);
+    }
+
+    private String readField(int offset) {
+        int length = Math.min(buffer.get(offset) & 0xff, MAX_FIELD_BYTES);
+        byte[] value = new byte[length];
+        buffer.get(offset + 1, value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.banking.api.service.session;
+
+import java.time.Instant;
+
+/**
+ * The verified claims of a signed session token issued by {@link SessionTokenService}.
+ */
+public final class SessionToken {
+
+    private final String sessionId;
+    private final String username;
+    private final String nodeId;
+    private final long expiresAtMillis;
+    private final String value;
+
+    SessionToken(String sessionId, String username, String nodeId, long expiresAtMillis, String value) {
+        this.sessionId = sessionId;
+        this.username = username;
+        this.nodeId = nodeId;
+        this.expiresAtMillis = expiresAtMillis;
+        this.value = value;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * The API instance that owns the session and its banking process.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public Instant getExpiresAt() {
+        return Instant.ofEpochMilli(expiresAtMillis);
+    }
+
+    /**
+     * The encoded token, as sent in an {@code Authorization: Bearer} header.
+     */
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.banking.api.service.session;
+
+import com.example.banking.api.domain.model.UserSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and verifies HMAC-SHA256 signed session tokens.
+ *
+ * A token carries the session id, username, owning node and expiry, so any API instance that
+ * shares the secret can check its signature and expiry and tell which node owns the session.
+ * The banking process still lives on the node that created the session; the node claim tells
+ * a load balancer, or the instance that received the request, where that is. That node still
+ * looks the session up, both to find its process and because a signed token outlives a logout.
+ *
+ * Token mode is off unless {@code banking.session.token.enabled} is set.
+ */
+@Service
+public class SessionTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionTokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @Value("${banking.session.token.enabled:false}")
+    private boolean enabled;
+
+    @Value("${banking.session.token.secret:}")
+    private String secret;
+
+    @Value("${banking.session.token.ttl:1800000}")
+    private long ttlMs;
+
+    @Value("${banking.session.token.node-id:${banking.cluster.self:}}")
+    private String nodeId;
+
+    private SecretKeySpec key;
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    @PostConstruct
+    public void initializeKey() {
+        byte[] keyBytes;
+        if (secret == null || secret.isEmpty()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            if (enabled) {
+                logger.warn("No banking.session.token.secret set; tokens from this instance will not verify anywhere else");
+            }
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        key = new SecretKeySpec(keyBytes, ALGORITHM);
+        if (nodeId == null || nodeId.isEmpty()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the id this instance stamps into the tokens it issues.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Checks whether the token's session, and therefore its banking process, lives on this instance.
+     */
+    public boolean isLocal(SessionToken token) {
+        return nodeId.equals(token.getNodeId());
+    }
+
+    /**
+     * Issues a token for a session owned by this instance.
+     */
+    public SessionToken issue(UserSession userSession) {
+        long expiresAtMillis = System.currentTimeMillis() + ttlMs;
+        String claims = encode(userSession.getSessionId()) + '.' + encode(userSession.getUsername())
+                + '.' + encode(nodeId) + '.' + expiresAtMillis;
+        String value = claims + '.' + ENCODER.encodeToString(sign(claims));
+        return new SessionToken(userSession.getSessionId(), userSession.getUsername(), nodeId, expiresAtMillis, value);
+    }
+
+    /**
+     * Verifies a token's signature and expiry.
+     *
+     * @return the token's claims, or empty if it is malformed, forged or expired
+     */
+    public Optional<SessionToken> verify(String value) {
+        int signatureStart = value.lastIndexOf('.');
+        if (signatureStart < 0) {
+            return Optional.empty();
+        }
+        String claims = value.substring(0, signatureStart);
+        try {
+            byte[] signature = DECODER.decode(value.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(signature, sign(claims))) {
+                return Optional.empty();
+            }
+            String[] parts = claims.split("\\.", -1);
+            if (parts.length != 4) {
+                return Optional.empty();
+            }
+            long expiresAtMillis = Long.parseLong(parts[3]);
+            if (System.currentTimeMillis() >= expiresAtMillis) {
+                return Optional.empty();
+            }
+            return Optional.of(new SessionToken(decode(parts[0]), decode(parts[1]), decode(parts[2]),
+                    expiresAtMillis, value));
+        } catch (IllegalArgumentException e) {
+            // Bad base64 or a non-numeric expiry
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String claims) {
+        return macs.get().doFinal(claims.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static String encode(String value) {
+        return ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String value) {
+        return new String(DECODER.decode(value), StandardCharsets.UTF_8);
+    }
+}
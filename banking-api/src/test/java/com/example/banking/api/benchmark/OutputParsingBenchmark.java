@@ -0,0 +1,98 @@
+package com.example.banking.api.benchmark;
+
+import com.example.banking.api.model.BankingTransaction;
+import com.example.banking.api.service.process.OutputEvent;
+import com.example.banking.api.service.process.ProcessOutputTokenizer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares parsing a transaction history listing with the previous regex approach against
+ * the single-pass tokenizer. Divide gc.alloc.rate.norm by the line count for bytes per line.
+ *
+ * Run from the module directory with:
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main OutputParsingBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class OutputParsingBenchmark {
+
+    private static final Pattern ANSI_ESCAPE_PATTERN = Pattern.compile("\\x1B\\[[0-9;]*[a-zA-Z]|\\x1B\\]0;[^\\x07]*\\x07");
+    private static final Pattern TRANSACTION_PATTERN = Pattern.compile(
+        "\\[([0-9-: ]+)\\]\\s+(Deposit|Withdrawal|Transfer In|Transfer Out):\\s+\\$([0-9]+)[,.]([0-9]*)");
+    private static final DateTimeFormatter TRANSACTION_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Param({"100"})
+    private int lines;
+
+    private String output;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("\r\n===== Transaction History =====\r\n");
+        for (int i = 0; i < lines; i++) {
+            String timestamp = String.format("[2024-03-%02d %02d:%02d:%02d]", 1 + i % 28, i % 24, i % 60, (i * 7) % 60);
+            switch (i % 3) {
+                case 0 -> sb.append(timestamp).append(" Deposit: $").append(i).append(",50\r\n");
+                case 1 -> sb.append(timestamp).append(" Withdrawal: $").append(i).append(".25\r\n");
+                default -> sb.append(timestamp).append(" Transfer Out: $").append(i)
+                        .append(".00 (to bob, ref 5f3a9c2e1d7b4a60)\r\n");
+            }
+        }
+        sb.append("Current Balance: $12345.67\r\n");
+        output = sb.toString();
+    }
+
+    @Benchmark
+    public List<BankingTransaction> regex() {
+        // Clean-up and match the way the operations did before the tokenizer
+        String cleaned = ANSI_ESCAPE_PATTERN.matcher(output).replaceAll("");
+        cleaned = cleaned.replaceAll("[\\x00-\\x08\\x0B\\x0C\\x0E-\\x1F\\x7F]", "");
+        cleaned = cleaned.replaceAll("\\r\\n", "\n").replaceAll("\\r", "\n");
+        cleaned = cleaned.replaceAll("[ \\t]+", " ");
+
+        List<BankingTransaction> transactions = new ArrayList<>();
+        Matcher matcher = TRANSACTION_PATTERN.matcher(cleaned);
+        while (matcher.find()) {
+            String fraction = matcher.group(4);
+            double amount = Double.parseDouble(matcher.group(3) + "." + (fraction.isEmpty() ? "0" : fraction));
+            LocalDateTime timestamp = LocalDateTime.parse(matcher.group(1), TRANSACTION_DATE_FORMAT);
+            transactions.add(new BankingTransaction(matcher.group(2), amount, timestamp));
+        }
+        return transactions;
+    }
+
+    @Benchmark
+    public List<BankingTransaction> tokenizer() {
+        List<BankingTransaction> transactions = new ArrayList<>();
+        ProcessOutputTokenizer tokenizer = new ProcessOutputTokenizer(event -> {
+            if (event.is(OutputEvent.Type.TRANSACTION)) {
+                transactions.add(new BankingTransaction(event.getText(), event.getAmount(), event.getTimestamp()));
+            }
+        });
+        tokenizer.feed(output);
+        tokenizer.finish();
+        return transactions;
+    }
+}
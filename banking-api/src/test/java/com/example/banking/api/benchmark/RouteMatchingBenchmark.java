@@ -0,0 +1,69 @@
+package com.example.banking.api.benchmark;
+
+import com.example.banking.api.config.RouteTable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the per-request public-route check of SessionInterceptor: the previous chain of
+ * String.matches() calls against the route table it now builds once at startup. A protected
+ * path such as /deposit is the worst case for the regex chain, since every pattern is tried.
+ *
+ * Run from the module directory with:
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main RouteMatchingBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class RouteMatchingBenchmark {
+
+    private static final RouteTable<Boolean> PUBLIC_ROUTES = RouteTable.<Boolean>builder()
+            .exact("/api/v1/banking/login", true)
+            .exact("/api/v1/banking/register", true)
+            .exact("/api/v1/banking/health", true)
+            .exact("/health", true)
+            .exact("/error", true)
+            .exact("/favicon.ico", true)
+            .prefix("/actuator/", true)
+            .prefix("/swagger-ui", true)
+            .prefix("/api-docs", true)
+            .prefix("/v3/api-docs", true)
+            .prefix("/webjars/", true)
+            .build();
+
+    @Param({"/api/v1/banking/deposit", "/api/v1/banking/login", "/actuator/prometheus"})
+    private String path;
+
+    @Benchmark
+    public boolean regex() {
+        // The checks the interceptor ran before the route table
+        return path.matches(".*/api/v1/banking/(login|register)")
+                || path.matches(".*/api/v1/banking/health")
+                || path.matches(".*/health")
+                || path.matches(".*/actuator/.*")
+                || path.matches(".*/swagger-ui.*")
+                || path.matches(".*/api-docs.*")
+                || path.matches(".*/v3/api-docs.*")
+                || path.matches(".*/webjars/.*")
+                || path.matches(".*/favicon.ico")
+                || path.matches(".*/error");
+    }
+
+    @Benchmark
+    public boolean routeTable() {
+        return PUBLIC_ROUTES.match(path) != null;
+    }
+}
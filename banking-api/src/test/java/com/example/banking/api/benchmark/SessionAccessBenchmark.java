@@ -0,0 +1,84 @@
+package com.example.banking.api.benchmark;
+
+import com.example.banking.api.domain.model.SessionRegistry;
+import com.example.banking.api.domain.model.UserSession;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times the bookkeeping done on every authenticated request across 100,000 sessions: the
+ * previous LocalDateTime.now() stamp against the session registry slot touched through the
+ * coarse clock, followed by the idle check the expiry task makes.
+ *
+ * Run from the module directory with:
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main SessionAccessBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class SessionAccessBenchmark {
+
+    private static final int SESSIONS = 100_000;
+
+    /** The per-session timestamps as UserSession held them before the registry */
+    static final class LegacyTimestamps {
+        volatile LocalDateTime lastAccessedAt = LocalDateTime.now();
+
+        void updateLastAccessed() {
+            lastAccessedAt = LocalDateTime.now();
+        }
+
+        boolean isExpired(long timeoutInSeconds) {
+            return lastAccessedAt.plusSeconds(timeoutInSeconds).isBefore(LocalDateTime.now());
+        }
+    }
+
+    private LegacyTimestamps[] legacy;
+    private UserSession[] sessions;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        legacy = new LegacyTimestamps[SESSIONS];
+        sessions = new UserSession[SESSIONS];
+        SessionRegistry registry = new SessionRegistry(SESSIONS);
+        for (int i = 0; i < SESSIONS; i++) {
+            legacy[i] = new LegacyTimestamps();
+            sessions[i] = new UserSession("session-" + i, "user-" + (i % 1000), registry);
+        }
+    }
+
+    @Benchmark
+    public boolean localDateTime() {
+        LegacyTimestamps session = legacy[nextIndex()];
+        session.updateLastAccessed();
+        return session.isExpired(300);
+    }
+
+    @Benchmark
+    public boolean registry() {
+        UserSession session = sessions[nextIndex()];
+        session.updateLastAccessed();
+        return session.isExpired(300);
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == SESSIONS ? 0 : index + 1;
+        return index;
+    }
+}
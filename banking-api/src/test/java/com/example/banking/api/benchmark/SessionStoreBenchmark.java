@@ -0,0 +1,75 @@
+package com.example.banking.api.benchmark;
+
+import com.example.banking.api.service.session.SessionStore;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Measures how long a restarted API takes to reopen the session store and read back every
+ * session recorded by the previous run.
+ *
+ * Run from the module directory with:
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main SessionStoreBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class SessionStoreBenchmark {
+
+    @Param({"1000", "100000"})
+    private int sessions;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void writeStore() throws IOException {
+        file = Files.createTempFile("sessions", ".db");
+        Files.delete(file);
+        SessionStore store = open();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < sessions; i++) {
+            store.save("SESSION-" + i + "-0123456789ABCDEF", "user" + i, now, now);
+        }
+        store.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteStore() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private SessionStore open() {
+        SessionStore store = new SessionStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "path", file.toString());
+        ReflectionTestUtils.setField(store, "capacity", sessions);
+        store.open();
+        return store;
+    }
+
+    @Benchmark
+    public List<SessionStore.StoredSession> reload() {
+        return open().load();
+    }
+}
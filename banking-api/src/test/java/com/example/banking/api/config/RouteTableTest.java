@@ -0,0 +1,45 @@
+package com.example.banking.api.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteTableTest {
+
+    private final RouteTable<String> routes = RouteTable.<String>builder()
+            .exact("/api/v1/banking/login", "login")
+            .exact("/api", "api-root")
+            .prefix("/api/", "api")
+            .prefix("/api/v1/banking/transactions", "transactions")
+            .build();
+
+    @Test
+    void testMatch_ExactRouteWinsOverPrefix() {
+        // When & Then
+        assertThat(routes.match("/api/v1/banking/login")).isEqualTo("login");
+        assertThat(routes.match("/api")).isEqualTo("api-root");
+    }
+
+    @Test
+    void testMatch_LongestPrefixWins() {
+        // When & Then
+        assertThat(routes.match("/api/v1/banking/transactions/stream")).isEqualTo("transactions");
+        assertThat(routes.match("/api/v1/banking/transactions")).isEqualTo("transactions");
+        assertThat(routes.match("/api/v1/banking/balance")).isEqualTo("api");
+    }
+
+    @Test
+    void testMatch_ExactRouteDoesNotCoverLongerPaths() {
+        // When & Then - falls back to the enclosing prefix instead
+        assertThat(routes.match("/api/v1/banking/login/extra")).isEqualTo("api");
+        assertThat(routes.match("/api/v1/banking/logi")).isEqualTo("api");
+    }
+
+    @Test
+    void testMatch_ReturnsNullWhenNothingMatches() {
+        // When & Then
+        assertThat(routes.match("/health")).isNull();
+        assertThat(routes.match("/ap")).isNull();
+        assertThat(routes.match("")).isNull();
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.banking.api.config;
 
 import com.example.banking.api.domain.model.UserSession;
+import com.example.banking.api.service.routing.ClusterRouter;
 import com.example.banking.api.service.session.SessionManager;
+import com.example.banking.api.service.session.SessionToken;
+import com.example.banking.api.service.session.SessionTokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,6 +17,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.net.URI;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,6 +29,12 @@ class SessionInterceptorTest {
     @Mock
     private SessionManager sessionManager;
 
+    @Mock
+    private SessionTokenService sessionTokenService;
+
+    @Mock
+    private ClusterRouter clusterRouter;
+
     @Mock
     private HttpServletRequest request;
 
@@ -258,4 +268,166 @@ class SessionInterceptorTest {
         assertTrue(result);
         verify(sessionManager, never()).getSession(any(HttpSession.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testPreHandle_PublicSuffixUnderProtectedPath_RequiresSession() throws Exception {
+        // Given - only the listed public routes skip validation, not any path ending like one
+        when(request.getRequestURI()).thenReturn("/api/v1/banking/transactions/health");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getSession(false)).thenReturn(null);
+        when(response.getWriter()).thenReturn(new PrintWriter(responseWriter));
+
+        // When
+        boolean result = sessionInterceptor.preHandle(request, response, null);
+
+        // Then
+        assertFalse(result);
+        verify(response).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+    }
+
+    @Test
+    void testPreHandle_LoginUnderContextPath_ShouldSkipValidation() throws Exception {
+        // Given
+        when(request.getRequestURI()).thenReturn("/bank/api/v1/banking/login");
+        when(request.getContextPath()).thenReturn("/bank");
+        when(request.getMethod()).thenReturn("POST");
+
+        // When
+        boolean result = sessionInterceptor.preHandle(request, response, null);
+
+        // Then
+        assertTrue(result);
+        verify(sessionManager, never()).getSession(any(HttpSession.class));
+    }
+
+    @Test
+    void testPreHandle_ValidToken_ResolvesSessionWithoutHttpSession() throws Exception {
+        // Given
+        SessionToken token = mock(SessionToken.class);
+        when(token.getSessionId()).thenReturn("test-session-id");
+        when(token.getUsername()).thenReturn("testuser");
+        when(request.getRequestURI()).thenReturn("/api/v1/banking/balance");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("Authorization")).thenReturn("Bearer signed-token");
+        when(sessionTokenService.isEnabled()).thenReturn(true);
+        when(sessionTokenService.verify("signed-token")).thenReturn(Optional.of(token));
+        when(sessionTokenService.isLocal(token)).thenReturn(true);
+        when(sessionManager.getSession("test-session-id")).thenReturn(Optional.of(userSession));
+        when(userSession.getUsername()).thenReturn("testuser");
+
+        // When
+        boolean result = sessionInterceptor.preHandle(request, response, null);
+
+        // Then
+        assertTrue(result);
+        verify(request).setAttribute("userSession", userSession);
+        verify(request, never()).getSession(anyBoolean());
+    }
+
+    @Test
+    void testPreHandle_ValidTokenOfLoggedOutSession_ShouldReturnUnauthorized() throws Exception {
+        // Given - the token is still correctly signed, but its session has been logged out
+        SessionToken token = mock(SessionToken.class);
+        when(token.getSessionId()).thenReturn("test-session-id");
+        when(request.getRequestURI()).thenReturn("/api/v1/banking/balance");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("Authorization")).thenReturn("Bearer signed-token");
+        when(sessionTokenService.isEnabled()).thenReturn(true);
+        when(sessionTokenService.verify("signed-token")).thenReturn(Optional.of(token));
+        when(sessionTokenService.isLocal(token)).thenReturn(true);
+        when(sessionManager.getSession("test-session-id")).thenReturn(Optional.empty());
+        when(response.getWriter()).thenReturn(new PrintWriter(responseWriter));
+
+        // When
+        boolean result = sessionInterceptor.preHandle(request, response, null);
+
+        // Then
+        assertFalse(result);
+        verify(response).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        verify(request, never()).setAttribute(eq("userSession"), any());
+    }
+
+    @Test
+    void testPreHandle_RestoredSessionWithoutHttpSession_ShouldContinue() throws Exception {
+        // Given - the client still presents the session id it had before the API restarted
+        UserSession restored = new UserSession("old-session-id", "testuser");
+        when(request.getRequestURI()).thenReturn("/api/v1/banking/balance");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getSession(false)).thenReturn(null);
+        when(request.getRequestedSessionId()).thenReturn("old-session-id");
+        when(sessionManager.getSession("old-session-id")).thenReturn(Optional.of(restored));
+
+        // When
+        boolean result = sessionInterceptor.preHandle(request, response, null);
+
+        // Then
+        assertTrue(result);
+        verify(request).setAttribute("userSession", restored);
+    }
+
+    @Test
+    void testPreHandle_TokenForAnotherNode_ShouldReturnMisdirected() throws Exception {
+        // Given
+        SessionToken token = mock(SessionToken.class);
+        when(token.getNodeId()).thenReturn("node-b");
+        when(request.getRequestURI()).thenReturn("/api/v1/banking/balance");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("Authorization")).thenReturn("Bearer signed-token");
+        when(sessionTokenService.isEnabled()).thenReturn(true);
+        when(sessionTokenService.verify("signed-token")).thenReturn(Optional.of(token));
+        when(sessionTokenService.isLocal(token)).thenReturn(false);
+        when(response.getWriter()).thenReturn(new PrintWriter(responseWriter));
+
+        // When
+        boolean result = sessionInterceptor.preHandle(request, response, null);
+
+        // Then
+        assertFalse(result);
+        verify(response).setStatus(421);
+        verify(response).setHeader("X-Banking-Node", "node-b");
+        verify(sessionManager, never()).getSession(anyString());
+    }
+
+    @Test
+    void testPreHandle_TokenForAnotherNodeInRouterMode_ShouldRedirect() throws Exception {
+        // Given
+        SessionToken token = mock(SessionToken.class);
+        when(token.getNodeId()).thenReturn("http://localhost:8081");
+        when(request.getRequestURI()).thenReturn("/api/v1/banking/balance");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("Authorization")).thenReturn("Bearer signed-token");
+        when(sessionTokenService.isEnabled()).thenReturn(true);
+        when(sessionTokenService.verify("signed-token")).thenReturn(Optional.of(token));
+        when(sessionTokenService.isLocal(token)).thenReturn(false);
+        when(clusterRouter.redirectToNode("http://localhost:8081", request))
+                .thenReturn(Optional.of(URI.create("http://localhost:8081/api/v1/banking/balance")));
+
+        // When
+        boolean result = sessionInterceptor.preHandle(request, response, null);
+
+        // Then
+        assertFalse(result);
+        verify(response).setStatus(307);
+        verify(response).setHeader("Location", "http://localhost:8081/api/v1/banking/balance");
+        verify(sessionManager, never()).getSession(anyString());
+    }
+
+    @Test
+    void testPreHandle_InvalidToken_ShouldReturnUnauthorized() throws Exception {
+        // Given
+        when(request.getRequestURI()).thenReturn("/api/v1/banking/balance");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("Authorization")).thenReturn("Bearer forged");
+        when(sessionTokenService.isEnabled()).thenReturn(true);
+        when(sessionTokenService.verify("forged")).thenReturn(Optional.empty());
+        when(response.getWriter()).thenReturn(new PrintWriter(responseWriter));
+
+        // When
+        boolean result = sessionInterceptor.preHandle(request, response, null);
+
+        // Then
+        assertFalse(result);
+        verify(response).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        assertTrue(responseWriter.toString().contains("Invalid or expired session token"));
+    }
+}
@@ -1,25 +1,50 @@
 package com.example.banking.api.controller;
 
+import com.example.banking.api.dto.BatchTransactionRequest;
 import com.example.banking.api.dto.LoginRequest;
 import com.example.banking.api.dto.RegisterRequest;
 import com.example.banking.api.dto.SessionTransactionRequest;
+import com.example.banking.api.dto.TransferRequest;
 import com.example.banking.api.service.BankingService;
 import com.example.banking.api.service.SessionBankingService;
+import com.example.banking.api.service.concurrent.ServiceOverloadedException;
+import com.example.banking.api.service.routing.ClusterRouter;
 import com.example.banking.api.service.session.SessionManager;
+import com.example.banking.api.service.session.SessionToken;
+import com.example.banking.api.service.session.SessionTokenService;
 import com.example.banking.api.service.process.ProcessSessionManager;
 import com.example.banking.api.model.BankingUser;
 import com.example.banking.api.model.BankingTransaction;
+import com.example.banking.api.model.BatchItemResult;
+import com.example.banking.api.model.TransactionPage;
+import com.example.banking.api.model.TransactionQuery;
 import com.example.banking.api.domain.model.UserSession;
 import com.example.banking.api.config.SessionInterceptor;
+import com.example.banking.api.service.idempotency.IdempotencyCache;
+import com.example.banking.api.service.events.AccountEvent;
+import com.example.banking.api.service.events.AccountEventBus;
+import com.example.banking.api.service.events.AccountEventStreams;
+import com.example.banking.api.service.events.AccountVersionTracker;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
+import java.net.URI;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -27,6 +52,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(BankingController.class)
+@Import({IdempotencyCache.class, AccountVersionTracker.class})
 @DisplayName("Banking Controller Tests")
 class BankingControllerTest {
 
@@ -48,6 +74,18 @@ class BankingControllerTest {
     @MockBean
     private SessionInterceptor sessionInterceptor;
 
+    @MockBean
+    private AccountEventBus accountEventBus;
+
+    @MockBean
+    private AccountEventStreams accountEventStreams;
+
+    @MockBean
+    private SessionTokenService sessionTokenService;
+
+    @MockBean
+    private ClusterRouter clusterRouter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -61,6 +99,16 @@ class BankingControllerTest {
         when(sessionInterceptor.preHandle(any(), any(), any())).thenReturn(true);
     }
 
+    /**
+     * Performs a request to an endpoint that completes asynchronously and dispatches its result.
+     */
+    private ResultActions performAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
     @Nested
     @DisplayName("User Registration Tests")
     class UserRegistrationTests {
@@ -155,6 +203,84 @@ class BankingControllerTest {
                     .content(objectMapper.writeValueAsString(request)))
                     .andExpect(status().isUnauthorized());
         }
+
+        @Test
+        @DisplayName("Should shed login with 503 and free the session when no spawn slot is available")
+        void shouldShedLoginWhenSpawnSlotsAreTaken() throws Exception {
+            // Given
+            LoginRequest request = new LoginRequest("storm", "password");
+            UserSession mockSession = mock(UserSession.class);
+            when(sessionManager.createSession(eq("storm"), any(HttpSession.class))).thenReturn(mockSession);
+            when(sessionBankingService.authenticateAndStartSession(mockSession, "password"))
+                    .thenThrow(new ServiceOverloadedException("spawn capacity exhausted: queue is full", 10));
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/banking/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "10"));
+
+            verify(sessionManager).invalidateSession(any(HttpSession.class));
+        }
+
+        @Test
+        @DisplayName("Should return a signed session token at login when token mode is enabled")
+        void shouldIssueSessionTokenWhenTokenModeIsEnabled() throws Exception {
+            // Given
+            LoginRequest request = new LoginRequest("testuser", "password");
+            UserSession session = new UserSession("session123", "testuser");
+            SessionToken token = mock(SessionToken.class);
+            when(token.getValue()).thenReturn("signed-token");
+            when(token.getExpiresAt()).thenReturn(Instant.now().plusSeconds(1800));
+            when(sessionManager.createSession(eq("testuser"), any(HttpSession.class))).thenReturn(session);
+            when(sessionBankingService.authenticateAndStartSession(session, "password")).thenReturn(mockUser);
+            when(sessionTokenService.isEnabled()).thenReturn(true);
+            when(sessionTokenService.issue(session)).thenReturn(token);
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/banking/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.sessionId").value("session123"))
+                    .andExpect(jsonPath("$.sessionToken").value("signed-token"));
+        }
+
+        @Test
+        @DisplayName("Should redirect login to the instance that owns the user when router mode is on")
+        void shouldRedirectLoginToOwningInstance() throws Exception {
+            // Given
+            LoginRequest request = new LoginRequest("testuser", "password");
+            when(clusterRouter.redirectFor(eq("testuser"), any(HttpServletRequest.class)))
+                    .thenReturn(Optional.of(URI.create("http://localhost:8081/api/v1/banking/login")));
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/banking/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isTemporaryRedirect())
+                    .andExpect(header().string("Location", "http://localhost:8081/api/v1/banking/login"));
+
+            verify(sessionManager, never()).createSession(any(), any(HttpSession.class));
+            verify(sessionBankingService, never()).authenticateAndStartSession(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should log out a token session that has no HTTP session")
+        void shouldLogOutTokenSession() throws Exception {
+            // Given
+            UserSession session = new UserSession("session123", "testuser");
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/banking/logout")
+                    .requestAttr("userSession", session))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.success").value(true));
+
+            verify(processSessionManager).terminateSessionProcess(session);
+            verify(sessionManager).invalidateSession("session123");
+        }
     }
 
     @Nested
@@ -169,11 +295,11 @@ class BankingControllerTest {
             UserSession mockSession = mock(UserSession.class);
             when(mockSession.getUsername()).thenReturn("testuser");
             
-            when(sessionBankingService.deposit(any(UserSession.class), eq(100.0))).thenReturn(true);
-            when(sessionBankingService.getBalance(any(UserSession.class))).thenReturn(200.0);
+            when(sessionBankingService.depositAsync(any(UserSession.class), eq(100.0))).thenReturn(CompletableFuture.completedFuture(true));
+            when(sessionBankingService.getBalanceAsync(any(UserSession.class))).thenReturn(CompletableFuture.completedFuture(200.0));
 
             // When & Then
-            mockMvc.perform(post("/api/v1/banking/deposit")
+            performAsync(post("/api/v1/banking/deposit")
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(objectMapper.writeValueAsString(request))
                     .requestAttr("userSession", mockSession))
@@ -182,8 +308,12 @@ class BankingControllerTest {
                     .andExpect(jsonPath("$.amount").value(100.0))
                     .andExpect(jsonPath("$.newBalance").value(200.0));
 
-            verify(sessionBankingService).deposit(any(UserSession.class), eq(100.0));
-            verify(sessionBankingService).getBalance(any(UserSession.class));
+            verify(sessionBankingService).depositAsync(any(UserSession.class), eq(100.0));
+            verify(sessionBankingService).getBalanceAsync(any(UserSession.class));
+            verify(accountEventBus).publish(argThat(event -> event.getKind() == AccountEvent.Kind.TRANSACTION
+                    && "testuser".equals(event.getUsername()) && event.getAmount() == 100.0 && event.getBalance() == 200.0));
+            verify(accountEventBus).publish(argThat(event -> event.getKind() == AccountEvent.Kind.BALANCE
+                    && event.getBalance() == 200.0));
         }
 
         @Test
@@ -193,7 +323,7 @@ class BankingControllerTest {
             SessionTransactionRequest request = new SessionTransactionRequest(100.0);
 
             // When & Then - no session attribute set
-            mockMvc.perform(post("/api/v1/banking/deposit")
+            performAsync(post("/api/v1/banking/deposit")
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(objectMapper.writeValueAsString(request)))
                     .andExpect(status().isUnauthorized());
@@ -207,11 +337,11 @@ class BankingControllerTest {
             UserSession mockSession = mock(UserSession.class);
             when(mockSession.getUsername()).thenReturn("testuser");
             
-            when(sessionBankingService.withdraw(any(UserSession.class), eq(50.0))).thenReturn(true);
-            when(sessionBankingService.getBalance(any(UserSession.class))).thenReturn(100.0);
+            when(sessionBankingService.withdrawAsync(any(UserSession.class), eq(50.0))).thenReturn(CompletableFuture.completedFuture(true));
+            when(sessionBankingService.getBalanceAsync(any(UserSession.class))).thenReturn(CompletableFuture.completedFuture(100.0));
 
             // When & Then
-            mockMvc.perform(post("/api/v1/banking/withdraw")
+            performAsync(post("/api/v1/banking/withdraw")
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(objectMapper.writeValueAsString(request))
                     .requestAttr("userSession", mockSession))
@@ -220,8 +350,8 @@ class BankingControllerTest {
                     .andExpect(jsonPath("$.amount").value(50.0))
                     .andExpect(jsonPath("$.newBalance").value(100.0));
 
-            verify(sessionBankingService).withdraw(any(UserSession.class), eq(50.0));
-            verify(sessionBankingService).getBalance(any(UserSession.class));
+            verify(sessionBankingService).withdrawAsync(any(UserSession.class), eq(50.0));
+            verify(sessionBankingService).getBalanceAsync(any(UserSession.class));
         }
 
         @Test
@@ -232,16 +362,472 @@ class BankingControllerTest {
             UserSession mockSession = mock(UserSession.class);
             when(mockSession.getUsername()).thenReturn("testuser");
             
-            when(sessionBankingService.withdraw(any(UserSession.class), eq(1000.0))).thenReturn(false);
+            when(sessionBankingService.withdrawAsync(any(UserSession.class), eq(1000.0))).thenReturn(CompletableFuture.completedFuture(false));
+
+            // When & Then
+            performAsync(post("/api/v1/banking/withdraw")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request))
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isBadRequest());
+
+            verify(sessionBankingService).withdrawAsync(any(UserSession.class), eq(1000.0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Idempotency Tests")
+    class IdempotencyTests {
+
+        @Test
+        @DisplayName("Should replay deposit for repeated Idempotency-Key without calling the process again")
+        void shouldReplayDepositForRepeatedKey() throws Exception {
+            // Given
+            SessionTransactionRequest request = new SessionTransactionRequest(100.0);
+            UserSession mockSession = mock(UserSession.class);
+            when(mockSession.getUsername()).thenReturn("replayuser");
+            
+            when(sessionBankingService.depositAsync(any(UserSession.class), eq(100.0))).thenReturn(CompletableFuture.completedFuture(true));
+            when(sessionBankingService.getBalanceAsync(any(UserSession.class))).thenReturn(CompletableFuture.completedFuture(200.0));
+
+            // When & Then
+            for (int attempt = 0; attempt < 2; attempt++) {
+                performAsync(post("/api/v1/banking/deposit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Idempotency-Key", "deposit-retry-1")
+                        .content(objectMapper.writeValueAsString(request))
+                        .requestAttr("userSession", mockSession))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.newBalance").value(200.0));
+            }
+
+            verify(sessionBankingService, times(1)).depositAsync(any(UserSession.class), eq(100.0));
+            verify(sessionBankingService, times(1)).getBalanceAsync(any(UserSession.class));
+            // Replays must not announce the deposit a second time
+            verify(accountEventBus, times(2)).publish(any(AccountEvent.class));
+        }
+
+        @Test
+        @DisplayName("Should return unprocessable entity when key is reused with a different amount")
+        void shouldRejectKeyReuseWithDifferentAmount() throws Exception {
+            // Given
+            UserSession mockSession = mock(UserSession.class);
+            when(mockSession.getUsername()).thenReturn("mismatchuser");
+            when(sessionBankingService.withdrawAsync(any(UserSession.class), anyDouble())).thenReturn(CompletableFuture.completedFuture(true));
+            when(sessionBankingService.getBalanceAsync(any(UserSession.class))).thenReturn(CompletableFuture.completedFuture(90.0));
+
+            performAsync(post("/api/v1/banking/withdraw")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Idempotency-Key", "withdraw-1")
+                    .content(objectMapper.writeValueAsString(new SessionTransactionRequest(10.0)))
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isOk());
 
             // When & Then
             mockMvc.perform(post("/api/v1/banking/withdraw")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Idempotency-Key", "withdraw-1")
+                    .content(objectMapper.writeValueAsString(new SessionTransactionRequest(20.0)))
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isUnprocessableEntity());
+
+            verify(sessionBankingService, never()).withdrawAsync(any(UserSession.class), eq(20.0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Transfer Tests")
+    class TransferTests {
+
+        @Test
+        @DisplayName("Should process transfer successfully")
+        void shouldProcessTransferSuccessfully() throws Exception {
+            // Given
+            TransferRequest request = new TransferRequest("recipient", 25.0);
+            UserSession mockSession = mock(UserSession.class);
+            when(mockSession.getUsername()).thenReturn("testuser");
+            
+            when(sessionBankingService.transferAsync(any(UserSession.class), eq("recipient"), eq(25.0))).thenReturn(CompletableFuture.completedFuture(true));
+            when(sessionBankingService.getBalanceAsync(any(UserSession.class))).thenReturn(CompletableFuture.completedFuture(75.0));
+
+            // When & Then
+            performAsync(post("/api/v1/banking/transfer")
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(objectMapper.writeValueAsString(request))
                     .requestAttr("userSession", mockSession))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.type").value("Transfer Out"))
+                    .andExpect(jsonPath("$.amount").value(25.0))
+                    .andExpect(jsonPath("$.newBalance").value(75.0));
+
+            verify(sessionBankingService).transferAsync(any(UserSession.class), eq("recipient"), eq(25.0));
+        }
+
+        @Test
+        @DisplayName("Should return bad request when transfer is rejected")
+        void shouldReturnBadRequestWhenTransferRejected() throws Exception {
+            // Given
+            TransferRequest request = new TransferRequest("recipient", 1000.0);
+            UserSession mockSession = mock(UserSession.class);
+            
+            when(sessionBankingService.transferAsync(any(UserSession.class), eq("recipient"), eq(1000.0))).thenReturn(CompletableFuture.completedFuture(false));
+
+            // When & Then
+            performAsync(post("/api/v1/banking/transfer")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request))
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isBadRequest());
+
+            verify(sessionBankingService, never()).getBalanceAsync(any(UserSession.class));
+        }
+
+        @Test
+        @DisplayName("Should return bad request for missing recipient")
+        void shouldReturnBadRequestForMissingRecipient() throws Exception {
+            // Given
+            TransferRequest request = new TransferRequest("", 25.0);
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/banking/transfer")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request))
+                    .requestAttr("userSession", mock(UserSession.class)))
                     .andExpect(status().isBadRequest());
 
-            verify(sessionBankingService).withdraw(any(UserSession.class), eq(1000.0));
+            verify(sessionBankingService, never()).transferAsync(any(), any(), anyDouble());
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch Transaction Tests")
+    class BatchTransactionTests {
+
+        @Test
+        @DisplayName("Should execute batch and return per-item results with final balance")
+        void shouldExecuteBatch() throws Exception {
+            // Given
+            BatchTransactionRequest request = new BatchTransactionRequest(java.util.List.of(
+                    new BatchTransactionRequest.Operation("deposit", 100.0),
+                    new BatchTransactionRequest.Operation("withdraw", 500.0)));
+            UserSession mockSession = mock(UserSession.class);
+            when(mockSession.getUsername()).thenReturn("testuser");
+            
+            when(sessionBankingService.executeBatchAsync(any(UserSession.class), anyList())).thenReturn(CompletableFuture.completedFuture(java.util.List.of(
+                    new BatchItemResult(0, "Deposit", 100.0, true, "Successfully deposited $100.0", 100.0),
+                    new BatchItemResult(1, "Withdrawal", 500.0, false, "Insufficient funds. Current balance: $100.0", 100.0))));
+
+            // When & Then
+            performAsync(post("/api/v1/banking/transactions/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request))
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.results.length()").value(2))
+                    .andExpect(jsonPath("$.results[0].success").value(true))
+                    .andExpect(jsonPath("$.results[1].success").value(false))
+                    .andExpect(jsonPath("$.succeeded").value(1))
+                    .andExpect(jsonPath("$.failed").value(1))
+                    .andExpect(jsonPath("$.finalBalance").value(100.0));
+
+            verify(sessionBankingService, never()).getBalanceAsync(any(UserSession.class));
+        }
+
+        @Test
+        @DisplayName("Should report unanswered items as unknown, without a final balance, and change the ETag")
+        void shouldReportUnansweredItemsAsUnknown() throws Exception {
+            // Given
+            BatchTransactionRequest request = new BatchTransactionRequest(java.util.List.of(
+                    new BatchTransactionRequest.Operation("withdraw", 500.0),
+                    new BatchTransactionRequest.Operation("deposit", 20.0)));
+            UserSession mockSession = mock(UserSession.class);
+            when(mockSession.getUsername()).thenReturn("batchunknown");
+            when(sessionBankingService.getBalanceAsync(any(UserSession.class))).thenReturn(CompletableFuture.completedFuture(100.0));
+            when(sessionBankingService.executeBatchAsync(any(UserSession.class), anyList())).thenReturn(CompletableFuture.completedFuture(java.util.List.of(
+                    new BatchItemResult(0, "Withdrawal", 500.0, false, "Insufficient funds. Current balance: $100.0", 100.0),
+                    BatchItemResult.outcomeUnknown(1, "Deposit", 20.0))));
+            String before = performAsync(get("/api/v1/banking/balance")
+                    .requestAttr("userSession", mockSession))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            // When & Then
+            performAsync(post("/api/v1/banking/transactions/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request))
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.results[1].outcomeUnknown").value(true))
+                    .andExpect(jsonPath("$.succeeded").value(0))
+                    .andExpect(jsonPath("$.failed").value(1))
+                    .andExpect(jsonPath("$.unknown").value(1))
+                    .andExpect(jsonPath("$.finalBalance").doesNotExist());
+
+            // The deposit may still land, so the tag from before the batch must not match
+            performAsync(get("/api/v1/banking/balance")
+                    .header("If-None-Match", before)
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("Should reject batch containing a non-positive amount")
+        void shouldRejectNonPositiveAmount() throws Exception {
+            // Given
+            BatchTransactionRequest request = new BatchTransactionRequest(java.util.List.of(
+                    new BatchTransactionRequest.Operation("deposit", 100.0),
+                    new BatchTransactionRequest.Operation("withdraw", -5.0)));
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/banking/transactions/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request))
+                    .requestAttr("userSession", mock(UserSession.class)))
+                    .andExpect(status().isBadRequest());
+
+            verify(sessionBankingService, never()).executeBatchAsync(any(), anyList());
+        }
+
+        @Test
+        @DisplayName("Should reject batch with unknown operation type")
+        void shouldRejectUnknownOperationType() throws Exception {
+            // Given
+            BatchTransactionRequest request = new BatchTransactionRequest(java.util.List.of(
+                    new BatchTransactionRequest.Operation("transfer", 10.0)));
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/banking/transactions/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request))
+                    .requestAttr("userSession", mock(UserSession.class)))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("Transaction Query Tests")
+    class TransactionQueryTests {
+
+        @Test
+        @DisplayName("Should return a page of transactions with running balances and a next cursor")
+        void shouldReturnPageWithNextCursor() throws Exception {
+            // Given
+            UserSession mockSession = mock(UserSession.class);
+            when(mockSession.getUsername()).thenReturn("testuser");
+            BankingTransaction deposit = new BankingTransaction("Deposit", 100.0, LocalDateTime.of(2024, 3, 1, 9, 15, 2));
+            deposit.setSequence(4L);
+            deposit.setBalanceAfter(150.0);
+            when(sessionBankingService.queryTransactionsAsync(any(UserSession.class), any(TransactionQuery.class)))
+                    .thenReturn(CompletableFuture.completedFuture(new TransactionPage(List.of(deposit), 5L, 9L)));
+
+            // When & Then
+            performAsync(get("/api/v1/banking/transactions")
+                    .param("type", "deposit")
+                    .param("limit", "1")
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andExpect(jsonPath("$[0].sequence").value(4))
+                    .andExpect(jsonPath("$[0].newBalance").value(150.0))
+                    .andExpect(header().string("X-Next-Cursor", "5"))
+                    .andExpect(header().string("X-Head-Sequence", "9"))
+                    .andExpect(header().string("Link", org.hamcrest.Matchers.containsString("cursor=5")));
+
+            verify(sessionBankingService).queryTransactionsAsync(eq(mockSession), argThat(query ->
+                    "deposit".equals(query.getType()) && query.getLimit() == 1 && query.getCursor() == null));
+        }
+
+        @Test
+        @DisplayName("Should pass filters through and omit the cursor headers on the last page")
+        void shouldPassFiltersAndOmitCursorOnLastPage() throws Exception {
+            // Given
+            UserSession mockSession = mock(UserSession.class);
+            when(mockSession.getUsername()).thenReturn("testuser");
+            when(sessionBankingService.queryTransactionsAsync(any(UserSession.class), any(TransactionQuery.class)))
+                    .thenReturn(CompletableFuture.completedFuture(new TransactionPage(List.of(), null, null)));
+
+            // When & Then
+            performAsync(get("/api/v1/banking/transactions")
+                    .param("from", "2024-03-01T00:00:00")
+                    .param("to", "2024-04-01T00:00:00")
+                    .param("minAmount", "10")
+                    .param("cursor", "40")
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(0))
+                    .andExpect(header().doesNotExist("X-Next-Cursor"))
+                    .andExpect(header().doesNotExist("X-Head-Sequence"))
+                    .andExpect(header().doesNotExist("Link"));
+
+            verify(sessionBankingService).queryTransactionsAsync(eq(mockSession), argThat(query ->
+                    query.toCommand().equals("limit=50 from=2024-03-01T00:00 to=2024-04-01T00:00 min=10.0 cursor=40")));
+        }
+
+        @Test
+        @DisplayName("Should return only transactions after since with the head sequence")
+        void shouldReturnDeltaSinceSequence() throws Exception {
+            // Given
+            UserSession mockSession = mock(UserSession.class);
+            when(mockSession.getUsername()).thenReturn("testuser");
+            BankingTransaction withdrawal = new BankingTransaction("Withdrawal", 20.0, LocalDateTime.of(2024, 3, 2, 10, 0, 0));
+            withdrawal.setSequence(8L);
+            withdrawal.setBalanceAfter(130.0);
+            when(sessionBankingService.queryTransactionsAsync(any(UserSession.class), any(TransactionQuery.class)))
+                    .thenReturn(CompletableFuture.completedFuture(new TransactionPage(List.of(withdrawal), null, 8L)));
+
+            // When & Then
+            performAsync(get("/api/v1/banking/transactions")
+                    .param("since", "7")
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andExpect(jsonPath("$[0].sequence").value(8))
+                    .andExpect(header().string("X-Head-Sequence", "8"));
+
+            verify(sessionBankingService).queryTransactionsAsync(eq(mockSession), argThat(query ->
+                    query.getSince() == 7L && query.getCursor() == null));
+        }
+
+        @Test
+        @DisplayName("Should answer a repeated query with 304 while the account is unchanged")
+        void shouldReturnNotModifiedForRepeatedQuery() throws Exception {
+            // Given
+            UserSession mockSession = mock(UserSession.class);
+            when(mockSession.getUsername()).thenReturn("etagquery");
+            when(sessionBankingService.queryTransactionsAsync(any(UserSession.class), any(TransactionQuery.class)))
+                    .thenReturn(CompletableFuture.completedFuture(new TransactionPage(List.of(), null, null)));
+            String etag = performAsync(get("/api/v1/banking/transactions")
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+
+            // When & Then
+            performAsync(get("/api/v1/banking/transactions")
+                    .header("If-None-Match", etag)
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isNotModified());
+
+            verify(sessionBankingService, times(1)).queryTransactionsAsync(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should reject since combined with cursor")
+        void shouldRejectSinceWithCursor() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/v1/banking/transactions")
+                    .param("since", "7")
+                    .param("cursor", "3")
+                    .requestAttr("userSession", mock(UserSession.class)))
+                    .andExpect(status().isBadRequest());
+
+            verify(sessionBankingService, never()).queryTransactionsAsync(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should reject an out-of-range limit")
+        void shouldRejectOutOfRangeLimit() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/v1/banking/transactions")
+                    .param("limit", "501")
+                    .requestAttr("userSession", mock(UserSession.class)))
+                    .andExpect(status().isBadRequest());
+
+            verify(sessionBankingService, never()).queryTransactionsAsync(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should reject an unknown transaction type")
+        void shouldRejectUnknownType() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/v1/banking/transactions")
+                    .param("type", "refund")
+                    .requestAttr("userSession", mock(UserSession.class)))
+                    .andExpect(status().isBadRequest());
+
+            verify(sessionBankingService, never()).queryTransactionsAsync(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should return unauthorized for missing session on query")
+        void shouldReturnUnauthorizedForMissingSessionOnQuery() throws Exception {
+            // When & Then
+            performAsync(get("/api/v1/banking/transactions"))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Nested
+    @DisplayName("Transaction Stream Tests")
+    class TransactionStreamTests {
+
+        @Test
+        @DisplayName("Should stream transactions as newline-delimited JSON")
+        @SuppressWarnings("unchecked")
+        void shouldStreamTransactionsAsNdjson() throws Exception {
+            // Given
+            UserSession mockSession = mock(UserSession.class);
+            doAnswer(invocation -> {
+                java.util.function.Consumer<BankingTransaction> sink = invocation.getArgument(1);
+                sink.accept(new BankingTransaction("Deposit", 100.0, LocalDateTime.of(2024, 3, 1, 9, 15, 2)));
+                sink.accept(new BankingTransaction("Withdrawal", 40.0, LocalDateTime.of(2024, 3, 1, 9, 16, 0)));
+                return 2;
+            }).when(sessionBankingService).streamTransactions(any(UserSession.class), any());
+
+            // When
+            MvcResult result = mockMvc.perform(get("/api/v1/banking/transactions/stream")
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Then
+            String body = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/x-ndjson"))
+                    .andReturn().getResponse().getContentAsString();
+            String[] lines = body.split("\n");
+            Assertions.assertEquals(2, lines.length);
+            Assertions.assertEquals("Deposit", objectMapper.readTree(lines[0]).get("type").asText());
+            Assertions.assertEquals(40.0, objectMapper.readTree(lines[1]).get("amount").asDouble());
+        }
+
+        @Test
+        @DisplayName("Should return unauthorized for missing session on stream")
+        void shouldReturnUnauthorizedForMissingSessionOnStream() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/v1/banking/transactions/stream"))
+                    .andExpect(status().isUnauthorized());
+
+            verify(sessionBankingService, never()).streamTransactions(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Account Event Stream Tests")
+    class AccountEventStreamTests {
+
+        @Test
+        @DisplayName("Should open an event stream for the session's user")
+        void shouldOpenEventStreamForSessionUser() throws Exception {
+            // Given
+            UserSession mockSession = mock(UserSession.class);
+            when(mockSession.getUsername()).thenReturn("testuser");
+            when(accountEventStreams.open("testuser")).thenReturn(new SseEmitter());
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/banking/stream")
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(request().asyncStarted());
+
+            verify(accountEventStreams).open("testuser");
+        }
+
+        @Test
+        @DisplayName("Should return unauthorized for missing session on event stream")
+        void shouldReturnUnauthorizedForMissingSessionOnEventStream() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/v1/banking/stream"))
+                    .andExpect(status().isUnauthorized());
+
+            verify(accountEventStreams, never()).open(any());
         }
     }
 
@@ -256,23 +842,164 @@ class BankingControllerTest {
             UserSession mockSession = mock(UserSession.class);
             when(mockSession.getUsername()).thenReturn("testuser");
             
-            when(sessionBankingService.getBalance(any(UserSession.class))).thenReturn(150.0);
+            when(sessionBankingService.getBalanceAsync(any(UserSession.class))).thenReturn(CompletableFuture.completedFuture(150.0));
 
             // When & Then
-            mockMvc.perform(get("/api/v1/banking/balance")
+            performAsync(get("/api/v1/banking/balance")
                     .requestAttr("userSession", mockSession))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.username").value("testuser"))
                     .andExpect(jsonPath("$.balance").value(150.0));
 
-            verify(sessionBankingService).getBalance(any(UserSession.class));
+            verify(sessionBankingService).getBalanceAsync(any(UserSession.class));
+        }
+
+        @Test
+        @DisplayName("Should answer a matching If-None-Match with 304 without reading the balance")
+        void shouldReturnNotModifiedForCurrentEtag() throws Exception {
+            // Given
+            UserSession mockSession = mock(UserSession.class);
+            when(mockSession.getUsername()).thenReturn("etaguser");
+            when(sessionBankingService.getBalanceAsync(any(UserSession.class))).thenReturn(CompletableFuture.completedFuture(150.0));
+            String etag = performAsync(get("/api/v1/banking/balance")
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Cache-Control", org.hamcrest.Matchers.containsString("no-cache")))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            // When & Then
+            performAsync(get("/api/v1/banking/balance")
+                    .header("If-None-Match", etag)
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", etag));
+
+            verify(sessionBankingService, times(1)).getBalanceAsync(any(UserSession.class));
+        }
+
+        @Test
+        @DisplayName("Should change the ETag after a deposit")
+        void shouldChangeEtagAfterDeposit() throws Exception {
+            // Given
+            UserSession mockSession = mock(UserSession.class);
+            when(mockSession.getUsername()).thenReturn("etagdeposit");
+            when(sessionBankingService.getBalanceAsync(any(UserSession.class))).thenReturn(CompletableFuture.completedFuture(150.0));
+            when(sessionBankingService.depositAsync(any(UserSession.class), eq(50.0))).thenReturn(CompletableFuture.completedFuture(true));
+            String before = performAsync(get("/api/v1/banking/balance")
+                    .requestAttr("userSession", mockSession))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            // When
+            performAsync(post("/api/v1/banking/deposit")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new SessionTransactionRequest(50.0)))
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isOk());
+
+            // Then
+            performAsync(get("/api/v1/banking/balance")
+                    .header("If-None-Match", before)
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", org.hamcrest.Matchers.not(before)));
+        }
+
+        @Test
+        @DisplayName("Should change the ETag after a deposit that timed out")
+        void shouldChangeEtagAfterDepositThatTimedOut() throws Exception {
+            // Given
+            UserSession mockSession = mock(UserSession.class);
+            when(mockSession.getUsername()).thenReturn("etagtimeout");
+            when(sessionBankingService.getBalanceAsync(any(UserSession.class))).thenReturn(CompletableFuture.completedFuture(150.0));
+            when(sessionBankingService.depositAsync(any(UserSession.class), eq(50.0))).thenReturn(CompletableFuture.failedFuture(
+                    new RuntimeException("Failed to deposit for session", new java.util.concurrent.TimeoutException())));
+            String before = performAsync(get("/api/v1/banking/balance")
+                    .requestAttr("userSession", mockSession))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            // When - the process may still apply the deposit
+            performAsync(post("/api/v1/banking/deposit")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new SessionTransactionRequest(50.0)))
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isGatewayTimeout());
+
+            // Then
+            performAsync(get("/api/v1/banking/balance")
+                    .header("If-None-Match", before)
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", org.hamcrest.Matchers.not(before)));
+        }
+
+        @Test
+        @DisplayName("Should change the recipient's ETag after an incoming transfer")
+        void shouldChangeRecipientEtagAfterIncomingTransfer() throws Exception {
+            // Given
+            UserSession sender = mock(UserSession.class);
+            when(sender.getUsername()).thenReturn("etagsender");
+            UserSession recipient = mock(UserSession.class);
+            when(recipient.getUsername()).thenReturn("etagrecipient");
+            when(sessionBankingService.getBalanceAsync(any(UserSession.class))).thenReturn(CompletableFuture.completedFuture(150.0));
+            when(sessionBankingService.transferAsync(any(UserSession.class), eq("etagrecipient"), eq(25.0)))
+                    .thenReturn(CompletableFuture.completedFuture(true));
+            String before = performAsync(get("/api/v1/banking/balance")
+                    .requestAttr("userSession", recipient))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            // When
+            performAsync(post("/api/v1/banking/transfer")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new TransferRequest("etagrecipient", 25.0)))
+                    .requestAttr("userSession", sender))
+                    .andExpect(status().isOk());
+
+            // Then
+            performAsync(get("/api/v1/banking/balance")
+                    .header("If-None-Match", before)
+                    .requestAttr("userSession", recipient))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", org.hamcrest.Matchers.not(before)));
+        }
+
+        @Test
+        @DisplayName("Should return gateway timeout when the process misses its deadline")
+        void shouldReturnGatewayTimeoutWhenProcessMissesDeadline() throws Exception {
+            // Given
+            UserSession mockSession = mock(UserSession.class);
+            when(mockSession.getUsername()).thenReturn("slowuser");
+            when(sessionBankingService.getBalanceAsync(any(UserSession.class))).thenReturn(CompletableFuture.failedFuture(
+                    new RuntimeException("Failed to get balance for session", new java.util.concurrent.TimeoutException())));
+
+            // When & Then
+            performAsync(get("/api/v1/banking/balance")
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isGatewayTimeout())
+                    .andExpect(jsonPath("$.success").value(false));
+        }
+
+        @Test
+        @DisplayName("Should shed with 503 and Retry-After when the process bridge is saturated")
+        void shouldReturnServiceUnavailableWhenOverloaded() throws Exception {
+            // Given
+            UserSession mockSession = mock(UserSession.class);
+            when(mockSession.getUsername()).thenReturn("busyuser");
+            when(sessionBankingService.getBalanceAsync(any(UserSession.class))).thenReturn(CompletableFuture.failedFuture(
+                    new ServiceOverloadedException("operation capacity exhausted: queue is full", 2)));
+
+            // When & Then
+            performAsync(get("/api/v1/banking/balance")
+                    .requestAttr("userSession", mockSession))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "2"))
+                    .andExpect(jsonPath("$.success").value(false));
         }
 
         @Test
         @DisplayName("Should return unauthorized for missing session on balance check")
         void shouldReturnUnauthorizedForMissingSessionOnBalanceCheck() throws Exception {
             // When & Then - no session attribute set
-            mockMvc.perform(get("/api/v1/banking/balance"))
+            performAsync(get("/api/v1/banking/balance"))
                     .andExpect(status().isUnauthorized());
         }
     }
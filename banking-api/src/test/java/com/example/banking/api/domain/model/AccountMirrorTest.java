@@ -0,0 +1,57 @@
+package com.example.banking.api.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Account Mirror Tests")
+class AccountMirrorTest {
+
+    private final AccountMirror mirror = new AccountMirror();
+
+    @Test
+    @DisplayName("Should know nothing until the process reports")
+    void shouldStartEmpty() {
+        assertThat(mirror.getBalance()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep the balance reported after a change")
+    void shouldRecordBalanceAfterChange() {
+        // Given
+        mirror.recordBalance(100.0);
+
+        // When
+        mirror.recordChange(60.0);
+
+        // Then
+        assertThat(mirror.getBalance()).isEqualTo(60.0);
+    }
+
+    @Test
+    @DisplayName("Should forget the balance after a change the process reported no balance for")
+    void shouldForgetBalanceAfterUnreportedChange() {
+        // Given
+        mirror.recordBalance(100.0);
+
+        // When
+        mirror.recordChange(null);
+
+        // Then
+        assertThat(mirror.getBalance()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should forget everything on invalidate")
+    void shouldForgetEverythingOnInvalidate() {
+        // Given
+        mirror.recordBalance(5.0);
+
+        // When
+        mirror.invalidate();
+
+        // Then
+        assertThat(mirror.getBalance()).isNull();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.banking.api.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionRegistryTest {
+
+    @Test
+    void testAllocateUntilFull() {
+        // Given
+        SessionRegistry registry = new SessionRegistry(2);
+
+        // When
+        int first = registry.allocate("alice", 1000L);
+        int second = registry.allocate("bob", 2000L);
+        int third = registry.allocate("carol", 3000L);
+
+        // Then
+        assertNotEquals(first, second);
+        assertEquals(-1, third);
+        assertEquals(2, registry.size());
+        assertEquals(1000L, registry.lastAccessedMillis(first, registry.generation(first)));
+        assertTrue(registry.hasFlag(second, registry.generation(second), SessionRegistry.ACTIVE));
+        assertEquals(SessionRegistry.NO_WORKER, registry.workerOf(second, registry.generation(second)));
+    }
+
+    @Test
+    void testReleasedSlotIsStaleAfterReuse() {
+        // Given
+        SessionRegistry registry = new SessionRegistry(1);
+        int slot = registry.allocate("alice", 1000L);
+        int generation = registry.generation(slot);
+        registry.setWorker(slot, generation, 42);
+
+        // When
+        registry.release(slot, generation);
+        int reused = registry.allocate("bob", 2000L);
+        registry.touch(slot, generation);
+        registry.setFlag(slot, generation, SessionRegistry.ACTIVE, false);
+        registry.release(slot, generation);
+
+        // Then
+        assertEquals(slot, reused);
+        assertEquals(0L, registry.lastAccessedMillis(slot, generation));
+        assertFalse(registry.hasFlag(slot, generation, SessionRegistry.ACTIVE));
+        assertEquals(SessionRegistry.NO_WORKER, registry.workerOf(slot, generation));
+        int current = registry.generation(reused);
+        assertEquals(2000L, registry.lastAccessedMillis(reused, current));
+        assertTrue(registry.hasFlag(reused, current, SessionRegistry.ACTIVE));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void testSessionCountPerUser() {
+        // Given
+        SessionRegistry registry = new SessionRegistry(4);
+        int first = registry.allocate("alice", 0L);
+        registry.allocate("alice", 0L);
+        registry.allocate("bob", 0L);
+
+        // When
+        registry.release(first, registry.generation(first));
+
+        // Then
+        assertEquals(1, registry.sessionCount("alice"));
+        assertEquals(1, registry.sessionCount("bob"));
+        assertEquals(0, registry.sessionCount("carol"));
+    }
+
+    @Test
+    void testUserSessionReadsInactiveOnceReleased() {
+        // Given
+        SessionRegistry registry = new SessionRegistry(1);
+        UserSession session = new UserSession("session-1", "alice", registry);
+
+        // When
+        session.release();
+        UserSession next = new UserSession("session-2", "bob", registry);
+
+        // Then
+        assertFalse(session.isActive());
+        assertEquals(Long.MAX_VALUE, session.getIdleMillis());
+        assertTrue(next.isActive());
+        assertThrows(IllegalStateException.class, () -> new UserSession("session-3", "carol", registry));
+    }
+}
@@ -35,9 +35,9 @@ class UserSessionTest {
         // Given
         LocalDateTime initialLastAccessed = userSession.getLastAccessedAt();
 
-        // Wait a bit to ensure timestamp difference
+        // Wait past the clock's resolution to ensure a timestamp difference
         try {
-            Thread.sleep(10);
+            Thread.sleep(50);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
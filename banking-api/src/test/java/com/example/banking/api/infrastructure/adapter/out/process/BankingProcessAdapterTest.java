@@ -401,6 +401,40 @@ class BankingProcessAdapterTest {
         }
     }
 
+    @Nested
+    @DisplayName("Transfer Operation Tests")
+    class TransferOperationTests {
+
+        @Test
+        @DisplayName("Should transfer money successfully")
+        void shouldTransferMoneySuccessfully() {
+            // Given
+            Money amount = new Money(25.00);
+            when(processService.transfer("testuser", "password123", "recipient", 25.00)).thenReturn(true);
+
+            // When
+            boolean result = adapter.transfer("testuser", "password123", "recipient", amount);
+
+            // Then
+            assertThat(result).isTrue();
+            verify(processService).transfer("testuser", "password123", "recipient", 25.00);
+        }
+
+        @Test
+        @DisplayName("Should handle transfer failure")
+        void shouldHandleTransferFailure() {
+            // Given
+            Money amount = new Money(1000.00);
+            when(processService.transfer("testuser", "password123", "recipient", 1000.00)).thenReturn(false);
+
+            // When
+            boolean result = adapter.transfer("testuser", "password123", "recipient", amount);
+
+            // Then
+            assertThat(result).isFalse();
+        }
+    }
+
     @Nested
     @DisplayName("Type Conversion Tests")
     class TypeConversionTests {
@@ -433,6 +467,30 @@ class BankingProcessAdapterTest {
             );
         }
 
+        @Test
+        @DisplayName("Should correctly convert transfer transaction types")
+        void shouldCorrectlyConvertTransferTransactionTypes() {
+            // Given
+            String username = "testuser";
+            String password = "password123";
+            LocalDateTime timestamp = LocalDateTime.of(2023, 12, 1, 10, 0, 0);
+            
+            List<BankingTransaction> bankingTransactions = Arrays.asList(
+                new BankingTransaction("Transfer In", 40.00, timestamp),
+                new BankingTransaction("Transfer Out", 15.00, timestamp)
+            );
+            
+            when(processService.getTransactions(username, password)).thenReturn(bankingTransactions);
+
+            // When
+            Optional<List<Transaction>> result = adapter.getTransactionHistory(username, password);
+
+            // Then
+            assertThat(result).isPresent();
+            assertThat(result.get()).extracting(Transaction::getType)
+                .containsExactly(Transaction.Type.TRANSFER_IN, Transaction.Type.TRANSFER_OUT);
+        }
+
         @Test
         @DisplayName("Should correctly convert withdrawal transaction type")
         void shouldCorrectlyConvertWithdrawalTransactionType() {
@@ -11,6 +11,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
@@ -66,6 +68,16 @@ class BankingApiIntegrationTest {
         }
     }
 
+    /**
+     * Performs a request to an endpoint that completes asynchronously and dispatches its result.
+     */
+    private ResultActions performAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
     @Test
     @DisplayName("Complete banking workflow integration test with performance metrics")
     void shouldCompleteFullBankingWorkflow() throws Exception {
@@ -117,7 +129,7 @@ class BankingApiIntegrationTest {
         MockHttpSession session = (MockHttpSession) loginResult.getRequest().getSession();
 
         // 3. Check initial balance
-        mockMvc.perform(get("/api/v1/banking/balance")
+        performAsync(get("/api/v1/banking/balance")
                 .session(session))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.username").value(username))
@@ -126,7 +138,7 @@ class BankingApiIntegrationTest {
         // 4. Make a deposit - with performance tracking
         Instant depositStart = Instant.now();
         SessionTransactionRequest depositRequest = new SessionTransactionRequest(100.0);
-        mockMvc.perform(post("/api/v1/banking/deposit")
+        performAsync(post("/api/v1/banking/deposit")
                 .session(session)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(depositRequest)))
@@ -140,7 +152,7 @@ class BankingApiIntegrationTest {
                 "Deposit took " + depositTime + "ms, exceeds threshold of " + MAX_TRANSACTION_TIME + "ms");
 
         // 5. Check balance after deposit
-        mockMvc.perform(get("/api/v1/banking/balance")
+        performAsync(get("/api/v1/banking/balance")
                 .session(session))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.balance").value(100.0));
@@ -148,7 +160,7 @@ class BankingApiIntegrationTest {
         // 6. Make a withdrawal - with performance tracking
         Instant withdrawStart = Instant.now();
         SessionTransactionRequest withdrawRequest = new SessionTransactionRequest(30.0);
-        mockMvc.perform(post("/api/v1/banking/withdraw")
+        performAsync(post("/api/v1/banking/withdraw")
                 .session(session)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(withdrawRequest)))
@@ -162,13 +174,13 @@ class BankingApiIntegrationTest {
                 "Withdrawal took " + withdrawTime + "ms, exceeds threshold of " + MAX_TRANSACTION_TIME + "ms");
 
         // 7. Check final balance
-        mockMvc.perform(get("/api/v1/banking/balance")
+        performAsync(get("/api/v1/banking/balance")
                 .session(session))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.balance").value(70.0));
 
         // 8. Get transaction history
-        mockMvc.perform(get("/api/v1/banking/transactions")
+        performAsync(get("/api/v1/banking/transactions")
                 .session(session))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
@@ -178,14 +190,14 @@ class BankingApiIntegrationTest {
 
         // 9. Try withdrawal with insufficient funds
         SessionTransactionRequest largeWithdrawRequest = new SessionTransactionRequest(100.0);
-        mockMvc.perform(post("/api/v1/banking/withdraw")
+        performAsync(post("/api/v1/banking/withdraw")
                 .session(session)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(largeWithdrawRequest)))
                 .andExpect(status().isBadRequest());
 
         // 10. Verify balance unchanged after failed withdrawal
-        mockMvc.perform(get("/api/v1/banking/balance")
+        performAsync(get("/api/v1/banking/balance")
                 .session(session))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.balance").value(70.0));
@@ -257,14 +269,14 @@ class BankingApiIntegrationTest {
                     for (int t = 0; t < TRANSACTIONS_PER_USER; t++) {
                         // Deposit
                         SessionTransactionRequest depositRequest = new SessionTransactionRequest(50.0);
-                        mockMvc.perform(post("/api/v1/banking/deposit")
+                        performAsync(post("/api/v1/banking/deposit")
                                 .session(session)
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(depositRequest)))
                                 .andExpect(status().isOk());
                         
                         // Check balance
-                        mockMvc.perform(get("/api/v1/banking/balance")
+                        performAsync(get("/api/v1/banking/balance")
                                 .session(session))
                                 .andExpect(status().isOk());
                     }
@@ -334,7 +346,7 @@ class BankingApiIntegrationTest {
             // Test deposit performance
             Instant start = Instant.now();
             SessionTransactionRequest depositRequest = new SessionTransactionRequest(10.0);
-            mockMvc.perform(post("/api/v1/banking/deposit")
+            performAsync(post("/api/v1/banking/deposit")
                     .session(session)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(objectMapper.writeValueAsString(depositRequest)))
@@ -344,7 +356,7 @@ class BankingApiIntegrationTest {
             
             // Test balance check performance
             start = Instant.now();
-            mockMvc.perform(get("/api/v1/banking/balance")
+            performAsync(get("/api/v1/banking/balance")
                     .session(session))
                     .andExpect(status().isOk());
             long balanceTime = Duration.between(start, Instant.now()).toMillis();
@@ -352,7 +364,7 @@ class BankingApiIntegrationTest {
             
             // Test transaction history performance
             start = Instant.now();
-            mockMvc.perform(get("/api/v1/banking/transactions")
+            performAsync(get("/api/v1/banking/transactions")
                     .session(session))
                     .andExpect(status().isOk());
             long historyTime = Duration.between(start, Instant.now()).toMillis();
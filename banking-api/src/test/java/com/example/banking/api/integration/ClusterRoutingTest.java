@@ -0,0 +1,153 @@
+package com.example.banking.api.integration;
+
+import com.example.banking.api.BankingApiApplication;
+import com.example.banking.api.service.routing.ClusterRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs three API instances in one JVM on local ports, as a static cluster, and checks that
+ * they agree on user ownership, redirect to the owner, and rebalance when one leaves and rejoins.
+ */
+class ClusterRoutingTest {
+
+    private static final int INSTANCES = 3;
+    private static final int USERS = 60;
+
+    private final List<String> urls = new ArrayList<>();
+    private final ConfigurableApplicationContext[] contexts = new ConfigurableApplicationContext[INSTANCES];
+    private final HttpClient client = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+
+    @AfterEach
+    void tearDown() {
+        for (ConfigurableApplicationContext context : contexts) {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext start(int instance) {
+        return new SpringApplicationBuilder(BankingApiApplication.class).run(
+                "--server.port=" + URI.create(urls.get(instance)).getPort(),
+                "--spring.main.banner-mode=off",
+                "--banking.cluster.enabled=true",
+                "--banking.cluster.self=" + urls.get(instance),
+                "--banking.cluster.peers=" + String.join(",", urls),
+                "--banking.cluster.probe-interval=200",
+                "--banking.cluster.failure-threshold=1");
+    }
+
+    private ClusterRouter router(int instance) {
+        return contexts[instance].getBean(ClusterRouter.class);
+    }
+
+    private Map<String, String> owners(int instance) {
+        Map<String, String> owners = new HashMap<>();
+        for (int i = 0; i < USERS; i++) {
+            owners.put("user" + i, router(instance).ownerOf("user" + i));
+        }
+        return owners;
+    }
+
+    private HttpResponse<Void> login(int instance, String username) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(urls.get(instance) + "/api/v1/banking/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"password123\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static String userOwnedBy(Map<String, String> owners, String node) {
+        return owners.entrySet().stream()
+                .filter(entry -> entry.getValue().equals(node))
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Test
+    void testRoutesUsersToOwnerAndRebalancesOnLeaveAndJoin() throws Exception {
+        // Given
+        for (int i = 0; i < INSTANCES; i++) {
+            urls.add("http://localhost:" + freePort());
+        }
+        for (int i = 0; i < INSTANCES; i++) {
+            contexts[i] = start(i);
+        }
+        // Instances started before their peers drop them until the first successful probe
+        await(() -> router(0).getMembers().size() == 3 && router(1).getMembers().size() == 3
+                && router(2).getMembers().size() == 3);
+        Map<String, String> initial = owners(0);
+        String leaving = urls.get(2);
+
+        // Then - every instance assigns every user to the same instance
+        assertThat(owners(1)).isEqualTo(initial);
+        assertThat(owners(2)).isEqualTo(initial);
+        assertThat(initial.values()).containsOnly(urls.toArray(new String[0]));
+
+        // When - a login for another instance's user arrives at instance 0
+        String movedUser = userOwnedBy(initial, leaving);
+        HttpResponse<Void> redirected = login(0, movedUser);
+
+        // Then
+        assertThat(redirected.statusCode()).isEqualTo(307);
+        assertThat(redirected.headers().firstValue("Location")).hasValue(leaving + "/api/v1/banking/login");
+
+        // When - instance 2 stops
+        contexts[2].close();
+        contexts[2] = null;
+        await(() -> router(0).getMembers().size() == 2 && router(1).getMembers().size() == 2);
+
+        // Then - only its users move, and the survivors agree where
+        Map<String, String> afterLeave = owners(0);
+        assertThat(owners(1)).isEqualTo(afterLeave);
+        for (Map.Entry<String, String> entry : initial.entrySet()) {
+            if (entry.getValue().equals(leaving)) {
+                assertThat(afterLeave.get(entry.getKey())).isNotEqualTo(leaving);
+            } else {
+                assertThat(afterLeave.get(entry.getKey())).isEqualTo(entry.getValue());
+            }
+        }
+
+        // When - instance 2 comes back on the same address
+        contexts[2] = start(2);
+        await(() -> router(0).getMembers().size() == 3 && router(1).getMembers().size() == 3);
+
+        // Then - it takes its users back
+        assertThat(owners(0)).isEqualTo(initial);
+        assertThat(owners(1)).isEqualTo(initial);
+        assertThat(login(0, movedUser).headers().firstValue("Location")).hasValue(leaving + "/api/v1/banking/login");
+    }
+}
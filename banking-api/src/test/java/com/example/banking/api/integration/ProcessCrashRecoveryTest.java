@@ -0,0 +1,144 @@
+package com.example.banking.api.integration;
+
+import com.example.banking.api.domain.model.UserSession;
+import com.example.banking.api.dto.LoginRequest;
+import com.example.banking.api.dto.RegisterRequest;
+import com.example.banking.api.dto.SessionTransactionRequest;
+import com.example.banking.api.service.process.ProcessSessionManager;
+import com.example.banking.api.service.session.SessionManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Kills the banking processes of logged-in users at random and checks that each user's next
+ * deposit still goes through, on a replacement process logged in as the user, with the
+ * balance the killed process had saved. Reports how long those deposits took next to
+ * deposits on a live process.
+ */
+@SpringBootTest
+class ProcessCrashRecoveryTest {
+
+    private static final int USERS = 3;
+    private static final int CRASHES = 8;
+    private static final String PASSWORD = "password123";
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    @Autowired
+    private ProcessSessionManager processSessionManager;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        File dataFile = new File("banking_data.ser");
+        if (dataFile.exists()) {
+            dataFile.delete();
+        }
+    }
+
+    private MockHttpSession login(String username) throws Exception {
+        mockMvc.perform(post("/api/v1/banking/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RegisterRequest(username, PASSWORD))))
+                .andExpect(status().isCreated());
+        MvcResult result = mockMvc.perform(post("/api/v1/banking/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest(username, PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return (MockHttpSession) result.getRequest().getSession();
+    }
+
+    /**
+     * Deposits one unit and checks the balance the process reports.
+     *
+     * @return how long the deposit took, in milliseconds
+     */
+    private long deposit(MockHttpSession session, double expectedBalance) throws Exception {
+        long started = System.nanoTime();
+        MvcResult result = mockMvc.perform(post("/api/v1/banking/deposit")
+                .session(session)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new SessionTransactionRequest(1.0))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.newBalance").value(expectedBalance));
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+    }
+
+    private void killProcessOf(MockHttpSession session) throws Exception {
+        UserSession userSession = sessionManager.getSession(session.getId()).orElseThrow();
+        Process process = userSession.getBankingProcess();
+        assertThat(process).isNotNull();
+        process.destroyForcibly();
+        process.onExit().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testDepositsRecoverAfterProcessesAreKilledAtRandom() throws Exception {
+        // Given
+        Random random = new Random(CRASHES);
+        List<MockHttpSession> sessions = new ArrayList<>();
+        double[] balances = new double[USERS];
+        for (int i = 0; i < USERS; i++) {
+            sessions.add(login("chaosuser" + i));
+        }
+        long resumesBefore = processSessionManager.getResumeCount();
+        List<Long> normalMs = new ArrayList<>();
+        List<Long> recoveryMs = new ArrayList<>();
+
+        // When - every crash is followed by the user's next deposit, with undisturbed deposits in between
+        for (int crash = 0; crash < CRASHES; crash++) {
+            int victim = random.nextInt(USERS);
+            killProcessOf(sessions.get(victim));
+            recoveryMs.add(deposit(sessions.get(victim), ++balances[victim]));
+            for (int i = 0; i < USERS; i++) {
+                normalMs.add(deposit(sessions.get(i), ++balances[i]));
+            }
+        }
+
+        // Then
+        Collections.sort(normalMs);
+        Collections.sort(recoveryMs);
+        System.out.printf("Deposit on a live process: median %d ms, max %d ms%n",
+                normalMs.get(normalMs.size() / 2), normalMs.get(normalMs.size() - 1));
+        System.out.printf("Deposit after a crash: median %d ms, max %d ms over %d crashes%n",
+                recoveryMs.get(recoveryMs.size() / 2), recoveryMs.get(recoveryMs.size() - 1), CRASHES);
+        assertThat(processSessionManager.getResumeCount() - resumesBefore).isEqualTo(CRASHES);
+        assertThat(recoveryMs.get(recoveryMs.size() - 1)).isLessThan(15000);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.banking.api.integration;
+
+import com.example.banking.api.domain.model.UserSession;
+import com.example.banking.api.dto.LoginRequest;
+import com.example.banking.api.dto.RegisterRequest;
+import com.example.banking.api.dto.SessionTransactionRequest;
+import com.example.banking.api.service.process.ProcessRecycler;
+import com.example.banking.api.service.session.SessionManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs bursts of deposits against a process recycled every few operations and checks that
+ * none of them fails and the balance carries over from each process to its successor.
+ */
+@SpringBootTest(properties = "banking.session.recycle.max-operations=5")
+class ProcessRecyclingTest {
+
+    private static final int BURSTS = 10;
+    private static final int BURST_SIZE = 3;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    @Autowired
+    private ProcessRecycler recycler;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        File dataFile = new File("banking_data.ser");
+        if (dataFile.exists()) {
+            dataFile.delete();
+        }
+    }
+
+    private MockHttpSession login(String username, String password) throws Exception {
+        mockMvc.perform(post("/api/v1/banking/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RegisterRequest(username, password))))
+                .andExpect(status().isCreated());
+        MvcResult result = mockMvc.perform(post("/api/v1/banking/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest(username, password))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return (MockHttpSession) result.getRequest().getSession();
+    }
+
+    @Test
+    void testDepositsNeverFailWhileProcessIsRecycled() throws Exception {
+        // Given
+        MockHttpSession session = login("recycleuser", "password123");
+        UserSession userSession = sessionManager.getSession(session.getId()).orElseThrow();
+        long recyclesBefore = recycler.getRecycleCount(ProcessRecycler.Reason.OPERATIONS);
+        Set<Long> pids = new HashSet<>();
+        double total = 0;
+
+        // When - every burst is queued on the mailbox at once, whichever process it ends up on
+        for (int burst = 0; burst < BURSTS; burst++) {
+            pids.add(userSession.getBankingProcess().pid());
+            List<MvcResult> started = new ArrayList<>();
+            for (int i = 0; i < BURST_SIZE; i++) {
+                started.add(mockMvc.perform(post("/api/v1/banking/deposit")
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SessionTransactionRequest(1.0))))
+                        .andExpect(request().asyncStarted())
+                        .andReturn());
+            }
+            total += BURST_SIZE;
+            double highest = 0;
+            for (MvcResult result : started) {
+                MvcResult completed = mockMvc.perform(asyncDispatch(result))
+                        .andExpect(status().isOk())
+                        .andReturn();
+                double newBalance = objectMapper.readTree(completed.getResponse().getContentAsString())
+                        .get("newBalance").asDouble();
+                highest = Math.max(highest, newBalance);
+            }
+            // The deposits ran one at a time, so the last of them reports the total
+            assertThat(highest).isEqualTo(total);
+        }
+
+        // Then
+        MvcResult balance = mockMvc.perform(get("/api/v1/banking/balance").session(session))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(balance))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(total));
+        long recycled = recycler.getRecycleCount(ProcessRecycler.Reason.OPERATIONS) - recyclesBefore;
+        System.out.printf("%d deposits, %d recycles, %d processes seen%n", BURSTS * BURST_SIZE, recycled, pids.size());
+        assertThat(recycled).isGreaterThanOrEqualTo(2);
+        assertThat(pids.size()).isGreaterThanOrEqualTo(2);
+    }
+}
@@ -12,6 +12,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebM
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
@@ -45,6 +47,16 @@ public class SessionDebugTest {
         }
     }
 
+    /**
+     * Performs a request to an endpoint that completes asynchronously and dispatches its result.
+     */
+    private ResultActions performAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
     @Test
     @DisplayName("Should handle session-based authentication correctly")
     public void shouldHandleSessionAuthentication() throws Exception {
@@ -73,7 +85,7 @@ public class SessionDebugTest {
                 .andExpect(status().isUnauthorized());
 
         // 4. Test with session - should work properly
-        mockMvc.perform(get("/api/v1/banking/balance")
+        performAsync(get("/api/v1/banking/balance")
                 .session(session))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.username").value(username))
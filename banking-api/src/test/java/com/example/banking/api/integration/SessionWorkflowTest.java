@@ -2,6 +2,8 @@ package com.example.banking.api.integration;
 
 import com.example.banking.api.dto.LoginRequest;
 import com.example.banking.api.dto.RegisterRequest;
+import com.example.banking.api.dto.SessionTransactionRequest;
+import com.example.banking.api.dto.TransferRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebM
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
@@ -42,6 +46,16 @@ public class SessionWorkflowTest {
         }
     }
 
+    /**
+     * Performs a request to an endpoint that completes asynchronously and dispatches its result.
+     */
+    private ResultActions performAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
     @Test
     public void testSessionWorkflow() throws Exception {
         String username = "sessiontestuser";
@@ -69,9 +83,56 @@ public class SessionWorkflowTest {
         System.out.println("Session ID from login: " + session.getId());
 
         // 3. Test balance endpoint with session
-        mockMvc.perform(get("/api/v1/banking/balance")
+        performAsync(get("/api/v1/banking/balance")
                 .session(session))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.username").value(username));
     }
-}
\ No newline at end of file
+
+    private MockHttpSession registerAndLogin(String username, String password) throws Exception {
+        mockMvc.perform(post("/api/v1/banking/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RegisterRequest(username, password))))
+                .andExpect(status().isCreated());
+        MvcResult loginResult = mockMvc.perform(post("/api/v1/banking/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest(username, password))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return (MockHttpSession) loginResult.getRequest().getSession();
+    }
+
+    @Test
+    public void testTransferCreditSurvivesRecipientsNextDeposit() throws Exception {
+        // Both users are logged in, so each has a live process holding their account
+        MockHttpSession sender = registerAndLogin("transfersender", "password123");
+        MockHttpSession recipient = registerAndLogin("transferrecipient", "password123");
+        performAsync(post("/api/v1/banking/deposit")
+                .session(sender)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new SessionTransactionRequest(100.0))))
+                .andExpect(status().isOk());
+        performAsync(get("/api/v1/banking/balance").session(recipient))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(0.0));
+
+        // The sender's process credits the recipient
+        performAsync(post("/api/v1/banking/transfer")
+                .session(sender)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TransferRequest("transferrecipient", 40.0))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.newBalance").value(60.0));
+
+        // The recipient's own process sees the credit, and its next deposit keeps it
+        performAsync(get("/api/v1/banking/balance").session(recipient))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(40.0));
+        performAsync(post("/api/v1/banking/deposit")
+                .session(recipient)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new SessionTransactionRequest(10.0))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.newBalance").value(50.0));
+    }
+}
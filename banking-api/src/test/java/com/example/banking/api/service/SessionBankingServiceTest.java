@@ -0,0 +1,207 @@
+package com.example.banking.api.service;
+
+import com.example.banking.api.domain.model.UserSession;
+import com.example.banking.api.model.BankingTransaction;
+import com.example.banking.api.model.BankingUser;
+import com.example.banking.api.model.BatchItemResult;
+import com.example.banking.api.service.process.ProcessCommunication;
+import com.example.banking.api.service.process.ProcessExecutionException;
+import com.example.banking.api.service.process.OutputEvent;
+import com.example.banking.api.service.process.ProcessOperation;
+import com.example.banking.api.service.process.ProcessOutputTokenizer;
+import com.example.banking.api.service.process.ProcessSessionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SessionBankingServiceTest {
+
+    private static final String MENU = "\nWelcome to Simple Banking App - Logged in as: alice\nPlease choose an option: ";
+
+    @Mock
+    private ProcessSessionManager processSessionManager;
+
+    @Mock
+    private ProcessCommunication communication;
+
+    private SessionBankingService service;
+    private UserSession session;
+
+    @BeforeEach
+    void setUp() {
+        service = new SessionBankingService(processSessionManager);
+        session = new UserSession("session-1", "alice");
+        // Run every operation against the scripted process
+        lenient().when(processSessionManager.executeForSessionAsync(eq(session), any())).thenAnswer(invocation -> {
+            ProcessOperation<?> operation = invocation.getArgument(1);
+            return CompletableFuture.completedFuture(operation.execute(communication));
+        });
+    }
+
+    @Test
+    void testAuthenticate_SeedsMirrorFromLoginOutput() throws Exception {
+        // Given
+        when(processSessionManager.authenticateForSession(eq(session), any())).thenAnswer(invocation -> {
+            ProcessOperation<?> operation = invocation.getArgument(1);
+            return operation.execute(communication);
+        });
+        when(communication.waitForInitialMenu()).thenReturn("1. Login\n2. Register\n3. Exit\nChoose an option: ");
+        String loginOutput = "Welcome, alice!\nCurrent Balance: $120.0\n" + MENU;
+        when(communication.authenticateUser("alice", "secret")).thenReturn(loginOutput);
+        when(communication.isAuthenticationSuccessful(loginOutput, "alice")).thenReturn(true);
+
+        // When
+        BankingUser user = service.authenticateAndStartSession(session, "secret");
+
+        // Then
+        assertThat(user.getBalance()).isEqualTo(120.0);
+        assertThat(service.getBalance(session)).isEqualTo(120.0);
+        verify(processSessionManager, never()).executeForSessionAsync(eq(session), any());
+        assertThat(service.getMirrorHitRatio()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testDeposit_WritesReportedBalanceThrough() throws Exception {
+        // Given
+        when(communication.readOutput(anyLong())).thenReturn(
+                "Enter amount to deposit: ",
+                "Successfully deposited $50.0\nCurrent Balance: $150.0\n" + MENU);
+
+        // When
+        boolean success = service.deposit(session, 50.0);
+
+        // Then
+        assertThat(success).isTrue();
+        assertThat(session.getAccountMirror().getBalance()).isEqualTo(150.0);
+        assertThat(service.getBalance(session)).isEqualTo(150.0);
+    }
+
+    @Test
+    void testTransfer_InvalidatesRecipientsMirror() throws Exception {
+        // Given
+        when(communication.readOutput(anyLong())).thenReturn(
+                "Recipient username: ",
+                "Enter amount to transfer: ",
+                "Successfully transferred $30.0 to bob\nCurrent Balance: $70.0\n" + MENU);
+
+        // When
+        boolean success = service.transfer(session, "bob", 30.0);
+
+        // Then
+        assertThat(success).isTrue();
+        assertThat(session.getAccountMirror().getBalance()).isEqualTo(70.0);
+        verify(processSessionManager).invalidateAccountMirror("bob");
+    }
+
+    @Test
+    void testExecuteBatch_UnansweredItemInvalidatesMirror() throws Exception {
+        // Given - the process answers the first deposit and then falls silent
+        session.getAccountMirror().recordBalance(100.0);
+        when(communication.streamOutput(any(), any(), anyLong())).thenAnswer(invocation -> {
+            Consumer<OutputEvent> sink = invocation.getArgument(0);
+            ProcessOutputTokenizer.tokenize("Enter amount to deposit: Successfully deposited $10.0\nCurrent Balance: $110.0\n" + MENU)
+                    .forEach(sink);
+            return false;
+        });
+        List<BankingTransaction> items = List.of(
+                new BankingTransaction("Deposit", 10.0, null),
+                new BankingTransaction("Deposit", 20.0, null));
+
+        // When
+        List<BatchItemResult> results = service.executeBatch(session, items);
+
+        // Then - the second deposit may still land, so $110.0 is not the balance to cache
+        assertThat(results.get(1).isOutcomeUnknown()).isTrue();
+        assertThat(session.getAccountMirror().getBalance()).isNull();
+    }
+
+    @Test
+    void testBridgeError_InvalidatesMirror() {
+        // Given
+        session.getAccountMirror().recordBalance(99.0);
+        when(processSessionManager.executeForSessionAsync(eq(session), any()))
+                .thenReturn(CompletableFuture.failedFuture(new ProcessExecutionException("process died", new RuntimeException())));
+
+        // When / Then
+        assertThatThrownBy(() -> service.deposit(session, 10.0)).isInstanceOf(RuntimeException.class);
+        assertThat(session.getAccountMirror().getBalance()).isNull();
+    }
+
+    @Test
+    void testGetBalance_ConcurrentMissesShareOneProcessRead() throws Exception {
+        // Given - the first read blocks inside the process until released
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(processSessionManager.executeForSessionAsync(eq(session), any())).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return CompletableFuture.completedFuture(80.0);
+        });
+
+        // When
+        CompletableFuture<Double> leader = CompletableFuture.supplyAsync(() -> service.getBalance(session));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Double> follower = CompletableFuture.supplyAsync(() -> service.getBalance(session));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.getCoalescedReads() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // Then
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(80.0);
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(80.0);
+        verify(processSessionManager, times(1)).executeForSessionAsync(eq(session), any());
+        assertThat(service.getReadCoalesceRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void testDepositAsync_ReturnsWhileProcessIsStillWorking() throws Exception {
+        // Given
+        CompletableFuture<Boolean> pending = new CompletableFuture<>();
+        when(processSessionManager.<Boolean>executeForSessionAsync(eq(session), any())).thenReturn(pending);
+
+        // When
+        CompletableFuture<Boolean> deposit = service.depositAsync(session, 25.0);
+
+        // Then
+        assertThat(deposit).isNotDone();
+        pending.complete(true);
+        assertThat(deposit.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testGetBalanceAsync_DeadlineFailsFutureAndInvalidatesMirror() {
+        // Given
+        when(processSessionManager.executeForSessionAsync(eq(session), any()))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException()));
+
+        // When
+        CompletableFuture<Double> balance = service.getBalanceAsync(session);
+
+        // Then
+        assertThatThrownBy(balance::join).hasRootCauseInstanceOf(TimeoutException.class);
+        assertThat(session.getAccountMirror().getBalance()).isNull();
+    }
+}
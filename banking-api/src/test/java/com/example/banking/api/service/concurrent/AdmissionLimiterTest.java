@@ -0,0 +1,80 @@
+package com.example.banking.api.service.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionLimiterTest {
+
+    @Test
+    void testAdmitAsync_QueuesBeyondLimitAndHandsOverOnRelease() throws Exception {
+        // Given
+        AdmissionLimiter limiter = new AdmissionLimiter("test", 1, 2, 5000);
+        limiter.admit();
+
+        // When
+        CompletableFuture<Void> first = limiter.admitAsync();
+        CompletableFuture<Void> second = limiter.admitAsync();
+
+        // Then - waiters are served in arrival order, one per released permit
+        assertThat(first).isNotDone();
+        assertThat(limiter.getQueued()).isEqualTo(2);
+        limiter.release();
+        first.get(1, TimeUnit.SECONDS);
+        assertThat(second).isNotDone();
+        assertThat(limiter.getInUse()).isEqualTo(1);
+        assertThat(limiter.getAdmitted()).isEqualTo(2);
+        assertThat(limiter.getQueueNanos()).isPositive();
+    }
+
+    @Test
+    void testAdmitAsync_ShedsWhenQueueIsFull() {
+        // Given
+        AdmissionLimiter limiter = new AdmissionLimiter("spawn", 1, 0, 3000);
+        limiter.admit();
+
+        // When
+        CompletableFuture<Void> shed = limiter.admitAsync();
+
+        // Then
+        assertThatThrownBy(shed::join)
+                .hasCauseInstanceOf(ServiceOverloadedException.class)
+                .satisfies(e -> assertThat(((ServiceOverloadedException) e.getCause()).getRetryAfterSeconds()).isEqualTo(3));
+        assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void testAdmit_ShedsWhenWaitRunsOut() {
+        // Given
+        AdmissionLimiter limiter = new AdmissionLimiter("operation", 1, 4, 50);
+        limiter.admit();
+
+        // When & Then
+        assertThatThrownBy(limiter::admit).isInstanceOf(ServiceOverloadedException.class);
+        assertThat(limiter.getQueued()).isZero();
+
+        // A permit released after the waiter gave up is simply returned
+        limiter.release();
+        assertThat(limiter.getInUse()).isZero();
+    }
+
+    @Test
+    void testSubmit_ReleasesPermitWhenWorkCompletes() throws Exception {
+        // Given
+        AdmissionLimiter limiter = new AdmissionLimiter("operation", 1, 0, 1000);
+        CompletableFuture<String> work = new CompletableFuture<>();
+
+        // When
+        CompletableFuture<String> result = limiter.submit(() -> work);
+
+        // Then
+        assertThat(limiter.getInUse()).isEqualTo(1);
+        work.completeExceptionally(new IllegalStateException("process died"));
+        assertThatThrownBy(() -> result.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(limiter.getInUse()).isZero();
+    }
+}
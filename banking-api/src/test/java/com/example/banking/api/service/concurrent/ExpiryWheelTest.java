@@ -0,0 +1,96 @@
+package com.example.banking.api.service.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiryWheelTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private void advanceClock(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    void testAdvance_ReturnsOnlyKeysThatAreDue() {
+        // Given
+        ExpiryWheel<String> wheel = new ExpiryWheel<>(100, 8, now::get);
+        wheel.schedule("short", 250);
+        wheel.schedule("long", 5000);
+
+        // When & Then - deadlines round up to the next tick, never down
+        advanceClock(200);
+        assertThat(wheel.advance()).isEmpty();
+        advanceClock(100);
+        assertThat(wheel.advance()).containsExactly("short");
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testAdvance_FiresDeadlinesSeveralRevolutionsAway() {
+        // Given - 8 slots of 100ms cover 800ms per revolution
+        ExpiryWheel<String> wheel = new ExpiryWheel<>(100, 8, now::get);
+        wheel.schedule("session", 2000);
+
+        // When & Then
+        for (int i = 0; i < 19; i++) {
+            advanceClock(100);
+            assertThat(wheel.advance()).isEmpty();
+        }
+        advanceClock(100);
+        assertThat(wheel.advance()).containsExactly("session");
+    }
+
+    @Test
+    void testSchedule_MovesAnExistingDeadline() {
+        // Given
+        ExpiryWheel<String> wheel = new ExpiryWheel<>(100, 8, now::get);
+        wheel.schedule("session", 100);
+
+        // When
+        wheel.schedule("session", 500);
+        advanceClock(300);
+
+        // Then
+        assertThat(wheel.advance()).isEmpty();
+        advanceClock(200);
+        assertThat(wheel.advance()).containsExactly("session");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void testCancel_RemovesPendingDeadline() {
+        // Given
+        ExpiryWheel<String> wheel = new ExpiryWheel<>(100, 8, now::get);
+        wheel.schedule("session", 100);
+
+        // When
+        boolean cancelled = wheel.cancel("session");
+        advanceClock(1000);
+
+        // Then
+        assertThat(cancelled).isTrue();
+        assertThat(wheel.cancel("session")).isFalse();
+        assertThat(wheel.advance()).isEmpty();
+    }
+
+    @Test
+    void testAdvance_CatchesUpAfterStallLongerThanRevolution() {
+        // Given
+        ExpiryWheel<Integer> wheel = new ExpiryWheel<>(100, 8, now::get);
+        for (int key = 0; key < 20; key++) {
+            wheel.schedule(key, 100L * key);
+        }
+
+        // When - one call after ten seconds of no ticks
+        advanceClock(10_000);
+
+        // Then
+        assertThat(wheel.advance()).hasSize(20);
+        assertThat(wheel.size()).isZero();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.banking.api.service.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    @Test
+    void testExecute_ConcurrentCallersShareOneExecution() throws Exception {
+        // Given
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 6;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+
+        // When
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(pool.submit(() -> singleFlight.execute("key", () -> {
+                release.await(5, TimeUnit.SECONDS);
+                return loads.incrementAndGet();
+            })));
+        }
+        waitFor(() -> singleFlight.getCoalesced() == callers - 1);
+        release.countDown();
+
+        // Then
+        for (Future<Integer> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(singleFlight.getExecutions()).isEqualTo(1);
+        assertThat(singleFlight.getInFlight()).isZero();
+        pool.shutdown();
+    }
+
+    @Test
+    void testExecute_ReleasesKeyAfterCompletion() throws Exception {
+        // Given
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        singleFlight.execute("key", loads::incrementAndGet);
+        int second = singleFlight.execute("key", loads::incrementAndGet);
+
+        // Then
+        assertThat(second).isEqualTo(2);
+        assertThat(singleFlight.getCoalesced()).isZero();
+    }
+
+    @Test
+    void testExecute_PropagatesFailureAndDoesNotRememberIt() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        // When & Then
+        assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+            throw new IOException("spawn failed");
+        })).isInstanceOf(IOException.class).hasMessage("spawn failed");
+        assertThat(singleFlight.execute("key", () -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    void testExecuteAsync_JoinsPendingLoadWithoutBlocking() throws Exception {
+        // Given
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        CompletableFuture<Integer> first = singleFlight.executeAsync("key", () -> {
+            loads.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<Integer> second = singleFlight.executeAsync("key", () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(-1);
+        });
+        second.cancel(false);
+        pending.complete(7);
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(7);
+        assertThat(second.isCancelled()).isTrue();
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(singleFlight.getCoalesced()).isEqualTo(1);
+        assertThat(singleFlight.getInFlight()).isZero();
+    }
+
+    @Test
+    void testExecuteAsync_FailedLoadIsNotRemembered() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        // When
+        CompletableFuture<String> failed = singleFlight.executeAsync("key",
+                () -> CompletableFuture.failedFuture(new IOException("read failed")));
+
+        // Then
+        assertThatThrownBy(failed::join).hasCauseInstanceOf(IOException.class);
+        assertThat(singleFlight.executeAsync("key", () -> CompletableFuture.completedFuture("recovered")).join())
+                .isEqualTo("recovered");
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
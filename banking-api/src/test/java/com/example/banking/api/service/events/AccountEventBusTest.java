@@ -0,0 +1,119 @@
+package com.example.banking.api.service.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountEventBusTest {
+
+    private AccountEventBus bus = new AccountEventBus(100);
+
+    @AfterEach
+    void tearDown() {
+        bus.shutdown();
+    }
+
+    @Test
+    void testPublish_DeliversInOrderToSubscribersOfThatUserOnly() throws Exception {
+        // Given
+        List<AccountEvent> alice = new CopyOnWriteArrayList<>();
+        List<AccountEvent> bob = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(2);
+        bus.subscribe("alice", event -> {
+            alice.add(event);
+            delivered.countDown();
+        });
+        bus.subscribe("bob", bob::add);
+
+        // When
+        bus.publish(AccountEvent.transaction("alice", "Deposit", 100.0, LocalDateTime.now(), 150.0));
+        bus.publish(AccountEvent.balance("alice", 150.0));
+
+        // Then
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(alice).extracting(AccountEvent::getKind)
+                .containsExactly(AccountEvent.Kind.TRANSACTION, AccountEvent.Kind.BALANCE);
+        assertThat(bob).isEmpty();
+    }
+
+    @Test
+    void testSubscription_CloseStopsDeliveryAndIsIdempotent() throws Exception {
+        // Given
+        List<AccountEvent> received = new CopyOnWriteArrayList<>();
+        AccountEventBus.Subscription subscription = bus.subscribe("alice", received::add);
+        assertThat(bus.getSubscriberCount()).isEqualTo(1);
+
+        // When
+        subscription.close();
+        subscription.close();
+        bus.publish(AccountEvent.balance("alice", 10.0));
+        flushDispatcher();
+
+        // Then
+        assertThat(received).isEmpty();
+        assertThat(bus.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void testPublish_FailingListenerDoesNotStopOthers() throws Exception {
+        // Given
+        List<AccountEvent> received = new CopyOnWriteArrayList<>();
+        bus.subscribe("alice", event -> {
+            throw new IllegalStateException("client gone");
+        });
+        bus.subscribe("alice", received::add);
+
+        // When
+        bus.publish(AccountEvent.balance("alice", 10.0));
+        flushDispatcher();
+
+        // Then
+        assertThat(received).hasSize(1);
+    }
+
+    @Test
+    void testPublish_DropsWhenDispatcherQueueIsFull() throws Exception {
+        // Given
+        bus.shutdown();
+        bus = new AccountEventBus(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        bus.subscribe("alice", event -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        bus.publish(AccountEvent.balance("alice", 1.0));
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        bus.publish(AccountEvent.balance("alice", 2.0)); // queued
+        bus.publish(AccountEvent.balance("alice", 3.0)); // queue full
+
+        // Then
+        assertThat(bus.getDropped()).isEqualTo(1);
+        release.countDown();
+    }
+
+    /**
+     * Waits until everything published so far has been dispatched, using the
+     * single dispatcher thread's ordering.
+     */
+    private void flushDispatcher() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        AccountEventBus.Subscription marker = bus.subscribe("flush", event -> flushed.countDown());
+        bus.publish(AccountEvent.balance("flush", 0.0));
+        assertThat(flushed.await(5, TimeUnit.SECONDS)).isTrue();
+        marker.close();
+    }
+}
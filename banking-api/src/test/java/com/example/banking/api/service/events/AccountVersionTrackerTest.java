@@ -0,0 +1,45 @@
+package com.example.banking.api.service.events;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountVersionTrackerTest {
+
+    private final AccountVersionTracker tracker = new AccountVersionTracker();
+
+    @Test
+    void testEtag_ChangesOnlyForTheBumpedUser() {
+        // Given
+        String alice = tracker.etag("alice");
+        String bob = tracker.etag("bob");
+
+        // When
+        tracker.bump("alice");
+
+        // Then
+        assertThat(tracker.etag("alice")).isNotEqualTo(alice);
+        assertThat(tracker.etag("bob")).isEqualTo(bob);
+        assertThat(tracker.getVersion("alice")).isEqualTo(1);
+    }
+
+    @Test
+    void testIsNotModified_HeaderForms() {
+        // Given
+        String etag = tracker.etag("alice");
+
+        // Then
+        assertThat(tracker.isNotModified(null, etag)).isFalse();
+        assertThat(tracker.isNotModified(etag, etag)).isTrue();
+        assertThat(tracker.isNotModified("W/" + etag, etag)).isTrue();
+        assertThat(tracker.isNotModified("\"other\", " + etag, etag)).isTrue();
+        assertThat(tracker.isNotModified("*", etag)).isTrue();
+        assertThat(tracker.isNotModified("\"other\"", etag)).isFalse();
+    }
+
+    @Test
+    void testEtag_DiffersBetweenInstances() {
+        // Then: tags from before a restart must not validate afterwards
+        assertThat(new AccountVersionTracker().etag("alice")).isNotEqualTo(tracker.etag("alice"));
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.banking.api.service.idempotency;
+
+import com.example.banking.api.service.concurrent.ServiceOverloadedException;
+import com.example.banking.api.service.process.ProcessCreationException;
+import com.example.banking.api.service.process.ProcessExecutionException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyCacheTest {
+
+    @Test
+    void testExecute_ReplaysStoredResponseWithoutRunningActionAgain() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(60_000, 100);
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        ResponseEntity<String> first = cache.execute("alice", "key-1", "deposit:10.0",
+                () -> ResponseEntity.ok("applied-" + calls.incrementAndGet()));
+        ResponseEntity<String> retry = cache.execute("alice", "key-1", "deposit:10.0",
+                () -> ResponseEntity.ok("applied-" + calls.incrementAndGet()));
+
+        // Then
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(retry.getBody()).isEqualTo(first.getBody());
+        assertThat(retry.getHeaders().getFirst(IdempotencyCache.REPLAY_HEADER)).isEqualTo("true");
+        assertThat(first.getHeaders().containsKey(IdempotencyCache.REPLAY_HEADER)).isFalse();
+    }
+
+    @Test
+    void testExecute_ScopesKeysPerUser() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(60_000, 100);
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        cache.execute("alice", "shared", "deposit:10.0", () -> ResponseEntity.ok(calls.incrementAndGet()));
+        cache.execute("bob", "shared", "deposit:10.0", () -> ResponseEntity.ok(calls.incrementAndGet()));
+
+        // Then
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testExecute_RejectsKeyReuseForDifferentRequest() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(60_000, 100);
+        cache.execute("alice", "key-1", "deposit:10.0", () -> ResponseEntity.ok("done"));
+
+        // When & Then
+        assertThatThrownBy(() -> cache.execute("alice", "key-1", "withdraw:10.0", () -> ResponseEntity.ok("again")))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+    }
+
+    @Test
+    void testExecute_PinsKeyWhenOutcomeIsUnknown() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(60_000, 100);
+        AtomicInteger calls = new AtomicInteger();
+
+        // When - the process may have applied the deposit before the bridge gave up
+        assertThatThrownBy(() -> cache.execute("alice", "key-1", "deposit:10.0", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("bridge timed out");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThatThrownBy(() -> cache.execute("alice", "key-1", "deposit:10.0", () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.ok("applied");
+        })).isInstanceOf(IdempotencyOutcomeUnknownException.class);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testExecute_ReleasesKeyOfShedRequest() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(60_000, 100);
+
+        // When
+        assertThatThrownBy(() -> cache.execute("alice", "key-1", "deposit:10.0", () -> {
+            throw new ServiceOverloadedException("Session operations capacity exhausted: queue full", 1);
+        })).isInstanceOf(ServiceOverloadedException.class);
+        ResponseEntity<String> retry = cache.execute("alice", "key-1", "deposit:10.0", () -> ResponseEntity.ok("applied"));
+
+        // Then
+        assertThat(retry.getBody()).isEqualTo("applied");
+        assertThat(retry.getHeaders().containsKey(IdempotencyCache.REPLAY_HEADER)).isFalse();
+    }
+
+    @Test
+    void testExecute_ReleasesKeyOfRequestThatNeverReachedProcess() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(60_000, 100);
+
+        // When - rejected by a full mailbox, then failed the way the session manager reports a failed spawn
+        assertThatThrownBy(() -> cache.execute("alice", "key-1", "deposit:10.0", () -> {
+            throw new RejectedExecutionException("Process mailbox alice is full");
+        })).isInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(() -> cache.execute("alice", "key-2", "deposit:10.0", () -> {
+            throw new ProcessExecutionException("Failed to create process for session",
+                    new ProcessCreationException("Banking process exited as soon as it started"));
+        })).isInstanceOf(ProcessExecutionException.class);
+
+        // Then
+        assertThat(cache.execute("alice", "key-1", "deposit:10.0", () -> ResponseEntity.ok("applied")).getBody())
+                .isEqualTo("applied");
+        assertThat(cache.execute("alice", "key-2", "deposit:10.0", () -> ResponseEntity.ok("applied")).getBody())
+                .isEqualTo("applied");
+    }
+
+    @Test
+    void testExecute_StoresErrorResponses() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(60_000, 100);
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        cache.execute("alice", "key-1", "withdraw:500.0", () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        });
+        ResponseEntity<Object> retry = cache.execute("alice", "key-1", "withdraw:500.0", () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.ok().build();
+        });
+
+        // Then
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void testExecute_CoalescesConcurrentDuplicates() throws Exception {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(60_000, 100);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<Integer>> first = CompletableFuture.supplyAsync(() ->
+                cache.execute("alice", "key-1", "deposit:10.0", () -> {
+                    started.countDown();
+                    await(release);
+                    return ResponseEntity.ok(calls.incrementAndGet());
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        CompletableFuture<ResponseEntity<Integer>> duplicate = CompletableFuture.supplyAsync(() ->
+                cache.execute("alice", "key-1", "deposit:10.0", () -> ResponseEntity.ok(calls.incrementAndGet())));
+        release.countDown();
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS).getBody()).isEqualTo(1);
+        assertThat(duplicate.get(5, TimeUnit.SECONDS).getBody()).isEqualTo(1);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testExecute_EvictsExpiredAndOverflowingEntries() throws Exception {
+        // Given
+        IdempotencyCache shortLived = new IdempotencyCache(1, 100);
+        IdempotencyCache small = new IdempotencyCache(60_000, 2);
+
+        // When
+        shortLived.execute("alice", "key-1", "deposit:10.0", () -> ResponseEntity.ok("one"));
+        Thread.sleep(5);
+        ResponseEntity<String> afterExpiry = shortLived.execute("alice", "key-1", "deposit:10.0", () -> ResponseEntity.ok("two"));
+        for (int i = 0; i < 5; i++) {
+            small.execute("alice", "key-" + i, "deposit:1.0", () -> ResponseEntity.ok("ok"));
+        }
+
+        // Then
+        assertThat(afterExpiry.getBody()).isEqualTo("two");
+        assertThat(small.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testExecuteAsync_NeverEvictsInFlightEntries() {
+        // Given - the oldest entry is still running when the cache overflows
+        IdempotencyCache cache = new IdempotencyCache(60_000, 2);
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<ResponseEntity<String>> running = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<String>> first = cache.executeAsync("alice", "key-0", "deposit:1.0", () -> {
+            calls.incrementAndGet();
+            return running;
+        });
+
+        // When
+        for (int i = 1; i <= 4; i++) {
+            cache.execute("alice", "key-" + i, "deposit:1.0", () -> ResponseEntity.ok("ok"));
+        }
+        CompletableFuture<ResponseEntity<String>> retry = cache.executeAsync("alice", "key-0", "deposit:1.0", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(ResponseEntity.ok("again"));
+        });
+        running.complete(ResponseEntity.ok("once"));
+
+        // Then
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(first.join().getBody()).isEqualTo("once");
+        assertThat(retry.join().getBody()).isEqualTo("once");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testExecute_RejectsOverlongKey() {
+        IdempotencyCache cache = new IdempotencyCache(60_000, 100);
+
+        assertThatThrownBy(() -> cache.execute("alice", "x".repeat(256), "deposit:1.0", () -> ResponseEntity.ok("ok")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -9,6 +9,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -58,9 +60,9 @@ class ManagedProcessTest {
         LocalDateTime initialLastAccessed = managedProcess.getLastAccessedAt();
         long initialLastAccessedTime = managedProcess.getLastAccessedTime();
 
-        // Wait a bit to ensure timestamp difference
+        // Wait past the clock's resolution to ensure a timestamp difference
         try {
-            Thread.sleep(10);
+            Thread.sleep(50);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
@@ -170,7 +172,7 @@ class ManagedProcessTest {
     void testTerminate_HealthyProcess() throws Exception {
         // Given
         when(process.isAlive()).thenReturn(true);
-        when(process.waitFor(5, java.util.concurrent.TimeUnit.SECONDS)).thenReturn(true);
+        when(process.onExit()).thenReturn(CompletableFuture.completedFuture(process));
 
         // When
         managedProcess.terminate();
@@ -180,64 +182,73 @@ class ManagedProcessTest {
         verify(writer).close();
         verify(reader).close();
         verify(process).destroy();
-        verify(process).waitFor(5, java.util.concurrent.TimeUnit.SECONDS);
+        verify(process, never()).destroyForcibly();
     }
 
     @Test
-    void testTerminate_ForceTermination() throws Exception {
+    void testTerminateAsync_ForcesTerminationAfterGracePeriod() throws Exception {
         // Given
+        CompletableFuture<Process> exit = new CompletableFuture<>();
         when(process.isAlive()).thenReturn(true);
-        when(process.waitFor(5, java.util.concurrent.TimeUnit.SECONDS)).thenReturn(false);
+        when(process.onExit()).thenReturn(exit);
+        when(process.destroyForcibly()).thenAnswer(invocation -> {
+            exit.complete(process);
+            return process;
+        });
 
         // When
-        managedProcess.terminate();
+        CompletableFuture<Void> termination = managedProcess.terminateAsync(50);
 
         // Then
+        termination.get(5, TimeUnit.SECONDS);
         assertFalse(managedProcess.isHealthy());
         verify(process).destroy();
-        verify(process).waitFor(5, java.util.concurrent.TimeUnit.SECONDS);
         verify(process).destroyForcibly();
     }
 
     @Test
-    void testTerminate_AlreadyTerminated() throws Exception {
+    void testTerminateAsync_DoesNotWaitForProcessToExit() {
         // Given
-        managedProcess.terminate();
+        when(process.isAlive()).thenReturn(true);
+        when(process.onExit()).thenReturn(new CompletableFuture<>());
 
         // When
-        managedProcess.terminate(); // Call again
+        CompletableFuture<Void> termination = managedProcess.terminateAsync();
 
-        // Then
+        // Then - the caller gets control back while the process is still exiting
+        assertFalse(termination.isDone());
         assertFalse(managedProcess.isHealthy());
-        // Should not throw exception or cause issues
+        verify(process).destroy();
+        verify(process, never()).destroyForcibly();
     }
 
     @Test
-    void testTerminate_WithIOException() throws Exception {
+    void testTerminate_AlreadyTerminated() throws Exception {
         // Given
-        when(process.isAlive()).thenReturn(true);
-        doThrow(new java.io.IOException("Test exception")).when(writer).close();
+        managedProcess.terminate();
 
         // When
-        managedProcess.terminate(); // Should not throw exception
+        CompletableFuture<Void> again = managedProcess.terminateAsync(); // Call again
 
         // Then
+        assertTrue(again.isDone());
         assertFalse(managedProcess.isHealthy());
+        verify(writer, times(1)).close();
     }
 
     @Test
-    void testTerminate_WithInterruptedException() throws Exception {
+    void testTerminate_WithIOException() throws Exception {
         // Given
         when(process.isAlive()).thenReturn(true);
-        when(process.waitFor(5, java.util.concurrent.TimeUnit.SECONDS))
-            .thenThrow(new InterruptedException("Test interruption"));
+        when(process.onExit()).thenReturn(CompletableFuture.completedFuture(process));
+        doThrow(new java.io.IOException("Test exception")).when(writer).close();
 
         // When
-        managedProcess.terminate();
+        managedProcess.terminate(); // Should not throw exception
 
         // Then
         assertFalse(managedProcess.isHealthy());
-        verify(process).destroyForcibly();
+        verify(process).destroy();
     }
 
     @Test
@@ -0,0 +1,57 @@
+package com.example.banking.api.service.process;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessCommunicationTest {
+
+    private final ProcessExecutor executor = new ProcessExecutor(null, null);
+
+    @Test
+    void testStreamOutput_StopsAtTerminatingEventAcrossChunks() throws Exception {
+        // Given a listing longer than one read chunk
+        StringBuilder output = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            output.append("[2024-03-01 09:15:02] Deposit: $1.00\n");
+        }
+        output.append("Current Balance: $500.0\nPlease choose an option: ");
+        ProcessCommunication communication = communicationFor(output.toString());
+        List<OutputEvent> transactions = new ArrayList<>();
+
+        // When
+        boolean complete = communication.streamOutput(event -> {
+            if (event.is(OutputEvent.Type.TRANSACTION)) {
+                transactions.add(event);
+            }
+        }, event -> event.is(OutputEvent.Type.PROMPT), 1000);
+
+        // Then
+        assertThat(complete).isTrue();
+        assertThat(transactions).hasSize(500);
+    }
+
+    @Test
+    void testStreamOutput_GivesUpWhenOutputGoesIdle() throws Exception {
+        // Given output that never reaches the prompt
+        ProcessCommunication communication = communicationFor("[2024-03-01 09:15:02] Deposit: $1.00\n");
+
+        // When
+        boolean complete = communication.streamOutput(event -> { }, event -> event.is(OutputEvent.Type.PROMPT), 50);
+
+        // Then
+        assertThat(complete).isFalse();
+    }
+
+    private ProcessCommunication communicationFor(String output) {
+        return new ProcessCommunication(new BufferedWriter(new StringWriter()),
+                new BufferedReader(new StringReader(output)), executor);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.banking.api.service.process;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessMailboxTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSubmit_RunsOperationsOneAtATimeInOrder() throws Exception {
+        // Given
+        ProcessMailbox mailbox = new ProcessMailbox("test", executor, 100);
+        AtomicInteger running = new AtomicInteger();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+
+        // When
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            int index = i;
+            futures.add(mailbox.submit(() -> {
+                if (running.incrementAndGet() > 1) {
+                    overlapped.set(true);
+                }
+                order.add(index);
+                Thread.sleep(1);
+                running.decrementAndGet();
+                return index;
+            }, 0));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        // Then
+        assertFalse(overlapped.get());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, order.get(i));
+        }
+        assertEquals(0, mailbox.getDepth());
+    }
+
+    @Test
+    void testSubmit_RejectsWhenQueueIsFull() throws Exception {
+        // Given
+        ProcessMailbox mailbox = new ProcessMailbox("test", executor, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        mailbox.submit(() -> release.await(5, TimeUnit.SECONDS), 0);
+        mailbox.submit(() -> true, 0);
+
+        // When
+        CompletableFuture<Boolean> rejected = mailbox.submit(() -> true, 0);
+
+        // Then
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        release.countDown();
+    }
+
+    @Test
+    void testSubmit_SkipsOperationWhoseDeadlinePassedWhileQueued() throws Exception {
+        // Given
+        ProcessMailbox mailbox = new ProcessMailbox("test", executor, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean expiredRan = new AtomicBoolean();
+        CompletableFuture<Boolean> blocker = mailbox.submit(() -> release.await(5, TimeUnit.SECONDS), 0);
+
+        // When
+        CompletableFuture<Boolean> expired = mailbox.submit(() -> {
+            expiredRan.set(true);
+            return true;
+        }, 20);
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> expired.get(1, TimeUnit.SECONDS));
+        release.countDown();
+        blocker.get(1, TimeUnit.SECONDS);
+        mailbox.submit(() -> true, 0).get(1, TimeUnit.SECONDS);
+
+        // Then
+        assertInstanceOf(TimeoutException.class, failure.getCause());
+        assertFalse(expiredRan.get());
+    }
+
+    @Test
+    void testClose_FailsPendingAndRejectsNewOperations() throws Exception {
+        // Given
+        ProcessMailbox mailbox = new ProcessMailbox("test", executor, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        mailbox.submit(() -> release.await(5, TimeUnit.SECONDS), 0);
+        CompletableFuture<Boolean> pending = mailbox.submit(() -> true, 0);
+
+        // When
+        mailbox.close();
+        release.countDown();
+
+        // Then
+        assertThrows(ExecutionException.class, () -> pending.get(1, TimeUnit.SECONDS));
+        assertTrue(mailbox.submit(() -> true, 0).isCompletedExceptionally());
+    }
+
+    @Test
+    void testSubmit_DirectExecutorStillSerializesConcurrentCallers() throws Exception {
+        // Given
+        ProcessMailbox mailbox = new ProcessMailbox("test", Runnable::run, 100);
+        AtomicInteger running = new AtomicInteger();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+
+        // When
+        List<java.util.concurrent.Future<CompletableFuture<Boolean>>> submissions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            submissions.add(callers.submit(() -> mailbox.submit(() -> {
+                if (running.incrementAndGet() > 1) {
+                    overlapped.set(true);
+                }
+                Thread.sleep(1);
+                running.decrementAndGet();
+                return true;
+            }, 0)));
+        }
+        for (java.util.concurrent.Future<CompletableFuture<Boolean>> submission : submissions) {
+            assertTrue(submission.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS));
+        }
+
+        // Then
+        assertFalse(overlapped.get());
+        callers.shutdown();
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.banking.api.service.process;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessOutputTokenizerTest {
+
+    private static final String BANKING_MENU = "\nWelcome to Simple Banking App - Logged in as: alice\n"
+            + "1. Deposit\n2. Withdraw\n3. List Transactions\n4. Logout\n5. Exit Application\n6. Transfer\n"
+            + "Please choose an option: ";
+
+    @Nested
+    @DisplayName("Events")
+    class EventTests {
+
+        @Test
+        void testTokenize_DepositResponse() {
+            // When
+            List<OutputEvent> events = ProcessOutputTokenizer.tokenize(
+                    "Enter amount to deposit: Successfully deposited $100.0\nCurrent Balance: $250.5\n" + BANKING_MENU);
+
+            // Then
+            assertThat(events.get(0).getType()).isEqualTo(OutputEvent.Type.PROMPT);
+            assertThat(events.get(0).getText()).isEqualTo(ProcessOutputTokenizer.DEPOSIT_AMOUNT_PROMPT);
+            assertThat(events.get(1).getType()).isEqualTo(OutputEvent.Type.SUCCESS);
+            assertThat(events.get(1).getText()).isEqualTo("Successfully deposited $100.0");
+            assertThat(events.get(1).getAmount()).isEqualTo(100.0);
+            assertThat(events.get(2).getType()).isEqualTo(OutputEvent.Type.BALANCE);
+            assertThat(events.get(2).getAmount()).isEqualTo(250.5);
+            assertThat(events.get(events.size() - 1).getText()).isEqualTo(ProcessOutputTokenizer.BANKING_MENU_PROMPT);
+        }
+
+        @Test
+        void testTokenize_ErrorWithEmbeddedBalance() {
+            // When
+            List<OutputEvent> events = ProcessOutputTokenizer.tokenize("Insufficient funds. Current balance: $40.0\n");
+
+            // Then
+            assertThat(events).extracting(OutputEvent::getType)
+                    .containsExactly(OutputEvent.Type.ERROR, OutputEvent.Type.BALANCE);
+            assertThat(events.get(0).getText()).isEqualTo("Insufficient funds. Current balance: $40.0");
+            assertThat(events.get(1).getAmount()).isEqualTo(40.0);
+        }
+
+        @Test
+        void testTokenize_TransactionLines() {
+            // When
+            List<OutputEvent> events = ProcessOutputTokenizer.tokenize(
+                    "\n===== Transaction History =====\n"
+                    + "[2024-03-01 09:15:02] Deposit: $100,00\n"
+                    + "[2024-03-01 09:16:30] Transfer Out: $25.50 (to bob, ref 1a2b3c)\n"
+                    + "Current Balance: $74.5\n");
+
+            // Then
+            List<OutputEvent> transactions = new ProcessOutput(events).getTransactions();
+            assertThat(transactions).hasSize(2);
+            assertThat(transactions.get(0).getText()).isEqualTo("Deposit");
+            assertThat(transactions.get(0).getAmount()).isEqualTo(100.0);
+            assertThat(transactions.get(0).getTimestamp()).isEqualTo(LocalDateTime.of(2024, 3, 1, 9, 15, 2));
+            assertThat(transactions.get(0).getDetail()).isNull();
+            assertThat(transactions.get(1).getText()).isEqualTo("Transfer Out");
+            assertThat(transactions.get(1).getAmount()).isEqualTo(25.5);
+            assertThat(transactions.get(1).getDetail()).isEqualTo("to bob, ref 1a2b3c");
+        }
+
+        @Test
+        void testTokenize_QueryPage() {
+            // When
+            List<OutputEvent> events = ProcessOutputTokenizer.tokenize(
+                    "Query: \n===== Transaction Query =====\n"
+                    + "#7 [2024-03-01 09:15:02] Deposit: $100.00 -> $150.00\n"
+                    + "#12 [2024-03-01 09:16:30] Transfer Out: $25.50 (to bob, ref 1a2b3c) -> $124.50\n"
+                    + "Next cursor: 13\n"
+                    + "Head sequence: 20\n");
+
+            // Then
+            assertThat(events.get(0).getText()).isEqualTo(ProcessOutputTokenizer.QUERY_PROMPT);
+            List<OutputEvent> rows = new ProcessOutput(events).getTransactions();
+            assertThat(rows).extracting(OutputEvent::getSequence).containsExactly(7L, 12L);
+            assertThat(rows).extracting(OutputEvent::getBalanceAfter).containsExactly(150.0, 124.5);
+            assertThat(rows.get(1).getDetail()).isEqualTo("to bob, ref 1a2b3c");
+            assertThat(events.get(events.size() - 2).getType()).isEqualTo(OutputEvent.Type.CURSOR);
+            assertThat(events.get(events.size() - 2).getSequence()).isEqualTo(13);
+            assertThat(events.get(events.size() - 1).getType()).isEqualTo(OutputEvent.Type.HEAD);
+            assertThat(events.get(events.size() - 1).getSequence()).isEqualTo(20);
+        }
+
+        @Test
+        void testTokenize_MalformedTransactionFallsBackToText() {
+            // When
+            List<OutputEvent> events = ProcessOutputTokenizer.tokenize("[2024-13-45 99:00:00] Deposit: $1.00\n");
+
+            // Then
+            assertThat(events).extracting(OutputEvent::getType).containsExactly(OutputEvent.Type.TEXT);
+        }
+
+        @Test
+        void testTokenize_ScientificNotationBalance() {
+            // When
+            List<OutputEvent> events = ProcessOutputTokenizer.tokenize("Current Balance: $1.25E7\n");
+
+            // Then
+            assertThat(events.get(0).getAmount()).isEqualTo(1.25E7);
+        }
+
+        @Test
+        void testTokenize_AuthenticationFailure() {
+            // When
+            ProcessOutput output = ProcessOutput.parse(
+                    "Authentication failed. Invalid username or password.\n\n===== Banking System =====\n"
+                    + "1. Login\n2. Register\n3. Exit\nChoose an option: ");
+
+            // Then
+            assertThat(output.getFirstError()).startsWith("Authentication failed");
+            assertThat(output.hasPrompt(ProcessOutputTokenizer.AUTH_MENU_PROMPT)).isTrue();
+            assertThat(output.hasPrompt(ProcessOutputTokenizer.BANKING_MENU_PROMPT)).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Streaming")
+    class StreamingTests {
+
+        @Test
+        void testFeed_PromptSplitAcrossChunks() {
+            // Given
+            List<OutputEvent> events = new ArrayList<>();
+            ProcessOutputTokenizer tokenizer = new ProcessOutputTokenizer(events::add);
+
+            // When
+            tokenizer.feed("Please choose an op");
+            assertThat(events).isEmpty();
+            tokenizer.feed("tion: ");
+
+            // Then
+            assertThat(events).hasSize(1);
+            assertThat(events.get(0).getText()).isEqualTo(ProcessOutputTokenizer.BANKING_MENU_PROMPT);
+        }
+
+        @Test
+        void testFeed_CrLfSplitAcrossChunksIsOneLineBreak() {
+            // Given
+            List<OutputEvent> events = new ArrayList<>();
+            ProcessOutputTokenizer tokenizer = new ProcessOutputTokenizer(events::add);
+
+            // When
+            tokenizer.feed("Logged out successfully.\r");
+            tokenizer.feed("\n1. Login\r\n");
+            tokenizer.finish();
+
+            // Then
+            assertThat(events).extracting(OutputEvent::getText)
+                    .containsExactly("Logged out successfully.", "1. Login");
+        }
+
+        @Test
+        void testFinish_FlushesPartialLine() {
+            // Given
+            List<OutputEvent> events = new ArrayList<>();
+            ProcessOutputTokenizer tokenizer = new ProcessOutputTokenizer(events::add);
+
+            // When
+            tokenizer.feed("Welcome, alice!");
+            tokenizer.finish();
+
+            // Then
+            assertThat(events).extracting(OutputEvent::getType).containsExactly(OutputEvent.Type.SUCCESS);
+        }
+    }
+
+    @Nested
+    @DisplayName("Cleaning")
+    class CleaningTests {
+
+        @Test
+        void testClean_StripsEscapeSequencesAndControlCharacters() {
+            // Given
+            String raw = "\u001B]0;title\u0007\u001B[2J\u001B[1;32mCurrent\u001B[0m  Balance:\t$5.0\r\n\u0000done\r";
+
+            // When
+            String cleaned = ProcessOutputTokenizer.clean(raw);
+
+            // Then
+            assertThat(cleaned).isEqualTo("Current Balance: $5.0\ndone\n");
+        }
+
+        @Test
+        void testTokenize_IgnoresEscapeSequencesInsideLines() {
+            // When
+            ProcessOutput output = ProcessOutput.parse("\u001B[1mCurrent Balance: $\u001B[0m12.5\n");
+
+            // Then
+            assertThat(output.getLastBalance()).isEqualTo(12.5);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.banking.api.service.process;
+
+import com.example.banking.api.domain.model.UserSession;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProcessPoolTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    void testGetOrCreateProcess_ConcurrentCallersSpawnExactlyOneProcess() throws Exception {
+        // Given
+        AtomicInteger spawns = new AtomicInteger();
+        ProcessPool pool = new ProcessPool() {
+            @Override
+            ManagedProcess createNewProcess(UserSession userSession) throws ProcessCreationException {
+                spawns.incrementAndGet();
+                // Hold the spawn open until every other caller has joined it
+                long deadline = System.currentTimeMillis() + 5000;
+                while (getCoalescedSpawnCount() < CALLERS - 1 && System.currentTimeMillis() < deadline) {
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        throw new ProcessCreationException(e);
+                    }
+                }
+                ManagedProcess process = mock(ManagedProcess.class);
+                when(process.isHealthy()).thenReturn(true);
+                when(process.getProcessId()).thenReturn("process-" + spawns.get());
+                return process;
+            }
+        };
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+        // When
+        List<Future<ManagedProcess>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            UserSession session = new UserSession("shared-session", "testuser");
+            results.add(callers.submit(() -> pool.getOrCreateProcess(session)));
+        }
+
+        // Then
+        ManagedProcess first = results.get(0).get(10, TimeUnit.SECONDS);
+        for (Future<ManagedProcess> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isSameAs(first);
+        }
+        assertThat(spawns.get()).isEqualTo(1);
+        assertThat(pool.getSpawnCount()).isEqualTo(1);
+        assertThat(pool.getCoalescedSpawnCount()).isEqualTo(CALLERS - 1);
+        assertThat(pool.getProcessPoolInfo().getTotalProcesses()).isEqualTo(1);
+        callers.shutdown();
+    }
+
+    @Test
+    void testGetOrCreateProcess_SessionsOfOneUserShareItsProcessUntilTheLastReleasesIt() throws Exception {
+        // Given
+        ManagedProcess managedProcess = mock(ManagedProcess.class);
+        when(managedProcess.isHealthy()).thenReturn(true);
+        when(managedProcess.terminateAsync()).thenReturn(CompletableFuture.completedFuture(null));
+        AtomicInteger spawns = new AtomicInteger();
+        ProcessPool pool = new ProcessPool() {
+            @Override
+            ManagedProcess createNewProcess(UserSession userSession) {
+                spawns.incrementAndGet();
+                return managedProcess;
+            }
+        };
+        UserSession laptop = new UserSession("session-laptop", "testuser");
+        UserSession phone = new UserSession("session-phone", "testuser");
+
+        // When
+        ManagedProcess first = pool.getOrCreateProcess(laptop);
+        ManagedProcess second = pool.getOrCreateProcess(phone);
+        pool.getOrCreateProcess(phone);
+
+        // Then - one process and one account mirror for both sessions
+        assertThat(second).isSameAs(first);
+        assertThat(spawns.get()).isEqualTo(1);
+        assertThat(pool.getSessionCount("testuser")).isEqualTo(2);
+        assertThat(phone.getAccountMirror()).isSameAs(laptop.getAccountMirror());
+
+        pool.releaseProcess(laptop);
+        pool.releaseProcess(laptop);
+        verify(managedProcess, never()).terminateAsync();
+        assertThat(pool.getSessionCount("testuser")).isEqualTo(1);
+
+        pool.releaseProcess(phone);
+        verify(managedProcess).terminateAsync();
+        assertThat(pool.getProcessPoolInfo().getTotalProcesses()).isZero();
+    }
+
+    @Test
+    void testReplaceProcess_SuccessorTakesOverSessionsAndMirror() throws Exception {
+        // Given
+        ManagedProcess current = mock(ManagedProcess.class);
+        when(current.isHealthy()).thenReturn(true);
+        ManagedProcess successor = mock(ManagedProcess.class);
+        when(successor.isHealthy()).thenReturn(true);
+        when(successor.terminateAsync()).thenReturn(CompletableFuture.completedFuture(null));
+        ProcessPool pool = new ProcessPool() {
+            @Override
+            ManagedProcess createNewProcess(UserSession userSession) {
+                return current;
+            }
+        };
+        UserSession laptop = new UserSession("session-laptop", "testuser");
+        UserSession phone = new UserSession("session-phone", "testuser");
+        pool.getOrCreateProcess(laptop);
+        pool.getOrCreateProcess(phone);
+
+        // When
+        boolean replaced = pool.replaceProcess("testuser", current, successor);
+        boolean replacedAgain = pool.replaceProcess("testuser", current, mock(ManagedProcess.class));
+
+        // Then
+        assertThat(replaced).isTrue();
+        assertThat(replacedAgain).isFalse();
+        assertThat(pool.getOrCreateProcess(laptop)).isSameAs(successor);
+        assertThat(laptop.getAccountMirror()).isSameAs(phone.getAccountMirror());
+        assertThat(pool.getSessionCount("testuser")).isEqualTo(2);
+
+        pool.releaseProcess(laptop);
+        pool.releaseProcess(phone);
+        verify(successor).terminateAsync();
+        verify(current, never()).terminateAsync();
+    }
+
+    @Test
+    void testBindTo_ExposesSpawnAndCoalescingMetrics() throws Exception {
+        // Given
+        ProcessPool pool = new ProcessPool() {
+            @Override
+            ManagedProcess createNewProcess(UserSession userSession) {
+                ManagedProcess process = mock(ManagedProcess.class);
+                when(process.isHealthy()).thenReturn(true);
+                return process;
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        pool.bindTo(registry);
+
+        // When
+        pool.getOrCreateProcess(new UserSession("session-a", "alice"));
+        pool.getOrCreateProcess(new UserSession("session-b", "bob"));
+        pool.getOrCreateProcess(new UserSession("session-c", "bob"));
+
+        // Then
+        assertThat(registry.get("banking.process.spawns").functionCounter().count()).isEqualTo(2.0);
+        assertThat(registry.get("banking.process.spawns.coalesced").functionCounter().count()).isZero();
+        assertThat(registry.get("banking.process.active").gauge().value()).isEqualTo(2.0);
+        assertThat(registry.get("banking.process.sessions").gauge().value()).isEqualTo(3.0);
+    }
+
+    @Test
+    void testGetOrCreateProcess_EvictsProcessAsSoonAsItExits() throws Exception {
+        // Given
+        CompletableFuture<Process> exit = new CompletableFuture<>();
+        Process process = mock(Process.class);
+        when(process.onExit()).thenReturn(exit);
+        ManagedProcess managedProcess = mock(ManagedProcess.class);
+        when(managedProcess.isHealthy()).thenReturn(true);
+        when(managedProcess.getProcess()).thenReturn(process);
+        when(managedProcess.terminateAsync()).thenReturn(CompletableFuture.completedFuture(null));
+        ProcessPool pool = new ProcessPool() {
+            @Override
+            ManagedProcess createNewProcess(UserSession userSession) {
+                return managedProcess;
+            }
+        };
+        pool.getOrCreateProcess(new UserSession("session-a", "testuser"));
+
+        // When
+        exit.complete(process);
+
+        // Then - no health check pass is needed to notice the exit
+        verify(managedProcess, timeout(5000)).terminateAsync();
+        assertThat(pool.getProcessPoolInfo().getTotalProcesses()).isZero();
+    }
+
+    @Test
+    void testPerformHealthCheck_TerminatesOnlyIdleProcesses() throws Exception {
+        // Given
+        ManagedProcess idle = mock(ManagedProcess.class);
+        when(idle.isHealthy()).thenReturn(true);
+        when(idle.getIdleMillis()).thenReturn(Long.MAX_VALUE);
+        ManagedProcess busy = mock(ManagedProcess.class);
+        when(busy.isHealthy()).thenReturn(true);
+        when(busy.getIdleMillis()).thenReturn(0L);
+        ProcessPool pool = new ProcessPool() {
+            @Override
+            ManagedProcess createNewProcess(UserSession userSession) {
+                return userSession.getUsername().equals("idle-user") ? idle : busy;
+            }
+        };
+        ReflectionTestUtils.setField(pool, "processIdleTimeoutMs", 500L);
+        pool.getOrCreateProcess(new UserSession("idle-session", "idle-user"));
+        pool.getOrCreateProcess(new UserSession("busy-session", "busy-user"));
+
+        // When - let both deadlines come due
+        Thread.sleep(ProcessPool.EXPIRY_TICK_MS + 100);
+        pool.performHealthCheck();
+
+        // Then
+        verify(idle).terminateAsync();
+        assertThat(pool.getProcessPoolInfo().getTotalProcesses()).isEqualTo(1);
+        pool.performHealthCheck();
+        verify(busy, never()).terminateAsync();
+    }
+
+    @Test
+    void testShutdown_TerminatesProcessesInParallel() throws Exception {
+        // Given - three processes that each take a second to exit
+        List<ManagedProcess> processes = new ArrayList<>();
+        ProcessPool pool = new ProcessPool() {
+            @Override
+            ManagedProcess createNewProcess(UserSession userSession) {
+                ManagedProcess process = mock(ManagedProcess.class);
+                when(process.isHealthy()).thenReturn(true);
+                when(process.terminateAsync()).thenAnswer(invocation -> CompletableFuture.runAsync(() -> { },
+                        CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS)));
+                processes.add(process);
+                return process;
+            }
+        };
+        for (int i = 0; i < 3; i++) {
+            pool.getOrCreateProcess(new UserSession("session-" + i, "user-" + i));
+        }
+
+        // When
+        long start = System.nanoTime();
+        pool.shutdown();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        for (ManagedProcess process : processes) {
+            verify(process).terminateAsync();
+        }
+        assertThat(elapsedMs).isLessThan(2500);
+        assertThat(pool.getProcessPoolInfo().getTotalProcesses()).isZero();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.banking.api.service.process;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProcessRecyclerTest {
+
+    private static ProcessRecycler recycler(long maxOperations, long maxAgeMs, long maxRssMb) {
+        ProcessRecycler recycler = new ProcessRecycler();
+        ReflectionTestUtils.setField(recycler, "maxOperations", maxOperations);
+        ReflectionTestUtils.setField(recycler, "maxAgeMs", maxAgeMs);
+        ReflectionTestUtils.setField(recycler, "maxRssMb", maxRssMb);
+        return recycler;
+    }
+
+    private static ManagedProcess process(long operations, long ageMillis) {
+        ManagedProcess managedProcess = mock(ManagedProcess.class);
+        when(managedProcess.getOperationCount()).thenReturn(operations);
+        when(managedProcess.getAgeMillis()).thenReturn(ageMillis);
+        return managedProcess;
+    }
+
+    @Test
+    void testDueReason_EachLimitTriggersOnItsOwn() {
+        // Given
+        ProcessRecycler recycler = recycler(100, 60_000, 0);
+
+        // When / Then
+        assertThat(recycler.dueReason(process(99, 59_999))).isNull();
+        assertThat(recycler.dueReason(process(100, 0))).isEqualTo(ProcessRecycler.Reason.OPERATIONS);
+        assertThat(recycler.dueReason(process(0, 60_000))).isEqualTo(ProcessRecycler.Reason.AGE);
+        assertThat(recycler(0, 0, 0).dueReason(process(Long.MAX_VALUE, Long.MAX_VALUE))).isNull();
+    }
+
+    @Test
+    void testDueReason_ResidentSetIsReadAtMostOncePerInterval() {
+        // Given - any running JVM uses more than 1 MB
+        assumeTrue(Files.exists(Path.of("/proc/self/status")));
+        ProcessRecycler recycler = recycler(0, 0, 1);
+        Process process = mock(Process.class);
+        when(process.pid()).thenReturn(ProcessHandle.current().pid());
+        ManagedProcess managedProcess = new ManagedProcess("process-1", process, null, null, "alice", "session-1");
+
+        // When
+        ProcessRecycler.Reason first = recycler.dueReason(managedProcess);
+        ProcessRecycler.Reason second = recycler.dueReason(managedProcess);
+
+        // Then
+        assertThat(first).isEqualTo(ProcessRecycler.Reason.MEMORY);
+        assertThat(second).isNull();
+    }
+
+    @Test
+    void testReadRssKb() {
+        assumeTrue(Files.exists(Path.of("/proc/self/status")));
+
+        assertThat(ProcessRecycler.readRssKb(ProcessHandle.current().pid())).isPositive();
+        assertThat(ProcessRecycler.readRssKb(Long.MAX_VALUE)).isEqualTo(-1);
+    }
+}
@@ -1,12 +1,27 @@
 package com.example.banking.api.service.process;
 
+import com.example.banking.api.domain.model.SessionRegistry;
 import com.example.banking.api.domain.model.UserSession;
+import com.example.banking.api.model.BankingUser;
+import com.example.banking.api.service.concurrent.ServiceOverloadedException;
+import com.example.banking.api.service.process.operations.SessionResumeOperation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,6 +45,12 @@ class ProcessSessionManagerTest {
     @Mock
     private ProcessOperation<String> operation;
 
+    @Mock
+    private ProcessRecycler recycler;
+
+    @Spy
+    private ProcessAdmission admission = new ProcessAdmission(1, 0, 0, 4, 4, 1000);
+
     @InjectMocks
     private ProcessSessionManager processSessionManager;
 
@@ -44,6 +65,11 @@ class ProcessSessionManagerTest {
         lenient().when(userSession.getUsername()).thenReturn(USERNAME);
         lenient().when(managedProcess.getProcessId()).thenReturn(PROCESS_ID);
         lenient().when(managedProcess.isHealthy()).thenReturn(true);
+        lenient().when(managedProcess.isLoggedIn()).thenReturn(true);
+        lenient().when(managedProcess.getMailbox()).thenReturn(new ProcessMailbox(PROCESS_ID, Runnable::run, 4));
+        lenient().when(managedProcess.getCurrent()).thenReturn(managedProcess);
+        // Start and resume processes on the calling thread, so outcomes are settled on return
+        ReflectionTestUtils.setField(processSessionManager, "acquisitionExecutor", (Executor) Runnable::run);
     }
 
     @Test
@@ -60,6 +86,117 @@ class ProcessSessionManagerTest {
         assertEquals(expectedResult, result);
         verify(processPool).getOrCreateProcess(userSession);
         verify(processExecutor).executeWithManagedProcess(operation, managedProcess);
+        verify(recycler).recycleIfDue(managedProcess);
+    }
+
+    @Test
+    void testExecuteForSession_OperationReachingRecycledProcessRunsOnSuccessor() throws Exception {
+        // Given - the process was looked up just before it was handed over to its successor
+        ManagedProcess successor = mock(ManagedProcess.class);
+        when(successor.getCurrent()).thenReturn(successor);
+        when(successor.getMailbox()).thenReturn(new ProcessMailbox("successor", Runnable::run, 4));
+        when(managedProcess.getSuccessor()).thenReturn(successor);
+        when(processPool.getOrCreateProcess(userSession)).thenReturn(managedProcess);
+        when(processExecutor.executeWithManagedProcess(operation, successor)).thenReturn("from-successor");
+
+        // When
+        String result = processSessionManager.executeForSession(userSession, operation);
+
+        // Then
+        assertEquals("from-successor", result);
+        verify(processExecutor, never()).executeWithManagedProcess(operation, managedProcess);
+        verify(recycler).recycleIfDue(successor);
+    }
+
+    @Test
+    void testAuthenticateForSession_LoginToLoggedInProcessIsVerifiedOnItsOwnProcess() throws Exception {
+        // Given - another session of the user already has the shared process logged in
+        ManagedProcess verifier = mock(ManagedProcess.class);
+        ProcessMailbox mailbox = new ProcessMailbox(PROCESS_ID, Runnable::run, 4);
+        AtomicInteger depthWhileBooting = new AtomicInteger(-1);
+        when(managedProcess.isLoggedIn()).thenReturn(true);
+        when(managedProcess.getMailbox()).thenReturn(mailbox);
+        when(processPool.getOrCreateProcess(userSession)).thenReturn(managedProcess);
+        when(processPool.createNewProcess(userSession)).thenAnswer(invocation -> {
+            depthWhileBooting.set(mailbox.getDepth());
+            return verifier;
+        });
+        when(processExecutor.executeWithManagedProcess(operation, verifier)).thenReturn("verified");
+
+        // When
+        String result = processSessionManager.authenticateForSession(userSession, operation);
+
+        // Then - the shared process is never sent a second login, nor held while the verifier boots
+        assertEquals("verified", result);
+        assertEquals(0, depthWhileBooting.get());
+        verify(processExecutor, never()).executeWithManagedProcess(operation, managedProcess);
+        verify(verifier).killAsync();
+        verify(processPool, never()).releaseProcess(any());
+    }
+
+    @Test
+    void testExecuteForSessionAsync_ReturnsFutureWithResult() throws Exception {
+        // Given
+        when(processPool.getOrCreateProcess(userSession)).thenReturn(managedProcess);
+        when(processExecutor.executeWithManagedProcess(operation, managedProcess)).thenReturn("async-result");
+
+        // When
+        java.util.concurrent.CompletableFuture<String> future = processSessionManager.executeForSessionAsync(userSession, operation);
+
+        // Then
+        assertEquals("async-result", future.get(1, java.util.concurrent.TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testExecuteForSessionAsync_UsesLoggedInPooledProcessWithoutStartingOne() throws Exception {
+        // Given
+        when(processPool.getExistingProcess(userSession)).thenReturn(managedProcess);
+        when(processExecutor.executeWithManagedProcess(operation, managedProcess)).thenReturn("pooled");
+
+        // When
+        java.util.concurrent.CompletableFuture<String> future = processSessionManager.executeForSessionAsync(userSession, operation);
+
+        // Then
+        assertEquals("pooled", future.get(1, java.util.concurrent.TimeUnit.SECONDS));
+        verify(processPool, never()).getOrCreateProcess(any());
+    }
+
+    @Test
+    void testExecuteForSessionAsync_ReturnsWhileProcessIsStarting() throws Exception {
+        // Given - the spawn blocks until released
+        ExecutorService acquisitions = Executors.newSingleThreadExecutor();
+        ReflectionTestUtils.setField(processSessionManager, "acquisitionExecutor", acquisitions);
+        CountDownLatch booted = new CountDownLatch(1);
+        when(processPool.getOrCreateProcess(userSession)).thenAnswer(invocation -> {
+            booted.await(5, TimeUnit.SECONDS);
+            return managedProcess;
+        });
+        when(processExecutor.executeWithManagedProcess(operation, managedProcess)).thenReturn("started");
+
+        try {
+            // When
+            java.util.concurrent.CompletableFuture<String> future = processSessionManager.executeForSessionAsync(userSession, operation);
+
+            // Then - the caller is back before the process is up
+            assertFalse(future.isDone());
+            booted.countDown();
+            assertEquals("started", future.get(5, TimeUnit.SECONDS));
+        } finally {
+            acquisitions.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExecuteForSessionAsync_ProcessCreationFailsFuture() throws Exception {
+        // Given
+        when(processPool.getOrCreateProcess(userSession)).thenThrow(new ProcessCreationException("no jar"));
+
+        // When
+        java.util.concurrent.CompletableFuture<String> future = processSessionManager.executeForSessionAsync(userSession, operation);
+
+        // Then
+        assertTrue(future.isCompletedExceptionally());
+        verify(processExecutor, never()).executeWithManagedProcess(any(), any());
     }
 
     @Test
@@ -96,6 +233,7 @@ class ProcessSessionManagerTest {
     @Test
     void testAuthenticateForSession_Success() throws Exception {
         // Given
+        when(managedProcess.isLoggedIn()).thenReturn(false);
         String expectedResult = "auth-result";
         when(processPool.getOrCreateProcess(userSession)).thenReturn(managedProcess);
         when(processExecutor.executeWithManagedProcess(operation, managedProcess)).thenReturn(expectedResult);
@@ -107,6 +245,7 @@ class ProcessSessionManagerTest {
         assertEquals(expectedResult, result);
         verify(processPool).getOrCreateProcess(userSession);
         verify(processExecutor).executeWithManagedProcess(operation, managedProcess);
+        verify(managedProcess).markLoggedIn();
     }
 
     @Test
@@ -122,12 +261,13 @@ class ProcessSessionManagerTest {
 
         assertEquals("Failed to create process for authentication", exception.getMessage());
         assertEquals(creationException, exception.getCause());
-        verify(processPool).terminateProcess(SESSION_ID);
+        verify(processPool).releaseProcess(userSession);
     }
 
     @Test
     void testAuthenticateForSession_AuthenticationFailure() throws Exception {
         // Given
+        when(managedProcess.isLoggedIn()).thenReturn(false);
         RuntimeException authException = new RuntimeException("Authentication failed");
         when(processPool.getOrCreateProcess(userSession)).thenReturn(managedProcess);
         when(processExecutor.executeWithManagedProcess(operation, managedProcess)).thenThrow(authException);
@@ -139,7 +279,36 @@ class ProcessSessionManagerTest {
 
         assertEquals("Authentication failed", exception.getMessage());
         assertEquals(authException, exception.getCause());
-        verify(processPool).terminateProcess(SESSION_ID);
+        verify(processPool).releaseProcess(userSession);
+    }
+
+    @Test
+    void testAuthenticateForSession_ShedWhenSpawnSlotsAreTaken() throws Exception {
+        // Given - the only spawn slot is held and there is no wait queue
+        admission.getSpawns().admit();
+
+        // When/Then
+        ServiceOverloadedException exception = assertThrows(ServiceOverloadedException.class, () -> {
+            processSessionManager.authenticateForSession(userSession, operation);
+        });
+
+        assertTrue(exception.getRetryAfterSeconds() >= 1);
+        verify(processPool, never()).getOrCreateProcess(any());
+        verify(processPool, never()).releaseProcess(any());
+    }
+
+    @Test
+    void testAuthenticateForSession_ReleasesSpawnSlot() throws Exception {
+        // Given
+        when(managedProcess.isLoggedIn()).thenReturn(false);
+        when(processPool.getOrCreateProcess(userSession)).thenReturn(managedProcess);
+        when(processExecutor.executeWithManagedProcess(operation, managedProcess)).thenThrow(new RuntimeException("bad password"));
+
+        // When
+        assertThrows(ProcessExecutionException.class, () -> processSessionManager.authenticateForSession(userSession, operation));
+
+        // Then
+        assertEquals(0, admission.getSpawns().getInUse());
     }
 
     @Test
@@ -148,7 +317,7 @@ class ProcessSessionManagerTest {
         processSessionManager.terminateSessionProcess(userSession);
 
         // Then
-        verify(processPool).terminateProcess(SESSION_ID);
+        verify(processPool).releaseProcess(userSession);
         verify(userSession).setBankingProcess(null);
         verify(userSession).setProcessId(null);
     }
@@ -156,13 +325,13 @@ class ProcessSessionManagerTest {
     @Test
     void testTerminateSessionProcess_WithException() {
         // Given
-        doThrow(new RuntimeException("Termination failed")).when(processPool).terminateProcess(SESSION_ID);
+        doThrow(new RuntimeException("Termination failed")).when(processPool).releaseProcess(userSession);
 
         // When
         processSessionManager.terminateSessionProcess(userSession); // Should not throw
 
         // Then
-        verify(processPool).terminateProcess(SESSION_ID);
+        verify(processPool).releaseProcess(userSession);
         // Should continue execution despite exception
     }
 
@@ -192,6 +361,105 @@ class ProcessSessionManagerTest {
         verify(userSession).hasActiveProcess();
     }
 
+    @Test
+    void testExecuteForSession_RestoredSessionIsResumedBeforeOperation() throws Exception {
+        // Given
+        UserSession restored = new UserSession(SESSION_ID, USERNAME, new SessionRegistry(1), System.currentTimeMillis(), 1000);
+        when(managedProcess.isLoggedIn()).thenReturn(false);
+        when(managedProcess.isResuming()).thenReturn(true);
+        when(processPool.getOrCreateProcess(restored)).thenReturn(managedProcess);
+        when(processExecutor.executeWithManagedProcess(any(SessionResumeOperation.class), eq(managedProcess)))
+                .thenReturn(new BankingUser(USERNAME, 10.0));
+        when(processExecutor.executeWithManagedProcess(operation, managedProcess)).thenReturn("after-resume");
+
+        // When
+        String result = processSessionManager.executeForSession(restored, operation);
+
+        // Then
+        assertEquals("after-resume", result);
+        assertFalse(restored.isRestored());
+        InOrder inOrder = inOrder(processExecutor);
+        inOrder.verify(processExecutor).executeWithManagedProcess(any(SessionResumeOperation.class), eq(managedProcess));
+        inOrder.verify(processExecutor).executeWithManagedProcess(operation, managedProcess);
+        verify(admission, atLeastOnce()).getSpawns();
+    }
+
+    @Test
+    void testExecuteForSession_ReplacementForCrashedProcessIsResumedBeforeOperation() throws Exception {
+        // Given - the session's process died and the pool started a replacement logging in by username
+        UserSession session = new UserSession(SESSION_ID, USERNAME);
+        session.setAuthenticated(true);
+        when(managedProcess.isLoggedIn()).thenReturn(false);
+        when(managedProcess.isResuming()).thenReturn(true);
+        when(processPool.getOrCreateProcess(session)).thenReturn(managedProcess);
+        when(processExecutor.executeWithManagedProcess(any(SessionResumeOperation.class), eq(managedProcess)))
+                .thenReturn(new BankingUser(USERNAME, 10.0));
+        when(processExecutor.executeWithManagedProcess(operation, managedProcess)).thenReturn("after-recovery");
+
+        // When
+        String result = processSessionManager.executeForSession(session, operation);
+
+        // Then
+        assertEquals("after-recovery", result);
+        InOrder inOrder = inOrder(processExecutor, managedProcess);
+        inOrder.verify(processExecutor).executeWithManagedProcess(any(SessionResumeOperation.class), eq(managedProcess));
+        inOrder.verify(managedProcess).markLoggedIn();
+        inOrder.verify(processExecutor).executeWithManagedProcess(operation, managedProcess);
+        assertEquals(1, processSessionManager.getResumeCount());
+    }
+
+    @Test
+    void testExecuteForSessionAsync_NeverSendsOperationToLoggedOutProcess() throws Exception {
+        // Given - a process started for a login, which cannot be logged in by username
+        when(managedProcess.isLoggedIn()).thenReturn(false);
+        when(processPool.getOrCreateProcess(userSession)).thenReturn(managedProcess);
+
+        // When
+        java.util.concurrent.CompletableFuture<String> future = processSessionManager.executeForSessionAsync(userSession, operation);
+
+        // Then
+        assertTrue(future.isCompletedExceptionally());
+        verify(processExecutor, never()).executeWithManagedProcess(any(), any());
+        verify(userSession, never()).setActive(false);
+    }
+
+    @Test
+    void testExecuteForSession_RestoredSessionJoinsLoggedInProcess() throws Exception {
+        // Given - another session of the user has already brought the process up
+        UserSession restored = new UserSession(SESSION_ID, USERNAME, new SessionRegistry(1), System.currentTimeMillis(), 1000);
+        when(managedProcess.isLoggedIn()).thenReturn(true);
+        when(processPool.getOrCreateProcess(restored)).thenReturn(managedProcess);
+        when(processExecutor.executeWithManagedProcess(operation, managedProcess)).thenReturn("joined");
+
+        // When
+        String result = processSessionManager.executeForSession(restored, operation);
+
+        // Then
+        assertEquals("joined", result);
+        assertFalse(restored.isRestored());
+        verify(processExecutor, never()).executeWithManagedProcess(any(SessionResumeOperation.class), any());
+    }
+
+    @Test
+    void testExecuteForSessionAsync_RestoredSessionOfDeletedUserIsDeactivated() throws Exception {
+        // Given
+        UserSession restored = new UserSession(SESSION_ID, USERNAME, new SessionRegistry(1), System.currentTimeMillis(), 1000);
+        when(managedProcess.isLoggedIn()).thenReturn(false);
+        when(managedProcess.isResuming()).thenReturn(true);
+        when(processPool.getOrCreateProcess(restored)).thenReturn(managedProcess);
+        when(processExecutor.executeWithManagedProcess(any(SessionResumeOperation.class), eq(managedProcess)))
+                .thenReturn(null);
+
+        // When
+        java.util.concurrent.CompletableFuture<String> future = processSessionManager.executeForSessionAsync(restored, operation);
+
+        // Then
+        assertTrue(future.isCompletedExceptionally());
+        assertFalse(restored.isActive());
+        verify(processPool).releaseProcess(restored);
+        verify(processExecutor, never()).executeWithManagedProcess(operation, managedProcess);
+    }
+
     @Test
     void testGetProcessPoolInfo() {
         // Given
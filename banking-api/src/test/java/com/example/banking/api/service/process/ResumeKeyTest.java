@@ -0,0 +1,73 @@
+package com.example.banking.api.service.process;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ResumeKeyTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testInitializeKey_CreatesKeyReadableByOwnerOnly() throws Exception {
+        // Given
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Path keyFile = directory.resolve(ResumeKey.KEY_FILE);
+
+        // When
+        new ResumeKey(keyFile).initializeKey();
+
+        // Then
+        assertThat(Files.size(keyFile)).isEqualTo(32);
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(keyFile))).isEqualTo("rw-------");
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactly(keyFile);
+        }
+    }
+
+    @Test
+    void testInitializeKey_ReusesExistingKey() throws Exception {
+        // Given - another instance sharing the working directory started first
+        Path keyFile = directory.resolve(ResumeKey.KEY_FILE);
+        new ResumeKey(keyFile).initializeKey();
+        byte[] existing = Files.readAllBytes(keyFile);
+
+        // When
+        new ResumeKey(keyFile).initializeKey();
+
+        // Then
+        assertThat(Files.readAllBytes(keyFile)).isEqualTo(existing);
+    }
+
+    @Test
+    void testProofFor_SignsUsernameAndExpiryWithTheKey() throws Exception {
+        // Given
+        Path keyFile = directory.resolve(ResumeKey.KEY_FILE);
+        ResumeKey resumeKey = new ResumeKey(keyFile);
+        resumeKey.initializeKey();
+        long before = System.currentTimeMillis();
+
+        // When
+        String[] proof = resumeKey.proofFor("alice").split("\\.");
+
+        // Then - in the form the banking application checks
+        long expiresAtMillis = Long.parseLong(proof[0]);
+        assertThat(expiresAtMillis).isBetween(before + ResumeKey.PROOF_TTL_MS, System.currentTimeMillis() + ResumeKey.PROOF_TTL_MS);
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(Files.readAllBytes(keyFile), "HmacSHA256"));
+        byte[] expected = mac.doFinal(("alice\n" + expiresAtMillis).getBytes(StandardCharsets.UTF_8));
+        assertThat(Base64.getUrlDecoder().decode(proof[1])).isEqualTo(expected);
+    }
+}
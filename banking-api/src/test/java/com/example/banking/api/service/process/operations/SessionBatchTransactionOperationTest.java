@@ -0,0 +1,131 @@
+package com.example.banking.api.service.process.operations;
+
+import com.example.banking.api.model.BankingTransaction;
+import com.example.banking.api.model.BatchItemResult;
+import com.example.banking.api.service.process.OutputEvent;
+import com.example.banking.api.service.process.ProcessCommunication;
+import com.example.banking.api.service.process.ProcessOutputTokenizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionBatchTransactionOperationTest {
+
+    private static final String MENU = "\nWelcome to Simple Banking App - Logged in as: testuser\n"
+            + "1. Deposit\n2. Withdraw\n3. List Transactions\n4. Logout\n5. Exit Application\n6. Transfer\n"
+            + "Please choose an option: ";
+
+    @Mock
+    private ProcessCommunication communication;
+
+    /**
+     * Makes the process answer with the given output, tokenized and streamed until the
+     * operation has what it waits for.
+     */
+    @SuppressWarnings("unchecked")
+    private void respondWith(String output) throws Exception {
+        when(communication.streamOutput(any(), any(), anyLong())).thenAnswer(invocation -> {
+            Consumer<OutputEvent> sink = invocation.getArgument(0);
+            Predicate<OutputEvent> until = invocation.getArgument(1);
+            for (OutputEvent event : ProcessOutputTokenizer.tokenize(output)) {
+                sink.accept(event);
+                if (until.test(event)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    @Test
+    void testExecute_PipelinesAllCommandsInOneWrite() throws Exception {
+        // Given
+        List<BankingTransaction> items = List.of(
+                new BankingTransaction("Deposit", 100.0, null),
+                new BankingTransaction("Withdrawal", 500.0, null),
+                new BankingTransaction("Withdrawal", 40.0, null));
+        String output = "Enter amount to deposit: Successfully deposited $100.0\nCurrent Balance: $100.0\n" + MENU
+                + "Enter amount to withdraw: Insufficient funds. Current balance: $100.0\n" + MENU
+                + "Enter amount to withdraw: Successfully withdrew $40.0\nCurrent Balance: $60.0\n" + MENU;
+        respondWith(output);
+
+        // When
+        List<BatchItemResult> results = new SessionBatchTransactionOperation("testuser", items).execute(communication);
+
+        // Then
+        verify(communication, times(1)).sendCommand("1\n100.0\n2\n500.0\n2\n40.0");
+        assertThat(results).hasSize(3);
+        assertThat(results).extracting(BatchItemResult::isSuccess).containsExactly(true, false, true);
+        assertThat(results).extracting(BatchItemResult::getBalance).containsExactly(100.0, 100.0, 60.0);
+        assertThat(results.get(1).getMessage()).isEqualTo("Insufficient funds. Current balance: $100.0");
+    }
+
+    @Test
+    void testExecute_IgnoresLateOutputOfPreviousOperation() throws Exception {
+        // Given - the previous operation's result and menu prompt arrive only now
+        List<BankingTransaction> items = List.of(
+                new BankingTransaction("Deposit", 1.0, null),
+                new BankingTransaction("Deposit", 2.0, null));
+        String output = "Successfully withdrew $5.0\nCurrent Balance: $7.0\n" + MENU
+                + "Enter amount to deposit: Successfully deposited $1.0\nCurrent Balance: $8.0\n" + MENU
+                + "Enter amount to deposit: Successfully deposited $2.0\nCurrent Balance: $10.0\n" + MENU;
+        respondWith(output);
+
+        // When
+        List<BatchItemResult> results = new SessionBatchTransactionOperation("testuser", items).execute(communication);
+
+        // Then
+        verify(communication, never()).readOutput(anyLong());
+        assertThat(results).extracting(BatchItemResult::isSuccess).containsExactly(true, true);
+        assertThat(results).extracting(BatchItemResult::getBalance).containsExactly(8.0, 10.0);
+        assertThat(results.get(0).getMessage()).isEqualTo("Successfully deposited $1.0");
+    }
+
+    @Test
+    void testExecute_StopsReadingOnceEveryItemIsAnswered() throws Exception {
+        // Given
+        List<BankingTransaction> items = List.of(new BankingTransaction("Deposit", 1.0, null));
+        String output = "Enter amount to deposit: Successfully deposited $1.0\nCurrent Balance: $1.0\n" + MENU
+                + "Enter amount to deposit: Successfully deposited $9.0\nCurrent Balance: $10.0\n" + MENU;
+        respondWith(output);
+
+        // When
+        List<BatchItemResult> results = new SessionBatchTransactionOperation("testuser", items).execute(communication);
+
+        // Then
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getBalance()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testExecute_ReportsMissingOutputAsOutcomeUnknown() throws Exception {
+        // Given
+        List<BankingTransaction> items = List.of(
+                new BankingTransaction("Deposit", 10.0, null),
+                new BankingTransaction("Deposit", 20.0, null));
+        String truncated = "Enter amount to deposit: Successfully deposited $10.0\nCurrent Balance: $10.0\n" + MENU;
+        respondWith(truncated);
+
+        // When
+        List<BatchItemResult> results = new SessionBatchTransactionOperation("testuser", items).execute(communication);
+
+        // Then
+        assertThat(results.get(0).isSuccess()).isTrue();
+        assertThat(results.get(1).isSuccess()).isFalse();
+        assertThat(results.get(1).isOutcomeUnknown()).isTrue();
+        assertThat(results.get(1).getBalance()).isNull();
+        // The unanswered deposit is still queued, so the process must not serve another operation
+        verify(communication).markOutOfStep();
+    }
+}
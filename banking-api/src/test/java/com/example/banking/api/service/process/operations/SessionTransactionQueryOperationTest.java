@@ -0,0 +1,95 @@
+package com.example.banking.api.service.process.operations;
+
+import com.example.banking.api.model.BankingTransaction;
+import com.example.banking.api.model.TransactionPage;
+import com.example.banking.api.model.TransactionQuery;
+import com.example.banking.api.service.process.OutputEvent;
+import com.example.banking.api.service.process.ProcessCommunication;
+import com.example.banking.api.service.process.ProcessOutputTokenizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class SessionTransactionQueryOperationTest {
+
+    private static final String MENU = "\nWelcome to Simple Banking App - Logged in as: alice\n1. Deposit\n"
+            + "Please choose an option: ";
+
+    @Mock
+    private ProcessCommunication communication;
+
+    @Test
+    void testExecute_CollectsRowsAndNextCursor() throws Exception {
+        // Given
+        replay("Query: \n===== Transaction Query =====\n"
+                + "#3 [2024-03-01 09:15:02] Deposit: $100.00 -> $100.00\n"
+                + "#5 [2024-03-01 09:17:00] Deposit: $20.00 -> $94.50\n"
+                + "Next cursor: 6\n"
+                + "Head sequence: 9\n" + MENU);
+        TransactionQuery query = new TransactionQuery();
+        query.setType("deposit");
+        query.setLimit(2);
+
+        // When
+        TransactionPage page = new SessionTransactionQueryOperation("alice", query).execute(communication);
+
+        // Then
+        verify(communication).sendCommands("7", "limit=2 type=deposit");
+        assertThat(page.getTransactions()).extracting(BankingTransaction::getSequence).containsExactly(3L, 5L);
+        assertThat(page.getTransactions()).extracting(BankingTransaction::getBalanceAfter).containsExactly(100.0, 94.5);
+        assertThat(page.getNextCursor()).isEqualTo(6L);
+        assertThat(page.getHeadSequence()).isEqualTo(9L);
+    }
+
+    @Test
+    void testExecute_LastPageHasNoCursor() throws Exception {
+        // Given
+        replay("Query: \n===== Transaction Query =====\n"
+                + "#0 [2024-03-01 09:15:02] Deposit: $100.00 -> $100.00\n" + MENU);
+
+        // When
+        TransactionPage page = new SessionTransactionQueryOperation("alice", new TransactionQuery()).execute(communication);
+
+        // Then
+        assertThat(page.getTransactions()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void testExecute_RejectedQueryThrows() throws Exception {
+        // Given
+        replay("Query: Invalid query: limit must be between 1 and 500\n" + MENU);
+
+        // When / Then
+        assertThatThrownBy(() -> new SessionTransactionQueryOperation("alice", new TransactionQuery()).execute(communication))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("limit must be between");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void replay(String output) throws Exception {
+        doAnswer(invocation -> {
+            Consumer<OutputEvent> sink = invocation.getArgument(0);
+            Predicate<OutputEvent> until = invocation.getArgument(1);
+            for (OutputEvent event : ProcessOutputTokenizer.tokenize(output)) {
+                sink.accept(event);
+                if (until.test(event)) {
+                    return true;
+                }
+            }
+            return false;
+        }).when(communication).streamOutput(any(), any(), anyLong());
+    }
+}
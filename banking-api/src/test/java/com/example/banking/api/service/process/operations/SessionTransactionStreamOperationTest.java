@@ -0,0 +1,98 @@
+package com.example.banking.api.service.process.operations;
+
+import com.example.banking.api.model.BankingTransaction;
+import com.example.banking.api.service.process.OutputEvent;
+import com.example.banking.api.service.process.ProcessCommunication;
+import com.example.banking.api.service.process.ProcessOutputTokenizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class SessionTransactionStreamOperationTest {
+
+    private static final String HISTORY = "\n===== Transaction History =====\n"
+            + "[2024-03-01 09:15:02] Deposit: $100,00\n"
+            + "[2024-03-01 09:16:30] Transfer Out: $25,50 (to bob, ref 1a2b3c)\n"
+            + "[2024-03-01 09:17:00] Withdrawal: $10,00\n"
+            + "Current Balance: $64.5\n"
+            + "\nWelcome to Simple Banking App - Logged in as: alice\n1. Deposit\n"
+            + "Please choose an option: ";
+
+    @Mock
+    private ProcessCommunication communication;
+
+    @Test
+    void testExecute_DeliversEachTransactionUntilMenuPrompt() throws Exception {
+        // Given
+        AtomicInteger eventsAfterPrompt = replayHistory();
+        List<BankingTransaction> received = new ArrayList<>();
+
+        // When
+        int count = new SessionTransactionStreamOperation("alice", received::add).execute(communication);
+
+        // Then
+        verify(communication).sendCommand("3");
+        assertThat(count).isEqualTo(3);
+        assertThat(received).extracting(BankingTransaction::getType)
+                .containsExactly("Deposit", "Transfer Out", "Withdrawal");
+        assertThat(received.get(1).getAmount()).isEqualTo(25.5);
+        assertThat(received.get(0).getTimestamp()).isEqualTo(LocalDateTime.of(2024, 3, 1, 9, 15, 2));
+        assertThat(eventsAfterPrompt.get()).isZero();
+    }
+
+    @Test
+    void testExecute_KeepsDrainingAfterSinkFailure() throws Exception {
+        // Given
+        AtomicInteger eventsAfterPrompt = replayHistory();
+        AtomicInteger calls = new AtomicInteger();
+        Consumer<BankingTransaction> failingSink = transaction -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("client disconnected");
+        };
+
+        // When / Then
+        assertThatThrownBy(() -> new SessionTransactionStreamOperation("alice", failingSink).execute(communication))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(eventsAfterPrompt.get()).isZero();
+    }
+
+    /**
+     * Replays HISTORY through the stream callback the way ProcessCommunication does,
+     * counting any events delivered after the terminating one.
+     */
+    @SuppressWarnings("unchecked")
+    private AtomicInteger replayHistory() throws Exception {
+        AtomicInteger eventsAfterPrompt = new AtomicInteger();
+        doAnswer(invocation -> {
+            Consumer<OutputEvent> sink = invocation.getArgument(0);
+            Predicate<OutputEvent> until = invocation.getArgument(1);
+            boolean done = false;
+            for (OutputEvent event : ProcessOutputTokenizer.tokenize(HISTORY)) {
+                if (done) {
+                    eventsAfterPrompt.incrementAndGet();
+                }
+                sink.accept(event);
+                done |= until.test(event);
+            }
+            return done;
+        }).when(communication).streamOutput(any(), any(), anyLong());
+        return eventsAfterPrompt;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.banking.api.service.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of("http://localhost:8081", "http://localhost:8082", "http://localhost:8083");
+    private static final int USERS = 3000;
+
+    @Test
+    void testOwner_SpreadsUsersEvenlyAndAgreesAcrossInstances() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(NODES);
+        ConsistentHashRing sameNodesOtherOrder = new ConsistentHashRing(List.of(NODES.get(2), NODES.get(0), NODES.get(1)));
+
+        // When
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < USERS; i++) {
+            String owner = ring.owner("user" + i);
+            assertThat(sameNodesOtherOrder.owner("user" + i)).isEqualTo(owner);
+            counts.merge(owner, 1, Integer::sum);
+        }
+
+        // Then - each node gets its third, give or take
+        assertThat(counts).hasSize(3);
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(USERS / 4, USERS / 2));
+    }
+
+    @Test
+    void testOwner_OnlyUsersOfDepartedNodeMove() {
+        // Given
+        ConsistentHashRing before = new ConsistentHashRing(NODES);
+        ConsistentHashRing after = new ConsistentHashRing(NODES.subList(0, 2));
+
+        // When & Then
+        for (int i = 0; i < USERS; i++) {
+            String user = "user" + i;
+            if (!before.owner(user).equals(NODES.get(2))) {
+                assertThat(after.owner(user)).isEqualTo(before.owner(user));
+            }
+        }
+    }
+
+    @Test
+    void testOwner_EmptyRingOwnsNothing() {
+        // When & Then
+        assertThat(new ConsistentHashRing(List.of()).owner("alice")).isNull();
+    }
+}
@@ -2,15 +2,18 @@ package com.example.banking.api.service.session;
 
 import com.example.banking.api.domain.model.UserSession;
 import com.example.banking.api.config.BankingApplicationProperties;
+import com.example.banking.api.service.process.ProcessPool;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import jakarta.servlet.http.HttpSession;
+import java.nio.file.Path;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,6 +28,9 @@ class SessionManagerTest {
     @Mock
     private BankingApplicationProperties bankingProperties;
 
+    @Mock
+    private ProcessPool processPool;
+
     private SessionManager sessionManager;
 
     @BeforeEach
@@ -35,8 +41,9 @@ class SessionManagerTest {
         // Set configuration values using reflection
         ReflectionTestUtils.setField(sessionManager, "maxConcurrentSessions", 10);
         ReflectionTestUtils.setField(sessionManager, "processIdleTimeoutMs", 60000L);
-        ReflectionTestUtils.setField(sessionManager, "cleanupIntervalMs", 10000L);
         ReflectionTestUtils.setField(sessionManager, "bankingProperties", bankingProperties);
+        ReflectionTestUtils.setField(sessionManager, "sessionStore", new SessionStore());
+        ReflectionTestUtils.setField(sessionManager, "processPool", processPool);
         
         // Initialize cleanup task
         sessionManager.initializeCleanupTask();
@@ -157,10 +164,11 @@ class SessionManagerTest {
         // When
         sessionManager.invalidateSession(sessionId);
 
-        // Then
+        // Then - the user's process is released, not killed, as other sessions may share it
         assertFalse(createdSession.isActive());
         Optional<UserSession> retrievedSession = sessionManager.getSession(sessionId);
         assertFalse(retrievedSession.isPresent());
+        verify(processPool).releaseProcess(createdSession);
     }
 
     @Test
@@ -240,9 +248,9 @@ class SessionManagerTest {
         UserSession createdSession = sessionManager.createSession(username, httpSession);
         var initialLastAccessed = createdSession.getLastAccessedAt();
 
-        // Wait a bit to ensure timestamp difference
+        // Wait past the clock's resolution to ensure a timestamp difference
         try {
-            Thread.sleep(10);
+            Thread.sleep(50);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
@@ -278,4 +286,88 @@ class SessionManagerTest {
         assertTrue(activeSessions.stream().anyMatch(s -> s.getUsername().equals("testuser")));
         assertTrue(activeSessions.stream().anyMatch(s -> s.getUsername().equals("user2")));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCleanupExpiredSessions_ExpiresIdleSessionAndRearmsActiveOne() throws InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(sessionManager, "processIdleTimeoutMs", 1500L);
+        when(httpSession.getId()).thenReturn("idle-session", "active-session");
+        UserSession idle = sessionManager.createSession("idle", httpSession);
+        UserSession active = sessionManager.createSession("active", httpSession);
+
+        // When - keep one session in use past the idle timeout
+        long deadline = System.currentTimeMillis() + 5000;
+        while (idle.isActive() && System.currentTimeMillis() < deadline) {
+            active.updateLastAccessed();
+            Thread.sleep(50);
+        }
+
+        // Then
+        assertFalse(idle.isActive());
+        assertFalse(sessionManager.getSession("idle-session").isPresent());
+        assertTrue(active.isActive());
+        assertEquals(1, sessionManager.getActiveSessionCount());
+    }
+
+    @Test
+    void testInitialize_RestoresStoredSessionsThatHaveNotExpired(@TempDir Path directory) {
+        // Given - a store written by a previous run
+        long now = System.currentTimeMillis();
+        SessionStore store = SessionStoreTest.store(directory.resolve("sessions.db"), 10);
+        store.save("recent-session", "alice", now - 5000, now - 1000);
+        store.save("stale-session", "bob", now - 300000, now - 120000);
+        SessionManager restarted = new SessionManager();
+        ReflectionTestUtils.setField(restarted, "maxConcurrentSessions", 10);
+        ReflectionTestUtils.setField(restarted, "processIdleTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(restarted, "sessionStore", store);
+        ReflectionTestUtils.setField(restarted, "processPool", processPool);
+
+        // When
+        restarted.initializeCleanupTask();
+
+        // Then
+        try {
+            assertEquals(0, restarted.getActiveSessionCount());
+            Optional<UserSession> recent = restarted.getSession("recent-session");
+            assertTrue(recent.isPresent());
+            assertEquals("recent-session", recent.get().getSessionId());
+            assertEquals("alice", recent.get().getUsername());
+            assertTrue(recent.get().isRestored());
+            assertFalse(restarted.getSession("stale-session").isPresent());
+            assertEquals(1, store.size());
+            assertEquals(1, restarted.getPendingExpiryCount());
+            assertFalse(restarted.getSession(SessionStore.digest("recent-session")).isPresent());
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    @Test
+    void testCleanup_DropsRestoredSessionNobodyClaims(@TempDir Path directory) throws Exception {
+        // Given - a stored session with about a second left
+        long now = System.currentTimeMillis();
+        SessionStore store = SessionStoreTest.store(directory.resolve("sessions.db"), 10);
+        store.save("abandoned-session", "alice", now - 60000, now - 59000);
+        SessionManager restarted = new SessionManager();
+        ReflectionTestUtils.setField(restarted, "maxConcurrentSessions", 10);
+        ReflectionTestUtils.setField(restarted, "processIdleTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(restarted, "sessionStore", store);
+        ReflectionTestUtils.setField(restarted, "processPool", processPool);
+        restarted.initializeCleanupTask();
+
+        try {
+            // When
+            long deadline = System.currentTimeMillis() + 5000;
+            while (store.size() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+
+            // Then
+            assertEquals(0, store.size());
+            assertEquals(0, restarted.getPendingExpiryCount());
+            assertFalse(restarted.getSession("abandoned-session").isPresent());
+        } finally {
+            restarted.shutdown();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.banking.api.service.session;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SessionStoreTest {
+
+    @TempDir
+    Path directory;
+
+    static SessionStore store(Path file, int capacity) {
+        SessionStore store = new SessionStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "path", file.toString());
+        ReflectionTestUtils.setField(store, "capacity", capacity);
+        store.open();
+        return store;
+    }
+
+    @Test
+    void testLoad_ReturnsSessionsSavedByThePreviousRun() {
+        // Given
+        Path file = directory.resolve("sessions.db");
+        SessionStore before = store(file, 10);
+        before.save("session-1", "alice", 1000L, 2000L);
+        before.save("session-2", "bob", 1000L, 2000L);
+        before.touch("session-1", 5000L);
+        before.remove("session-2");
+        before.flush();
+
+        // When
+        List<SessionStore.StoredSession> loaded = store(file, 10).load();
+
+        // Then
+        assertThat(loaded).hasSize(1);
+        SessionStore.StoredSession session = loaded.get(0);
+        assertThat(session.getSessionDigest()).isEqualTo(SessionStore.digest("session-1"));
+        assertThat(session.getUsername()).isEqualTo("alice");
+        assertThat(session.getCreatedAtMillis()).isEqualTo(1000L);
+        assertThat(session.getLastAccessedAtMillis()).isEqualTo(5000L);
+    }
+
+    @Test
+    void testSave_RefusesSessionsBeyondCapacityAndReusesFreedSlots() {
+        // Given
+        SessionStore store = store(directory.resolve("sessions.db"), 2);
+        assertThat(store.save("session-1", "alice", 0L, 0L)).isTrue();
+        assertThat(store.save("session-2", "bob", 0L, 0L)).isTrue();
+
+        // When
+        boolean overCapacity = store.save("session-3", "carol", 0L, 0L);
+        store.remove("session-1");
+        boolean afterRemove = store.save("session-3", "carol", 0L, 0L);
+
+        // Then
+        assertThat(overCapacity).isFalse();
+        assertThat(afterRemove).isTrue();
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.save("session-4", "x".repeat(SessionStore.MAX_FIELD_BYTES + 1), 0L, 0L)).isFalse();
+    }
+
+    @Test
+    void testSave_StoresOnlyTheDigestOfTheSessionId() throws Exception {
+        // Given
+        Path file = directory.resolve("sessions.db");
+        SessionStore store = store(file, 4);
+
+        // When
+        store.save("SECRET-SESSION-ID", "alice", 0L, 0L);
+        store.flush();
+
+        // Then - the id is a bearer credential and must not be readable from the file
+        String contents = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+        assertThat(contents).doesNotContain("SECRET-SESSION-ID");
+        assertThat(contents).contains(SessionStore.digest("SECRET-SESSION-ID"));
+    }
+
+    @Test
+    void testOpen_CreatesFileReadableByOwnerOnly() throws Exception {
+        // Given
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Path file = directory.resolve("sessions.db");
+
+        // When
+        store(file, 4);
+
+        // Then
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file))).isEqualTo("rw-------");
+    }
+
+    @Test
+    void testOpen_StartsEmptyFromFileInAnotherFormat() throws Exception {
+        // Given
+        Path file = directory.resolve("sessions.db");
+        Files.writeString(file, "not a session store");
+
+        // When
+        SessionStore store = store(file, 4);
+
+        // Then
+        assertThat(store.load()).isEmpty();
+        assertThat(store.save("session-1", "alice", 0L, 0L)).isTrue();
+    }
+
+    @Test
+    void testDisabledStore_KeepsNothing() {
+        // Given
+        SessionStore store = new SessionStore();
+        store.open();
+
+        // When
+        boolean saved = store.save("session-1", "alice", 0L, 0L);
+        store.touch("session-1", 1L);
+        store.remove("session-1");
+
+        // Then
+        assertThat(saved).isFalse();
+        assertThat(store.load()).isEmpty();
+        assertThat(store.isEnabled()).isFalse();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.banking.api.service.session;
+
+import com.example.banking.api.domain.model.UserSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionTokenServiceTest {
+
+    private final UserSession session = new UserSession("session-1", "alice");
+    private SessionTokenService tokens;
+
+    private static SessionTokenService service(String secret, String nodeId, long ttlMs) {
+        SessionTokenService service = new SessionTokenService();
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "secret", secret);
+        ReflectionTestUtils.setField(service, "nodeId", nodeId);
+        ReflectionTestUtils.setField(service, "ttlMs", ttlMs);
+        service.initializeKey();
+        return service;
+    }
+
+    @BeforeEach
+    void setUp() {
+        tokens = service("shared-secret", "node-a", 60000);
+    }
+
+    @Test
+    void testVerify_AcceptsIssuedTokenOnAnyNodeWithTheSecret() {
+        // Given
+        SessionToken issued = tokens.issue(session);
+        SessionTokenService otherNode = service("shared-secret", "node-b", 60000);
+
+        // When
+        Optional<SessionToken> verified = otherNode.verify(issued.getValue());
+
+        // Then
+        assertThat(verified).isPresent();
+        assertThat(verified.get().getSessionId()).isEqualTo("session-1");
+        assertThat(verified.get().getUsername()).isEqualTo("alice");
+        assertThat(verified.get().getNodeId()).isEqualTo("node-a");
+        assertThat(otherNode.isLocal(verified.get())).isFalse();
+        assertThat(tokens.isLocal(verified.get())).isTrue();
+    }
+
+    @Test
+    void testVerify_RejectsTamperedClaims() {
+        // Given - swap the username for another user's while keeping the signature
+        String value = tokens.issue(session).getValue();
+        String bob = tokens.issue(new UserSession("session-1", "bob")).getValue();
+        String[] parts = value.split("\\.");
+        parts[1] = bob.split("\\.")[1];
+
+        // When & Then
+        assertThat(tokens.verify(String.join(".", parts))).isEmpty();
+    }
+
+    @Test
+    void testVerify_RejectsTokenSignedWithAnotherSecret() {
+        // Given
+        String value = service("other-secret", "node-a", 60000).issue(session).getValue();
+
+        // When & Then
+        assertThat(tokens.verify(value)).isEmpty();
+    }
+
+    @Test
+    void testVerify_RejectsExpiredAndMalformedTokens() {
+        // Given
+        String expired = service("shared-secret", "node-a", 0).issue(session).getValue();
+
+        // When & Then
+        assertThat(tokens.verify(expired)).isEmpty();
+        assertThat(tokens.verify("not-a-token")).isEmpty();
+        assertThat(tokens.verify("a.b.c.d.!!!")).isEmpty();
+    }
+}
@@ -5,11 +5,45 @@ import com.example.banking.persistence.UserRepository;
 import com.example.banking.ui.BankingUI;
 import com.example.banking.user.UserManager;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Main class for the banking application.
  */
 public class BankingApp {
-    public static void main(String[] args) {
+    /**
+     * Environment variable naming a user to start logged in as. It is only honoured if the
+     * first input line, or the first after standby, is a valid {@link ResumeProof} for the user.
+     */
+    static final String RESUME_USER_ENV = "BANKING_RESUME_USER";
+
+    /**
+     * Environment variable that makes the application boot, print {@link #STANDBY_MARKER} and
+     * wait for an empty input line before it loads any data.
+     */
+    static final String STANDBY_ENV = "BANKING_STANDBY";
+
+    static final String STANDBY_MARKER = "Standing by";
+
+    public static void main(String[] args) throws IOException {
+        // The banking API starts a replacement for a process ahead of time, and lets it read the data once the old one is done
+        if (System.getenv(STANDBY_ENV) != null) {
+            System.out.println(STANDBY_MARKER);
+            readLine();
+        }
+
+        // The banking API sets this when it reattaches a session it authenticated earlier, and proves it did
+        String resumeUser = System.getenv(RESUME_USER_ENV);
+        boolean resume = false;
+        if (resumeUser != null && !resumeUser.isEmpty()) {
+            resume = ResumeProof.verify(resumeUser, readLine());
+            if (!resume) {
+                System.out.println("Resume refused: invalid or expired proof.");
+            }
+        }
+
         // Create a file-based repository for persistence
         UserRepository repository = new FileUserRepository();
         
@@ -24,6 +58,25 @@ public class BankingApp {
         
         // Create and start the UI
         BankingUI ui = new BankingUI(userManager);
+        
+        if (resume) {
+            ui.resume(resumeUser);
+        }
         ui.start();
     }
+
+    /**
+     * Reads one line from standard input byte by byte, so nothing past it is buffered away
+     * from the UI's scanner.
+     */
+    private static String readLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int next;
+        while ((next = System.in.read()) != -1 && next != '\n') {
+            if (next != '\r') {
+                line.write(next);
+            }
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.example.banking;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Checks the proof the banking API sends before the application starts logged in as a user
+ * without a password. The proof is the expiry in epoch milliseconds and the URL-safe base64
+ * HMAC-SHA256 of the username and expiry, separated by a dot, signed with the key the API
+ * keeps in {@value #KEY_FILE}. The key file is only readable by the API's user, so naming a
+ * user in the environment is not enough to log in as them.
+ */
+final class ResumeProof {
+    static final String KEY_FILE = "banking_resume.key";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int KEY_BYTES = 32;
+
+    private ResumeProof() {
+    }
+
+    /**
+     * Checks a proof against the key in the working directory.
+     *
+     * @return false if the proof is forged, expired, for another user, or there is no key
+     */
+    static boolean verify(String username, String proof) {
+        byte[] key;
+        try {
+            key = Files.readAllBytes(Path.of(KEY_FILE));
+        } catch (IOException e) {
+            return false;
+        }
+        return verify(key, username, proof, System.currentTimeMillis());
+    }
+
+    static boolean verify(byte[] key, String username, String proof, long nowMillis) {
+        if (key.length < KEY_BYTES || proof == null) {
+            return false;
+        }
+        int separator = proof.indexOf('.');
+        if (separator < 0) {
+            return false;
+        }
+        try {
+            long expiresAtMillis = Long.parseLong(proof.substring(0, separator));
+            byte[] signature = Base64.getUrlDecoder().decode(proof.substring(separator + 1));
+            byte[] expected = sign(key, username + '\n' + expiresAtMillis);
+            return MessageDigest.isEqual(signature, expected) && nowMillis < expiresAtMillis;
+        } catch (IllegalArgumentException e) {
+            // Bad base64 or a non-numeric expiry
+            return false;
+        }
+    }
+
+    static byte[] sign(byte[] key, String claims) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key, ALGORITHM));
+            return mac.doFinal(claims.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package com.example.banking.domain;
 
 import com.example.banking.user.User;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Represents a bank account, managing balance and transactions.
  * Implements Serializable for persistence.
+ *
+ * Transactions are kept in timestamp order, so the list doubles as a time index:
+ * date-range queries binary-search it instead of scanning. Each transaction also
+ * records the balance it left behind, so pages carry running balances without
+ * replaying the history.
  */
 public class Account implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -35,46 +44,101 @@ public class Account implements Serializable {
 
     /**
      * Deposits a specified amount into the account.
+     * Success is only printed once the deposit is saved.
      * @param amount The amount to deposit. Must be positive.
+     * @throws java.io.UncheckedIOException if the deposit could not be saved; it is then not applied
      */
     public void deposit(double amount) {
-        if (amount > 0) {
-            balance += amount;
-            transactions.add(new Transaction("Deposit", amount));
-            System.out.println("Successfully deposited $" + amount);
-            System.out.println("Current Balance: $" + getBalance());
-            
-            // Notify the user manager to update persistence
-            if (owner != null && owner.getUserManager() != null) {
-                owner.getUserManager().updateUser(owner);
-            }
-        } else {
+        if (amount <= 0) {
             System.out.println("Deposit amount must be positive.");
+            return;
         }
+        update(() -> {
+            balance += amount;
+            record(new Transaction("Deposit", amount));
+            return true;
+        });
+        System.out.println("Successfully deposited $" + amount);
+        System.out.println("Current Balance: $" + getBalance());
     }
 
     /**
      * Withdraws a specified amount from the account.
+     * Success is only printed once the withdrawal is saved.
      * @param amount The amount to withdraw. Must be positive and not exceed balance.
+     * @throws java.io.UncheckedIOException if the withdrawal could not be saved; it is then not applied
      */
     public void withdraw(double amount) {
         if (amount <= 0) {
             System.out.println("Withdrawal amount must be positive.");
-        } else if (amount > balance) {
-            System.out.println("Insufficient funds. Current balance: $" + balance);
-        } else {
+            return;
+        }
+        boolean withdrawn = update(() -> {
+            if (amount > balance) {
+                return false;
+            }
             balance -= amount;
-            transactions.add(new Transaction("Withdrawal", amount));
+            record(new Transaction("Withdrawal", amount));
+            return true;
+        });
+        if (withdrawn) {
             System.out.println("Successfully withdrew $" + amount);
             System.out.println("Current Balance: $" + getBalance());
-            
-            // Notify the user manager to update persistence
-            if (owner != null && owner.getUserManager() != null) {
-                owner.getUserManager().updateUser(owner);
-            }
+        } else {
+            System.out.println("Insufficient funds. Current balance: $" + balance);
         }
     }
 
+    /**
+     * Runs a change through the user manager, which brings the account up to date with
+     * storage first and persists the change, or runs it directly if there is no owner.
+     */
+    private <T> T update(Supplier<T> change) {
+        if (owner != null && owner.getUserManager() != null) {
+            return owner.getUserManager().updateUser(owner, change);
+        }
+        return change.get();
+    }
+
+    /**
+     * Debits the outgoing leg of a transfer.
+     * Does not print or persist; the caller holds the transfer lock and saves once
+     * both legs have been applied.
+     * @param amount The amount to transfer. Must be positive.
+     * @param recipient The username receiving the funds.
+     * @param reference The reference shared by both legs of the transfer.
+     * @return true if the account had sufficient funds and was debited.
+     */
+    public boolean transferOut(double amount, String recipient, String reference) {
+        if (amount <= 0 || amount > balance) {
+            return false;
+        }
+        balance -= amount;
+        record(new Transaction(Transaction.TRANSFER_OUT, amount, recipient, reference));
+        return true;
+    }
+
+    /**
+     * Credits the incoming leg of a transfer.
+     * Does not print or persist; the caller holds the transfer lock.
+     * @param amount The amount received. Must be positive.
+     * @param sender The username sending the funds.
+     * @param reference The reference shared by both legs of the transfer.
+     */
+    public void transferIn(double amount, String sender, String reference) {
+        balance += amount;
+        record(new Transaction(Transaction.TRANSFER_IN, amount, sender, reference));
+    }
+
+    /**
+     * Takes on the balance and history of a newer copy of this account.
+     * The owner reference is kept.
+     */
+    public void refreshFrom(Account stored) {
+        this.balance = stored.balance;
+        this.transactions = stored.transactions;
+    }
+
     /**
      * Gets the current balance of the account.
      * @return The current balance.
@@ -99,6 +163,75 @@ public class Account implements Serializable {
         System.out.println("Current Balance: $" + balance);
     }
     
+    /**
+     * Runs a filtered, paginated query against the history.
+     * The date range is located by binary search; only transactions inside it are
+     * tested against the remaining filters, and scanning stops once the page is full.
+     * @param query The query to run.
+     * @return The matching page, with a cursor if the range may hold more matches.
+     */
+    public TransactionPage query(TransactionQuery query) {
+        int start = Math.max(query.getCursor(), query.getFrom() == null ? 0 : firstAtOrAfter(query.getFrom()));
+        int end = query.getTo() == null ? transactions.size() : firstAtOrAfter(query.getTo());
+
+        List<TransactionPage.Entry> entries = new ArrayList<>(Math.min(query.getLimit(), Math.max(end - start, 0)));
+        int i = start;
+        for (; i < end && entries.size() < query.getLimit(); i++) {
+            Transaction transaction = transactions.get(i);
+            if (query.matches(transaction)) {
+                entries.add(new TransactionPage.Entry(i, transaction));
+            }
+        }
+        return new TransactionPage(entries, i < end ? i : null, transactions.size() - 1);
+    }
+
+    /**
+     * Finds the position of the first transaction at or after a timestamp.
+     */
+    private int firstAtOrAfter(LocalDateTime timestamp) {
+        int low = 0;
+        int high = transactions.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (transactions.get(mid).getTimestamp().isBefore(timestamp)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Appends a transaction after the balance has been updated, stamping the running
+     * balance and keeping the history in timestamp order.
+     */
+    private void record(Transaction transaction) {
+        if (!transactions.isEmpty()) {
+            transaction.notBefore(transactions.get(transactions.size() - 1).getTimestamp());
+        }
+        transaction.setBalanceAfter(balance);
+        transactions.add(transaction);
+    }
+
+    /**
+     * Rebuilds running balances and timestamp order for histories saved before
+     * either was maintained. Replaying from zero reproduces the live values.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        double running = 0.0;
+        LocalDateTime previous = null;
+        for (Transaction transaction : transactions) {
+            running += transaction.getSignedAmount();
+            transaction.setBalanceAfter(running);
+            if (previous != null) {
+                transaction.notBefore(previous);
+            }
+            previous = transaction.getTimestamp();
+        }
+    }
+
     /**
      * Gets the list of transactions for this account.
      * @return The list of transactions.
@@ -10,10 +10,16 @@ import java.time.format.DateTimeFormatter;
  */
 public class Transaction implements Serializable {
     private static final long serialVersionUID = 1L;
+
+    public static final String TRANSFER_IN = "Transfer In";
+    public static final String TRANSFER_OUT = "Transfer Out";
     
     private String type;
     private double amount;
     private LocalDateTime timestamp;
+    private String counterparty;
+    private String reference;
+    private double balanceAfter;
     private static final transient DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     /**
@@ -27,6 +33,20 @@ public class Transaction implements Serializable {
         this.timestamp = LocalDateTime.now();
     }
 
+    /**
+     * Constructor for a transaction that is one leg of a transfer.
+     * Both legs of a transfer share the same reference so they can be linked.
+     * @param type The type of transaction (e.g., "Transfer In", "Transfer Out").
+     * @param amount The amount of the transaction.
+     * @param counterparty The username on the other side of the transfer.
+     * @param reference The reference shared by both legs of the transfer.
+     */
+    public Transaction(String type, double amount, String counterparty, String reference) {
+        this(type, amount);
+        this.counterparty = counterparty;
+        this.reference = reference;
+    }
+
     public String getType() {
         return type;
     }
@@ -39,15 +59,60 @@ public class Transaction implements Serializable {
         return timestamp;
     }
 
+    public String getCounterparty() {
+        return counterparty;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    /**
+     * Gets the account balance immediately after this transaction was applied.
+     * @return The running balance.
+     */
+    public double getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    void setBalanceAfter(double balanceAfter) {
+        this.balanceAfter = balanceAfter;
+    }
+
+    /**
+     * Gets the signed effect of this transaction on the balance.
+     * @return The amount, negative for withdrawals and outgoing transfers.
+     */
+    public double getSignedAmount() {
+        return "Withdrawal".equals(type) || TRANSFER_OUT.equals(type) ? -amount : amount;
+    }
+
+    /**
+     * Moves the timestamp forward to {@code earliest} if it is older, so an account's
+     * history stays in timestamp order even if the wall clock steps back.
+     */
+    void notBefore(LocalDateTime earliest) {
+        if (timestamp.isBefore(earliest)) {
+            timestamp = earliest;
+        }
+    }
+
     /**
      * Returns a string representation of the transaction.
      * @return Formatted string with transaction type and amount.
      */
     @Override
     public String toString() {
-        return String.format("[%s] %s: $%.2f", 
+        String line = String.format("[%s] %s: $%.2f", 
             timestamp.format(formatter), 
             type, 
             amount);
+        if (reference != null) {
+            line += String.format(" (%s %s, ref %s)", 
+                TRANSFER_IN.equals(type) ? "from" : "to", 
+                counterparty, 
+                reference);
+        }
+        return line;
     }
 }
\ No newline at end of file
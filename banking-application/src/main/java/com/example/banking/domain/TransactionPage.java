@@ -0,0 +1,60 @@
+package com.example.banking.domain;
+
+import java.util.List;
+
+/**
+ * One page of a {@link TransactionQuery} result.
+ */
+public class TransactionPage {
+
+    /**
+     * A matching transaction and its position in the account history.
+     */
+    public static class Entry {
+        private final int sequence;
+        private final Transaction transaction;
+
+        Entry(int sequence, Transaction transaction) {
+            this.sequence = sequence;
+            this.transaction = transaction;
+        }
+
+        public int getSequence() {
+            return sequence;
+        }
+
+        public Transaction getTransaction() {
+            return transaction;
+        }
+    }
+
+    private final List<Entry> entries;
+    private final Integer nextCursor;
+    private final int headSequence;
+
+    TransactionPage(List<Entry> entries, Integer nextCursor, int headSequence) {
+        this.entries = entries;
+        this.nextCursor = nextCursor;
+        this.headSequence = headSequence;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Gets the cursor for the next page.
+     * @return The sequence number to resume from, or null if the range is exhausted.
+     */
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Gets the sequence number of the newest transaction in the account, whatever the filters.
+     * @return The head sequence, or -1 if the account has no transactions.
+     */
+    public int getHeadSequence() {
+        return headSequence;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.banking.domain;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * A filtered, paginated query over an account's transaction history.
+ * Parsed from a single line of space-separated key=value pairs, for example
+ * {@code type=deposit from=2024-03-01T00:00:00 min=10 cursor=40 limit=20}.
+ * Every key is optional:
+ * <ul>
+ *   <li>{@code type}: deposit, withdrawal, transfer_in or transfer_out</li>
+ *   <li>{@code from}, {@code to}: ISO-8601 local date-times, from inclusive and to exclusive</li>
+ *   <li>{@code min}, {@code max}: inclusive amount bounds</li>
+ *   <li>{@code cursor}: sequence number to resume from, as returned by a previous page</li>
+ *   <li>{@code since}: only transactions after this sequence number, for clients that already
+ *       hold everything up to a previous page's head sequence; shorthand for cursor=since+1</li>
+ *   <li>{@code limit}: page size, 1 to {@value #MAX_LIMIT}, default {@value #DEFAULT_LIMIT}</li>
+ * </ul>
+ */
+public class TransactionQuery {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private String type;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private double minAmount = Double.NEGATIVE_INFINITY;
+    private double maxAmount = Double.POSITIVE_INFINITY;
+    private int cursor;
+    private int limit = DEFAULT_LIMIT;
+
+    /**
+     * Parses a query line.
+     * @param spec Space-separated key=value pairs; blank means the first page of everything.
+     * @return The parsed query.
+     * @throws IllegalArgumentException if a key is unknown or a value is malformed.
+     */
+    public static TransactionQuery parse(String spec) {
+        TransactionQuery query = new TransactionQuery();
+        if (spec == null || spec.isBlank()) {
+            return query;
+        }
+        for (String pair : spec.trim().split("\\s+")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("expected key=value but got '" + pair + "'");
+            }
+            String key = pair.substring(0, eq);
+            String value = pair.substring(eq + 1);
+            try {
+                switch (key) {
+                    case "type": query.type = typeLabel(value); break;
+                    case "from": query.from = LocalDateTime.parse(value); break;
+                    case "to": query.to = LocalDateTime.parse(value); break;
+                    case "min": query.minAmount = Double.parseDouble(value); break;
+                    case "max": query.maxAmount = Double.parseDouble(value); break;
+                    case "cursor": query.cursor = nonNegative(key, Integer.parseInt(value)); break;
+                    case "since": query.cursor = Math.min(nonNegative(key, Integer.parseInt(value)), Integer.MAX_VALUE - 1) + 1; break;
+                    case "limit": query.limit = limit(Integer.parseInt(value)); break;
+                    default: throw new IllegalArgumentException("unknown key '" + key + "'");
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("bad value for " + key + ": '" + value + "'");
+            }
+        }
+        return query;
+    }
+
+    private static String typeLabel(String value) {
+        switch (value.toLowerCase()) {
+            case "deposit": return "Deposit";
+            case "withdrawal": return "Withdrawal";
+            case "transfer_in": return Transaction.TRANSFER_IN;
+            case "transfer_out": return Transaction.TRANSFER_OUT;
+            default: throw new IllegalArgumentException("unknown type '" + value + "'");
+        }
+    }
+
+    private static int nonNegative(String key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException(key + " must not be negative");
+        }
+        return value;
+    }
+
+    private static int limit(int value) {
+        if (value < 1 || value > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return value;
+    }
+
+    /**
+     * Checks the filters that the timestamp index cannot answer.
+     * @param transaction A transaction already known to be inside the date range.
+     * @return true if the transaction matches the type and amount filters.
+     */
+    boolean matches(Transaction transaction) {
+        return (type == null || type.equals(transaction.getType()))
+                && transaction.getAmount() >= minAmount
+                && transaction.getAmount() <= maxAmount;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public int getCursor() {
+        return cursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
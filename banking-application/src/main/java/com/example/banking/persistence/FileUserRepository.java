@@ -5,27 +5,70 @@ import com.example.banking.domain.Transaction;
 import com.example.banking.domain.Account;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * File-based implementation of UserRepository.
  * Stores users and their transactions in a serialized file.
+ *
+ * Several banking processes share the file, each with its own copy of the users. A save
+ * therefore writes only the users this process changed or deleted, over whatever the file
+ * holds by then, under a lock on a companion file. The file is replaced in one rename, so a
+ * process killed mid-save leaves the previous version intact.
+ *
+ * A user may also be changed by another process, e.g. credited by a transfer while the
+ * recipient's own process holds a copy of the account. Every save bumps the saved users'
+ * versions, and changes go through {@link #update}, which reloads any user whose stored
+ * version differs from this process's copy before applying the change, under the same lock.
+ * A changed copy that is found stale when saved is never written over the stored one.
+ * A change that cannot be saved is undone and reported, so no account holds a change the
+ * file does not.
  */
 public class FileUserRepository implements UserRepository {
     private static final String DATA_FILE = "banking_data.ser";
+    private final Path dataFile;
+    private final Path lockFile;
     private Map<String, User> userCache;
+    /** Each user as last read from or written to the file, serialized, to tell which ones changed here */
+    private final Map<String, byte[]> storedForms = new HashMap<>();
+    private final Set<String> deletedUsers = new HashSet<>();
 
     public FileUserRepository() {
+        this(Path.of(DATA_FILE));
+    }
+
+    /**
+     * Creates a repository on the given data file, with its lock file next to it.
+     */
+    public FileUserRepository(Path dataFile) {
+        this.dataFile = dataFile;
+        this.lockFile = Path.of(dataFile + ".lock");
         this.userCache = new HashMap<>();
         loadData();
     }
 
     @Override
     public void saveUser(User user) {
-        userCache.put(user.getUsername(), user);
+        User replaced = userCache.put(user.getUsername(), user);
+        if (replaced != null && replaced != user) {
+            // A new copy replaces the user outright, as of the version it replaces
+            user.setVersion(replaced.getVersion());
+        }
+        deletedUsers.remove(user.getUsername());
         saveData();
     }
     
@@ -51,6 +94,7 @@ public class FileUserRepository implements UserRepository {
     public boolean deleteUser(String username) {
         if (userCache.containsKey(username)) {
             userCache.remove(username);
+            deletedUsers.add(username);
             saveData();
             return true;
         }
@@ -62,15 +106,66 @@ public class FileUserRepository implements UserRepository {
         saveData();
     }
 
+    @Override
+    public synchronized <T> T update(Collection<User> users, Supplier<T> change) {
+        boolean applied = false;
+        try (FileChannel lockChannel = openLockChannel();
+             FileLock ignored = lockChannel.lock()) {
+            Map<String, User> stored = readStored();
+            for (User user : users) {
+                refreshFrom(user, stored);
+            }
+            T result = change.get();
+            applied = true;
+            writeChanges(stored);
+            return result;
+        } catch (IOException e) {
+            if (applied) {
+                restore(users);
+            }
+            throw new UncheckedIOException("Error saving user data: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized User loadUser(String username) {
+        User user = userCache.get(username);
+        if (user == null && !deletedUsers.contains(username)) {
+            try {
+                user = readStored().get(username);
+                if (user != null) {
+                    storedForms.put(username, serialize(user));
+                    userCache.put(username, user);
+                }
+            } catch (IOException e) {
+                System.err.println("Error loading user data: " + e.getMessage());
+                return null;
+            }
+        }
+        return user;
+    }
+
+    @Override
+    public synchronized void refresh(User user) {
+        // The file is only ever replaced whole, so it can be read without the lock
+        try {
+            refreshFrom(user, readStored());
+        } catch (IOException e) {
+            System.err.println("Error refreshing user data: " + e.getMessage());
+        }
+    }
+
     /**
      * Loads user data from file.
      */
-    @SuppressWarnings("unchecked")
     private void loadData() {
-        File file = new File(DATA_FILE);
+        File file = dataFile.toFile();
         if (file.exists()) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                userCache = (Map<String, User>) ois.readObject();
+            try {
+                userCache = readUsers(file);
+                for (Map.Entry<String, User> entry : userCache.entrySet()) {
+                    storedForms.put(entry.getKey(), serialize(entry.getValue()));
+                }
                 System.out.println("Loaded " + userCache.size() + " users from storage.");
             } catch (IOException | ClassNotFoundException e) {
                 System.err.println("Error loading user data: " + e.getMessage());
@@ -80,14 +175,116 @@ public class FileUserRepository implements UserRepository {
     }
 
     /**
-     * Saves user data to file.
+     * Saves the users changed or deleted in this process to file, keeping the other users as
+     * the file has them.
      */
-    private void saveData() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(DATA_FILE))) {
-            oos.writeObject(userCache);
-            System.out.println("Saved " + userCache.size() + " users to storage.");
+    private synchronized void saveData() {
+        try (FileChannel lockChannel = openLockChannel();
+             FileLock ignored = lockChannel.lock()) {
+            writeChanges(readStored());
         } catch (IOException e) {
             System.err.println("Error saving user data: " + e.getMessage());
         }
     }
+
+    private FileChannel openLockChannel() throws IOException {
+        return FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Reads the users as the file has them now, or none if there is no file yet.
+     *
+     * @throws IOException if the file cannot be read; saving over it would lose the other
+     *         processes' users
+     */
+    private Map<String, User> readStored() throws IOException {
+        File file = dataFile.toFile();
+        if (!file.exists()) {
+            return new HashMap<>();
+        }
+        try {
+            return readUsers(file);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unreadable user data", e);
+        }
+    }
+
+    /**
+     * Brings this process's copy of a user up to date if another process has saved it since.
+     */
+    private void refreshFrom(User user, Map<String, User> stored) throws IOException {
+        User saved = stored.get(user.getUsername());
+        if (saved != null && saved.getVersion() != user.getVersion()) {
+            user.refreshFrom(saved);
+            storedForms.put(user.getUsername(), serialize(user));
+        }
+    }
+
+    /**
+     * Puts users back as they were last read from or written to the file, undoing a change
+     * that could not be saved.
+     */
+    private void restore(Collection<User> users) {
+        for (User user : users) {
+            byte[] storedForm = storedForms.get(user.getUsername());
+            if (storedForm == null) {
+                continue;
+            }
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(storedForm))) {
+                user.refreshFrom((User) ois.readObject());
+            } catch (IOException | ClassNotFoundException e) {
+                System.err.println("Error restoring user " + user.getUsername() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes the users changed or deleted in this process over the stored ones and replaces
+     * the file. Must be called holding the file lock.
+     */
+    private void writeChanges(Map<String, User> stored) throws IOException {
+        Map<String, byte[]> written = new HashMap<>();
+        for (Map.Entry<String, User> entry : userCache.entrySet()) {
+            User user = entry.getValue();
+            if (Arrays.equals(serialize(user), storedForms.get(entry.getKey()))) {
+                continue;
+            }
+            User saved = stored.get(entry.getKey());
+            if (saved != null && saved.getVersion() != user.getVersion()) {
+                // Changed here without being brought up to date first; the stored copy wins
+                System.err.println("User " + entry.getKey() + " was changed by another process; keeping its stored copy.");
+                user.refreshFrom(saved);
+            } else {
+                user.setVersion(user.getVersion() + 1);
+                stored.put(entry.getKey(), user);
+            }
+            written.put(entry.getKey(), serialize(user));
+        }
+        stored.keySet().removeAll(deletedUsers);
+
+        Path temp = Path.of(dataFile + ".tmp");
+        try (ObjectOutputStream oos = new ObjectOutputStream(Files.newOutputStream(temp))) {
+            oos.writeObject(stored);
+        }
+        Files.move(temp, dataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        storedForms.putAll(written);
+        storedForms.keySet().removeAll(deletedUsers);
+        deletedUsers.clear();
+        System.out.println("Saved " + stored.size() + " users to storage.");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, User> readUsers(File file) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
+            return (Map<String, User>) ois.readObject();
+        }
+    }
+
+    private static byte[] serialize(User user) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(user);
+        }
+        return bytes.toByteArray();
+    }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.example.banking.persistence;
 
 import com.example.banking.user.User;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Interface for user data persistence.
@@ -36,4 +38,33 @@ public interface UserRepository {
      * Saves all users in the cache.
      */
     void saveAllUsers();
+
+    /**
+     * Applies a change to some users and saves it as one step. A repository shared with other
+     * processes first brings the users up to date with what those processes saved, and keeps
+     * them from saving the users until the change is stored.
+     * By default the change is applied and each user updated.
+     *
+     * @throws java.io.UncheckedIOException if the change could not be saved; a repository
+     *         that can tell undoes the change first
+     */
+    default <T> T update(Collection<User> users, Supplier<T> change) {
+        T result = change.get();
+        users.forEach(this::updateUser);
+        return result;
+    }
+
+    /**
+     * Retrieves a user by username, including one another process stored after this
+     * repository was loaded.
+     */
+    default User loadUser(String username) {
+        return getUserByUsername(username);
+    }
+
+    /**
+     * Brings a user up to date with the repository's copy, which another process may have saved.
+     */
+    default void refresh(User user) {
+    }
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package com.example.banking.ui;
 
 import com.example.banking.domain.Account;
+import com.example.banking.domain.Transaction;
+import com.example.banking.domain.TransactionPage;
+import com.example.banking.domain.TransactionQuery;
 import com.example.banking.user.User;
 import com.example.banking.user.UserManager;
 
+import java.io.UncheckedIOException;
 import java.util.Scanner;
 
 /**
@@ -61,10 +65,26 @@ public class BankingUI {
         String password = scanner.nextLine();
         
         currentUser = userManager.authenticateUser(username, password);
+        printLoginResult();
+    }
+
+    /**
+     * Starts the session already logged in as the given user, without asking for a password.
+     * The banking API uses this to reattach a session it authenticated before it restarted;
+     * a user that no longer exists is reported like a failed login. The caller must have
+     * checked the API's {@code ResumeProof} for the user first.
+     */
+    public void resume(String username) {
+        currentUser = userManager.findUser(username);
+        printLoginResult();
+    }
+
+    private void printLoginResult() {
         if (currentUser == null) {
             System.out.println("Authentication failed. Invalid username or password.");
         } else {
             System.out.println("Welcome, " + currentUser.getUsername() + "!");
+            System.out.println("Current Balance: $" + currentUser.getAccount().getBalance());
         }
     }
 
@@ -91,6 +111,8 @@ public class BankingUI {
         System.out.println("3. List Transactions");
         System.out.println("4. Logout");
         System.out.println("5. Exit Application");
+        System.out.println("6. Transfer");
+        System.out.println("7. Query Transactions");
         System.out.print("Please choose an option: ");
         
         int choice = readIntInput();
@@ -99,7 +121,11 @@ public class BankingUI {
         switch (choice) {
             case 1: handleDeposit(account); break;
             case 2: handleWithdrawal(account); break;
-            case 3: account.listTransactions(); break;
+            case 3:
+                // Another process may have credited the account, e.g. with a transfer
+                userManager.refreshUser(currentUser);
+                account.listTransactions();
+                break;
             case 4: 
                 currentUser = null;
                 System.out.println("Logged out successfully.");
@@ -108,6 +134,11 @@ public class BankingUI {
                 currentUser = null;
                 System.exit(0);
                 break;
+            case 6: handleTransfer(account); break;
+            case 7:
+                userManager.refreshUser(currentUser);
+                handleQuery(account);
+                break;
             default:
                 System.out.println("Invalid option. Please try again.");
         }
@@ -117,7 +148,11 @@ public class BankingUI {
         System.out.print("Enter amount to deposit: ");
         double amount = readDoubleInput();
         if (amount > 0) {
-            account.deposit(amount);
+            try {
+                account.deposit(amount);
+            } catch (UncheckedIOException e) {
+                printNotSaved(e);
+            }
         } else {
             System.out.println("Deposit amount must be positive.");
         }
@@ -127,12 +162,87 @@ public class BankingUI {
         System.out.print("Enter amount to withdraw: ");
         double amount = readDoubleInput();
         if (amount > 0) {
-            account.withdraw(amount);
+            try {
+                account.withdraw(amount);
+            } catch (UncheckedIOException e) {
+                printNotSaved(e);
+            }
         } else {
             System.out.println("Withdrawal amount must be positive.");
         }
     }
 
+    private void handleTransfer(Account account) {
+        System.out.print("Recipient username: ");
+        String recipient = scanner.nextLine().trim();
+        System.out.print("Enter amount to transfer: ");
+        double amount = readDoubleInput();
+        if (amount <= 0) {
+            System.out.println("Transfer amount must be positive.");
+            return;
+        }
+
+        UserManager.TransferResult result;
+        try {
+            result = userManager.transfer(currentUser.getUsername(), recipient, amount);
+        } catch (UncheckedIOException e) {
+            printNotSaved(e);
+            return;
+        }
+        switch (result) {
+            case SUCCESS:
+                System.out.println("Successfully transferred $" + amount + " to " + recipient);
+                System.out.println("Current Balance: $" + account.getBalance());
+                break;
+            case INSUFFICIENT_FUNDS:
+                System.out.println("Insufficient funds. Current balance: $" + account.getBalance());
+                break;
+            case SAME_ACCOUNT:
+                System.out.println("Cannot transfer to your own account.");
+                break;
+            case UNKNOWN_SENDER:
+                System.out.println("Cannot transfer from an account that no longer exists.");
+                break;
+            case UNKNOWN_RECIPIENT:
+                System.out.println("Recipient not found: " + recipient);
+                break;
+            default:
+                System.out.println("Transfer amount must be positive.");
+        }
+    }
+
+    /**
+     * Reports an operation that could not be saved, and so was not applied.
+     */
+    private static void printNotSaved(UncheckedIOException e) {
+        System.out.println("Error saving the operation, so it was not applied: " + e.getCause().getMessage());
+    }
+
+    private void handleQuery(Account account) {
+        System.out.print("Query: ");
+        TransactionQuery query;
+        try {
+            query = TransactionQuery.parse(scanner.nextLine());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid query: " + e.getMessage());
+            return;
+        }
+
+        TransactionPage page = account.query(query);
+        System.out.println("\n===== Transaction Query =====");
+        for (TransactionPage.Entry entry : page.getEntries()) {
+            Transaction transaction = entry.getTransaction();
+            System.out.println("#" + entry.getSequence() + " " + transaction
+                    + String.format(" -> $%.2f", transaction.getBalanceAfter()));
+        }
+        if (page.getNextCursor() != null) {
+            System.out.println("Next cursor: " + page.getNextCursor());
+        }
+        if (page.getHeadSequence() >= 0) {
+            System.out.println("Head sequence: " + page.getHeadSequence());
+        }
+    }
+
     private int readIntInput() {
         try {
             int input = Integer.parseInt(scanner.nextLine());
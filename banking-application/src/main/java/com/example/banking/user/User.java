@@ -16,6 +16,7 @@ public class User implements Serializable {
     private String username;
     private String passwordHash;
     private Account account;
+    private long version; // Bumped by the repository on every save
     private transient UserManager userManager; // Not serialized
 
     /**
@@ -76,4 +77,25 @@ public class User implements Serializable {
     public String getPasswordHash() {
         return passwordHash;
     }
+
+    /**
+     * Gets the version of this user as last read from or written to storage.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Takes on the password, account state and version of a newer copy of this user,
+     * e.g. one another process saved. This object stays the one the application holds.
+     */
+    public void refreshFrom(User stored) {
+        this.passwordHash = stored.passwordHash;
+        this.account.refreshFrom(stored.account);
+        this.version = stored.version;
+    }
 }
\ No newline at end of file
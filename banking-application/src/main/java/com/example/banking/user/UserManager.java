@@ -1,18 +1,41 @@
 package com.example.banking.user;
 
+import com.example.banking.domain.Account;
 import com.example.banking.persistence.UserRepository;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
  * Manages users in the banking system.
  */
 public class UserManager {
+    /**
+     * Outcome of a transfer between two accounts.
+     */
+    public enum TransferResult {
+        SUCCESS,
+        INVALID_AMOUNT,
+        SAME_ACCOUNT,
+        UNKNOWN_SENDER,
+        UNKNOWN_RECIPIENT,
+        INSUFFICIENT_FUNDS
+    }
+
     private Map<String, User> users;
     private UserRepository repository;
+    /**
+     * Serializes transfers within this process. Finer locking would not let transfers run in
+     * parallel: a shared repository saves each one under a lock on the whole data file, and a
+     * banking process runs one command at a time anyway.
+     */
+    private final ReentrantLock transferLock = new ReentrantLock();
 
     public UserManager() {
-        this.users = new HashMap<>();
+        this.users = new ConcurrentHashMap<>();
         // Add some default users for testing
         registerUser("admin", "admin123");
         registerUser("john", "pass123");
@@ -20,7 +43,7 @@ public class UserManager {
     
     // Constructor with dependency injection for repository
     public UserManager(UserRepository repository) {
-        this.users = new HashMap<>();
+        this.users = new ConcurrentHashMap<>();
         this.repository = repository;
         
         // Load users from repository if available
@@ -62,6 +85,15 @@ public class UserManager {
         return null;
     }
     
+    /**
+     * Looks up a user without checking a password.
+     *
+     * @return the user, or null if there is none with that name
+     */
+    public User findUser(String username) {
+        return users.get(username);
+    }
+    
     public boolean deleteUser(String username) {
         if (!users.containsKey(username)) {
             return false;
@@ -77,6 +109,76 @@ public class UserManager {
         return true;
     }
     
+    /**
+     * Transfers an amount between two accounts atomically.
+     * Transfers run one at a time, so concurrent transfers in opposite directions cannot deadlock.
+     * Both legs share one reference so they can be linked across histories.
+     *
+     * @throws java.io.UncheckedIOException if the transfer could not be saved; neither leg is then applied
+     */
+    public TransferResult transfer(String fromUsername, String toUsername, double amount) {
+        if (amount <= 0) {
+            return TransferResult.INVALID_AMOUNT;
+        }
+        if (fromUsername.equals(toUsername)) {
+            return TransferResult.SAME_ACCOUNT;
+        }
+        User sender = users.get(fromUsername);
+        if (sender == null) {
+            return TransferResult.UNKNOWN_SENDER;
+        }
+        User recipient = findOrLoadUser(toUsername);
+        if (recipient == null) {
+            return TransferResult.UNKNOWN_RECIPIENT;
+        }
+
+        // ThreadLocalRandom avoids the shared SecureRandom behind UUID.randomUUID()
+        String reference = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        // Either account may have been changed by another process; both legs are applied to the
+        // stored accounts and persisted with a single write
+        transferLock.lock();
+        try {
+            return update(List.of(sender, recipient), () -> {
+                Account source = sender.getAccount();
+                if (!source.transferOut(amount, toUsername, reference)) {
+                    return TransferResult.INSUFFICIENT_FUNDS;
+                }
+                recipient.getAccount().transferIn(amount, fromUsername, reference);
+                return TransferResult.SUCCESS;
+            });
+        } finally {
+            transferLock.unlock();
+        }
+    }
+
+    /**
+     * Applies a change to a user's account and persists it. The account is first brought up
+     * to date with the repository, where another process may have changed it, e.g. by a
+     * transfer, and no other process can save it until the change is stored.
+     *
+     * @return the change's result
+     * @throws java.io.UncheckedIOException if the change could not be saved
+     */
+    public <T> T updateUser(User user, Supplier<T> change) {
+        return update(List.of(user), change);
+    }
+
+    /**
+     * Brings a user's account up to date with the repository before it is read.
+     */
+    public void refreshUser(User user) {
+        if (repository != null && users.containsKey(user.getUsername())) {
+            repository.refresh(user);
+        }
+    }
+
+    private <T> T update(List<User> changed, Supplier<T> change) {
+        if (repository == null) {
+            return change.get();
+        }
+        return repository.update(changed, change);
+    }
+
     /**
      * Updates a user in the repository.
      * This is called after transactions to ensure they are persisted.
@@ -96,4 +198,27 @@ public class UserManager {
             repository.saveAllUsers();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Looks up a user, loading one registered by another process since this one read the
+     * repository.
+     *
+     * @return the user, or null if there is none with that name
+     */
+    private User findOrLoadUser(String username) {
+        User user = users.get(username);
+        if (user != null || repository == null) {
+            return user;
+        }
+        user = repository.loadUser(username);
+        if (user != null) {
+            user.setUserManager(this);
+            user.getAccount().setOwner(user);
+            User raced = users.putIfAbsent(username, user);
+            if (raced != null) {
+                return raced;
+            }
+        }
+        return user;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.banking;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ResumeProof Tests")
+class ResumeProofTest {
+
+    private static final byte[] KEY = new byte[32];
+    private static final long NOW = 1_700_000_000_000L;
+
+    static {
+        Arrays.fill(KEY, (byte) 7);
+    }
+
+    private static String proof(byte[] key, String username, long expiresAtMillis) {
+        byte[] signature = ResumeProof.sign(key, username + '\n' + expiresAtMillis);
+        return expiresAtMillis + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    @Test
+    @DisplayName("Should accept an unexpired proof for the user")
+    void shouldAcceptValidProof() {
+        assertThat(ResumeProof.verify(KEY, "alice", proof(KEY, "alice", NOW + 1000), NOW)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should refuse a proof made for another user")
+    void shouldRefuseProofForAnotherUser() {
+        assertThat(ResumeProof.verify(KEY, "alice", proof(KEY, "bob", NOW + 1000), NOW)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should refuse an expired proof")
+    void shouldRefuseExpiredProof() {
+        assertThat(ResumeProof.verify(KEY, "alice", proof(KEY, "alice", NOW), NOW)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should refuse a proof signed with another key")
+    void shouldRefuseForgedProof() {
+        // Given
+        byte[] otherKey = new byte[32];
+
+        // When / Then
+        assertThat(ResumeProof.verify(KEY, "alice", proof(otherKey, "alice", NOW + 1000), NOW)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should refuse a missing or malformed proof")
+    void shouldRefuseMalformedProof() {
+        assertThat(ResumeProof.verify(KEY, "alice", "", NOW)).isFalse();
+        assertThat(ResumeProof.verify(KEY, "alice", "not-a-number.abc", NOW)).isFalse();
+        assertThat(ResumeProof.verify(KEY, "alice", (NOW + 1000) + ".!!!", NOW)).isFalse();
+        assertThat(ResumeProof.verify(KEY, "alice", null, NOW)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should refuse any proof without a key file")
+    void shouldRefuseWithoutKeyFile() {
+        // The tests run in the module directory, where the API never writes its key
+        assertThat(ResumeProof.verify("alice", proof(KEY, "alice", System.currentTimeMillis() + 1000))).isFalse();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.banking.benchmark;
+
+import com.example.banking.persistence.FileUserRepository;
+import com.example.banking.user.UserManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures transfer throughput when many threads hammer a small set of hot accounts
+ * in both directions, through the file repository a banking process uses. Every transfer
+ * reads and rewrites the data file under its lock, so this measures that path rather than
+ * in-memory locking.
+ *
+ * Run from the module directory with:
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main TransferContentionBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Threads(4)
+@State(Scope.Benchmark)
+public class TransferContentionBenchmark {
+
+    @Param({"2", "16"})
+    private int hotAccounts;
+
+    private Path directory;
+    private UserManager userManager;
+    private String[] usernames;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        // A fresh file per iteration keeps the transaction lists, and so every rewrite, from growing unbounded
+        directory = Files.createTempDirectory("transfer-benchmark");
+        userManager = new UserManager(new FileUserRepository(directory.resolve("banking_data.ser")));
+        usernames = new String[hotAccounts];
+        for (int i = 0; i < hotAccounts; i++) {
+            usernames[i] = "hot" + i;
+            userManager.registerUser(usernames[i], "password");
+            userManager.findUser(usernames[i]).getAccount().deposit(1_000_000_000.0);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public UserManager.TransferResult transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(hotAccounts);
+        int to = (from + 1 + random.nextInt(hotAccounts - 1)) % hotAccounts;
+        return userManager.transfer(usernames[from], usernames[to], 1.0);
+    }
+}
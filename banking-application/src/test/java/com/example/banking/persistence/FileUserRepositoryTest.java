@@ -1,6 +1,8 @@
 package com.example.banking.persistence;
 
+import com.example.banking.domain.Transaction;
 import com.example.banking.user.User;
+import com.example.banking.user.UserManager;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -41,6 +43,8 @@ class FileUserRepositoryTest {
         if (dataFile.exists()) {
             dataFile.delete();
         }
+        new File("banking_data.ser.lock").delete();
+        new File("banking_data.ser.tmp").delete();
     }
 
     @Nested
@@ -358,4 +362,159 @@ class FileUserRepositoryTest {
                     .containsExactlyInAnyOrder("saveall1", "saveall2");
         }
     }
+
+    @Nested
+    @DisplayName("Shared File Tests")
+    class SharedFileTests {
+
+        @Test
+        @DisplayName("Should keep changes saved by another repository on the same file")
+        void shouldKeepChangesSavedByAnotherRepository() {
+            // Given - two processes loaded the same two users
+            repository.saveUser(new User("alice", "password"));
+            repository.saveUser(new User("bob", "password"));
+            FileUserRepository aliceProcess = new FileUserRepository();
+            FileUserRepository bobProcess = new FileUserRepository();
+
+            // When - each changes only its own user
+            User alice = aliceProcess.getUserByUsername("alice");
+            alice.getAccount().deposit(100.0);
+            aliceProcess.updateUser(alice);
+            User bob = bobProcess.getUserByUsername("bob");
+            bob.getAccount().deposit(50.0);
+            bobProcess.updateUser(bob);
+            bobProcess.saveAllUsers();
+
+            // Then
+            FileUserRepository reloaded = new FileUserRepository();
+            assertThat(reloaded.getUserByUsername("alice").getAccount().getBalance()).isEqualTo(100.0);
+            assertThat(reloaded.getUserByUsername("bob").getAccount().getBalance()).isEqualTo(50.0);
+        }
+
+        @Test
+        @DisplayName("Should keep a transfer credit when the recipient's own process changes the account")
+        void shouldKeepTransferCreditWhenRecipientProcessSaves() {
+            // Given - the sender's and the recipient's processes each loaded both users
+            repository.saveUser(new User("alice", "password"));
+            repository.saveUser(new User("bob", "password"));
+            UserManager aliceProcess = new UserManager(new FileUserRepository());
+            UserManager bobProcess = new UserManager(new FileUserRepository());
+            aliceProcess.findUser("alice").getAccount().deposit(100.0);
+
+            // When - bob's process still holds bob's account from before the transfer
+            UserManager.TransferResult result = aliceProcess.transfer("alice", "bob", 40.0);
+            bobProcess.findUser("bob").getAccount().deposit(10.0);
+
+            // Then
+            assertThat(result).isEqualTo(UserManager.TransferResult.SUCCESS);
+            assertThat(bobProcess.findUser("bob").getAccount().getBalance()).isEqualTo(50.0);
+            FileUserRepository reloaded = new FileUserRepository();
+            assertThat(reloaded.getUserByUsername("alice").getAccount().getBalance()).isEqualTo(60.0);
+            assertThat(reloaded.getUserByUsername("bob").getAccount().getBalance()).isEqualTo(50.0);
+            assertThat(reloaded.getUserByUsername("bob").getAccount().getTransactions())
+                    .extracting(Transaction::getType)
+                    .containsExactly(Transaction.TRANSFER_IN, "Deposit");
+        }
+
+        @Test
+        @DisplayName("Should transfer to a user another process registered after this one loaded")
+        void shouldTransferToUserRegisteredLater() {
+            // Given
+            repository.saveUser(new User("alice", "password"));
+            UserManager aliceProcess = new UserManager(new FileUserRepository());
+            aliceProcess.findUser("alice").getAccount().deposit(100.0);
+            new UserManager(new FileUserRepository()).registerUser("bob", "password");
+
+            // When
+            UserManager.TransferResult result = aliceProcess.transfer("alice", "bob", 30.0);
+
+            // Then
+            assertThat(result).isEqualTo(UserManager.TransferResult.SUCCESS);
+            assertThat(new FileUserRepository().getUserByUsername("bob").getAccount().getBalance()).isEqualTo(30.0);
+        }
+
+        @Test
+        @DisplayName("Should show a transfer credit to the recipient's process before it reads the account")
+        void shouldRefreshRecipientBeforeRead() {
+            // Given
+            repository.saveUser(new User("alice", "password"));
+            repository.saveUser(new User("bob", "password"));
+            UserManager aliceProcess = new UserManager(new FileUserRepository());
+            UserManager bobProcess = new UserManager(new FileUserRepository());
+            aliceProcess.findUser("alice").getAccount().deposit(100.0);
+            aliceProcess.transfer("alice", "bob", 25.0);
+            User bob = bobProcess.findUser("bob");
+
+            // When
+            bobProcess.refreshUser(bob);
+
+            // Then
+            assertThat(bob.getAccount().getBalance()).isEqualTo(25.0);
+            assertThat(bob.getVersion()).isEqualTo(new FileUserRepository().getUserByUsername("bob").getVersion());
+        }
+
+        @Test
+        @DisplayName("Should not bring back a user deleted by another repository")
+        void shouldNotBringBackDeletedUser() {
+            // Given
+            repository.saveUser(new User("alice", "password"));
+            repository.saveUser(new User("bob", "password"));
+            FileUserRepository otherProcess = new FileUserRepository();
+
+            // When
+            otherProcess.deleteUser("bob");
+            repository.saveAllUsers();
+
+            // Then
+            FileUserRepository reloaded = new FileUserRepository();
+            assertThat(reloaded.getAllUsers()).extracting(User::getUsername).containsExactly("alice");
+        }
+    }
+
+    @Nested
+    @DisplayName("Failed Save Tests")
+    class FailedSaveTests {
+
+        @Test
+        @DisplayName("Should not apply a change when the stored users cannot be read")
+        void shouldNotApplyChangeWhenFileIsUnreadable() throws IOException {
+            // Given
+            repository.saveUser(new User("alice", "password"));
+            UserManager process = new UserManager(new FileUserRepository());
+            User alice = process.findUser("alice");
+            try (FileWriter writer = new FileWriter("banking_data.ser")) {
+                writer.write("corrupted");
+            }
+
+            // When / Then
+            assertThatThrownBy(() -> alice.getAccount().deposit(100.0)).isInstanceOf(UncheckedIOException.class);
+            assertThat(alice.getAccount().getBalance()).isEqualTo(0.0);
+            assertThat(alice.getAccount().getTransactions()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should undo both legs of a transfer that cannot be written")
+        void shouldUndoTransferThatCannotBeWritten() {
+            // Given
+            repository.saveUser(new User("alice", "password"));
+            repository.saveUser(new User("bob", "password"));
+            UserManager process = new UserManager(new FileUserRepository());
+            process.findUser("alice").getAccount().deposit(100.0);
+            // A directory where the new file would be written makes the write fail
+            assertThat(new File("banking_data.ser.tmp").mkdir()).isTrue();
+
+            // When / Then
+            assertThatThrownBy(() -> process.transfer("alice", "bob", 40.0)).isInstanceOf(UncheckedIOException.class);
+            assertThat(process.findUser("alice").getAccount().getBalance()).isEqualTo(100.0);
+            assertThat(process.findUser("bob").getAccount().getBalance()).isEqualTo(0.0);
+            assertThat(process.findUser("bob").getAccount().getTransactions()).isEmpty();
+
+            // And the next save still writes the accounts as they are
+            new File("banking_data.ser.tmp").delete();
+            process.findUser("bob").getAccount().deposit(5.0);
+            FileUserRepository reloaded = new FileUserRepository();
+            assertThat(reloaded.getUserByUsername("alice").getAccount().getBalance()).isEqualTo(100.0);
+            assertThat(reloaded.getUserByUsername("bob").getAccount().getBalance()).isEqualTo(5.0);
+        }
+    }
 }
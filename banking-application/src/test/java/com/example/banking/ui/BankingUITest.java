@@ -113,10 +113,36 @@ class BankingUITest {
             // Then
             String output = outputStream.toString();
             assertThat(output).contains("Welcome, testuser!");
+            assertThat(output).contains("Current Balance: $");
             assertThat(output).contains("Logged out successfully.");
             verify(mockUserManager).authenticateUser("testuser", "password");
         }
 
+        @Test
+        @DisplayName("Should resume a session without asking for a password")
+        void shouldResumeSessionWithoutPassword() {
+            // Given
+            String input = "4\n3\n"; // Logout, then exit
+            System.setIn(new ByteArrayInputStream(input.getBytes()));
+
+            when(mockUserManager.findUser("testuser")).thenReturn(mockUser);
+            when(mockUser.getUsername()).thenReturn("testuser");
+            when(mockUser.getAccount()).thenReturn(mockAccount);
+
+            BankingUI ui = new BankingUI(mockUserManager);
+
+            // When
+            ui.resume("testuser");
+            ui.start();
+
+            // Then
+            String output = outputStream.toString();
+            assertThat(output).contains("Welcome, testuser!");
+            assertThat(output).contains("Logged in as: testuser");
+            assertThat(output).contains("Logged out successfully.");
+            verify(mockUserManager, never()).authenticateUser(anyString(), anyString());
+        }
+
         @Test
         @DisplayName("Should handle failed login")
         void shouldHandleFailedLogin() {
@@ -264,6 +290,27 @@ class BankingUITest {
             verify(mockAccount).deposit(100.50);
         }
 
+        @Test
+        @DisplayName("Should report a deposit that could not be saved as an error")
+        void shouldReportDepositThatCouldNotBeSaved() {
+            // Given
+            String input = "1\ntestuser\npassword\n1\n100.50\n4\n3\n"; // Login, deposit, logout, exit
+            System.setIn(new ByteArrayInputStream(input.getBytes()));
+
+            when(mockUserManager.authenticateUser("testuser", "password")).thenReturn(mockUser);
+            doThrow(new UncheckedIOException(new IOException("disk full"))).when(mockAccount).deposit(100.50);
+
+            BankingUI ui = new BankingUI(mockUserManager);
+
+            // When
+            ui.start();
+
+            // Then
+            String output = outputStream.toString();
+            assertThat(output).contains("Error saving the operation, so it was not applied: disk full");
+            assertThat(output).doesNotContain("Successfully deposited");
+        }
+
         @Test
         @DisplayName("Should handle withdrawal operation")
         void shouldHandleWithdrawalOperation() {
@@ -300,6 +347,48 @@ class BankingUITest {
             verify(mockAccount).listTransactions();
         }
 
+        @Test
+        @DisplayName("Should handle transfer operation")
+        void shouldHandleTransferOperation() {
+            // Given
+            String input = "1\ntestuser\npassword\n6\nbob\n25\n4\n3\n"; // Login, transfer, logout, exit
+            System.setIn(new ByteArrayInputStream(input.getBytes()));
+            
+            when(mockUserManager.authenticateUser("testuser", "password")).thenReturn(mockUser);
+            when(mockUserManager.transfer("testuser", "bob", 25.0)).thenReturn(UserManager.TransferResult.SUCCESS);
+            
+            BankingUI ui = new BankingUI(mockUserManager);
+
+            // When
+            ui.start();
+
+            // Then
+            String output = outputStream.toString();
+            assertThat(output).contains("6. Transfer");
+            assertThat(output).contains("Successfully transferred $25.0 to bob");
+            verify(mockUserManager).transfer("testuser", "bob", 25.0);
+        }
+
+        @Test
+        @DisplayName("Should report unknown transfer recipient")
+        void shouldReportUnknownTransferRecipient() {
+            // Given
+            String input = "1\ntestuser\npassword\n6\nghost\n25\n4\n3\n"; // Login, transfer, logout, exit
+            System.setIn(new ByteArrayInputStream(input.getBytes()));
+            
+            when(mockUserManager.authenticateUser("testuser", "password")).thenReturn(mockUser);
+            when(mockUserManager.transfer("testuser", "ghost", 25.0)).thenReturn(UserManager.TransferResult.UNKNOWN_RECIPIENT);
+            
+            BankingUI ui = new BankingUI(mockUserManager);
+
+            // When
+            ui.start();
+
+            // Then
+            String output = outputStream.toString();
+            assertThat(output).contains("Recipient not found: ghost");
+        }
+
         @Test
         @DisplayName("Should handle negative deposit amount")
         void shouldHandleNegativeDepositAmount() {
@@ -379,4 +468,108 @@ class BankingUITest {
             assertThat(output).contains("Logged out successfully.");
         }
     }
+
+    @Nested
+    @DisplayName("Transaction Query Tests")
+    class TransactionQueryTests {
+
+        private Account account;
+
+        @BeforeEach
+        void setUpAccountWithHistory() {
+            account = new Account();
+            account.deposit(100.0);
+            account.withdraw(30.0);
+            account.deposit(50.0);
+            account.deposit(5.0);
+            when(mockUser.getUsername()).thenReturn("testuser");
+            when(mockUser.getAccount()).thenReturn(account);
+            when(mockUserManager.authenticateUser("testuser", "password")).thenReturn(mockUser);
+            outputStream.reset();
+        }
+
+        @Test
+        @DisplayName("Should print matching page with running balances and next cursor")
+        void shouldPrintMatchingPageWithRunningBalances() {
+            // Given
+            String input = "1\ntestuser\npassword\n7\ntype=deposit limit=2\n4\n3\n";
+            System.setIn(new ByteArrayInputStream(input.getBytes()));
+
+            // When
+            new BankingUI(mockUserManager).start();
+
+            // Then
+            String output = outputStream.toString();
+            assertThat(output).contains("===== Transaction Query =====");
+            assertThat(output).containsPattern("#0 \\[[^]]+\\] Deposit: \\$100[.,]00 -> \\$100[.,]00");
+            assertThat(output).containsPattern("#2 \\[[^]]+\\] Deposit: \\$50[.,]00 -> \\$120[.,]00");
+            assertThat(output).doesNotContain("Withdrawal: $");
+            assertThat(output).contains("Next cursor: 3");
+        }
+
+        @Test
+        @DisplayName("Should resume from cursor and filter by amount")
+        void shouldResumeFromCursorAndFilterByAmount() {
+            // Given
+            String input = "1\ntestuser\npassword\n7\ncursor=2 min=10\n4\n3\n";
+            System.setIn(new ByteArrayInputStream(input.getBytes()));
+
+            // When
+            new BankingUI(mockUserManager).start();
+
+            // Then
+            String output = outputStream.toString();
+            assertThat(output).contains("#2 ");
+            assertThat(output).doesNotContain("#0 ").doesNotContain("#3 ");
+            assertThat(output).doesNotContain("Next cursor");
+        }
+
+        @Test
+        @DisplayName("Should return only transactions after since and report the head sequence")
+        void shouldReturnOnlyTransactionsAfterSince() {
+            // Given
+            String input = "1\ntestuser\npassword\n7\nsince=1\n4\n3\n";
+            System.setIn(new ByteArrayInputStream(input.getBytes()));
+
+            // When
+            new BankingUI(mockUserManager).start();
+
+            // Then
+            String output = outputStream.toString();
+            assertThat(output).contains("#2 ").contains("#3 ");
+            assertThat(output).doesNotContain("#0 ").doesNotContain("#1 ");
+            assertThat(output).contains("Head sequence: 3");
+        }
+
+        @Test
+        @DisplayName("Should return nothing for a date range after the history")
+        void shouldReturnNothingForLaterDateRange() {
+            // Given
+            String from = java.time.LocalDateTime.now().plusDays(1).withNano(0).toString();
+            String input = "1\ntestuser\npassword\n7\nfrom=" + from + "\n4\n3\n";
+            System.setIn(new ByteArrayInputStream(input.getBytes()));
+
+            // When
+            new BankingUI(mockUserManager).start();
+
+            // Then
+            String output = outputStream.toString();
+            assertThat(output).contains("===== Transaction Query =====");
+            assertThat(output).doesNotContain("Deposit: $");
+        }
+
+        @Test
+        @DisplayName("Should reject malformed query")
+        void shouldRejectMalformedQuery() {
+            // Given
+            String input = "1\ntestuser\npassword\n7\nlimit=0\n4\n3\n";
+            System.setIn(new ByteArrayInputStream(input.getBytes()));
+
+            // When
+            new BankingUI(mockUserManager).start();
+
+            // Then
+            assertThat(outputStream.toString()).contains("Invalid query: limit must be between 1 and 500");
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.banking.user;
 
+import com.example.banking.domain.Transaction;
 import com.example.banking.persistence.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -9,12 +10,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -179,6 +190,111 @@ class UserManagerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Transfer Tests")
+    class TransferTests {
+
+        @BeforeEach
+        void setUp() {
+            when(mockRepository.getAllUsers()).thenReturn(Collections.emptyList());
+            when(mockRepository.update(anyCollection(), any())).thenAnswer(invocation ->
+                    invocation.<Supplier<?>>getArgument(1).get());
+            userManager = new UserManager(mockRepository);
+            userManager.registerUser("alice", "alicepass");
+            userManager.registerUser("bob", "bobpass");
+            userManager.authenticateUser("alice", "alicepass").getAccount().deposit(100.0);
+        }
+
+        @Test
+        @DisplayName("Should move funds and record linked entries in both histories")
+        void shouldTransferFundsWithLinkedEntries() {
+            // When
+            UserManager.TransferResult result = userManager.transfer("alice", "bob", 40.0);
+
+            // Then
+            User alice = userManager.authenticateUser("alice", "alicepass");
+            User bob = userManager.authenticateUser("bob", "bobpass");
+            assertThat(result).isEqualTo(UserManager.TransferResult.SUCCESS);
+            assertThat(alice.getAccount().getBalance()).isEqualTo(60.0);
+            assertThat(bob.getAccount().getBalance()).isEqualTo(40.0);
+
+            Transaction outgoing = alice.getAccount().getTransactions().get(1);
+            Transaction incoming = bob.getAccount().getTransactions().get(0);
+            assertThat(outgoing.getType()).isEqualTo(Transaction.TRANSFER_OUT);
+            assertThat(outgoing.getCounterparty()).isEqualTo("bob");
+            assertThat(incoming.getType()).isEqualTo(Transaction.TRANSFER_IN);
+            assertThat(incoming.getCounterparty()).isEqualTo("alice");
+            assertThat(incoming.getReference()).isNotNull().isEqualTo(outgoing.getReference());
+            verify(mockRepository).update(eq(List.of(alice, bob)), any());
+        }
+
+        @Test
+        @DisplayName("Should reject transfer exceeding the balance without touching either account")
+        void shouldRejectTransferWithInsufficientFunds() {
+            // When
+            UserManager.TransferResult result = userManager.transfer("alice", "bob", 500.0);
+
+            // Then
+            assertThat(result).isEqualTo(UserManager.TransferResult.INSUFFICIENT_FUNDS);
+            assertThat(userManager.authenticateUser("alice", "alicepass").getAccount().getBalance()).isEqualTo(100.0);
+            assertThat(userManager.authenticateUser("bob", "bobpass").getAccount().getTransactions()).isEmpty();
+            verify(mockRepository, never()).saveAllUsers();
+        }
+
+        @Test
+        @DisplayName("Should reject unknown senders and recipients, self transfers and non-positive amounts")
+        void shouldRejectInvalidTransfers() {
+            assertThat(userManager.transfer("alice", "nobody", 10.0))
+                    .isEqualTo(UserManager.TransferResult.UNKNOWN_RECIPIENT);
+            assertThat(userManager.transfer("nobody", "alice", 10.0))
+                    .isEqualTo(UserManager.TransferResult.UNKNOWN_SENDER);
+            assertThat(userManager.transfer("alice", "alice", 10.0))
+                    .isEqualTo(UserManager.TransferResult.SAME_ACCOUNT);
+            assertThat(userManager.transfer("alice", "bob", 0))
+                    .isEqualTo(UserManager.TransferResult.INVALID_AMOUNT);
+        }
+
+        @Test
+        @DisplayName("Should conserve funds without deadlock under opposing concurrent transfers")
+        void shouldConserveFundsUnderConcurrentTransfers() throws Exception {
+            // Given
+            userManager.authenticateUser("bob", "bobpass").getAccount().deposit(100.0);
+            int threads = 8;
+            int transfersPerThread = 500;
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+
+            // When - half the threads push alice -> bob, half push bob -> alice
+            for (int t = 0; t < threads; t++) {
+                boolean forward = t % 2 == 0;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < transfersPerThread; i++) {
+                        if (forward) {
+                            userManager.transfer("alice", "bob", 1.0);
+                        } else {
+                            userManager.transfer("bob", "alice", 1.0);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            pool.shutdown();
+
+            // Then
+            double alice = userManager.authenticateUser("alice", "alicepass").getAccount().getBalance();
+            double bob = userManager.authenticateUser("bob", "bobpass").getAccount().getBalance();
+            assertThat(alice + bob).isEqualTo(200.0);
+            assertThat(alice).isGreaterThanOrEqualTo(0.0);
+            assertThat(bob).isGreaterThanOrEqualTo(0.0);
+        }
+    }
+
     @Nested
     @DisplayName("User Deletion Tests")
     class UserDeletionTests {
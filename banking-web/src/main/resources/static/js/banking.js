@@ -7,6 +7,11 @@ const API_BASE_URL = window.BANKING_CONFIG ? window.BANKING_CONFIG.API_BASE_URL
 // Global state
 let currentUser = null;
 let currentCredentials = null;
+// Transactions already fetched and the newest sequence number among them,
+// so a refresh only downloads what was added since
+let transactionCache = { items: [], headSequence: null };
+// Server-sent events for the logged-in account, open while logged in
+let accountStream = null;
 
 // Initialize the application
 document.addEventListener('DOMContentLoaded', function() {
@@ -145,11 +150,13 @@ async function login() {
         if (response) {
             currentUser = response.username;
             currentCredentials = { username, password };
+            transactionCache = { items: [], headSequence: null };
             
             document.getElementById('currentUser').textContent = currentUser;
             document.getElementById('currentBalance').textContent = response.balance.toFixed(2);
             
             showBankingSection();
+            openAccountStream();
             showMessage(`Welcome back, ${currentUser}!`, 'success');
             clearLoginForm();
         }
@@ -159,12 +166,44 @@ async function login() {
 }
 
 function logout() {
+    closeAccountStream();
     currentUser = null;
     currentCredentials = null;
+    transactionCache = { items: [], headSequence: null };
     showLoginSection();
     showMessage('Logged out successfully', 'info');
 }
 
+// Account Event Stream
+function openAccountStream() {
+    closeAccountStream();
+    accountStream = new EventSource(`${API_BASE_URL}/stream`, { withCredentials: true });
+
+    accountStream.onopen = () => updateApiStatus('✅ Online', 'success');
+
+    accountStream.addEventListener('balance', event => {
+        const update = JSON.parse(event.data);
+        document.getElementById('currentBalance').textContent = update.balance.toFixed(2);
+    });
+
+    accountStream.addEventListener('transaction', () => {
+        // Pull just the new rows if the list is on screen; otherwise the next open will
+        if (!document.getElementById('transactionsSection').classList.contains('hidden')) {
+            getTransactions();
+        }
+    });
+
+    // EventSource reconnects by itself; only report the API as down while it is retrying
+    accountStream.onerror = () => checkApiStatus();
+}
+
+function closeAccountStream() {
+    if (accountStream) {
+        accountStream.close();
+        accountStream = null;
+    }
+}
+
 function clearLoginForm() {
     document.getElementById('username').value = '';
     document.getElementById('password').value = '';
@@ -259,17 +298,27 @@ async function getTransactions() {
     }
 
     try {
-        const response = await makeApiCall('/transactions', 'POST', {
-            username: currentCredentials.username,
-            password: currentCredentials.password
-        });
+        let query = transactionCache.headSequence !== null ? `?since=${transactionCache.headSequence}` : '';
+        // Follow the next-page cursor until the server has sent everything newer than our head
+        while (query !== null) {
+            const response = await fetch(`${API_BASE_URL}/transactions${query}`, { credentials: 'include' });
+            if (!response.ok) {
+                throw new Error(`HTTP ${response.status}: ${response.statusText}`);
+            }
 
-        if (response && Array.isArray(response)) {
-            displayTransactions(response);
-            showTransactionsSection();
-        } else {
-            showMessage('No transactions found', 'info');
+            const page = await response.json();
+            transactionCache.items = transactionCache.items.concat(page);
+
+            const headSequence = response.headers.get('X-Head-Sequence');
+            if (headSequence !== null) {
+                transactionCache.headSequence = parseInt(headSequence, 10);
+            }
+            const nextCursor = response.headers.get('X-Next-Cursor');
+            query = nextCursor !== null ? `?cursor=${nextCursor}` : null;
         }
+
+        displayTransactions(transactionCache.items);
+        showTransactionsSection();
     } catch (error) {
         showMessage('Failed to get transactions: ' + error.message, 'error');
     }
@@ -334,5 +383,9 @@ document.addEventListener('keydown', function(event) {
     }
 });
 
-// Auto-refresh API status every 30 seconds
-setInterval(checkApiStatus, 30000);
+// Auto-refresh API status every 30 seconds, unless an open event stream already shows it is up
+setInterval(() => {
+    if (!accountStream || accountStream.readyState !== EventSource.OPEN) {
+        checkApiStatus();
+    }
+}, 30000);